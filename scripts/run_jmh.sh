@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+if [[ $# -lt 1 ]]; then
+  echo "Usage: $0 <benchmark_regex> [jmh_args...]"
+  exit 1
+fi
+
+ROOT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+CLASSPATH_FILE="$ROOT_DIR/target/jmh.classpath"
+
+cd "$ROOT_DIR"
+./mvnw -B -q test-compile dependency:build-classpath \
+  -Dmdep.includeScope=test \
+  -Dmdep.outputFile="$CLASSPATH_FILE"
+
+java -cp "target/test-classes:target/classes:$(cat "$CLASSPATH_FILE")" org.openjdk.jmh.Main "$@"
@@ -9,24 +9,33 @@ import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 import java.util.stream.Stream;
 
 
@@ -34,6 +43,11 @@ import java.util.stream.Stream;
 @Service
 public class NEUClient {
     private static final String NEU_SOURCE_KEY = "NEU-ITEMS";
+    private static final int HASH_READ_BATCH_SIZE = 256;
+    private static final long TRANSFER_CHUNK_BYTES = 1L << 20;
+    private static final String MANIFEST_SUFFIX = ".manifest";
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(NEUClient::newSha256);
     private final Path itemsDir;
     private final String repoUrl;
     private final String branch;
@@ -85,10 +99,8 @@ public class NEUClient {
         if (existing != null && hasItems && !isRefreshDue(existing.getUpdatedAt(), Instant.now())) {
             return false;
         }
-        if (Files.exists(itemsDir)) {
-            deleteDirectory(itemsDir);
-        }
-        fetchData();
+        Files.createDirectories(itemsDir);
+        downloadAndExtractItems(repoUrl, branch, itemsDir);
         DataSourceHash newHash = computeItemsHash(itemsDir);
         if (existing == null) {
             dataSourceHashRepository.save(newHash);
@@ -107,25 +119,6 @@ public class NEUClient {
         return now.isAfter(lastUpdated.plus(Duration.ofDays(refreshDays)));
     }
 
-    private void deleteDirectory(Path dir) throws IOException {
-        try (Stream<Path> paths = Files.walk(dir)) {
-            paths.sorted(Comparator.reverseOrder())
-                    .forEach(path -> {
-                        try {
-                            Files.deleteIfExists(path);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
-        } catch (RuntimeException e) {
-            if (e.getCause() instanceof IOException io) {
-                throw io;
-            }
-            throw e;
-        }
-    }
-
-
     public synchronized List<JsonNode> loadItemJsons() throws IOException, InterruptedException {
         return readItemJsons(true);
     }
@@ -134,69 +127,94 @@ public class NEUClient {
         return readItemJsons(false);
     }
 
-    private List<JsonNode> readItemJsons(boolean applyFilter) throws IOException, InterruptedException {
+    /**
+     * Reads and hashes every item file in parallel, parsing only files whose content hash differs from
+     * {@code knownContentHashes} (keyed by path relative to the items directory). Changed items are filtered like
+     * {@link #loadItemJsons()}; the returned hashes cover all files and become the next call's known hashes.
+     */
+    public synchronized ItemScan scanItemJsons(Map<String, String> knownContentHashes)
+            throws IOException, InterruptedException {
         refreshItemsIfStale();
-        List<Path> itemPaths;
-        try (Stream<Path> paths = Files.walk(itemsDir)) {
-            itemPaths = paths.filter(path -> Files.isRegularFile(path)
-                            && path.getFileName().toString().endsWith(".json"))
-                    .sorted(Comparator.comparing(Path::toString))
-                    .toList();
-        }
+        Map<String, String> known = knownContentHashes == null ? Map.of() : knownContentHashes;
+        List<ScannedItemFile> scanned = parallelRead(listItemFiles(itemsDir), path -> {
+            byte[] content = Files.readAllBytes(path);
+            String relative = itemsDir.relativize(path).toString();
+            String contentHash = HEX.formatHex(SHA_256.get().digest(content));
+            JsonNode node = contentHash.equals(known.get(relative)) ? null : objectMapper.readTree(content);
+            return new ScannedItemFile(relative, contentHash, node);
+        });
 
-        List<JsonNode> items = new ArrayList<>(itemPaths.size());
-        for (Path path : itemPaths) {
-            try (InputStream input = Files.newInputStream(path)) {
-                items.add(objectMapper.readTree(input));
+        Map<String, String> contentHashes = new HashMap<>(Math.max(16, scanned.size() * 2));
+        List<JsonNode> changed = new ArrayList<>();
+        for (ScannedItemFile file : scanned) {
+            contentHashes.put(file.relativePath(), file.contentHash());
+            if (file.node() != null) {
+                changed.add(file.node());
             }
         }
-        return applyFilter ? itemFilterHandler.filter(items) : items;
+        return new ItemScan(Map.copyOf(contentHashes), itemFilterHandler.filter(changed), changed.size());
     }
 
-    private DataSourceHash computeItemsHash(Path dir) throws IOException {
-        MessageDigest digest;
-        try {
-            digest = MessageDigest.getInstance("SHA-256");
-        } catch (Exception e) {
-            throw new IllegalStateException("SHA-256 not available", e);
-        }
+    private List<JsonNode> readItemJsons(boolean applyFilter) throws IOException, InterruptedException {
+        refreshItemsIfStale();
+        List<JsonNode> items = parallelRead(listItemFiles(itemsDir), path -> objectMapper.readTree(Files.readAllBytes(path)));
+        return applyFilter ? itemFilterHandler.filter(items) : items;
+    }
 
+    private List<Path> listItemFiles(Path dir) throws IOException {
         try (Stream<Path> paths = Files.walk(dir)) {
-            paths.filter(path -> Files.isRegularFile(path)
+            return paths.filter(path -> Files.isRegularFile(path)
                             && path.getFileName().toString().endsWith(".json"))
-                    .map(dir::relativize)
-                    .map(Path::toString)
-                    .sorted()
-                    .forEachOrdered(relative -> {
+                    .sorted(Comparator.comparing(path -> dir.relativize(path).toString()))
+                    .toList();
+        }
+    }
+
+    /**
+     * Applies {@code reader} to every path on the common fork-join pool, keeping the input order.
+     */
+    private static <T> List<T> parallelRead(List<Path> paths, FileReader<T> reader) throws IOException {
+        try {
+            return paths.parallelStream()
+                    .map(path -> {
                         try {
-                            digest.update(relative.getBytes(StandardCharsets.UTF_8));
-                            Path filePath = dir.resolve(relative);
-                            try (InputStream input = Files.newInputStream(filePath)) {
-                                byte[] buffer = new byte[8192];
-                                int read;
-                                while ((read = input.read(buffer)) != -1) {
-                                    digest.update(buffer, 0, read);
-                                }
-                            }
+                            return reader.read(path);
                         } catch (IOException e) {
-                            throw new RuntimeException(e);
+                            throw new UncheckedIOException(e);
                         }
-                    });
-        } catch (RuntimeException e) {
-            if (e.getCause() instanceof IOException io) {
-                throw io;
+                    })
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private DataSourceHash computeItemsHash(Path dir) throws IOException {
+        MessageDigest digest = newSha256();
+        List<Path> files = listItemFiles(dir);
+        // File contents are read in parallel batches but fed to the digest in path order, so the aggregate hash
+        // is identical to the former sequential pass while only one batch is held in memory.
+        for (int start = 0; start < files.size(); start += HASH_READ_BATCH_SIZE) {
+            List<Path> batch = files.subList(start, Math.min(files.size(), start + HASH_READ_BATCH_SIZE));
+            List<byte[]> contents = parallelRead(batch, Files::readAllBytes);
+            for (int i = 0; i < batch.size(); i++) {
+                digest.update(dir.relativize(batch.get(i)).toString().getBytes(StandardCharsets.UTF_8));
+                digest.update(contents.get(i));
             }
-            throw e;
         }
         return new DataSourceHash(NEU_SOURCE_KEY, toHex(digest.digest()));
     }
 
-    private String toHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder(bytes.length * 2);
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return sb.toString();
+    }
+
+    private String toHex(byte[] bytes) {
+        return HEX.formatHex(bytes);
     }
 
     private boolean hasItemFiles(Path dir) throws IOException {
@@ -208,8 +226,6 @@ public class NEUClient {
 
     private void downloadAndExtractItems(String repoUrl, String branch, Path targetDir) throws IOException, InterruptedException {
         String zipUrl = resolveZipUrl(repoUrl, branch);
-        Path normalizedTargetDir = targetDir.toAbsolutePath().normalize();
-        int extracted = 0;
         try (TemporaryFile tempZip = TemporaryFile.create()) {
             Path tempZipPath = tempZip.path();
             HttpClient client = HttpClient.newBuilder()
@@ -223,33 +239,121 @@ public class NEUClient {
             if (response.statusCode() < 200 || response.statusCode() >= 300) {
                 throw new IOException("Failed to download NEU repo zip: HTTP " + response.statusCode());
             }
+            ExtractionResult result = extractChangedItems(tempZipPath, targetDir);
+            log.info("NEU items synced: {} written, {} unchanged, {} removed",
+                    result.writtenCount(), result.unchangedCount(), result.removedCount());
+        }
+    }
 
-            try (ZipInputStream zipStream = new ZipInputStream(Files.newInputStream(tempZipPath))) {
-                ZipEntry entry;
-                while ((entry = zipStream.getNextEntry()) != null) {
-                    if (entry.isDirectory()) {
-                        continue;
-                    }
-                    String name = entry.getName();
-                    int itemsIndex = name.indexOf("/items/");
-                    if (itemsIndex < 0 || !name.endsWith(".json")) {
-                        continue;
-                    }
-                    String relative = name.substring(itemsIndex + "/items/".length());
-                    Path outPath = targetDir.resolve(relative).toAbsolutePath().normalize();
-                    if (!outPath.startsWith(normalizedTargetDir)) {
-                        throw new IOException("Bad zip entry (Zip Slip attempt): " + name);
+    /**
+     * Brings {@code targetDir} in line with the item JSONs of the archive. Entries whose CRC-32 and size match the
+     * manifest of the previous extraction (or, without a manifest entry, the file on disk) are left untouched; changed
+     * entries are written through channel transfers and files that left the archive are deleted. The unchanged files
+     * keep their content, so the per-file hashes of {@link #scanItemJsons(Map)} report only real changes.
+     */
+    private ExtractionResult extractChangedItems(Path zipPath, Path targetDir) throws IOException {
+        Path normalizedTargetDir = targetDir.toAbsolutePath().normalize();
+        Path manifestPath = manifestPath(normalizedTargetDir);
+        Map<String, ManifestEntry> previous = readManifest(manifestPath);
+        Map<String, ManifestEntry> next = new HashMap<>();
+        int written = 0;
+        int unchanged = 0;
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                String name = entry.getName();
+                int itemsIndex = name.indexOf("/items/");
+                if (itemsIndex < 0 || !name.endsWith(".json")) {
+                    continue;
+                }
+                String relative = name.substring(itemsIndex + "/items/".length());
+                Path outPath = targetDir.resolve(relative).toAbsolutePath().normalize();
+                if (!outPath.startsWith(normalizedTargetDir)) {
+                    throw new IOException("Bad zip entry (Zip Slip attempt): " + name);
+                }
+                String key = normalizedTargetDir.relativize(outPath).toString();
+                ManifestEntry expected = new ManifestEntry(entry.getCrc(), entry.getSize());
+                next.put(key, expected);
+                if (isUpToDate(outPath, expected, previous.get(key))) {
+                    unchanged++;
+                    continue;
+                }
+                Files.createDirectories(outPath.getParent());
+                try (ReadableByteChannel source = Channels.newChannel(zipFile.getInputStream(entry));
+                     FileChannel target = FileChannel.open(outPath, StandardOpenOption.CREATE,
+                             StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    long position = 0L;
+                    long transferred;
+                    while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_BYTES)) > 0) {
+                        position += transferred;
                     }
-                    Files.createDirectories(outPath.getParent());
-                    Files.copy(zipStream, outPath, StandardCopyOption.REPLACE_EXISTING);
-                    extracted++;
                 }
+                written++;
             }
         }
 
-        if (extracted == 0) {
+        if (next.isEmpty()) {
             throw new IOException("No item JSONs found in NEU repo zip.");
         }
+
+        int removed = 0;
+        for (Path existing : listItemFiles(normalizedTargetDir)) {
+            if (!next.containsKey(normalizedTargetDir.relativize(existing).toString())) {
+                Files.deleteIfExists(existing);
+                removed++;
+            }
+        }
+        writeManifest(manifestPath, next);
+        return new ExtractionResult(written, unchanged, removed);
+    }
+
+    private boolean isUpToDate(Path file, ManifestEntry expected, ManifestEntry recorded) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) != expected.size()) {
+            return false;
+        }
+        if (recorded != null) {
+            return recorded.equals(expected);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(file));
+        return crc.getValue() == expected.crc();
+    }
+
+    private static Path manifestPath(Path itemsDir) {
+        return itemsDir.resolveSibling(itemsDir.getFileName() + MANIFEST_SUFFIX);
+    }
+
+    private static Map<String, ManifestEntry> readManifest(Path manifestPath) {
+        if (!Files.isRegularFile(manifestPath)) {
+            return Map.of();
+        }
+        Map<String, ManifestEntry> entries = new HashMap<>();
+        try {
+            for (String line : Files.readAllLines(manifestPath, StandardCharsets.UTF_8)) {
+                String[] parts = line.split("\t", 3);
+                if (parts.length == 3) {
+                    entries.put(parts[2], new ManifestEntry(Long.parseLong(parts[0]), Long.parseLong(parts[1])));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable NEU items manifest {}: {}", manifestPath, e.getMessage());
+            return Map.of();
+        }
+        return entries;
+    }
+
+    private static void writeManifest(Path manifestPath, Map<String, ManifestEntry> entries) throws IOException {
+        List<String> lines = new ArrayList<>(entries.size());
+        entries.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> lines.add(entry.getValue().crc() + "\t" + entry.getValue().size() + "\t" + entry.getKey()));
+        Path temp = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        Files.move(temp, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
     private String resolveZipUrl(String repoUrl, String branch) {
@@ -271,6 +375,27 @@ public class NEUClient {
         throw new IllegalArgumentException("Unsupported NEU repo URL, provide a direct .zip URL: " + repoUrl);
     }
 
+    private record ManifestEntry(long crc, long size) {
+    }
+
+    private record ExtractionResult(int writtenCount, int unchangedCount, int removedCount) {
+    }
+
+    public record ItemScan(
+            Map<String, String> contentHashes,
+            List<JsonNode> changedItems,
+            int changedFileCount
+    ) {
+    }
+
+    private record ScannedItemFile(String relativePath, String contentHash, JsonNode node) {
+    }
+
+    @FunctionalInterface
+    private interface FileReader<T> {
+        T read(Path path) throws IOException;
+    }
+
     private record TemporaryFile(Path path) implements AutoCloseable {
 
         private static TemporaryFile create() throws IOException {
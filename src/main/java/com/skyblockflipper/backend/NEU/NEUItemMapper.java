@@ -12,6 +12,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 @Component
 public class NEUItemMapper {
@@ -26,14 +27,11 @@ public class NEUItemMapper {
         if (nodes == null || nodes.isEmpty()) {
             return List.of();
         }
-        List<Item> items = new ArrayList<>(nodes.size());
-        for (JsonNode node : nodes) {
-            Item mapped = fromJson(node);
-            if (mapped != null) {
-                items.add(mapped);
-            }
-        }
-        return items;
+        // Mapping is stateless per node, so large ingestions fan out over the common pool; order is preserved.
+        return nodes.parallelStream()
+                .map(this::fromJson)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     public Item fromJson(JsonNode node) {
@@ -2,6 +2,12 @@ package com.skyblockflipper.backend.NEU.repository;
 
 import com.skyblockflipper.backend.NEU.model.Item;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, String> {
+
+    @Query("select distinct i from Item i left join fetch i.infoLinks")
+    List<Item> findAllWithInfoLinks();
 }
@@ -0,0 +1,26 @@
+package com.skyblockflipper.backend.config.Jobs;
+
+import com.skyblockflipper.backend.service.flipping.FlipRankingIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks up flip snapshots persisted by other processes; local writes request their rebuild after commit.
+ */
+@Component
+@Profile("!compactor")
+@RequiredArgsConstructor
+public class FlipRankingIndexRefreshJob {
+
+    private final FlipRankingIndexService flipRankingIndexService;
+
+    @Scheduled(
+            fixedDelayString = "${config.flip.storage.ranking-index-check-interval:PT2S}",
+            initialDelayString = "${config.flip.storage.ranking-index-check-interval:PT2S}"
+    )
+    public void refreshRankingIndex() {
+        flipRankingIndexService.requestRefresh();
+    }
+}
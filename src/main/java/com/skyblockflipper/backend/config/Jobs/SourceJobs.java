@@ -110,6 +110,10 @@ public class SourceJobs {
         long startedAtMillis = System.currentTimeMillis();
         try {
             int savedItems = neuRepoIngestionService.ingestLatestFilteredItems();
+            if (savedItems == 0) {
+                log.info("copyRepoDaily completed in {} ms (NEU items unchanged, flips kept)", System.currentTimeMillis() - startedAtMillis);
+                return;
+            }
             marketDataProcessingService.latestMarketSnapshot()
                     .ifPresent(snapshot -> {
                         var result = flipGenerationService.regenerateForSnapshot(snapshot.snapshotTimestamp());
@@ -0,0 +1,30 @@
+package com.skyblockflipper.backend.config.Jobs;
+
+import com.skyblockflipper.backend.service.market.TrendingIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!compactor")
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingRefreshJob {
+
+    private final TrendingIndexService trendingIndexService;
+
+    @Scheduled(
+            fixedDelayString = "${config.snapshot.trending.refresh-interval-ms:30000}",
+            initialDelayString = "${config.snapshot.trending.refresh-interval-ms:30000}"
+    )
+    public void refreshTrending() {
+        try {
+            trendingIndexService.refresh();
+        } catch (Exception e) {
+            log.warn("Failed to refresh trending items: {}", ExceptionUtils.getStackTrace(e));
+        }
+    }
+}
@@ -123,6 +123,15 @@ public class AdaptivePollingProperties {
         private double maxPeriodMultiplier = 1.8d;
         @Min(0)
         private int transientRetries = 2;
+        @Min(1)
+        private int commitPageConcurrency = 4;
+        /**
+         * Request budget of the pages fetched after a changed first auctions page. It is separate from
+         * {@code globalMaxRequestsPerSecond}, which paces the probes, so {@code commitPageConcurrency} workers are
+         * not throttled to the probe rate.
+         */
+        @DecimalMin("0.1")
+        private double commitMaxRequestsPerSecond = 10.0d;
 
         public static Endpoint defaults(String name, String path, Duration periodHint) {
             Endpoint endpoint = new Endpoint();
@@ -0,0 +1,234 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.hypixel.model.Auction;
+import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+@Slf4j
+public class AuctionPageScanner {
+
+    static final String COMMIT_DURATION_METRIC = "skyblock.hypixel.auctions.commit_duration";
+    static final String PAGE_LATENCY_METRIC = "skyblock.hypixel.auctions.page_latency";
+    static final int LAST_UPDATED_CHANGED_STATUS = 409;
+
+    private static final String MODE_SEQUENTIAL = "sequential";
+    private static final String MODE_PARALLEL = "parallel";
+    private static final long MAX_PACING_SLEEP_MILLIS = 1_000L;
+
+    private final int maxConcurrency;
+    private final LongSupplier requestDelayMillis;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    public AuctionPageScanner(int maxConcurrency, LongSupplier requestDelayMillis, MeterRegistry meterRegistry) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.requestDelayMillis = requestDelayMillis == null ? () -> 0L : requestDelayMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static AuctionPageScanner sequential() {
+        return new AuctionPageScanner(1, null, null);
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> scan(AuctionResponse firstPage,
+                                                                              IntFunction<HypixelHttpResult<AuctionResponse>> pageFetcher,
+                                                                              Consumer<Auction> onAuction) {
+        if (firstPage == null || !firstPage.isSuccess()) {
+            return HypixelHttpResult.error(500, HttpHeaders.EMPTY, "Invalid first auctions page");
+        }
+        String mode = maxConcurrency > 1 && firstPage.getTotalPages() > 2 ? MODE_PARALLEL : MODE_SEQUENTIAL;
+        long startedAt = System.nanoTime();
+        ScanProgress progress = new ScanProgress();
+        progress.accept(firstPage, onAuction);
+
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result = MODE_PARALLEL.equals(mode)
+                ? scanParallel(firstPage, pageFetcher, onAuction, progress)
+                : scanSequential(firstPage, pageFetcher, onAuction, progress);
+        if (meterRegistry != null) {
+            commitTimer(mode, result.isSuccessful()).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    private HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> scanSequential(AuctionResponse firstPage,
+                                                                                         IntFunction<HypixelHttpResult<AuctionResponse>> pageFetcher,
+                                                                                         Consumer<Auction> onAuction,
+                                                                                         ScanProgress progress) {
+        for (int page = 1; page < firstPage.getTotalPages(); page++) {
+            PageOutcome outcome = fetchPage(page, pageFetcher, MODE_SEQUENTIAL);
+            HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> failure = validate(firstPage, outcome);
+            if (failure != null) {
+                return failure;
+            }
+            progress.accept(outcome.result().body(), onAuction);
+        }
+        return progress.toResult(firstPage);
+    }
+
+    private HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> scanParallel(AuctionResponse firstPage,
+                                                                                       IntFunction<HypixelHttpResult<AuctionResponse>> pageFetcher,
+                                                                                       Consumer<Auction> onAuction,
+                                                                                       ScanProgress progress) {
+        int totalPages = firstPage.getTotalPages();
+        int workers = Math.min(maxConcurrency, totalPages - 1);
+        AtomicInteger nextPage = new AtomicInteger(1);
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        BlockingQueue<PageOutcome> completed = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "auction-page-scan-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int worker = 0; worker < workers; worker++) {
+                executor.execute(() -> {
+                    int page;
+                    while (!aborted.get() && (page = nextPage.getAndIncrement()) < totalPages) {
+                        completed.add(fetchPage(page, pageFetcher, MODE_PARALLEL));
+                    }
+                });
+            }
+            for (int received = 1; received < totalPages; received++) {
+                PageOutcome outcome = completed.take();
+                HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> failure = validate(firstPage, outcome);
+                if (failure != null) {
+                    aborted.set(true);
+                    return failure;
+                }
+                progress.accept(outcome.result().body(), onAuction);
+            }
+            return progress.toResult(firstPage);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aborted.set(true);
+            return HypixelHttpResult.transportError("Interrupted while scanning auction pages");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PageOutcome fetchPage(int page, IntFunction<HypixelHttpResult<AuctionResponse>> pageFetcher, String mode) {
+        if (!awaitRequestBudget()) {
+            return new PageOutcome(page, HypixelHttpResult.transportError("Interrupted while waiting for the request budget"));
+        }
+        long startedAt = System.nanoTime();
+        HypixelHttpResult<AuctionResponse> result;
+        try {
+            result = pageFetcher.apply(page);
+        } catch (RuntimeException e) {
+            result = HypixelHttpResult.transportError(e.getMessage());
+        }
+        if (meterRegistry != null) {
+            pageTimer(mode).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        return new PageOutcome(page, result == null ? HypixelHttpResult.transportError("No response") : result);
+    }
+
+    /**
+     * Waits for a request slot; returns false, with the interrupt flag restored, when interrupted so no page is fetched.
+     */
+    private boolean awaitRequestBudget() {
+        long delay;
+        while ((delay = requestDelayMillis.getAsLong()) > 0L) {
+            try {
+                Thread.sleep(Math.min(delay, MAX_PACING_SLEEP_MILLIS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> validate(AuctionResponse firstPage,
+                                                                                   PageOutcome outcome) {
+        HypixelHttpResult<AuctionResponse> pageResult = outcome.result();
+        if (!pageResult.isSuccessful() || pageResult.body() == null || !pageResult.body().isSuccess()) {
+            return HypixelHttpResult.error(
+                    pageResult.statusCode() == 0 ? 500 : pageResult.statusCode(),
+                    pageResult.headers(),
+                    "Failed to fetch auctions page " + outcome.page()
+            );
+        }
+        long pageLastUpdated = pageResult.body().getLastUpdated();
+        if (firstPage.getLastUpdated() > 0L && pageLastUpdated > 0L && pageLastUpdated != firstPage.getLastUpdated()) {
+            log.info("Aborting auctions scan: lastUpdated changed from {} to {} on page {}",
+                    firstPage.getLastUpdated(),
+                    pageLastUpdated,
+                    outcome.page());
+            return HypixelHttpResult.error(
+                    LAST_UPDATED_CHANGED_STATUS,
+                    pageResult.headers(),
+                    "Auctions lastUpdated changed during scan at page " + outcome.page()
+            );
+        }
+        return null;
+    }
+
+    private Timer commitTimer(String mode, boolean success) {
+        return Timer.builder(COMMIT_DURATION_METRIC)
+                .tag("mode", mode)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer pageTimer(String mode) {
+        return Timer.builder(PAGE_LATENCY_METRIC)
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record PageOutcome(int page, HypixelHttpResult<AuctionResponse> result) {
+    }
+
+    private static final class ScanProgress {
+        private int pagesFetched;
+        private long auctionsSeen;
+        private long auctionsKept;
+
+        private void accept(AuctionResponse page, Consumer<Auction> onAuction) {
+            pagesFetched++;
+            int kept = 0;
+            if (page.getAuctions() != null) {
+                for (Auction auction : page.getAuctions()) {
+                    onAuction.accept(auction);
+                    kept++;
+                }
+            }
+            // Stream-decoded pages already dropped claimed and non-BIN auctions; they still count as seen.
+            auctionsSeen += page instanceof DecodedAuctionPage decoded ? decoded.decodedAuctions() : kept;
+            auctionsKept += kept;
+        }
+
+        private HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> toResult(AuctionResponse firstPage) {
+            return HypixelHttpResult.success(200, HttpHeaders.EMPTY, new HypixelConditionalClient.AuctionScanSummary(
+                    firstPage.getLastUpdated(),
+                    firstPage.getTotalPages(),
+                    firstPage.getTotalAuctions(),
+                    pagesFetched,
+                    auctionsSeen,
+                    auctionsKept
+            ));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.hypixel.model.Auction;
+import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.json.JsonFactory;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes an auctions page straight from the response stream, keeping only unclaimed BIN auctions and only the
+ * fields the commit path retains. Lore, extra, item bytes, bids and bidder lists are skipped without being
+ * materialized as strings or objects.
+ */
+public class AuctionPageStreamDecoder {
+
+    static final String DECODED_METRIC = "skyblock.hypixel.auctions.decoded";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final MeterRegistry meterRegistry;
+
+    public AuctionPageStreamDecoder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public AuctionResponse decode(InputStream body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(ObjectReadContext.empty(), body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Auctions page must be a JSON object");
+            }
+            boolean success = false;
+            int page = 0;
+            int totalPages = 0;
+            int totalAuctions = 0;
+            long lastUpdated = 0L;
+            List<Auction> auctions = new ArrayList<>();
+            int scanned = 0;
+            String field;
+            while ((field = parser.nextName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "success" -> success = parser.getValueAsBoolean();
+                    case "page" -> page = parser.getValueAsInt();
+                    case "totalPages" -> totalPages = parser.getValueAsInt();
+                    case "totalAuctions" -> totalAuctions = parser.getValueAsInt();
+                    case "lastUpdated" -> lastUpdated = parser.getValueAsLong();
+                    case "auctions" -> {
+                        if (value != JsonToken.START_ARRAY) {
+                            parser.skipChildren();
+                            break;
+                        }
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            scanned++;
+                            Auction auction = readAuction(parser);
+                            if (auction != null) {
+                                auctions.add(auction);
+                            }
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            requireObjectEnd(parser);
+            if (meterRegistry != null) {
+                meterRegistry.counter(DECODED_METRIC, "outcome", "kept").increment(auctions.size());
+                meterRegistry.counter(DECODED_METRIC, "outcome", "skipped").increment(scanned - auctions.size());
+            }
+            return new DecodedAuctionPage(success, page, totalPages, totalAuctions, lastUpdated, auctions, scanned);
+        }
+    }
+
+    private Auction readAuction(JsonParser parser) {
+        String uuid = null;
+        String itemName = null;
+        String category = null;
+        String tier = null;
+        long start = 0L;
+        long end = 0L;
+        long startingBid = 0L;
+        long highestBidAmount = 0L;
+        boolean claimed = false;
+        boolean bin = false;
+        String field;
+        while ((field = parser.nextName()) != null) {
+            parser.nextToken();
+            switch (field) {
+                case "uuid" -> uuid = parser.getValueAsString();
+                case "item_name" -> itemName = parser.getValueAsString();
+                case "category" -> category = parser.getValueAsString();
+                case "tier" -> tier = parser.getValueAsString();
+                case "start" -> start = parser.getValueAsLong();
+                case "end" -> end = parser.getValueAsLong();
+                case "starting_bid" -> startingBid = parser.getValueAsLong();
+                case "highest_bid_amount" -> highestBidAmount = parser.getValueAsLong();
+                case "claimed" -> claimed = parser.getValueAsBoolean();
+                case "bin" -> bin = parser.getValueAsBoolean();
+                default -> parser.skipChildren();
+            }
+        }
+        requireObjectEnd(parser);
+        if (!bin || claimed) {
+            return null;
+        }
+        return new Auction(
+                uuid,
+                null,
+                null,
+                List.of(),
+                start,
+                end,
+                itemName,
+                null,
+                null,
+                category,
+                tier,
+                startingBid,
+                false,
+                true,
+                List.of(),
+                highestBidAmount,
+                List.of()
+        );
+    }
+
+    private void requireObjectEnd(JsonParser parser) {
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new IllegalStateException("Truncated auctions page");
+        }
+    }
+}
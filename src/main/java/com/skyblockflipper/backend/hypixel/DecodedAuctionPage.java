@@ -0,0 +1,30 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.hypixel.model.Auction;
+import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
+
+import java.util.List;
+
+/**
+ * An auctions page filtered while it was decoded. {@link #getAuctions()} holds only the kept auctions, while
+ * {@link #decodedAuctions()} still counts every auction the page contained.
+ */
+final class DecodedAuctionPage extends AuctionResponse {
+
+    private final int decodedAuctions;
+
+    DecodedAuctionPage(boolean success,
+                       int page,
+                       int totalPages,
+                       int totalAuctions,
+                       long lastUpdated,
+                       List<Auction> auctions,
+                       int decodedAuctions) {
+        super(success, page, totalPages, totalAuctions, lastUpdated, auctions);
+        this.decodedAuctions = decodedAuctions;
+    }
+
+    int decodedAuctions() {
+        return decodedAuctions;
+    }
+}
@@ -4,6 +4,8 @@ import com.skyblockflipper.backend.hypixel.model.Auction;
 import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
 import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
 import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import com.skyblockflipper.backend.service.market.polling.GlobalRequestLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
@@ -31,12 +33,14 @@ public class HypixelClient {
     private final RestClient restClient;
     private final String apiKey;
     private final BlockingTimeTracker blockingTimeTracker;
+    private final AuctionPageScanner auctionPageScanner;
 
 
     public HypixelClient(String apiUrl, String apiKey) {
         this.restClient = buildRestClient(apiUrl, DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
         this.apiKey = apiKey;
         this.blockingTimeTracker = new BlockingTimeTracker(new com.skyblockflipper.backend.instrumentation.InstrumentationProperties());
+        this.auctionPageScanner = AuctionPageScanner.sequential();
     }
 
     @Autowired
@@ -45,11 +49,16 @@ public class HypixelClient {
             @Value("${config.hypixel.api-key:}") String apiKey,
             @Value("${config.hypixel.connect-timeout:PT2S}") Duration connectTimeout,
             @Value("${config.hypixel.request-timeout:PT8S}") Duration requestTimeout,
-            BlockingTimeTracker blockingTimeTracker
+            @Value("${config.hypixel.auction-page-concurrency:4}") int auctionPageConcurrency,
+            @Value("${config.hypixel.max-requests-per-second:3.0}") double maxRequestsPerSecond,
+            BlockingTimeTracker blockingTimeTracker,
+            MeterRegistry meterRegistry
     ) {
         this.restClient = buildRestClient(apiUrl, connectTimeout, requestTimeout);
         this.apiKey = apiKey;
         this.blockingTimeTracker = blockingTimeTracker;
+        GlobalRequestLimiter pageLimiter = new GlobalRequestLimiter(maxRequestsPerSecond);
+        this.auctionPageScanner = new AuctionPageScanner(auctionPageConcurrency, pageLimiter::reserveDelayMillis, meterRegistry);
     }
 
     public AuctionResponse fetchAuctionPage(int page) {
@@ -89,17 +98,18 @@ public class HypixelClient {
     }
 
     private void scanAllAuctionPages(AuctionResponse firstPage, Consumer<Auction> onAuction) {
-        if (firstPage.getAuctions() != null) {
-            firstPage.getAuctions().forEach(onAuction);
-        }
-        for (int page = 1; page < firstPage.getTotalPages(); page++) {
-            AuctionResponse nextPage = fetchAuctionPage(page);
-            if (nextPage == null) {
-                throw new IllegalStateException("Failed to fetch auctions page " + page + " from Hypixel API.");
-            }
-            if (nextPage.getAuctions() != null) {
-                nextPage.getAuctions().forEach(onAuction);
-            }
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result = auctionPageScanner.scan(
+                firstPage,
+                page -> {
+                    AuctionResponse nextPage = fetchAuctionPage(page);
+                    return nextPage == null
+                            ? HypixelHttpResult.error(500, null, "Failed to fetch auctions page " + page)
+                            : HypixelHttpResult.success(200, null, nextPage);
+                },
+                onAuction
+        );
+        if (!result.isSuccessful()) {
+            throw new IllegalStateException(result.errorMessage() + " from Hypixel API.");
         }
     }
 
@@ -4,6 +4,7 @@ import com.skyblockflipper.backend.hypixel.model.Auction;
 import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
 import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
 import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
@@ -13,6 +14,7 @@ import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestClientResponseException;
 
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.function.Consumer;
@@ -21,8 +23,27 @@ import java.util.function.Consumer;
 public class HypixelConditionalClient {
     private final RestClient restClient;
     private final String apiKey;
+    private final AuctionPageScanner auctionPageScanner;
+    private final AuctionPageStreamDecoder auctionPageDecoder;
 
     public HypixelConditionalClient(String apiUrl, String apiKey, Duration connectTimeout, Duration requestTimeout) {
+        this(apiUrl, apiKey, connectTimeout, requestTimeout, AuctionPageScanner.sequential());
+    }
+
+    public HypixelConditionalClient(String apiUrl,
+                                    String apiKey,
+                                    Duration connectTimeout,
+                                    Duration requestTimeout,
+                                    AuctionPageScanner auctionPageScanner) {
+        this(apiUrl, apiKey, connectTimeout, requestTimeout, auctionPageScanner, new AuctionPageStreamDecoder(null));
+    }
+
+    public HypixelConditionalClient(String apiUrl,
+                                    String apiKey,
+                                    Duration connectTimeout,
+                                    Duration requestTimeout,
+                                    AuctionPageScanner auctionPageScanner,
+                                    AuctionPageStreamDecoder auctionPageDecoder) {
         HttpClient httpClient = HttpClient.newBuilder()
                 .connectTimeout(sanitize(connectTimeout, Duration.ofSeconds(2)))
                 .build();
@@ -33,12 +54,39 @@ public class HypixelConditionalClient {
                 .requestFactory(requestFactory)
                 .build();
         this.apiKey = apiKey == null ? "" : apiKey;
+        this.auctionPageScanner = auctionPageScanner == null ? AuctionPageScanner.sequential() : auctionPageScanner;
+        this.auctionPageDecoder = auctionPageDecoder == null ? new AuctionPageStreamDecoder(null) : auctionPageDecoder;
     }
 
     public HypixelHttpResult<AuctionResponse> fetchAuctionPage(String path, int page, String ifNoneMatch, String ifModifiedSince) {
         return request(path + "?page=" + page, ifNoneMatch, ifModifiedSince, new ParameterizedTypeReference<>() {});
     }
 
+    public HypixelHttpResult<AuctionResponse> fetchBinAuctionPage(String path, int page) {
+        String uri = path + "?page=" + page;
+        try {
+            RestClient.RequestHeadersSpec<?> request = restClient.get().uri(uri);
+            if (StringUtils.hasText(apiKey)) {
+                request = request.header("API-Key", apiKey);
+            }
+            return request.exchange((clientRequest, response) -> {
+                int status = response.getStatusCode().value();
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    return HypixelHttpResult.error(status, response.getHeaders(), "HTTP " + status);
+                }
+                try (InputStream body = response.getBody()) {
+                    return HypixelHttpResult.success(status, response.getHeaders(), auctionPageDecoder.decode(body));
+                } catch (JacksonException | IllegalStateException e) {
+                    log.debug("Hypixel auctions page {} could not be decoded: {}", page, e.getMessage());
+                    return HypixelHttpResult.error(502, response.getHeaders(), "Malformed auctions page " + page);
+                }
+            });
+        } catch (RestClientException e) {
+            log.debug("Hypixel conditional request transport error for {}: {}", uri, e.getMessage());
+            return HypixelHttpResult.transportError(e.getMessage());
+        }
+    }
+
     public HypixelHttpResult<BazaarResponse> fetchBazaar(String path, String ifNoneMatch, String ifModifiedSince) {
         return request(path, ifNoneMatch, ifModifiedSince, new ParameterizedTypeReference<>() {});
     }
@@ -46,43 +94,21 @@ public class HypixelConditionalClient {
     public HypixelHttpResult<AuctionScanSummary> fetchAllAuctionPages(String auctionsPath,
                                                                       AuctionResponse firstPage,
                                                                       Consumer<Auction> onAuction) {
-        if (firstPage == null || !firstPage.isSuccess()) {
-            return HypixelHttpResult.error(500, HttpHeaders.EMPTY, "Invalid first auctions page");
-        }
-        long auctionsSeen = 0L;
-        int pagesFetched = 1;
-
-        if (firstPage.getAuctions() != null) {
-            for (Auction auction : firstPage.getAuctions()) {
-                onAuction.accept(auction);
-                auctionsSeen++;
-            }
-        }
-        for (int page = 1; page < firstPage.getTotalPages(); page++) {
-            HypixelHttpResult<AuctionResponse> nextPageResult = fetchAuctionPage(auctionsPath, page, null, null);
-            if (!nextPageResult.isSuccessful() || nextPageResult.body() == null || !nextPageResult.body().isSuccess()) {
-                return HypixelHttpResult.error(
-                        nextPageResult.statusCode() == 0 ? 500 : nextPageResult.statusCode(),
-                        nextPageResult.headers(),
-                        "Failed to fetch auctions page " + page
-                );
-            }
-            pagesFetched++;
-            if (nextPageResult.body().getAuctions() != null) {
-                for (Auction auction : nextPageResult.body().getAuctions()) {
-                    onAuction.accept(auction);
-                    auctionsSeen++;
-                }
-            }
-        }
+        return auctionPageScanner.scan(
+                firstPage,
+                page -> fetchAuctionPage(auctionsPath, page, null, null),
+                onAuction
+        );
+    }
 
-        return HypixelHttpResult.success(200, HttpHeaders.EMPTY, new AuctionScanSummary(
-                firstPage.getLastUpdated(),
-                firstPage.getTotalPages(),
-                firstPage.getTotalAuctions(),
-                pagesFetched,
-                auctionsSeen
-        ));
+    public HypixelHttpResult<AuctionScanSummary> fetchAllBinAuctionPages(String auctionsPath,
+                                                                         AuctionResponse firstPage,
+                                                                         Consumer<Auction> onAuction) {
+        return auctionPageScanner.scan(
+                firstPage,
+                page -> fetchBinAuctionPage(auctionsPath, page),
+                onAuction
+        );
     }
 
     public record AuctionScanSummary(
@@ -90,7 +116,8 @@ public class HypixelConditionalClient {
             int totalPages,
             int totalAuctions,
             int pagesFetched,
-            long auctionsSeen
+            long auctionsSeen,
+            long auctionsKept
     ) {
     }
 
@@ -96,6 +96,9 @@ public class AhItemBucketRollupEntity {
     @Column(name = "last_snapshot_ts")
     private Long lastSnapshotTs;
 
+    @Column(name = "sketch", columnDefinition = "bytea")
+    private byte[] sketch;
+
     @Column(name = "created_at_epoch_millis", nullable = false)
     private long createdAtEpochMillis;
 
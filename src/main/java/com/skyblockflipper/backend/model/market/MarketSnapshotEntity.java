@@ -40,13 +40,21 @@ public class MarketSnapshotEntity {
     private int bazaarProductCount;
 
     @Setter
-    @Column(name = "auctions_json", nullable = false, columnDefinition = "text")
+    @Column(name = "auctions_json", columnDefinition = "text")
     private String auctionsJson;
 
     @Setter
-    @Column(name = "bazaar_products_json", nullable = false, columnDefinition = "text")
+    @Column(name = "bazaar_products_json", columnDefinition = "text")
     private String bazaarProductsJson;
 
+    @Setter
+    @Column(name = "auctions_blob", columnDefinition = "bytea")
+    private byte[] auctionsBlob;
+
+    @Setter
+    @Column(name = "bazaar_products_blob", columnDefinition = "bytea")
+    private byte[] bazaarProductsBlob;
+
     @Setter
     @Column(name = "created_at_epoch_millis", nullable = false)
     private long createdAtEpochMillis;
@@ -66,4 +74,17 @@ public class MarketSnapshotEntity {
         this.bazaarProductsJson = bazaarProductsJson;
         this.createdAtEpochMillis = System.currentTimeMillis();
     }
+
+    public MarketSnapshotEntity(long snapshotTimestampEpochMillis,
+                                int auctionCount,
+                                int bazaarProductCount,
+                                byte[] auctionsBlob,
+                                byte[] bazaarProductsBlob) {
+        this.snapshotTimestampEpochMillis = snapshotTimestampEpochMillis;
+        this.auctionCount = auctionCount;
+        this.bazaarProductCount = bazaarProductCount;
+        this.auctionsBlob = auctionsBlob;
+        this.bazaarProductsBlob = bazaarProductsBlob;
+        this.createdAtEpochMillis = System.currentTimeMillis();
+    }
 }
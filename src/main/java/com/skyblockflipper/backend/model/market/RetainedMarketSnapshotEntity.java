@@ -39,13 +39,21 @@ public class RetainedMarketSnapshotEntity {
     private int bazaarProductCount;
 
     @Setter
-    @Column(name = "auctions_json", nullable = false, columnDefinition = "text")
+    @Column(name = "auctions_json", columnDefinition = "text")
     private String auctionsJson;
 
     @Setter
-    @Column(name = "bazaar_products_json", nullable = false, columnDefinition = "text")
+    @Column(name = "bazaar_products_json", columnDefinition = "text")
     private String bazaarProductsJson;
 
+    @Setter
+    @Column(name = "auctions_blob", columnDefinition = "bytea")
+    private byte[] auctionsBlob;
+
+    @Setter
+    @Column(name = "bazaar_products_blob", columnDefinition = "bytea")
+    private byte[] bazaarProductsBlob;
+
     @Setter
     @Column(name = "created_at_epoch_millis", nullable = false)
     private long createdAtEpochMillis;
@@ -65,12 +73,36 @@ public class RetainedMarketSnapshotEntity {
                                         String bazaarProductsJson,
                                         long createdAtEpochMillis,
                                         long retainedAtEpochMillis) {
+        this(id,
+                snapshotTimestampEpochMillis,
+                auctionCount,
+                bazaarProductCount,
+                auctionsJson,
+                bazaarProductsJson,
+                null,
+                null,
+                createdAtEpochMillis,
+                retainedAtEpochMillis);
+    }
+
+    public RetainedMarketSnapshotEntity(UUID id,
+                                        long snapshotTimestampEpochMillis,
+                                        int auctionCount,
+                                        int bazaarProductCount,
+                                        String auctionsJson,
+                                        String bazaarProductsJson,
+                                        byte[] auctionsBlob,
+                                        byte[] bazaarProductsBlob,
+                                        long createdAtEpochMillis,
+                                        long retainedAtEpochMillis) {
         this.id = id;
         this.snapshotTimestampEpochMillis = snapshotTimestampEpochMillis;
         this.auctionCount = auctionCount;
         this.bazaarProductCount = bazaarProductCount;
         this.auctionsJson = auctionsJson;
         this.bazaarProductsJson = bazaarProductsJson;
+        this.auctionsBlob = auctionsBlob;
+        this.bazaarProductsBlob = bazaarProductsBlob;
         this.createdAtEpochMillis = createdAtEpochMillis;
         this.retainedAtEpochMillis = retainedAtEpochMillis;
     }
@@ -0,0 +1,12 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.AhItemAnomalySegmentEntity;
+
+import java.util.List;
+
+public interface AhItemAnomalySegmentBatchRepository {
+
+    int[] insertBatch(List<AhItemAnomalySegmentEntity> segments);
+
+    int deleteBucket(String bucketGranularity, long bucketStartEpochMillis);
+}
@@ -0,0 +1,95 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.AhItemAnomalySegmentEntity;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+@Repository
+public class AhItemAnomalySegmentBatchRepositoryImpl implements AhItemAnomalySegmentBatchRepository {
+
+    private static final String INSERT_SQL = """
+            insert into ah_item_anomaly_segment (
+                bucket_start_epoch_millis,
+                bucket_end_epoch_millis,
+                bucket_granularity,
+                item_key,
+                segment_start_epoch_millis,
+                segment_end_epoch_millis,
+                representative_snapshot_ts,
+                peak_snapshot_ts,
+                sample_count,
+                anomaly_score,
+                reason_code,
+                fragmented,
+                median_bin_lowest5_mean,
+                median_bin_p50,
+                median_bin_p95,
+                median_bid_p50,
+                median_bin_count,
+                median_ending_soon_count,
+                created_at_epoch_millis,
+                updated_at_epoch_millis
+            ) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String DELETE_BUCKET_SQL = """
+            delete from ah_item_anomaly_segment
+            where bucket_granularity = ?
+              and bucket_start_epoch_millis = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AhItemAnomalySegmentBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] insertBatch(List<AhItemAnomalySegmentEntity> segments) {
+        if (segments == null || segments.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AhItemAnomalySegmentEntity segment = segments.get(i);
+                ps.setLong(1, segment.getBucketStartEpochMillis());
+                ps.setLong(2, segment.getBucketEndEpochMillis());
+                ps.setString(3, segment.getBucketGranularity());
+                ps.setString(4, segment.getItemKey());
+                ps.setLong(5, segment.getSegmentStartEpochMillis());
+                ps.setLong(6, segment.getSegmentEndEpochMillis());
+                ps.setObject(7, segment.getRepresentativeSnapshotTs(), Types.BIGINT);
+                ps.setObject(8, segment.getPeakSnapshotTs(), Types.BIGINT);
+                ps.setInt(9, segment.getSampleCount());
+                ps.setDouble(10, segment.getAnomalyScore());
+                ps.setString(11, segment.getReasonCode());
+                ps.setBoolean(12, segment.isFragmented());
+                ps.setObject(13, segment.getMedianBinLowest5Mean(), Types.DOUBLE);
+                ps.setObject(14, segment.getMedianBinP50(), Types.DOUBLE);
+                ps.setObject(15, segment.getMedianBinP95(), Types.DOUBLE);
+                ps.setObject(16, segment.getMedianBidP50(), Types.DOUBLE);
+                ps.setObject(17, segment.getMedianBinCount(), Types.DOUBLE);
+                ps.setObject(18, segment.getMedianEndingSoonCount(), Types.DOUBLE);
+                ps.setLong(19, segment.getCreatedAtEpochMillis());
+                ps.setLong(20, segment.getUpdatedAtEpochMillis());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return segments.size();
+            }
+        });
+    }
+
+    @Override
+    public int deleteBucket(String bucketGranularity, long bucketStartEpochMillis) {
+        return jdbcTemplate.update(DELETE_BUCKET_SQL, bucketGranularity, bucketStartEpochMillis);
+    }
+}
@@ -0,0 +1,23 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.AhItemBucketRollupEntity;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface AhItemBucketRollupBatchRepository {
+
+    void scanBucketRollups(String bucketGranularity,
+                           long fromInclusive,
+                           long toExclusive,
+                           int fetchSize,
+                           Consumer<AhItemBucketRollupEntity> consumer);
+
+    int[] insertBatch(List<AhItemBucketRollupEntity> rollups);
+
+    int deleteBucket(String bucketGranularity, long bucketStartEpochMillis);
+
+    long countBucketRollupsWithoutSketch(String bucketGranularity, long fromInclusive, long toExclusive);
+
+    int clearSketches(String bucketGranularity, long fromInclusive, long toExclusive);
+}
@@ -0,0 +1,199 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.AhItemBucketRollupEntity;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+@Repository
+public class AhItemBucketRollupBatchRepositoryImpl implements AhItemBucketRollupBatchRepository {
+
+    private static final String SCAN_BUCKET_ROLLUPS_SQL = """
+            select
+                bucket_start_epoch_millis,
+                bucket_end_epoch_millis,
+                bucket_granularity,
+                item_key,
+                sample_count,
+                valid_sample_count,
+                anomaly_sample_count,
+                partial,
+                representative_snapshot_ts,
+                median_bin_p50,
+                first_snapshot_ts,
+                last_snapshot_ts,
+                sketch
+            from ah_item_bucket_rollup
+            where bucket_granularity = ?
+              and bucket_start_epoch_millis >= ?
+              and bucket_start_epoch_millis < ?
+            order by item_key asc, bucket_start_epoch_millis asc
+            """;
+
+    private static final String INSERT_SQL = """
+            insert into ah_item_bucket_rollup (
+                bucket_start_epoch_millis,
+                bucket_end_epoch_millis,
+                bucket_granularity,
+                item_key,
+                sample_count,
+                valid_sample_count,
+                anomaly_sample_count,
+                partial,
+                representative_snapshot_ts,
+                median_bin_lowest5_mean,
+                median_bin_p50,
+                median_bin_p95,
+                median_bid_p50,
+                median_bin_count,
+                median_ending_soon_count,
+                p10_bin_p50,
+                p25_bin_p50,
+                p75_bin_p50,
+                p90_bin_p50,
+                min_bin_p50,
+                max_bin_p50,
+                winsorized_avg_bin_p50,
+                first_snapshot_ts,
+                last_snapshot_ts,
+                sketch,
+                created_at_epoch_millis,
+                updated_at_epoch_millis
+            ) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String DELETE_BUCKET_SQL = """
+            delete from ah_item_bucket_rollup
+            where bucket_granularity = ?
+              and bucket_start_epoch_millis = ?
+            """;
+
+    private static final String COUNT_WITHOUT_SKETCH_SQL = """
+            select count(*)
+            from ah_item_bucket_rollup
+            where bucket_granularity = ?
+              and bucket_start_epoch_millis >= ?
+              and bucket_start_epoch_millis < ?
+              and sketch is null
+            """;
+
+    private static final String CLEAR_SKETCHES_SQL = """
+            update ah_item_bucket_rollup
+            set sketch = null
+            where bucket_granularity = ?
+              and bucket_start_epoch_millis >= ?
+              and bucket_start_epoch_millis < ?
+              and sketch is not null
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AhItemBucketRollupBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void scanBucketRollups(String bucketGranularity,
+                                  long fromInclusive,
+                                  long toExclusive,
+                                  int fetchSize,
+                                  Consumer<AhItemBucketRollupEntity> consumer) {
+        Objects.requireNonNull(consumer, "consumer must not be null");
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SCAN_BUCKET_ROLLUPS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setString(1, bucketGranularity);
+            ps.setLong(2, fromInclusive);
+            ps.setLong(3, toExclusive);
+            ps.setFetchSize(Math.max(1, fetchSize));
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
+    }
+
+    @Override
+    public int[] insertBatch(List<AhItemBucketRollupEntity> rollups) {
+        if (rollups == null || rollups.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AhItemBucketRollupEntity rollup = rollups.get(i);
+                ps.setLong(1, rollup.getBucketStartEpochMillis());
+                ps.setLong(2, rollup.getBucketEndEpochMillis());
+                ps.setString(3, rollup.getBucketGranularity());
+                ps.setString(4, rollup.getItemKey());
+                ps.setInt(5, rollup.getSampleCount());
+                ps.setInt(6, rollup.getValidSampleCount());
+                ps.setInt(7, rollup.getAnomalySampleCount());
+                ps.setBoolean(8, rollup.isPartial());
+                ps.setObject(9, rollup.getRepresentativeSnapshotTs(), Types.BIGINT);
+                ps.setObject(10, rollup.getMedianBinLowest5Mean(), Types.DOUBLE);
+                ps.setObject(11, rollup.getMedianBinP50(), Types.DOUBLE);
+                ps.setObject(12, rollup.getMedianBinP95(), Types.DOUBLE);
+                ps.setObject(13, rollup.getMedianBidP50(), Types.DOUBLE);
+                ps.setObject(14, rollup.getMedianBinCount(), Types.DOUBLE);
+                ps.setObject(15, rollup.getMedianEndingSoonCount(), Types.DOUBLE);
+                ps.setObject(16, rollup.getP10BinP50(), Types.DOUBLE);
+                ps.setObject(17, rollup.getP25BinP50(), Types.DOUBLE);
+                ps.setObject(18, rollup.getP75BinP50(), Types.DOUBLE);
+                ps.setObject(19, rollup.getP90BinP50(), Types.DOUBLE);
+                ps.setObject(20, rollup.getMinBinP50(), Types.DOUBLE);
+                ps.setObject(21, rollup.getMaxBinP50(), Types.DOUBLE);
+                ps.setObject(22, rollup.getWinsorizedAvgBinP50(), Types.DOUBLE);
+                ps.setObject(23, rollup.getFirstSnapshotTs(), Types.BIGINT);
+                ps.setObject(24, rollup.getLastSnapshotTs(), Types.BIGINT);
+                ps.setBytes(25, rollup.getSketch());
+                ps.setLong(26, rollup.getCreatedAtEpochMillis());
+                ps.setLong(27, rollup.getUpdatedAtEpochMillis());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rollups.size();
+            }
+        });
+    }
+
+    @Override
+    public int deleteBucket(String bucketGranularity, long bucketStartEpochMillis) {
+        return jdbcTemplate.update(DELETE_BUCKET_SQL, bucketGranularity, bucketStartEpochMillis);
+    }
+
+    @Override
+    public long countBucketRollupsWithoutSketch(String bucketGranularity, long fromInclusive, long toExclusive) {
+        Long count = jdbcTemplate.queryForObject(COUNT_WITHOUT_SKETCH_SQL, Long.class, bucketGranularity, fromInclusive, toExclusive);
+        return count == null ? 0L : count;
+    }
+
+    @Override
+    public int clearSketches(String bucketGranularity, long fromInclusive, long toExclusive) {
+        return jdbcTemplate.update(CLEAR_SKETCHES_SQL, bucketGranularity, fromInclusive, toExclusive);
+    }
+
+    private AhItemBucketRollupEntity mapRow(ResultSet rs) throws SQLException {
+        AhItemBucketRollupEntity rollup = new AhItemBucketRollupEntity();
+        rollup.setBucketStartEpochMillis(rs.getLong("bucket_start_epoch_millis"));
+        rollup.setBucketEndEpochMillis(rs.getLong("bucket_end_epoch_millis"));
+        rollup.setBucketGranularity(rs.getString("bucket_granularity"));
+        rollup.setItemKey(rs.getString("item_key"));
+        rollup.setSampleCount(rs.getInt("sample_count"));
+        rollup.setValidSampleCount(rs.getInt("valid_sample_count"));
+        rollup.setAnomalySampleCount(rs.getInt("anomaly_sample_count"));
+        rollup.setPartial(rs.getBoolean("partial"));
+        rollup.setRepresentativeSnapshotTs(rs.getObject("representative_snapshot_ts", Long.class));
+        rollup.setMedianBinP50(rs.getObject("median_bin_p50", Double.class));
+        rollup.setFirstSnapshotTs(rs.getObject("first_snapshot_ts", Long.class));
+        rollup.setLastSnapshotTs(rs.getObject("last_snapshot_ts", Long.class));
+        rollup.setSketch(rs.getBytes("sketch"));
+        return rollup;
+    }
+}
@@ -3,10 +3,15 @@ package com.skyblockflipper.backend.repository;
 import com.skyblockflipper.backend.model.market.AhItemBucketRollupEntity;
 import com.skyblockflipper.backend.model.market.AhItemBucketRollupId;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.transaction.annotation.Transactional;
 
-public interface AhItemBucketRollupRepository extends JpaRepository<AhItemBucketRollupEntity, AhItemBucketRollupId> {
+import java.util.List;
 
-    @Transactional
-    long deleteByBucketStartEpochMillisAndBucketGranularity(long bucketStartEpochMillis, String bucketGranularity);
+public interface AhItemBucketRollupRepository extends JpaRepository<AhItemBucketRollupEntity, AhItemBucketRollupId>, AhItemBucketRollupBatchRepository {
+
+    List<AhItemBucketRollupEntity> findByItemKeyGreaterThanEqualAndItemKeyLessThanAndBucketGranularityAndBucketStartEpochMillisBetweenOrderByBucketStartEpochMillisAsc(
+            String itemKeyFromInclusive,
+            String itemKeyToExclusive,
+            String bucketGranularity,
+            long fromInclusive,
+            long toInclusive);
 }
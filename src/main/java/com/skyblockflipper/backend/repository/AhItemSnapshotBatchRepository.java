@@ -2,12 +2,30 @@ package com.skyblockflipper.backend.repository;
 
 import com.skyblockflipper.backend.model.market.AhItemSnapshotEntity;
 
-import java.util.function.Consumer;
 import java.util.List;
 
 public interface AhItemSnapshotBatchRepository {
 
     int[] insertIgnoreBatch(List<AhItemSnapshotEntity> snapshots);
 
-    void scanBucketRows(long fromInclusive, long toExclusive, int fetchSize, Consumer<AhItemSnapshotEntity> consumer);
+    /**
+     * Streams the rows of {@code [fromInclusive, toExclusive)} ordered by item and timestamp without materializing
+     * an entity per row.
+     */
+    void scanBucketRows(long fromInclusive, long toExclusive, int fetchSize, RowHandler handler);
+
+    /**
+     * One snapshot row as primitives; SQL {@code NULL} prices arrive as {@code 0}.
+     */
+    @FunctionalInterface
+    interface RowHandler {
+        void accept(String itemKey,
+                    long snapshotTs,
+                    long binLowest5Mean,
+                    long binP50,
+                    long binP95,
+                    long bidP50,
+                    int binCount,
+                    int endingSoonCount);
+    }
 }
@@ -11,7 +11,6 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.Objects;
-import java.util.function.Consumer;
 import java.util.List;
 
 @Repository
@@ -37,14 +36,12 @@ public class AhItemSnapshotBatchRepositoryImpl implements AhItemSnapshotBatchRep
             select
                 snapshot_ts,
                 item_key,
-                bin_lowest,
                 bin_lowest5_mean,
                 bin_p50,
                 bin_p95,
-                bin_count,
                 bid_p50,
-                ending_soon_count,
-                created_at_epoch_millis
+                bin_count,
+                ending_soon_count
             from ah_item_snapshot
             where snapshot_ts >= ?
               and snapshot_ts < ?
@@ -86,28 +83,23 @@ public class AhItemSnapshotBatchRepositoryImpl implements AhItemSnapshotBatchRep
     }
 
     @Override
-    public void scanBucketRows(long fromInclusive, long toExclusive, int fetchSize, Consumer<AhItemSnapshotEntity> consumer) {
-        Objects.requireNonNull(consumer, "consumer must not be null");
+    public void scanBucketRows(long fromInclusive, long toExclusive, int fetchSize, RowHandler handler) {
+        Objects.requireNonNull(handler, "handler must not be null");
         jdbcTemplate.query(connection -> {
             PreparedStatement ps = connection.prepareStatement(SCAN_BUCKET_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
             ps.setLong(1, fromInclusive);
             ps.setLong(2, toExclusive);
             ps.setFetchSize(Math.max(1, fetchSize));
             return ps;
-        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
-    }
-
-    private AhItemSnapshotEntity mapRow(ResultSet rs) throws SQLException {
-        return new AhItemSnapshotEntity(
-                rs.getLong("snapshot_ts"),
-                rs.getString("item_key"),
-                rs.getObject("bin_lowest", Long.class),
-                rs.getObject("bin_lowest5_mean", Long.class),
-                rs.getObject("bin_p50", Long.class),
-                rs.getObject("bin_p95", Long.class),
-                rs.getInt("bin_count"),
-                rs.getObject("bid_p50", Long.class),
-                rs.getInt("ending_soon_count")
-        );
+        }, (RowCallbackHandler) rs -> handler.accept(
+                rs.getString(2),
+                rs.getLong(1),
+                rs.getLong(3),
+                rs.getLong(4),
+                rs.getLong(5),
+                rs.getLong(6),
+                rs.getInt(7),
+                rs.getInt(8)
+        ));
     }
 }
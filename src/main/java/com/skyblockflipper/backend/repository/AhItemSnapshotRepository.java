@@ -59,6 +59,11 @@ public interface AhItemSnapshotRepository extends JpaRepository<AhItemSnapshotEn
                                                                                         long fromInclusive,
                                                                                        long toInclusive);
 
+    List<AhItemSnapshotEntity> findByItemKeyGreaterThanEqualAndItemKeyLessThanAndSnapshotTsBetweenOrderBySnapshotTsAsc(String itemKeyFromInclusive,
+                                                                                                                     String itemKeyToExclusive,
+                                                                                                                     long fromInclusive,
+                                                                                                                     long toInclusive);
+
     List<AhItemSnapshotEntity> findBySnapshotTsBetweenAndItemKeyInOrderBySnapshotTsAsc(long fromInclusive,
                                                                                          long toInclusive,
                                                                                          Collection<String> itemKeys);
@@ -0,0 +1,12 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.BzItemAnomalySegmentEntity;
+
+import java.util.List;
+
+public interface BzItemAnomalySegmentBatchRepository {
+
+    int[] insertBatch(List<BzItemAnomalySegmentEntity> segments);
+
+    int deleteBucket(String bucketGranularity, long bucketStartEpochMillis);
+}
@@ -0,0 +1,95 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.BzItemAnomalySegmentEntity;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+@Repository
+public class BzItemAnomalySegmentBatchRepositoryImpl implements BzItemAnomalySegmentBatchRepository {
+
+    private static final String INSERT_SQL = """
+            insert into bz_item_anomaly_segment (
+                bucket_start_epoch_millis,
+                bucket_end_epoch_millis,
+                bucket_granularity,
+                product_id,
+                segment_start_epoch_millis,
+                segment_end_epoch_millis,
+                representative_snapshot_ts,
+                peak_snapshot_ts,
+                sample_count,
+                anomaly_score,
+                reason_code,
+                fragmented,
+                median_buy_price,
+                median_sell_price,
+                median_mid_price,
+                median_spread,
+                median_buy_volume,
+                median_sell_volume,
+                created_at_epoch_millis,
+                updated_at_epoch_millis
+            ) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String DELETE_BUCKET_SQL = """
+            delete from bz_item_anomaly_segment
+            where bucket_granularity = ?
+              and bucket_start_epoch_millis = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BzItemAnomalySegmentBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] insertBatch(List<BzItemAnomalySegmentEntity> segments) {
+        if (segments == null || segments.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BzItemAnomalySegmentEntity segment = segments.get(i);
+                ps.setLong(1, segment.getBucketStartEpochMillis());
+                ps.setLong(2, segment.getBucketEndEpochMillis());
+                ps.setString(3, segment.getBucketGranularity());
+                ps.setString(4, segment.getProductId());
+                ps.setLong(5, segment.getSegmentStartEpochMillis());
+                ps.setLong(6, segment.getSegmentEndEpochMillis());
+                ps.setObject(7, segment.getRepresentativeSnapshotTs(), Types.BIGINT);
+                ps.setObject(8, segment.getPeakSnapshotTs(), Types.BIGINT);
+                ps.setInt(9, segment.getSampleCount());
+                ps.setDouble(10, segment.getAnomalyScore());
+                ps.setString(11, segment.getReasonCode());
+                ps.setBoolean(12, segment.isFragmented());
+                ps.setObject(13, segment.getMedianBuyPrice(), Types.DOUBLE);
+                ps.setObject(14, segment.getMedianSellPrice(), Types.DOUBLE);
+                ps.setObject(15, segment.getMedianMidPrice(), Types.DOUBLE);
+                ps.setObject(16, segment.getMedianSpread(), Types.DOUBLE);
+                ps.setObject(17, segment.getMedianBuyVolume(), Types.DOUBLE);
+                ps.setObject(18, segment.getMedianSellVolume(), Types.DOUBLE);
+                ps.setLong(19, segment.getCreatedAtEpochMillis());
+                ps.setLong(20, segment.getUpdatedAtEpochMillis());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return segments.size();
+            }
+        });
+    }
+
+    @Override
+    public int deleteBucket(String bucketGranularity, long bucketStartEpochMillis) {
+        return jdbcTemplate.update(DELETE_BUCKET_SQL, bucketGranularity, bucketStartEpochMillis);
+    }
+}
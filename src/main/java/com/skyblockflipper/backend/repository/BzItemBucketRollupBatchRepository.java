@@ -0,0 +1,23 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface BzItemBucketRollupBatchRepository {
+
+    void scanBucketRollups(String bucketGranularity,
+                           long fromInclusive,
+                           long toExclusive,
+                           int fetchSize,
+                           Consumer<BzItemBucketRollupEntity> consumer);
+
+    int[] insertBatch(List<BzItemBucketRollupEntity> rollups);
+
+    int deleteBucket(String bucketGranularity, long bucketStartEpochMillis);
+
+    long countBucketRollupsWithoutSketch(String bucketGranularity, long fromInclusive, long toExclusive);
+
+    int clearSketches(String bucketGranularity, long fromInclusive, long toExclusive);
+}
@@ -0,0 +1,207 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+@Repository
+public class BzItemBucketRollupBatchRepositoryImpl implements BzItemBucketRollupBatchRepository {
+
+    private static final String SCAN_BUCKET_ROLLUPS_SQL = """
+            select
+                bucket_start_epoch_millis,
+                bucket_end_epoch_millis,
+                bucket_granularity,
+                product_id,
+                sample_count,
+                valid_sample_count,
+                anomaly_sample_count,
+                partial,
+                representative_snapshot_ts,
+                median_mid_price,
+                min_liquidity,
+                max_liquidity,
+                first_snapshot_ts,
+                last_snapshot_ts,
+                sketch
+            from bz_item_bucket_rollup
+            where bucket_granularity = ?
+              and bucket_start_epoch_millis >= ?
+              and bucket_start_epoch_millis < ?
+            order by product_id asc, bucket_start_epoch_millis asc
+            """;
+
+    private static final String INSERT_SQL = """
+            insert into bz_item_bucket_rollup (
+                bucket_start_epoch_millis,
+                bucket_end_epoch_millis,
+                bucket_granularity,
+                product_id,
+                sample_count,
+                valid_sample_count,
+                anomaly_sample_count,
+                partial,
+                representative_snapshot_ts,
+                median_buy_price,
+                median_sell_price,
+                median_mid_price,
+                median_spread,
+                p10_mid_price,
+                p25_mid_price,
+                p75_mid_price,
+                p90_mid_price,
+                min_mid_price,
+                max_mid_price,
+                winsorized_avg_mid_price,
+                median_buy_volume,
+                median_sell_volume,
+                min_liquidity,
+                max_liquidity,
+                first_snapshot_ts,
+                last_snapshot_ts,
+                sketch,
+                created_at_epoch_millis,
+                updated_at_epoch_millis
+            ) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String DELETE_BUCKET_SQL = """
+            delete from bz_item_bucket_rollup
+            where bucket_granularity = ?
+              and bucket_start_epoch_millis = ?
+            """;
+
+    private static final String COUNT_WITHOUT_SKETCH_SQL = """
+            select count(*)
+            from bz_item_bucket_rollup
+            where bucket_granularity = ?
+              and bucket_start_epoch_millis >= ?
+              and bucket_start_epoch_millis < ?
+              and sketch is null
+            """;
+
+    private static final String CLEAR_SKETCHES_SQL = """
+            update bz_item_bucket_rollup
+            set sketch = null
+            where bucket_granularity = ?
+              and bucket_start_epoch_millis >= ?
+              and bucket_start_epoch_millis < ?
+              and sketch is not null
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BzItemBucketRollupBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void scanBucketRollups(String bucketGranularity,
+                                  long fromInclusive,
+                                  long toExclusive,
+                                  int fetchSize,
+                                  Consumer<BzItemBucketRollupEntity> consumer) {
+        Objects.requireNonNull(consumer, "consumer must not be null");
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SCAN_BUCKET_ROLLUPS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setString(1, bucketGranularity);
+            ps.setLong(2, fromInclusive);
+            ps.setLong(3, toExclusive);
+            ps.setFetchSize(Math.max(1, fetchSize));
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
+    }
+
+    @Override
+    public int[] insertBatch(List<BzItemBucketRollupEntity> rollups) {
+        if (rollups == null || rollups.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BzItemBucketRollupEntity rollup = rollups.get(i);
+                ps.setLong(1, rollup.getBucketStartEpochMillis());
+                ps.setLong(2, rollup.getBucketEndEpochMillis());
+                ps.setString(3, rollup.getBucketGranularity());
+                ps.setString(4, rollup.getProductId());
+                ps.setInt(5, rollup.getSampleCount());
+                ps.setInt(6, rollup.getValidSampleCount());
+                ps.setInt(7, rollup.getAnomalySampleCount());
+                ps.setBoolean(8, rollup.isPartial());
+                ps.setObject(9, rollup.getRepresentativeSnapshotTs(), Types.BIGINT);
+                ps.setObject(10, rollup.getMedianBuyPrice(), Types.DOUBLE);
+                ps.setObject(11, rollup.getMedianSellPrice(), Types.DOUBLE);
+                ps.setObject(12, rollup.getMedianMidPrice(), Types.DOUBLE);
+                ps.setObject(13, rollup.getMedianSpread(), Types.DOUBLE);
+                ps.setObject(14, rollup.getP10MidPrice(), Types.DOUBLE);
+                ps.setObject(15, rollup.getP25MidPrice(), Types.DOUBLE);
+                ps.setObject(16, rollup.getP75MidPrice(), Types.DOUBLE);
+                ps.setObject(17, rollup.getP90MidPrice(), Types.DOUBLE);
+                ps.setObject(18, rollup.getMinMidPrice(), Types.DOUBLE);
+                ps.setObject(19, rollup.getMaxMidPrice(), Types.DOUBLE);
+                ps.setObject(20, rollup.getWinsorizedAvgMidPrice(), Types.DOUBLE);
+                ps.setObject(21, rollup.getMedianBuyVolume(), Types.DOUBLE);
+                ps.setObject(22, rollup.getMedianSellVolume(), Types.DOUBLE);
+                ps.setObject(23, rollup.getMinLiquidity(), Types.DOUBLE);
+                ps.setObject(24, rollup.getMaxLiquidity(), Types.DOUBLE);
+                ps.setObject(25, rollup.getFirstSnapshotTs(), Types.BIGINT);
+                ps.setObject(26, rollup.getLastSnapshotTs(), Types.BIGINT);
+                ps.setBytes(27, rollup.getSketch());
+                ps.setLong(28, rollup.getCreatedAtEpochMillis());
+                ps.setLong(29, rollup.getUpdatedAtEpochMillis());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rollups.size();
+            }
+        });
+    }
+
+    @Override
+    public int deleteBucket(String bucketGranularity, long bucketStartEpochMillis) {
+        return jdbcTemplate.update(DELETE_BUCKET_SQL, bucketGranularity, bucketStartEpochMillis);
+    }
+
+    @Override
+    public long countBucketRollupsWithoutSketch(String bucketGranularity, long fromInclusive, long toExclusive) {
+        Long count = jdbcTemplate.queryForObject(COUNT_WITHOUT_SKETCH_SQL, Long.class, bucketGranularity, fromInclusive, toExclusive);
+        return count == null ? 0L : count;
+    }
+
+    @Override
+    public int clearSketches(String bucketGranularity, long fromInclusive, long toExclusive) {
+        return jdbcTemplate.update(CLEAR_SKETCHES_SQL, bucketGranularity, fromInclusive, toExclusive);
+    }
+
+    private BzItemBucketRollupEntity mapRow(ResultSet rs) throws SQLException {
+        BzItemBucketRollupEntity rollup = new BzItemBucketRollupEntity();
+        rollup.setBucketStartEpochMillis(rs.getLong("bucket_start_epoch_millis"));
+        rollup.setBucketEndEpochMillis(rs.getLong("bucket_end_epoch_millis"));
+        rollup.setBucketGranularity(rs.getString("bucket_granularity"));
+        rollup.setProductId(rs.getString("product_id"));
+        rollup.setSampleCount(rs.getInt("sample_count"));
+        rollup.setValidSampleCount(rs.getInt("valid_sample_count"));
+        rollup.setAnomalySampleCount(rs.getInt("anomaly_sample_count"));
+        rollup.setPartial(rs.getBoolean("partial"));
+        rollup.setRepresentativeSnapshotTs(rs.getObject("representative_snapshot_ts", Long.class));
+        rollup.setMedianMidPrice(rs.getObject("median_mid_price", Double.class));
+        rollup.setMinLiquidity(rs.getObject("min_liquidity", Double.class));
+        rollup.setMaxLiquidity(rs.getObject("max_liquidity", Double.class));
+        rollup.setFirstSnapshotTs(rs.getObject("first_snapshot_ts", Long.class));
+        rollup.setLastSnapshotTs(rs.getObject("last_snapshot_ts", Long.class));
+        rollup.setSketch(rs.getBytes("sketch"));
+        return rollup;
+    }
+}
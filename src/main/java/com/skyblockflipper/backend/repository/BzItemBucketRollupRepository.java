@@ -3,10 +3,14 @@ package com.skyblockflipper.backend.repository;
 import com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity;
 import com.skyblockflipper.backend.model.market.BzItemBucketRollupId;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.transaction.annotation.Transactional;
 
-public interface BzItemBucketRollupRepository extends JpaRepository<BzItemBucketRollupEntity, BzItemBucketRollupId> {
+import java.util.List;
 
-    @Transactional
-    long deleteByBucketStartEpochMillisAndBucketGranularity(long bucketStartEpochMillis, String bucketGranularity);
+public interface BzItemBucketRollupRepository extends JpaRepository<BzItemBucketRollupEntity, BzItemBucketRollupId>, BzItemBucketRollupBatchRepository {
+
+    List<BzItemBucketRollupEntity> findByProductIdAndBucketGranularityAndBucketStartEpochMillisBetweenOrderByBucketStartEpochMillisAsc(
+            String productId,
+            String bucketGranularity,
+            long fromInclusive,
+            long toInclusive);
 }
@@ -2,12 +2,23 @@ package com.skyblockflipper.backend.repository;
 
 import com.skyblockflipper.backend.model.market.BzItemSnapshotEntity;
 
-import java.util.function.Consumer;
 import java.util.List;
 
 public interface BzItemSnapshotBatchRepository {
 
     int[] insertIgnoreBatch(List<BzItemSnapshotEntity> snapshots);
 
-    void scanBucketRows(long fromInclusive, long toExclusive, int fetchSize, Consumer<BzItemSnapshotEntity> consumer);
+    /**
+     * Streams the rows of {@code [fromInclusive, toExclusive)} ordered by product and timestamp without materializing
+     * an entity per row.
+     */
+    void scanBucketRows(long fromInclusive, long toExclusive, int fetchSize, RowHandler handler);
+
+    /**
+     * One snapshot row as primitives; SQL {@code NULL} prices and volumes arrive as {@code 0}.
+     */
+    @FunctionalInterface
+    interface RowHandler {
+        void accept(String productId, long snapshotTs, double buyPrice, double sellPrice, long buyVolume, long sellVolume);
+    }
 }
@@ -11,7 +11,6 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.Objects;
-import java.util.function.Consumer;
 import java.util.List;
 
 @Repository
@@ -37,8 +36,7 @@ public class BzItemSnapshotBatchRepositoryImpl implements BzItemSnapshotBatchRep
                 buy_price,
                 sell_price,
                 buy_volume,
-                sell_volume,
-                created_at_epoch_millis
+                sell_volume
             from bz_item_snapshot
             where snapshot_ts >= ?
               and snapshot_ts < ?
@@ -77,25 +75,21 @@ public class BzItemSnapshotBatchRepositoryImpl implements BzItemSnapshotBatchRep
     }
 
     @Override
-    public void scanBucketRows(long fromInclusive, long toExclusive, int fetchSize, Consumer<BzItemSnapshotEntity> consumer) {
-        Objects.requireNonNull(consumer, "consumer must not be null");
+    public void scanBucketRows(long fromInclusive, long toExclusive, int fetchSize, RowHandler handler) {
+        Objects.requireNonNull(handler, "handler must not be null");
         jdbcTemplate.query(connection -> {
             PreparedStatement ps = connection.prepareStatement(SCAN_BUCKET_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
             ps.setLong(1, fromInclusive);
             ps.setLong(2, toExclusive);
             ps.setFetchSize(Math.max(1, fetchSize));
             return ps;
-        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
-    }
-
-    private BzItemSnapshotEntity mapRow(ResultSet rs) throws SQLException {
-        return new BzItemSnapshotEntity(
-                rs.getLong("snapshot_ts"),
-                rs.getString("product_id"),
-                rs.getObject("buy_price", Double.class),
-                rs.getObject("sell_price", Double.class),
-                rs.getObject("buy_volume", Long.class),
-                rs.getObject("sell_volume", Long.class)
-        );
+        }, (RowCallbackHandler) rs -> handler.accept(
+                rs.getString(2),
+                rs.getLong(1),
+                rs.getDouble(3),
+                rs.getDouble(4),
+                rs.getLong(5),
+                rs.getLong(6)
+        ));
     }
 }
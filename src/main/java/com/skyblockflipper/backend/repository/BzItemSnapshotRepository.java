@@ -41,6 +41,14 @@ public interface BzItemSnapshotRepository extends JpaRepository<BzItemSnapshotEn
             """, nativeQuery = true)
     Long findMaxSnapshotTs();
 
+    @Query(value = """
+            select min(snapshot_ts)
+            from bz_item_snapshot
+            where snapshot_ts between :fromInclusive and :toInclusive
+            """, nativeQuery = true)
+    Long findMinSnapshotTsBetween(@Param("fromInclusive") long fromInclusive,
+                                  @Param("toInclusive") long toInclusive);
+
     @Query(value = """
             select count(distinct product_id)
             from bz_item_snapshot
@@ -6,9 +6,12 @@ import com.skyblockflipper.backend.model.flippingstorage.FlipDefinitionEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -117,6 +120,20 @@ public interface FlipCurrentRepository extends JpaRepository<FlipCurrentEntity,
 
     void deleteBySnapshotTimestampEpochMillis(long snapshotTimestampEpochMillis);
 
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE FlipCurrentEntity fc
+            SET fc.snapshotTimestampEpochMillis = :snapshotEpochMillis,
+                fc.updatedAtEpochMillis = :updatedAtEpochMillis
+            WHERE fc.flipKey IN :flipKeys
+              AND fc.snapshotTimestampEpochMillis = :previousSnapshotEpochMillis
+            """)
+    int carryForwardSnapshot(@Param("flipKeys") Collection<String> flipKeys,
+                             @Param("previousSnapshotEpochMillis") long previousSnapshotEpochMillis,
+                             @Param("snapshotEpochMillis") long snapshotEpochMillis,
+                             @Param("updatedAtEpochMillis") long updatedAtEpochMillis);
+
     @Query("select max(fc.snapshotTimestampEpochMillis) from FlipCurrentEntity fc")
     Optional<Long> findMaxSnapshotTimestampEpochMillis();
 
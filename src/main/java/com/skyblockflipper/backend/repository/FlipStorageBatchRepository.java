@@ -0,0 +1,28 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.flippingstorage.FlipCurrentEntity;
+import com.skyblockflipper.backend.model.flippingstorage.FlipDefinitionEntity;
+import com.skyblockflipper.backend.model.flippingstorage.FlipTrendSegmentEntity;
+
+import java.util.List;
+
+/**
+ * Set-based writes for unified flip storage. Every statement carries its own monotonic guard, so the returned update
+ * counts tell the caller which rows were actually written without reading the tables first.
+ */
+public interface FlipStorageBatchRepository {
+
+    int[] updateCurrentIfOlder(List<FlipCurrentEntity> rows);
+
+    int[] insertMissingDefinitions(List<FlipDefinitionEntity> rows);
+
+    int[] updateDefinitions(List<FlipDefinitionEntity> rows);
+
+    int[] insertMissingCurrent(List<FlipCurrentEntity> rows);
+
+    int[] extendLatestSegments(List<FlipTrendSegmentEntity> candidates,
+                               double relativeThreshold,
+                               double scoreDeltaThreshold);
+
+    int[] insertSegmentsAfterLatest(List<FlipTrendSegmentEntity> candidates);
+}
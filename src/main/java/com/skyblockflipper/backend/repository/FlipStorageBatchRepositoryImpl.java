@@ -0,0 +1,286 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.flippingstorage.FlipCurrentEntity;
+import com.skyblockflipper.backend.model.flippingstorage.FlipDefinitionEntity;
+import com.skyblockflipper.backend.model.flippingstorage.FlipTrendSegmentEntity;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+@Repository
+public class FlipStorageBatchRepositoryImpl implements FlipStorageBatchRepository {
+
+    private static final String UPDATE_CURRENT_IF_OLDER_SQL = """
+            update flip_current
+            set stable_flip_id = ?,
+                flip_type = ?,
+                snapshot_timestamp_epoch_millis = ?,
+                required_capital = ?,
+                expected_profit = ?,
+                roi = ?,
+                roi_per_hour = ?,
+                duration_seconds = ?,
+                fees = ?,
+                liquidity_score = ?,
+                risk_score = ?,
+                partial = ?,
+                partial_reasons_json = ?,
+                updated_at_epoch_millis = ?
+            where flip_key = ?
+              and snapshot_timestamp_epoch_millis < ?
+            """;
+
+    private static final String INSERT_MISSING_DEFINITION_SQL = """
+            insert into flip_definition (
+                flip_key,
+                stable_flip_id,
+                flip_type,
+                result_item_id,
+                steps_json,
+                constraints_json,
+                key_version,
+                created_at_epoch_millis,
+                updated_at_epoch_millis
+            ) values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict do nothing
+            """;
+
+    private static final String UPDATE_DEFINITION_SQL = """
+            update flip_definition
+            set stable_flip_id = ?,
+                flip_type = ?,
+                result_item_id = ?,
+                steps_json = ?,
+                constraints_json = ?,
+                key_version = ?,
+                updated_at_epoch_millis = ?
+            where flip_key = ?
+            """;
+
+    private static final String INSERT_MISSING_CURRENT_SQL = """
+            insert into flip_current (
+                flip_key,
+                stable_flip_id,
+                flip_type,
+                snapshot_timestamp_epoch_millis,
+                required_capital,
+                expected_profit,
+                roi,
+                roi_per_hour,
+                duration_seconds,
+                fees,
+                liquidity_score,
+                risk_score,
+                partial,
+                partial_reasons_json,
+                updated_at_epoch_millis
+            ) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict do nothing
+            """;
+
+    private static final String EXTEND_LATEST_SEGMENT_SQL = """
+            update flip_trend_segment
+            set valid_to_snapshot_epoch_millis = ?,
+                sample_count = greatest(sample_count, 1) + 1,
+                updated_at_epoch_millis = ?
+            where flip_key = ?
+              and valid_to_snapshot_epoch_millis = (
+                  select max(latest.valid_to_snapshot_epoch_millis)
+                  from flip_trend_segment latest
+                  where latest.flip_key = ?
+              )
+              and valid_from_snapshot_epoch_millis < ?
+              and valid_to_snapshot_epoch_millis < ?
+              and partial = ?
+              and ((expected_profit is null and cast(? as double precision) is null)
+                   or abs(cast(? as double precision) - expected_profit)
+                      <= cast(? as double precision) * greatest(abs(expected_profit), 1e-9))
+              and ((roi_per_hour is null and cast(? as double precision) is null)
+                   or abs(cast(? as double precision) - roi_per_hour)
+                      <= cast(? as double precision) * greatest(abs(roi_per_hour), 1e-9))
+              and ((liquidity_score is null and cast(? as double precision) is null)
+                   or abs(cast(? as double precision) - liquidity_score) <= cast(? as double precision))
+              and ((risk_score is null and cast(? as double precision) is null)
+                   or abs(cast(? as double precision) - risk_score) <= cast(? as double precision))
+            """;
+
+    private static final String INSERT_SEGMENT_AFTER_LATEST_SQL = """
+            insert into flip_trend_segment (
+                flip_key,
+                valid_from_snapshot_epoch_millis,
+                valid_to_snapshot_epoch_millis,
+                required_capital,
+                expected_profit,
+                roi,
+                roi_per_hour,
+                duration_seconds,
+                fees,
+                liquidity_score,
+                risk_score,
+                partial,
+                sample_count,
+                created_at_epoch_millis,
+                updated_at_epoch_millis
+            )
+            select ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?
+            where not exists (
+                select 1
+                from flip_trend_segment existing
+                where existing.flip_key = ?
+                  and (existing.valid_from_snapshot_epoch_millis >= ?
+                       or existing.valid_to_snapshot_epoch_millis >= ?)
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FlipStorageBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] updateCurrentIfOlder(List<FlipCurrentEntity> rows) {
+        return batch(UPDATE_CURRENT_IF_OLDER_SQL, rows, (ps, row) -> {
+            int index = setCurrentValues(ps, 1, row);
+            ps.setString(index++, row.getFlipKey());
+            ps.setLong(index, row.getSnapshotTimestampEpochMillis());
+        });
+    }
+
+    @Override
+    public int[] insertMissingDefinitions(List<FlipDefinitionEntity> rows) {
+        return batch(INSERT_MISSING_DEFINITION_SQL, rows, (ps, row) -> {
+            ps.setString(1, row.getFlipKey());
+            ps.setObject(2, row.getStableFlipId());
+            ps.setString(3, row.getFlipType().name());
+            ps.setString(4, row.getResultItemId());
+            ps.setString(5, row.getStepsJson());
+            ps.setString(6, row.getConstraintsJson());
+            ps.setInt(7, row.getKeyVersion());
+            ps.setLong(8, row.getCreatedAtEpochMillis());
+            ps.setLong(9, row.getUpdatedAtEpochMillis());
+        });
+    }
+
+    @Override
+    public int[] updateDefinitions(List<FlipDefinitionEntity> rows) {
+        return batch(UPDATE_DEFINITION_SQL, rows, (ps, row) -> {
+            ps.setObject(1, row.getStableFlipId());
+            ps.setString(2, row.getFlipType().name());
+            ps.setString(3, row.getResultItemId());
+            ps.setString(4, row.getStepsJson());
+            ps.setString(5, row.getConstraintsJson());
+            ps.setInt(6, row.getKeyVersion());
+            ps.setLong(7, row.getUpdatedAtEpochMillis());
+            ps.setString(8, row.getFlipKey());
+        });
+    }
+
+    @Override
+    public int[] insertMissingCurrent(List<FlipCurrentEntity> rows) {
+        return batch(INSERT_MISSING_CURRENT_SQL, rows, (ps, row) -> {
+            ps.setString(1, row.getFlipKey());
+            setCurrentValues(ps, 2, row);
+        });
+    }
+
+    @Override
+    public int[] extendLatestSegments(List<FlipTrendSegmentEntity> candidates,
+                                      double relativeThreshold,
+                                      double scoreDeltaThreshold) {
+        return batch(EXTEND_LATEST_SEGMENT_SQL, candidates, (ps, candidate) -> {
+            long snapshot = candidate.getValidToSnapshotEpochMillis();
+            Double expectedProfit = candidate.getExpectedProfit() == null
+                    ? null
+                    : candidate.getExpectedProfit().doubleValue();
+            ps.setLong(1, snapshot);
+            ps.setLong(2, candidate.getUpdatedAtEpochMillis());
+            ps.setString(3, candidate.getFlipKey());
+            ps.setString(4, candidate.getFlipKey());
+            ps.setLong(5, snapshot);
+            ps.setLong(6, snapshot);
+            ps.setBoolean(7, candidate.isPartial());
+            int index = setChangeCheck(ps, 8, expectedProfit, relativeThreshold);
+            index = setChangeCheck(ps, index, candidate.getRoiPerHour(), relativeThreshold);
+            index = setChangeCheck(ps, index, candidate.getLiquidityScore(), scoreDeltaThreshold);
+            setChangeCheck(ps, index, candidate.getRiskScore(), scoreDeltaThreshold);
+        });
+    }
+
+    @Override
+    public int[] insertSegmentsAfterLatest(List<FlipTrendSegmentEntity> candidates) {
+        return batch(INSERT_SEGMENT_AFTER_LATEST_SQL, candidates, (ps, candidate) -> {
+            ps.setString(1, candidate.getFlipKey());
+            ps.setLong(2, candidate.getValidFromSnapshotEpochMillis());
+            ps.setLong(3, candidate.getValidToSnapshotEpochMillis());
+            ps.setObject(4, candidate.getRequiredCapital(), Types.BIGINT);
+            ps.setObject(5, candidate.getExpectedProfit(), Types.BIGINT);
+            ps.setObject(6, candidate.getRoi(), Types.DOUBLE);
+            ps.setObject(7, candidate.getRoiPerHour(), Types.DOUBLE);
+            ps.setObject(8, candidate.getDurationSeconds(), Types.BIGINT);
+            ps.setObject(9, candidate.getFees(), Types.BIGINT);
+            ps.setObject(10, candidate.getLiquidityScore(), Types.DOUBLE);
+            ps.setObject(11, candidate.getRiskScore(), Types.DOUBLE);
+            ps.setBoolean(12, candidate.isPartial());
+            ps.setInt(13, candidate.getSampleCount());
+            ps.setLong(14, candidate.getCreatedAtEpochMillis());
+            ps.setLong(15, candidate.getUpdatedAtEpochMillis());
+            ps.setString(16, candidate.getFlipKey());
+            ps.setLong(17, candidate.getValidFromSnapshotEpochMillis());
+            ps.setLong(18, candidate.getValidFromSnapshotEpochMillis());
+        });
+    }
+
+    private int setCurrentValues(PreparedStatement ps, int start, FlipCurrentEntity row) throws SQLException {
+        int index = start;
+        ps.setObject(index++, row.getStableFlipId());
+        ps.setString(index++, row.getFlipType().name());
+        ps.setLong(index++, row.getSnapshotTimestampEpochMillis());
+        ps.setObject(index++, row.getRequiredCapital(), Types.BIGINT);
+        ps.setObject(index++, row.getExpectedProfit(), Types.BIGINT);
+        ps.setObject(index++, row.getRoi(), Types.DOUBLE);
+        ps.setObject(index++, row.getRoiPerHour(), Types.DOUBLE);
+        ps.setObject(index++, row.getDurationSeconds(), Types.BIGINT);
+        ps.setObject(index++, row.getFees(), Types.BIGINT);
+        ps.setObject(index++, row.getLiquidityScore(), Types.DOUBLE);
+        ps.setObject(index++, row.getRiskScore(), Types.DOUBLE);
+        ps.setBoolean(index++, row.isPartial());
+        ps.setString(index++, row.getPartialReasonsJson());
+        ps.setLong(index++, row.getUpdatedAtEpochMillis());
+        return index;
+    }
+
+    private int setChangeCheck(PreparedStatement ps, int start, Double value, double threshold) throws SQLException {
+        ps.setObject(start, value, Types.DOUBLE);
+        ps.setObject(start + 1, value, Types.DOUBLE);
+        ps.setDouble(start + 2, threshold);
+        return start + 3;
+    }
+
+    private <T> int[] batch(String sql, List<T> rows, RowBinder<T> binder) {
+        if (rows == null || rows.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                binder.bind(ps, rows.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+}
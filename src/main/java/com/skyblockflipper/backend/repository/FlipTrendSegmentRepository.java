@@ -23,4 +23,19 @@ public interface FlipTrendSegmentRepository extends JpaRepository<FlipTrendSegme
             """)
     int deleteByValidityWindow(@Param("validFrom") long validFromSnapshotEpochMillis,
                                @Param("validTo") long validToSnapshotEpochMillis);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE FlipTrendSegmentEntity f
+            SET f.validToSnapshotEpochMillis = :snapshotEpochMillis,
+                f.sampleCount = f.sampleCount + 1,
+                f.updatedAtEpochMillis = :updatedAtEpochMillis
+            WHERE f.flipKey IN :flipKeys
+              AND f.validToSnapshotEpochMillis = :previousSnapshotEpochMillis
+            """)
+    int extendLatestSegments(@Param("flipKeys") Collection<String> flipKeys,
+                             @Param("previousSnapshotEpochMillis") long previousSnapshotEpochMillis,
+                             @Param("snapshotEpochMillis") long snapshotEpochMillis,
+                             @Param("updatedAtEpochMillis") long updatedAtEpochMillis);
 }
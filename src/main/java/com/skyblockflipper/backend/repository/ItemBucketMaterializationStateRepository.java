@@ -16,6 +16,14 @@ public interface ItemBucketMaterializationStateRepository extends JpaRepository<
     ItemBucketMaterializationStateEntity findTopByMarketTypeAndBucketGranularityOrderByBucketStartEpochMillisDesc(String marketType,
                                                                                                                    String bucketGranularity);
 
+    ItemBucketMaterializationStateEntity findTopByMarketTypeAndBucketGranularityAndFinalizedFalseAndFailedFalseOrderByBucketStartEpochMillisAsc(String marketType,
+                                                                                                                                               String bucketGranularity);
+
+    long countByMarketTypeAndBucketGranularityAndFinalizedTrueAndBucketStartEpochMillisGreaterThanEqualAndBucketStartEpochMillisLessThan(String marketType,
+                                                                                                                                        String bucketGranularity,
+                                                                                                                                        long fromInclusive,
+                                                                                                                                        long toExclusive);
+
     long countBySourcePartitionAndMarketTypeAndBucketGranularityAndFinalizedTrue(String sourcePartition,
                                                                                  String marketType,
                                                                                  String bucketGranularity);
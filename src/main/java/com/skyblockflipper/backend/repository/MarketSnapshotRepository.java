@@ -30,6 +30,13 @@ public interface MarketSnapshotRepository extends JpaRepository<MarketSnapshotEn
             long snapshotTimestampEpochMillis
     );
 
+    @Query("""
+            select max(m.snapshotTimestampEpochMillis)
+            from MarketSnapshotEntity m
+            where m.snapshotTimestampEpochMillis <= :asOfEpochMillis
+            """)
+    Optional<Long> findMaxSnapshotTimestampEpochMillisAtOrBefore(@Param("asOfEpochMillis") long asOfEpochMillis);
+
     long countBySnapshotTimestampEpochMillisGreaterThanEqualAndSnapshotTimestampEpochMillisLessThan(
             long fromInclusive,
             long toExclusive
@@ -2,6 +2,8 @@ package com.skyblockflipper.backend.repository;
 
 import com.skyblockflipper.backend.model.market.RetainedMarketSnapshotEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 import java.util.List;
@@ -16,6 +18,13 @@ public interface RetainedMarketSnapshotRepository extends JpaRepository<Retained
             long snapshotTimestampEpochMillis
     );
 
+    @Query("""
+            select max(r.snapshotTimestampEpochMillis)
+            from RetainedMarketSnapshotEntity r
+            where r.snapshotTimestampEpochMillis <= :asOfEpochMillis
+            """)
+    Optional<Long> findMaxSnapshotTimestampEpochMillisAtOrBefore(@Param("asOfEpochMillis") long asOfEpochMillis);
+
     Optional<RetainedMarketSnapshotEntity> findBySnapshotTimestampEpochMillis(long snapshotTimestampEpochMillis);
 
     boolean existsBySnapshotTimestampEpochMillis(long snapshotTimestampEpochMillis);
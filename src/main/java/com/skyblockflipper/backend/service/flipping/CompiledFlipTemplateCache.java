@@ -0,0 +1,186 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.Flipping.Recipe.Recipe;
+import com.skyblockflipper.backend.model.Flipping.Recipe.RecipeToFlipMapper;
+import com.skyblockflipper.backend.model.Flipping.Step;
+import com.skyblockflipper.backend.repository.RecipeRepository;
+import com.skyblockflipper.backend.service.flipping.storage.FlipIdentityService;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recipe flips compiled once per recipe version together with their storage identity. Recipes only change when the
+ * NEU repository is re-ingested, which calls {@link #invalidate(Collection)} with the re-ingested items; until then
+ * every generation cycle reuses the same prototypes instead of rebuilding steps, params JSON and SHA-256 flip keys.
+ * The next compilation maps only recipes whose output item was re-ingested and carries every other template over.
+ * <p>
+ * Prototypes are shared and must be treated as read-only; callers that persist flips take a fresh copy through
+ * {@link FlipTemplate#newInstance()}.
+ */
+@Component
+public class CompiledFlipTemplateCache {
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeToFlipMapper recipeToFlipMapper;
+    private final FlipIdentityService flipIdentityService;
+    private final AtomicLong version = new AtomicLong();
+    private final Object compileLock = new Object();
+    private final Object pendingLock = new Object();
+    private final Set<String> pendingOutputItemIds = new HashSet<>();
+    private boolean pendingFullCompile = true;
+    private Map<String, FlipTemplate> reusableByRecipeId = Map.of();
+    private volatile CompiledTemplates compiled;
+
+    public CompiledFlipTemplateCache(RecipeRepository recipeRepository,
+                                     RecipeToFlipMapper recipeToFlipMapper,
+                                     FlipIdentityService flipIdentityService) {
+        this.recipeRepository = recipeRepository;
+        this.recipeToFlipMapper = recipeToFlipMapper;
+        this.flipIdentityService = flipIdentityService;
+    }
+
+    public CompiledTemplates templates() {
+        CompiledTemplates local = compiled;
+        if (local != null) {
+            return local;
+        }
+        synchronized (compileLock) {
+            local = compiled;
+            if (local != null) {
+                return local;
+            }
+            long compileVersion;
+            boolean full;
+            Set<String> changedOutputItemIds;
+            synchronized (pendingLock) {
+                compileVersion = version.get();
+                full = pendingFullCompile;
+                changedOutputItemIds = Set.copyOf(pendingOutputItemIds);
+            }
+            Map<String, FlipTemplate> templatesByRecipeId = new HashMap<>();
+            CompiledTemplates fresh = compile(compileVersion, full ? Map.of() : reusableByRecipeId,
+                    changedOutputItemIds, templatesByRecipeId);
+            synchronized (pendingLock) {
+                if (version.get() == compileVersion) {
+                    compiled = fresh;
+                    reusableByRecipeId = Map.copyOf(templatesByRecipeId);
+                    pendingFullCompile = false;
+                    pendingOutputItemIds.clear();
+                }
+            }
+            return fresh;
+        }
+    }
+
+    public Optional<FlipIdentityService.Identity> precomputedIdentity(Flip flip) {
+        CompiledTemplates local = compiled;
+        if (local == null || flip == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(local.identitiesByPrototype().get(flip));
+    }
+
+    /**
+     * Drops all compiled templates; the next compilation maps every recipe again.
+     */
+    public void invalidate() {
+        synchronized (pendingLock) {
+            pendingFullCompile = true;
+            pendingOutputItemIds.clear();
+            version.incrementAndGet();
+            compiled = null;
+        }
+    }
+
+    /**
+     * Drops the compiled templates after the given output items were re-ingested; the next compilation re-maps only
+     * their recipes.
+     */
+    public void invalidate(Collection<String> changedOutputItemIds) {
+        synchronized (pendingLock) {
+            if (!pendingFullCompile && changedOutputItemIds != null) {
+                pendingOutputItemIds.addAll(changedOutputItemIds);
+            }
+            version.incrementAndGet();
+            compiled = null;
+        }
+    }
+
+    private CompiledTemplates compile(long compileVersion,
+                                      Map<String, FlipTemplate> reusable,
+                                      Set<String> changedOutputItemIds,
+                                      Map<String, FlipTemplate> templatesByRecipeId) {
+        List<Recipe> recipes = recipeRepository.findAll(Sort.by("recipeId").ascending());
+        List<FlipTemplate> templates = new ArrayList<>(recipes.size());
+        Map<Flip, FlipIdentityService.Identity> identitiesByPrototype = new IdentityHashMap<>(recipes.size());
+        int skipped = 0;
+        for (Recipe recipe : recipes) {
+            FlipTemplate template = reusable.get(recipe.getRecipeId());
+            if (template == null || recipe.getOutputItem() == null
+                    || changedOutputItemIds.contains(recipe.getOutputItem().getId())) {
+                Flip prototype = recipeToFlipMapper.fromRecipe(recipe);
+                if (prototype == null) {
+                    skipped++;
+                    continue;
+                }
+                template = new FlipTemplate(prototype, flipIdentityService.derive(prototype));
+            }
+            templates.add(template);
+            templatesByRecipeId.put(recipe.getRecipeId(), template);
+            identitiesByPrototype.put(template.prototype(), template.identity());
+        }
+        return new CompiledTemplates(
+                compileVersion,
+                List.copyOf(templates),
+                skipped,
+                Collections.unmodifiableMap(identitiesByPrototype)
+        );
+    }
+
+    public record CompiledTemplates(
+            long version,
+            List<FlipTemplate> templates,
+            int skippedCount,
+            Map<Flip, FlipIdentityService.Identity> identitiesByPrototype
+    ) {
+        public boolean isEmpty() {
+            return templates.isEmpty();
+        }
+    }
+
+    public record FlipTemplate(
+            Flip prototype,
+            FlipIdentityService.Identity identity
+    ) {
+        public Flip newInstance() {
+            List<Step> steps = new ArrayList<>(prototype.getSteps().size());
+            for (Step step : prototype.getSteps()) {
+                steps.add(new Step(
+                        null,
+                        step.getType(),
+                        step.getDurationType(),
+                        step.getBaseDurationSeconds(),
+                        step.getDurationFactor(),
+                        step.getResource(),
+                        step.getResourceUnits(),
+                        step.getSchedulingPolicy(),
+                        step.getParamsJson()
+                ));
+            }
+            return new Flip(null, prototype.getFlipType(), steps, prototype.getResultItemId(), prototype.getConstraints());
+        }
+    }
+}
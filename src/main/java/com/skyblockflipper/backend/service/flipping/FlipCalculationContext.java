@@ -2,14 +2,97 @@ package com.skyblockflipper.backend.service.flipping;
 
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
 
-public record FlipCalculationContext(
-        UnifiedFlipInputSnapshot marketSnapshot,
-        double bazaarTaxRate,
-        double auctionTaxMultiplier,
-        boolean electionPartial,
-        FlipScoreFeatureSet scoreFeatureSet
-) {
+import java.util.Objects;
+
+/**
+ * Market inputs and tax settings that flips are priced against. The {@link FlipPricingKernel} over the snapshot is
+ * built lazily and at most once per context, so every flip mapped with the same context shares it while concurrent
+ * requests with their own contexts never evict each other's kernel.
+ */
+public final class FlipCalculationContext {
+
+    private final UnifiedFlipInputSnapshot marketSnapshot;
+    private final double bazaarTaxRate;
+    private final double auctionTaxMultiplier;
+    private final boolean electionPartial;
+    private final FlipScoreFeatureSet scoreFeatureSet;
+    private volatile FlipPricingKernel pricingKernel;
+
+    public FlipCalculationContext(UnifiedFlipInputSnapshot marketSnapshot,
+                                  double bazaarTaxRate,
+                                  double auctionTaxMultiplier,
+                                  boolean electionPartial,
+                                  FlipScoreFeatureSet scoreFeatureSet) {
+        this.marketSnapshot = marketSnapshot;
+        this.bazaarTaxRate = bazaarTaxRate;
+        this.auctionTaxMultiplier = auctionTaxMultiplier;
+        this.electionPartial = electionPartial;
+        this.scoreFeatureSet = scoreFeatureSet;
+    }
+
     public static FlipCalculationContext standard(UnifiedFlipInputSnapshot snapshot) {
         return new FlipCalculationContext(snapshot, 0.0125D, 1.0D, false, FlipScoreFeatureSet.empty());
     }
+
+    public UnifiedFlipInputSnapshot marketSnapshot() {
+        return marketSnapshot;
+    }
+
+    public double bazaarTaxRate() {
+        return bazaarTaxRate;
+    }
+
+    public double auctionTaxMultiplier() {
+        return auctionTaxMultiplier;
+    }
+
+    public boolean electionPartial() {
+        return electionPartial;
+    }
+
+    public FlipScoreFeatureSet scoreFeatureSet() {
+        return scoreFeatureSet;
+    }
+
+    FlipPricingKernel pricingKernel() {
+        FlipPricingKernel local = pricingKernel;
+        if (local != null) {
+            return local;
+        }
+        synchronized (this) {
+            if (pricingKernel == null) {
+                pricingKernel = FlipPricingKernel.build(marketSnapshot, scoreFeatureSet);
+            }
+            return pricingKernel;
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof FlipCalculationContext that)) {
+            return false;
+        }
+        return Double.compare(bazaarTaxRate, that.bazaarTaxRate) == 0
+                && Double.compare(auctionTaxMultiplier, that.auctionTaxMultiplier) == 0
+                && electionPartial == that.electionPartial
+                && Objects.equals(marketSnapshot, that.marketSnapshot)
+                && Objects.equals(scoreFeatureSet, that.scoreFeatureSet);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(marketSnapshot, bazaarTaxRate, auctionTaxMultiplier, electionPartial, scoreFeatureSet);
+    }
+
+    @Override
+    public String toString() {
+        return "FlipCalculationContext[marketSnapshot=" + marketSnapshot
+                + ", bazaarTaxRate=" + bazaarTaxRate
+                + ", auctionTaxMultiplier=" + auctionTaxMultiplier
+                + ", electionPartial=" + electionPartial
+                + ", scoreFeatureSet=" + scoreFeatureSet + "]";
+    }
 }
@@ -31,6 +31,7 @@ public class FlipGenerationService {
     private final UnifiedFlipStorageService unifiedFlipStorageService;
     private final FlipStorageProperties flipStorageProperties;
     private final Object generationLock = new Object();
+    private CompiledFlipTemplateCache compiledFlipTemplateCache;
 
     public FlipGenerationService(FlipRepository flipRepository,
                                  RecipeRepository recipeRepository,
@@ -76,6 +77,11 @@ public class FlipGenerationService {
         validateStorageConfiguration();
     }
 
+    @Autowired(required = false)
+    public void setCompiledFlipTemplateCache(CompiledFlipTemplateCache compiledFlipTemplateCache) {
+        this.compiledFlipTemplateCache = compiledFlipTemplateCache;
+    }
+
     @Transactional
     public GenerationResult generateIfMissingForSnapshot(Instant snapshotTimestamp) {
         synchronized (generationLock) {
@@ -106,41 +112,67 @@ public class FlipGenerationService {
             return new GenerationResult(0, 0, true);
         }
         long snapshotEpochMillis = snapshotTimestamp.toEpochMilli();
-        List<Recipe> recipes = recipeRepository.findAll(Sort.by("recipeId").ascending());
+        RecipeFlips recipeFlips = loadRecipeFlips();
         Optional<UnifiedFlipInputSnapshot> marketInputSnapshot = loadMarketInputSnapshot(snapshotTimestamp);
-        if (recipes.isEmpty() && marketInputSnapshot.isEmpty()) {
+        if (recipeFlips.isEmpty() && marketInputSnapshot.isEmpty()) {
             return new GenerationResult(0, 0, true);
         }
-        if (isLegacyWriteEnabled()) {
+        boolean legacyWriteEnabled = isLegacyWriteEnabled();
+        if (legacyWriteEnabled) {
             flipRepository.deleteBySnapshotTimestampEpochMillis(snapshotEpochMillis);
         }
 
-        List<Flip> generatedFlips = new ArrayList<>(recipes.size() + (marketInputSnapshot.isPresent() ? 128 : 0));
-        int skipped = 0;
-        for (Recipe recipe : recipes) {
-            Flip mapped = recipeToFlipMapper.fromRecipe(recipe);
-            if (mapped == null) {
-                skipped++;
-                continue;
-            }
-            generatedFlips.add(mapped);
-        }
-        marketInputSnapshot.ifPresent(snapshot -> generatedFlips.addAll(marketFlipMapper.fromMarketSnapshot(snapshot)));
-        for (Flip flip : generatedFlips) {
+        List<Flip> marketFlips = marketInputSnapshot
+                .map(snapshot -> marketFlipMapper.fromMarketSnapshot(snapshot))
+                .orElse(List.of());
+        for (Flip flip : marketFlips) {
             flip.setSnapshotTimestampEpochMillis(snapshotEpochMillis);
         }
+        // Shared template prototypes feed unified storage as-is; the legacy table gets its own entity instances.
+        List<Flip> generatedFlips = new ArrayList<>(recipeFlips.size() + marketFlips.size());
+        generatedFlips.addAll(recipeFlips.prototypes());
+        generatedFlips.addAll(marketFlips);
 
         if (isDualWriteEnabled() && unifiedFlipStorageService != null) {
             unifiedFlipStorageService.clearSnapshotData(snapshotEpochMillis);
         }
 
-        if (!generatedFlips.isEmpty() && isLegacyWriteEnabled()) {
-            flipRepository.saveAll(generatedFlips);
+        if (!generatedFlips.isEmpty() && legacyWriteEnabled) {
+            List<Flip> legacyFlips = new ArrayList<>(generatedFlips.size());
+            legacyFlips.addAll(recipeFlips.newInstances());
+            legacyFlips.addAll(marketFlips);
+            for (Flip flip : legacyFlips) {
+                flip.setSnapshotTimestampEpochMillis(snapshotEpochMillis);
+            }
+            flipRepository.saveAll(legacyFlips);
         }
         if (!generatedFlips.isEmpty() && isDualWriteEnabled() && unifiedFlipStorageService != null) {
             unifiedFlipStorageService.persistSnapshotFlips(generatedFlips, snapshotTimestamp);
         }
-        return new GenerationResult(generatedFlips.size(), skipped, false);
+        return new GenerationResult(generatedFlips.size(), recipeFlips.skippedCount(), false);
+    }
+
+    private RecipeFlips loadRecipeFlips() {
+        if (compiledFlipTemplateCache != null) {
+            CompiledFlipTemplateCache.CompiledTemplates compiled = compiledFlipTemplateCache.templates();
+            List<Flip> prototypes = new ArrayList<>(compiled.templates().size());
+            for (CompiledFlipTemplateCache.FlipTemplate template : compiled.templates()) {
+                prototypes.add(template.prototype());
+            }
+            return new RecipeFlips(prototypes, compiled.skippedCount(), compiled.templates());
+        }
+        List<Recipe> recipes = recipeRepository.findAll(Sort.by("recipeId").ascending());
+        List<Flip> mapped = new ArrayList<>(recipes.size());
+        int skipped = 0;
+        for (Recipe recipe : recipes) {
+            Flip flip = recipeToFlipMapper.fromRecipe(recipe);
+            if (flip == null) {
+                skipped++;
+                continue;
+            }
+            mapped.add(flip);
+        }
+        return new RecipeFlips(mapped, skipped, null);
     }
 
     private boolean existsSnapshotInActiveStorage(long snapshotEpochMillis) {
@@ -211,6 +243,31 @@ public class FlipGenerationService {
         return marketSnapshotPersistenceService.asOf(snapshotTimestamp).map(unifiedFlipInputMapper::map);
     }
 
+    private record RecipeFlips(
+            List<Flip> prototypes,
+            int skippedCount,
+            List<CompiledFlipTemplateCache.FlipTemplate> templates
+    ) {
+        private boolean isEmpty() {
+            return prototypes.isEmpty() && skippedCount == 0;
+        }
+
+        private int size() {
+            return prototypes.size();
+        }
+
+        private List<Flip> newInstances() {
+            if (templates == null) {
+                return prototypes;
+            }
+            List<Flip> copies = new ArrayList<>(templates.size());
+            for (CompiledFlipTemplateCache.FlipTemplate template : templates) {
+                copies.add(template.newInstance());
+            }
+            return copies;
+        }
+    }
+
     public record GenerationResult(
             int generatedCount,
             int skippedCount,
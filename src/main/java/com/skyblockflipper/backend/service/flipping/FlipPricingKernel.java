@@ -0,0 +1,205 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-snapshot pricing inputs for {@link UnifiedFlipDtoMapper}, laid out as primitive columns indexed by an interned
+ * item id. Unit prices, depth, relative spreads and turnover are derived once from the market snapshot and the score
+ * features, so mapping every flip of a snapshot only does array reads instead of quote lookups and recomputation.
+ */
+final class FlipPricingKernel {
+
+    static final int MISSING = -1;
+
+    private final Map<String, Integer> indexByItemId;
+
+    private final boolean[] hasBazaar;
+    private final double[] bazaarBuyPrice;
+    private final double[] bazaarSellPrice;
+    private final long[] buyDepth;
+    private final long[] sellDepth;
+    private final double[] bazaarRelativeSpread;
+    private final double[] buyTurnoverPerHour;
+    private final double[] sellTurnoverPerHour;
+    private final boolean[] structurallyIlliquid;
+
+    private final boolean[] hasAuction;
+    private final double[] auctionBuyPrice;
+    private final double[] auctionSellPrice;
+    private final double[] auctionRelativeSpread;
+    private final double[] auctionSampleLiquidity;
+
+    private FlipPricingKernel(UnifiedFlipInputSnapshot marketSnapshot, FlipScoreFeatureSet scoreFeatureSet) {
+        UnifiedFlipInputSnapshot quotes = marketSnapshot == null
+                ? new UnifiedFlipInputSnapshot(null, null, null)
+                : marketSnapshot;
+        FlipScoreFeatureSet features = scoreFeatureSet == null ? FlipScoreFeatureSet.empty() : scoreFeatureSet;
+        Map<String, UnifiedFlipInputSnapshot.BazaarQuote> bazaarQuotes = quotes.bazaarQuotes();
+        Map<String, UnifiedFlipInputSnapshot.AuctionQuote> auctionQuotes = quotes.auctionQuotesByItem();
+        Set<String> itemIds = new LinkedHashSet<>(bazaarQuotes.keySet());
+        itemIds.addAll(auctionQuotes.keySet());
+        int size = itemIds.size();
+
+        this.indexByItemId = new HashMap<>(Math.max(16, size * 2));
+        this.hasBazaar = new boolean[size];
+        this.bazaarBuyPrice = new double[size];
+        this.bazaarSellPrice = new double[size];
+        this.buyDepth = new long[size];
+        this.sellDepth = new long[size];
+        this.bazaarRelativeSpread = new double[size];
+        this.buyTurnoverPerHour = new double[size];
+        this.sellTurnoverPerHour = new double[size];
+        this.structurallyIlliquid = new boolean[size];
+        this.hasAuction = new boolean[size];
+        this.auctionBuyPrice = new double[size];
+        this.auctionSellPrice = new double[size];
+        this.auctionRelativeSpread = new double[size];
+        this.auctionSampleLiquidity = new double[size];
+
+        int index = 0;
+        for (String itemId : itemIds) {
+            indexByItemId.put(itemId, index);
+            UnifiedFlipInputSnapshot.BazaarQuote bazaar = bazaarQuotes.get(itemId);
+            if (bazaar != null) {
+                hasBazaar[index] = true;
+                bazaarBuyPrice[index] = bazaar.buyPrice();
+                bazaarSellPrice[index] = bazaar.sellPrice();
+                // Buying fills against sell offers, selling fills against buy orders.
+                buyDepth[index] = bazaar.sellVolume();
+                sellDepth[index] = bazaar.buyVolume();
+                bazaarRelativeSpread[index] = relativeSpread(bazaar);
+                buyTurnoverPerHour[index] = (bazaar.sellMovingWeek() > 0 ? bazaar.sellMovingWeek() : bazaar.sellVolume()) / 168D;
+                sellTurnoverPerHour[index] = (bazaar.buyMovingWeek() > 0 ? bazaar.buyMovingWeek() : bazaar.buyVolume()) / 168D;
+            }
+            UnifiedFlipInputSnapshot.AuctionQuote auction = auctionQuotes.get(itemId);
+            if (auction != null) {
+                hasAuction[index] = true;
+                auctionBuyPrice[index] = auction.lowestStartingBid();
+                auctionSellPrice[index] = conservativeAuctionSellUnitPrice(auction);
+                auctionRelativeSpread[index] = auctionRelativeSpread(auction);
+                auctionSampleLiquidity[index] = 1D - Math.exp(-(double) auction.sampleSize() / 12D);
+            }
+            FlipScoreFeatureSet.ItemTimescaleFeatures itemFeatures = features.get(itemId);
+            structurallyIlliquid[index] = itemFeatures != null && itemFeatures.structurallyIlliquid();
+            index++;
+        }
+    }
+
+    static FlipPricingKernel build(UnifiedFlipInputSnapshot marketSnapshot, FlipScoreFeatureSet scoreFeatureSet) {
+        return new FlipPricingKernel(marketSnapshot, scoreFeatureSet);
+    }
+
+    int size() {
+        return hasBazaar.length;
+    }
+
+    int indexOf(String itemId) {
+        Integer index = itemId == null ? null : indexByItemId.get(itemId);
+        return index == null ? MISSING : index;
+    }
+
+    boolean hasBazaarBuy(int item) {
+        return item != MISSING && hasBazaar[item] && bazaarBuyPrice[item] > 0;
+    }
+
+    boolean hasBazaarSell(int item) {
+        return item != MISSING && hasBazaar[item] && bazaarSellPrice[item] > 0;
+    }
+
+    boolean hasAuctionBuy(int item) {
+        return item != MISSING && hasAuction[item] && auctionBuyPrice[item] > 0;
+    }
+
+    boolean hasAuctionSell(int item) {
+        return item != MISSING && hasAuction[item] && auctionSellPrice[item] > 0D;
+    }
+
+    double bazaarBuyPrice(int item) {
+        return bazaarBuyPrice[item];
+    }
+
+    double bazaarSellPrice(int item) {
+        return bazaarSellPrice[item];
+    }
+
+    double auctionBuyPrice(int item) {
+        return auctionBuyPrice[item];
+    }
+
+    double auctionSellPrice(int item) {
+        return auctionSellPrice[item];
+    }
+
+    long depth(int item, boolean buying) {
+        return buying ? buyDepth[item] : sellDepth[item];
+    }
+
+    double turnoverPerHour(int item, boolean buying) {
+        return buying ? buyTurnoverPerHour[item] : sellTurnoverPerHour[item];
+    }
+
+    double bazaarRelativeSpread(int item) {
+        return bazaarRelativeSpread[item];
+    }
+
+    boolean structurallyIlliquid(int item) {
+        return structurallyIlliquid[item];
+    }
+
+    double auctionRelativeSpread(int item) {
+        return auctionRelativeSpread[item];
+    }
+
+    double auctionSampleLiquidity(int item) {
+        return auctionSampleLiquidity[item];
+    }
+
+    static double relativeSpread(UnifiedFlipInputSnapshot.BazaarQuote bazaarQuote) {
+        double high = Math.max(bazaarQuote.buyPrice(), bazaarQuote.sellPrice());
+        double low = Math.min(bazaarQuote.buyPrice(), bazaarQuote.sellPrice());
+        double mid = (high + low) / 2D;
+        if (mid <= 0D) {
+            return 1D;
+        }
+        return Math.max(0D, (high - low) / mid);
+    }
+
+    static double auctionRelativeSpread(UnifiedFlipInputSnapshot.AuctionQuote quote) {
+        if (quote == null || quote.lowestStartingBid() <= 0L || quote.secondLowestStartingBid() <= 0L) {
+            return 1D;
+        }
+        double low = quote.lowestStartingBid();
+        double high = Math.max(low, quote.secondLowestStartingBid());
+        return Math.max(0D, (high - low) / low);
+    }
+
+    static double conservativeAuctionSellUnitPrice(UnifiedFlipInputSnapshot.AuctionQuote quote) {
+        if (quote == null) {
+            return 0D;
+        }
+        if (quote.p25ObservedPrice() > 0D && quote.secondLowestStartingBid() > 0L) {
+            return Math.min(quote.p25ObservedPrice(), quote.secondLowestStartingBid());
+        }
+        if (quote.p25ObservedPrice() > 0D) {
+            return quote.p25ObservedPrice();
+        }
+        if (quote.secondLowestStartingBid() > 0L && quote.medianObservedPrice() > 0D) {
+            return Math.min(quote.secondLowestStartingBid(), quote.medianObservedPrice() * 0.97D);
+        }
+        if (quote.secondLowestStartingBid() > 0L) {
+            return quote.secondLowestStartingBid();
+        }
+        if (quote.medianObservedPrice() > 0D) {
+            return quote.medianObservedPrice() * 0.97D;
+        }
+        if (quote.averageObservedPrice() > 0D) {
+            return quote.averageObservedPrice() * 0.95D;
+        }
+        return quote.highestObservedBid() > 0L ? quote.highestObservedBid() : 0D;
+    }
+}
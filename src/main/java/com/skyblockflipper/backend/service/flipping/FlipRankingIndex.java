@@ -0,0 +1,270 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.api.dto.FlipSortBy;
+import com.skyblockflipper.backend.api.dto.UnifiedFlipDto;
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, per-snapshot view of the current flips laid out as primitive columns, with one pre-sorted permutation
+ * per {@link FlipSortBy} and direction. Orderings match the in-memory comparators of {@link FlipReadService}: nulls
+ * last in both directions, ties broken by the stable flip id.
+ */
+public final class FlipRankingIndex {
+
+    private final Long snapshotEpochMillis;
+    private final UnifiedFlipDto[] flips;
+    private final FlipType[] flipTypes;
+    private final boolean[] partial;
+    private final LongColumn expectedProfit;
+    private final LongColumn requiredCapital;
+    private final LongColumn fees;
+    private final LongColumn durationSeconds;
+    private final DoubleColumn roi;
+    private final DoubleColumn roiPerHour;
+    private final DoubleColumn liquidityScore;
+    private final DoubleColumn riskScore;
+    private final int[][] ascending = new int[FlipSortBy.values().length][];
+    private final int[][] descending = new int[FlipSortBy.values().length][];
+    private final Map<FlipType, List<UnifiedFlipDto>> flipsByType = new EnumMap<>(FlipType.class);
+    private final Map<Object, Object> derived = new ConcurrentHashMap<>();
+
+    private FlipRankingIndex(Long snapshotEpochMillis, List<UnifiedFlipDto> source) {
+        List<UnifiedFlipDto> present = new ArrayList<>(source.size());
+        for (UnifiedFlipDto dto : source) {
+            if (dto != null) {
+                present.add(dto);
+            }
+        }
+        int size = present.size();
+        this.snapshotEpochMillis = snapshotEpochMillis;
+        this.flips = present.toArray(new UnifiedFlipDto[0]);
+        this.flipTypes = new FlipType[size];
+        this.partial = new boolean[size];
+        String[] ids = new String[size];
+        for (int i = 0; i < size; i++) {
+            UnifiedFlipDto dto = flips[i];
+            flipTypes[i] = dto.flipType();
+            partial[i] = dto.partial();
+            ids[i] = dto.id() == null ? "" : dto.id().toString();
+            if (dto.flipType() != null) {
+                flipsByType.computeIfAbsent(dto.flipType(), ignored -> new ArrayList<>()).add(dto);
+            }
+        }
+        flipsByType.replaceAll((ignored, values) -> List.copyOf(values));
+        this.expectedProfit = LongColumn.of(flips, UnifiedFlipDto::expectedProfit);
+        this.requiredCapital = LongColumn.of(flips, UnifiedFlipDto::requiredCapital);
+        this.fees = LongColumn.of(flips, UnifiedFlipDto::fees);
+        this.durationSeconds = LongColumn.of(flips, UnifiedFlipDto::durationSeconds);
+        this.roi = DoubleColumn.of(flips, UnifiedFlipDto::roi);
+        this.roiPerHour = DoubleColumn.of(flips, UnifiedFlipDto::roiPerHour);
+        this.liquidityScore = DoubleColumn.of(flips, UnifiedFlipDto::liquidityScore);
+        this.riskScore = DoubleColumn.of(flips, UnifiedFlipDto::riskScore);
+        for (FlipSortBy sortBy : FlipSortBy.values()) {
+            ascending[sortBy.ordinal()] = permutation(sortBy, false, ids);
+            descending[sortBy.ordinal()] = permutation(sortBy, true, ids);
+        }
+    }
+
+    public static FlipRankingIndex build(Long snapshotEpochMillis, List<UnifiedFlipDto> flips) {
+        return new FlipRankingIndex(snapshotEpochMillis, flips == null ? List.of() : flips);
+    }
+
+    public Long snapshotEpochMillis() {
+        return snapshotEpochMillis;
+    }
+
+    public int size() {
+        return flips.length;
+    }
+
+    public List<UnifiedFlipDto> flips(FlipType flipType) {
+        if (flipType == null) {
+            return List.of(flips);
+        }
+        return flipsByType.getOrDefault(flipType, List.of());
+    }
+
+    /**
+     * Values derived from this snapshot (actionable masks, goodness rankings) live exactly as long as the index.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T derive(Object key, Function<FlipRankingIndex, T> computer) {
+        return (T) derived.computeIfAbsent(key, ignored -> computer.apply(this));
+    }
+
+    public boolean[] mask(Predicate<UnifiedFlipDto> predicate) {
+        boolean[] mask = new boolean[flips.length];
+        for (int i = 0; i < flips.length; i++) {
+            mask[i] = predicate.test(flips[i]);
+        }
+        return mask;
+    }
+
+    public Selection select(FlipType flipType,
+                            Filter filter,
+                            boolean[] eligible,
+                            FlipSortBy sortBy,
+                            Sort.Direction direction,
+                            long offset,
+                            int limit) {
+        FlipSortBy resolvedSortBy = sortBy == null ? FlipSortBy.EXPECTED_PROFIT : sortBy;
+        int[] order = direction == Sort.Direction.ASC
+                ? ascending[resolvedSortBy.ordinal()]
+                : descending[resolvedSortBy.ordinal()];
+        Filter resolvedFilter = filter == null ? Filter.NONE : filter;
+        long skip = Math.max(0L, offset);
+        int capacity = Math.max(0, limit);
+        List<UnifiedFlipDto> content = new ArrayList<>(Math.min(capacity, 64));
+        long total = 0L;
+        for (int index : order) {
+            if ((eligible != null && !eligible[index])
+                    || (flipType != null && flipTypes[index] != flipType)
+                    || !matches(index, resolvedFilter)) {
+                continue;
+            }
+            if (total >= skip && content.size() < capacity) {
+                content.add(flips[index]);
+            }
+            total++;
+        }
+        return new Selection(List.copyOf(content), total);
+    }
+
+    private boolean matches(int index, Filter filter) {
+        return liquidityScore.atLeast(index, filter.minLiquidityScore())
+                && riskScore.atMost(index, filter.maxRiskScore())
+                && expectedProfit.atLeast(index, filter.minExpectedProfit())
+                && roi.atLeast(index, filter.minRoi())
+                && roiPerHour.atLeast(index, filter.minRoiPerHour())
+                && requiredCapital.atMost(index, filter.maxRequiredCapital())
+                && (filter.partial() == null || partial[index] == filter.partial());
+    }
+
+    private int[] permutation(FlipSortBy sortBy, boolean descendingOrder, String[] ids) {
+        Comparator<Integer> byValue = switch (sortBy) {
+            case EXPECTED_PROFIT -> expectedProfit.comparator(descendingOrder);
+            case ROI -> roi.comparator(descendingOrder);
+            case ROI_PER_HOUR -> roiPerHour.comparator(descendingOrder);
+            case LIQUIDITY_SCORE -> liquidityScore.comparator(descendingOrder);
+            case RISK_SCORE -> riskScore.comparator(descendingOrder);
+            case REQUIRED_CAPITAL -> requiredCapital.comparator(descendingOrder);
+            case FEES -> fees.comparator(descendingOrder);
+            case DURATION_SECONDS -> durationSeconds.comparator(descendingOrder);
+        };
+        Integer[] boxed = new Integer[flips.length];
+        for (int i = 0; i < boxed.length; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, byValue.thenComparing(index -> ids[index]));
+        int[] order = new int[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    public record Filter(
+            Double minLiquidityScore,
+            Double maxRiskScore,
+            Long minExpectedProfit,
+            Double minRoi,
+            Double minRoiPerHour,
+            Long maxRequiredCapital,
+            Boolean partial
+    ) {
+        static final Filter NONE = new Filter(null, null, null, null, null, null, null);
+    }
+
+    public record Selection(
+            List<UnifiedFlipDto> content,
+            long total
+    ) {
+    }
+
+    private record LongColumn(long[] values, boolean[] present) {
+
+        private static LongColumn of(UnifiedFlipDto[] flips, Function<UnifiedFlipDto, Long> extractor) {
+            long[] values = new long[flips.length];
+            boolean[] present = new boolean[flips.length];
+            for (int i = 0; i < flips.length; i++) {
+                Long value = extractor.apply(flips[i]);
+                if (value != null) {
+                    values[i] = value;
+                    present[i] = true;
+                }
+            }
+            return new LongColumn(values, present);
+        }
+
+        private boolean atLeast(int index, Long bound) {
+            return bound == null || (present[index] && values[index] >= bound);
+        }
+
+        private boolean atMost(int index, Long bound) {
+            return bound == null || (present[index] && values[index] <= bound);
+        }
+
+        private Comparator<Integer> comparator(boolean descendingOrder) {
+            return (left, right) -> {
+                if (present[left] != present[right]) {
+                    return present[left] ? -1 : 1;
+                }
+                if (!present[left]) {
+                    return 0;
+                }
+                return descendingOrder
+                        ? Long.compare(values[right], values[left])
+                        : Long.compare(values[left], values[right]);
+            };
+        }
+    }
+
+    private record DoubleColumn(double[] values, boolean[] present) {
+
+        private static DoubleColumn of(UnifiedFlipDto[] flips, Function<UnifiedFlipDto, Double> extractor) {
+            double[] values = new double[flips.length];
+            boolean[] present = new boolean[flips.length];
+            for (int i = 0; i < flips.length; i++) {
+                Double value = extractor.apply(flips[i]);
+                if (value != null) {
+                    values[i] = value;
+                    present[i] = true;
+                }
+            }
+            return new DoubleColumn(values, present);
+        }
+
+        private boolean atLeast(int index, Double bound) {
+            return bound == null || (present[index] && !(values[index] < bound));
+        }
+
+        private boolean atMost(int index, Double bound) {
+            return bound == null || (present[index] && !(values[index] > bound));
+        }
+
+        private Comparator<Integer> comparator(boolean descendingOrder) {
+            return (left, right) -> {
+                if (present[left] != present[right]) {
+                    return present[left] ? -1 : 1;
+                }
+                if (!present[left]) {
+                    return 0;
+                }
+                return descendingOrder
+                        ? Double.compare(values[right], values[left])
+                        : Double.compare(values[left], values[right]);
+            };
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.service.flipping.storage.FlipStorageProperties;
+import com.skyblockflipper.backend.service.flipping.storage.UnifiedFlipCurrentReadService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the {@link FlipRankingIndex} for the latest persisted snapshot. Readers only ever get the published index and
+ * never touch the database. Rebuilds run on a single background thread: one is requested after a local write commits
+ * ({@link #markStale()}), by the periodic check for writes from other processes, and once when the first reader finds
+ * no index yet. A rebuild happens only when the latest snapshot timestamp moved, and the new index replaces the
+ * previous one atomically, which keeps being served until then.
+ */
+@Service
+@Slf4j
+public class FlipRankingIndexService {
+
+    private final UnifiedFlipCurrentReadService unifiedFlipCurrentReadService;
+    private final FlipStorageProperties flipStorageProperties;
+    private final ExecutorService refreshExecutor;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+    private volatile FlipRankingIndex index;
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public FlipRankingIndexService(UnifiedFlipCurrentReadService unifiedFlipCurrentReadService,
+                                   FlipStorageProperties flipStorageProperties) {
+        this(unifiedFlipCurrentReadService, flipStorageProperties, Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "flip-ranking-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    FlipRankingIndexService(UnifiedFlipCurrentReadService unifiedFlipCurrentReadService,
+                            FlipStorageProperties flipStorageProperties,
+                            ExecutorService refreshExecutor) {
+        this.unifiedFlipCurrentReadService = unifiedFlipCurrentReadService;
+        this.flipStorageProperties = flipStorageProperties;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("skyblock.flip.ranking_index.size", this, service -> {
+            FlipRankingIndex published = service.index;
+            return published == null ? 0D : published.size();
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * The published index, or empty while the index is disabled or its first build has not finished yet.
+     */
+    public Optional<FlipRankingIndex> current() {
+        if (!flipStorageProperties.isRankingIndexEnabled()) {
+            return Optional.empty();
+        }
+        FlipRankingIndex local = index;
+        if (local == null) {
+            requestRefresh();
+        }
+        return Optional.ofNullable(local);
+    }
+
+    public void markStale() {
+        requestRefresh();
+    }
+
+    /**
+     * Queues a background refresh unless one is already waiting; a request arriving while a rebuild runs queues the
+     * next one, so a snapshot committed mid-rebuild is picked up.
+     */
+    public void requestRefresh() {
+        if (!flipStorageProperties.isRankingIndexEnabled() || !refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                refreshQueued.set(false);
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    log.warn("Failed to rebuild flip ranking index; keeping the previous one: {}", e.toString());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshQueued.set(false);
+        }
+    }
+
+    /**
+     * Rebuilds and publishes the index when the latest persisted snapshot differs from the published one.
+     */
+    public void refresh() {
+        synchronized (rebuildLock) {
+            Long latestSnapshot = unifiedFlipCurrentReadService.latestSnapshotEpochMillis().orElse(null);
+            FlipRankingIndex published = index;
+            if (published != null && Objects.equals(published.snapshotEpochMillis(), latestSnapshot)) {
+                return;
+            }
+            index = rebuild(latestSnapshot);
+        }
+    }
+
+    private FlipRankingIndex rebuild(Long latestSnapshot) {
+        long startedNanos = System.nanoTime();
+        FlipRankingIndex rebuilt = FlipRankingIndex.build(
+                latestSnapshot,
+                unifiedFlipCurrentReadService.listCurrentScoringDtos(null)
+        );
+        if (meterRegistry != null) {
+            meterRegistry.timer("skyblock.flip.ranking_index.rebuild")
+                    .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        }
+        return rebuilt;
+    }
+}
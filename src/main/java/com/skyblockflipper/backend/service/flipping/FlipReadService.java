@@ -63,6 +63,7 @@ public class FlipReadService {
     private final FlippingModelProperties flippingModelProperties;
     private final ConcurrentMap<GoodnessCacheKey, CachedGoodnessRanking> goodnessRankingCache = new ConcurrentHashMap<>();
     private final Object goodnessCacheLock = new Object();
+    private FlipRankingIndexService flipRankingIndexService;
 
     public FlipReadService(FlipRepository flipRepository,
                            UnifiedFlipDtoMapper unifiedFlipDtoMapper,
@@ -104,6 +105,11 @@ public class FlipReadService {
         this.flippingModelProperties = flippingModelProperties == null ? new FlippingModelProperties() : flippingModelProperties;
     }
 
+    @Autowired(required = false)
+    public void setFlipRankingIndexService(FlipRankingIndexService flipRankingIndexService) {
+        this.flipRankingIndexService = flipRankingIndexService;
+    }
+
     public Page<UnifiedFlipDto> listFlips(FlipType flipType, Pageable pageable) {
         return listFlips(flipType, null, pageable);
     }
@@ -160,6 +166,30 @@ public class FlipReadService {
                                             Sort.Direction sortDirection,
                                             Pageable pageable) {
         if (useCurrentStorage(snapshotTimestamp)) {
+            Optional<FlipRankingIndex> rankingIndex = rankingIndex();
+            if (rankingIndex.isPresent()) {
+                boolean paged = pageable != null && pageable.isPaged();
+                FlipRankingIndex.Selection selection = rankingIndex.get().select(
+                        flipType,
+                        new FlipRankingIndex.Filter(
+                                minLiquidityScore,
+                                maxRiskScore,
+                                minExpectedProfit,
+                                minRoi,
+                                minRoiPerHour,
+                                maxRequiredCapital,
+                                partial
+                        ),
+                        actionableMask(rankingIndex.get()),
+                        sortBy,
+                        sortDirection,
+                        paged ? pageable.getOffset() : 0L,
+                        paged ? pageable.getPageSize() : Integer.MAX_VALUE
+                );
+                return hydrateCurrentUnifiedPage(paged
+                        ? new PageImpl<>(selection.content(), pageable, selection.total())
+                        : new PageImpl<>(selection.content()));
+            }
             if (pageable != null && pageable.isPaged() && !flippingModelProperties.isRecommendationGatesEnabled()) {
                 Pageable sqlPageable = OffsetLimitPageRequest.of(
                         Math.max(0L, pageable.getOffset()),
@@ -237,6 +267,26 @@ public class FlipReadService {
                                          int limit) {
         int safeLimit = sanitizeTopLimit(limit);
         if (useCurrentStorage(snapshotTimestamp)) {
+            Optional<FlipRankingIndex> rankingIndex = rankingIndex();
+            if (rankingIndex.isPresent()) {
+                return hydrateCurrentUnifiedList(rankingIndex.get().select(
+                        flipType,
+                        new FlipRankingIndex.Filter(
+                                minLiquidityScore,
+                                maxRiskScore,
+                                minExpectedProfit,
+                                minRoi,
+                                minRoiPerHour,
+                                maxRequiredCapital,
+                                partial
+                        ),
+                        actionableMask(rankingIndex.get()),
+                        FlipSortBy.EXPECTED_PROFIT,
+                        Sort.Direction.DESC,
+                        0L,
+                        safeLimit
+                ).content());
+            }
             if (!flippingModelProperties.isRecommendationGatesEnabled()) {
                 Pageable sqlPageable = OffsetLimitPageRequest.of(
                         0L,
@@ -300,7 +350,10 @@ public class FlipReadService {
 
     public FlipSummaryStatsDto summaryStats(FlipType flipType, Instant snapshotTimestamp) {
         if (useCurrentStorage(snapshotTimestamp)) {
-            List<UnifiedFlipDto> mapped = unifiedFlipCurrentReadService.listCurrentScoringDtos(flipType);
+            Optional<FlipRankingIndex> rankingIndex = rankingIndex();
+            List<UnifiedFlipDto> mapped = rankingIndex
+                    .map(index -> index.flips(flipType))
+                    .orElseGet(() -> unifiedFlipCurrentReadService.listCurrentScoringDtos(flipType));
             long avgProfit = Math.round(mapped.stream()
                     .map(UnifiedFlipDto::expectedProfit)
                     .filter(value -> value != null && value > 0)
@@ -318,7 +371,9 @@ public class FlipReadService {
                     .orElse(0L);
 
             Map<String, Long> byType = new LinkedHashMap<>();
-            Map<FlipType, Long> counts = unifiedFlipCurrentReadService.countsByType();
+            Map<FlipType, Long> counts = rankingIndex.isPresent()
+                    ? indexedCountsByType(rankingIndex.get())
+                    : unifiedFlipCurrentReadService.countsByType();
             for (FlipType type : FlipType.values()) {
                 long count = counts.getOrDefault(type, 0L);
                 if (flipType == null || flipType == type) {
@@ -484,7 +539,14 @@ public class FlipReadService {
         }
 
         List<FlipGoodnessDto> ranked;
-        if (usingCurrentStorage) {
+        Optional<FlipRankingIndex> rankingIndex = usingCurrentStorage ? rankingIndex() : Optional.empty();
+        if (rankingIndex.isPresent()) {
+            FlipRankingIndex index = rankingIndex.get();
+            ranked = index.derive(
+                    GoodnessCacheKey.from(index.snapshotEpochMillis(), flipType, RankingMode.INDEXED_CURRENT, flippingModelProperties),
+                    value -> rankByGoodness(value.flips(flipType))
+            );
+        } else if (usingCurrentStorage) {
             Long snapshotEpochMillis = unifiedFlipCurrentReadService.latestSnapshotEpochMillis().orElse(null);
             ranked = cachedGoodnessRanking(
                     flipType,
@@ -1076,6 +1138,29 @@ public class FlipReadService {
         }
     }
 
+    private Optional<FlipRankingIndex> rankingIndex() {
+        return flipRankingIndexService == null ? Optional.empty() : flipRankingIndexService.current();
+    }
+
+    /**
+     * Same eligibility as the fallbacks: {@link #matchesFilters} rejects non-actionable flips, and the filtered SQL
+     * page excludes missing-price and insufficient-depth reasons.
+     */
+    private boolean[] actionableMask(FlipRankingIndex index) {
+        return index.derive(
+                GoodnessCacheKey.from(index.snapshotEpochMillis(), null, RankingMode.INDEXED_ACTIONABLE, flippingModelProperties),
+                value -> value.mask(this::isActionableFlip)
+        );
+    }
+
+    private Map<FlipType, Long> indexedCountsByType(FlipRankingIndex index) {
+        EnumMap<FlipType, Long> counts = new EnumMap<>(FlipType.class);
+        for (FlipType type : FlipType.values()) {
+            counts.put(type, (long) index.flips(type).size());
+        }
+        return counts;
+    }
+
     private boolean useCurrentStorage(Instant snapshotTimestamp) {
         return snapshotTimestamp == null && isReadFromNewEnabled() && unifiedFlipCurrentReadService != null;
     }
@@ -1579,7 +1664,9 @@ public class FlipReadService {
 
     private enum RankingMode {
         FULL_CURRENT,
-        BOUNDED_LEGACY
+        BOUNDED_LEGACY,
+        INDEXED_CURRENT,
+        INDEXED_ACTIONABLE
     }
 
     private record CachedGoodnessRanking(
@@ -7,6 +7,8 @@ import com.skyblockflipper.backend.model.Flipping.Enums.StepType;
 import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.Flipping.Step;
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
+import com.skyblockflipper.backend.service.market.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Component;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 
@@ -32,23 +35,42 @@ public class UnifiedFlipDtoMapper {
     private static final double EXECUTION_TIME_WEIGHT = 0.5D;
     private static final double STRUCTURAL_ILLIQUIDITY_PENALTY = 10D;
     private static final double DEPTH_SHORTAGE_PRICE_IMPACT = 0.35D;
+    private static final int MAX_PARSED_PARAMS = 65_536;
+    private static final Duration PARSED_PARAMS_TTL = Duration.ofHours(1);
+    static final String PARSED_PARAMS_METRIC_PREFIX = "skyblock.flip.step_params_cache";
 
     private static final Logger log = LoggerFactory.getLogger(UnifiedFlipDtoMapper.class);
     private final ObjectMapper objectMapper;
     private final FlipRiskScorer flipRiskScorer;
     private final FlipEconomicsService flipEconomicsService;
+    // Step params only come from compiled recipes and market flips, so parses are shared across flips and snapshots.
+    private final BoundedTtlCache<String, ParsedItemStack> parsedItemStacksByParamsJson;
 
     public UnifiedFlipDtoMapper(ObjectMapper objectMapper, FlipRiskScorer flipRiskScorer) {
         this(objectMapper, flipRiskScorer, new FlipEconomicsService());
     }
 
-    @Autowired
     public UnifiedFlipDtoMapper(ObjectMapper objectMapper,
                                 FlipRiskScorer flipRiskScorer,
                                 FlipEconomicsService flipEconomicsService) {
+        this(objectMapper, flipRiskScorer, flipEconomicsService, null);
+    }
+
+    @Autowired
+    public UnifiedFlipDtoMapper(ObjectMapper objectMapper,
+                                FlipRiskScorer flipRiskScorer,
+                                FlipEconomicsService flipEconomicsService,
+                                MeterRegistry meterRegistry) {
         this.objectMapper = objectMapper;
         this.flipRiskScorer = flipRiskScorer;
         this.flipEconomicsService = flipEconomicsService;
+        this.parsedItemStacksByParamsJson = new BoundedTtlCache<>(
+                PARSED_PARAMS_METRIC_PREFIX,
+                MAX_PARSED_PARAMS,
+                PARSED_PARAMS_TTL.toMillis(),
+                System::currentTimeMillis,
+                meterRegistry
+        );
     }
 
     public UnifiedFlipDto toDto(Flip flip) {
@@ -75,8 +97,8 @@ public class UnifiedFlipDtoMapper {
             partialReasons.add("MISSING_ELECTION_DATA");
         }
 
-        StepParseCache stepParseCache = StepParseCache.create();
-        PricingComputation pricing = computePricing(flip, snapshot, safeContext, partialReasons, stepParseCache);
+        FlipPricingKernel kernel = safeContext.pricingKernel();
+        PricingComputation pricing = computePricing(flip, kernel, safeContext, partialReasons);
         long minCapitalConstraint = resolveMinCapitalConstraint(flip.getConstraints());
         long requiredCapital = flipEconomicsService.computeRequiredCapital(
                 minCapitalConstraint,
@@ -96,8 +118,8 @@ public class UnifiedFlipDtoMapper {
         return new UnifiedFlipDto(
                 flip.getId(),
                 flip.getFlipType(),
-                mapInputItems(flip.getSteps(), stepParseCache),
-                mapOutputItems(flip, stepParseCache),
+                mapInputItems(flip.getSteps()),
+                mapOutputItems(flip),
                 requiredCapital,
                 expectedProfit,
                 roi,
@@ -114,7 +136,7 @@ public class UnifiedFlipDtoMapper {
         );
     }
 
-    private List<UnifiedFlipDto.ItemStackDto> mapInputItems(List<Step> steps, StepParseCache stepParseCache) {
+    private List<UnifiedFlipDto.ItemStackDto> mapInputItems(List<Step> steps) {
         if (steps == null || steps.isEmpty()) {
             return List.of();
         }
@@ -124,7 +146,7 @@ public class UnifiedFlipDtoMapper {
             if (step == null || step.getType() != StepType.BUY) {
                 continue;
             }
-            ParsedItemStack parsed = parseItemStack(step, stepParseCache);
+            ParsedItemStack parsed = parseItemStack(step);
             if (parsed != null) {
                 itemCounts.merge(parsed.itemId(), parsed.amount(), Integer::sum);
             }
@@ -132,7 +154,7 @@ public class UnifiedFlipDtoMapper {
         return toItemStackList(itemCounts);
     }
 
-    private List<UnifiedFlipDto.ItemStackDto> mapOutputItems(Flip flip, StepParseCache stepParseCache) {
+    private List<UnifiedFlipDto.ItemStackDto> mapOutputItems(Flip flip) {
         Map<String, Integer> itemCounts = new LinkedHashMap<>();
         List<Step> steps = flip.getSteps();
         if (steps != null) {
@@ -140,7 +162,7 @@ public class UnifiedFlipDtoMapper {
                 if (step == null || step.getType() != StepType.SELL) {
                     continue;
                 }
-                ParsedItemStack parsed = parseItemStack(step, stepParseCache);
+                ParsedItemStack parsed = parseItemStack(step);
                 if (parsed != null) {
                     itemCounts.merge(parsed.itemId(), parsed.amount(), Integer::sum);
                 }
@@ -210,10 +232,9 @@ public class UnifiedFlipDtoMapper {
     }
 
     private PricingComputation computePricing(Flip flip,
-                                              UnifiedFlipInputSnapshot snapshot,
+                                              FlipPricingKernel kernel,
                                               FlipCalculationContext context,
-                                              LinkedHashSet<String> partialReasons,
-                                              StepParseCache stepParseCache) {
+                                              LinkedHashSet<String> partialReasons) {
         List<Double> inputLegLiquidityScores = new ArrayList<>();
         List<Double> outputLegLiquidityScores = new ArrayList<>();
         List<Double> legExecutionRiskScores = new ArrayList<>();
@@ -238,20 +259,20 @@ public class UnifiedFlipDtoMapper {
             }
 
             if (step.getType() == StepType.BUY) {
-                ParsedItemStack parsed = parseItemStack(step, stepParseCache);
+                ParsedItemStack parsed = parseItemStack(step);
                 if (parsed == null) {
                     partialReasons.add("INVALID_BUY_PARAMS");
                     executionDurationSeconds += fallbackStepDurationSeconds(step);
                     continue;
                 }
 
-                PriceQuote quote = resolveBuyPriceQuote(parsed, snapshot, partialReasons);
+                PriceQuote quote = resolveBuyPriceQuote(parsed, kernel, partialReasons);
                 if (quote == null) {
                     executionDurationSeconds += fallbackStepDurationSeconds(step);
                     continue;
                 }
 
-                double depthAwareBuyUnitPrice = resolveDepthAwareUnitPrice(quote, parsed.amount(), TradeSide.BUY, partialReasons);
+                double depthAwareBuyUnitPrice = resolveDepthAwareUnitPrice(quote, kernel, parsed.amount(), TradeSide.BUY, partialReasons);
                 long stepCost = ceilToLong(depthAwareBuyUnitPrice * parsed.amount());
                 currentPriceBaseline += stepCost;
                 totalInputCost += stepCost;
@@ -259,10 +280,10 @@ public class UnifiedFlipDtoMapper {
                 peakExposure = Math.max(peakExposure, runningExposure);
                 Double fillTimeHours = updateSignals(
                         quote,
+                        kernel,
                         parsed.amount(),
                         TradeSide.BUY,
                         resolveStepDurationHours(step),
-                        safeContextFeatures(context),
                         inputLegLiquidityScores,
                         outputLegLiquidityScores,
                         legExecutionRiskScores,
@@ -278,14 +299,14 @@ public class UnifiedFlipDtoMapper {
 
             if (step.getType() == StepType.SELL) {
                 hasExplicitSellStep = true;
-                ParsedItemStack parsed = parseItemStack(step, stepParseCache);
+                ParsedItemStack parsed = parseItemStack(step);
                 if (parsed == null) {
                     partialReasons.add("INVALID_SELL_PARAMS");
                     executionDurationSeconds += fallbackStepDurationSeconds(step);
                     continue;
                 }
 
-                SellComputation sellComputation = computeSell(parsed, step.getParamsJson(), snapshot, context, partialReasons);
+                SellComputation sellComputation = computeSell(parsed, kernel, context, partialReasons);
                 if (sellComputation == null) {
                     executionDurationSeconds += fallbackStepDurationSeconds(step);
                     continue;
@@ -298,10 +319,10 @@ public class UnifiedFlipDtoMapper {
                 runningExposure = Math.max(0L, runningExposure - sellComputation.netProceeds());
                 Double fillTimeHours = updateSignals(
                         sellComputation.quote(),
+                        kernel,
                         parsed.amount(),
                         TradeSide.SELL,
                         sellComputation.executionFillHours(),
-                        safeContextFeatures(context),
                         inputLegLiquidityScores,
                         outputLegLiquidityScores,
                         legExecutionRiskScores,
@@ -322,13 +343,7 @@ public class UnifiedFlipDtoMapper {
 
         if (!hasExplicitSellStep && flip.getResultItemId() != null && !flip.getResultItemId().isBlank()) {
             ParsedItemStack implicitSell = ParsedItemStack.implicitSell(flip.getResultItemId());
-            SellComputation sellComputation = computeSell(
-                    implicitSell,
-                    null,
-                    snapshot,
-                    context,
-                    partialReasons
-            );
+            SellComputation sellComputation = computeSell(implicitSell, kernel, context, partialReasons);
             if (sellComputation != null) {
                 grossRevenue += sellComputation.grossRevenue();
                 totalFees += sellComputation.totalFees();
@@ -336,10 +351,10 @@ public class UnifiedFlipDtoMapper {
                 peakExposure = Math.max(peakExposure, runningExposure);
                 Double fillTimeHours = updateSignals(
                         sellComputation.quote(),
+                        kernel,
                         implicitSell.amount(),
                         TradeSide.SELL,
                         sellComputation.executionFillHours(),
-                        safeContextFeatures(context),
                         inputLegLiquidityScores,
                         outputLegLiquidityScores,
                         legExecutionRiskScores,
@@ -394,16 +409,15 @@ public class UnifiedFlipDtoMapper {
     }
 
     private SellComputation computeSell(ParsedItemStack parsed,
-                                        String paramsJson,
-                                        UnifiedFlipInputSnapshot snapshot,
+                                        FlipPricingKernel kernel,
                                         FlipCalculationContext context,
                                         LinkedHashSet<String> partialReasons) {
-        PriceQuote quote = resolveSellPriceQuote(parsed, snapshot, partialReasons);
+        PriceQuote quote = resolveSellPriceQuote(parsed, kernel, partialReasons);
         if (quote == null) {
             return null;
         }
 
-        double depthAwareSellUnitPrice = resolveDepthAwareUnitPrice(quote, parsed.amount(), TradeSide.SELL, partialReasons);
+        double depthAwareSellUnitPrice = resolveDepthAwareUnitPrice(quote, kernel, parsed.amount(), TradeSide.SELL, partialReasons);
         long grossRevenue = floorToLong(depthAwareSellUnitPrice * parsed.amount());
         long upfrontFees = 0L;
         long totalFees = 0L;
@@ -412,7 +426,11 @@ public class UnifiedFlipDtoMapper {
         if (quote.source() == MarketSource.BAZAAR) {
             totalFees = flipEconomicsService.computeBazaarSellFees(grossRevenue, context.bazaarTaxRate());
         } else if (quote.source() == MarketSource.AUCTION) {
-            int durationHours = parseAuctionDurationHours(paramsJson, partialReasons);
+            AuctionDuration auctionDuration = parsed.auctionDuration();
+            if (auctionDuration.partialReason() != null) {
+                partialReasons.add(auctionDuration.partialReason());
+            }
+            int durationHours = auctionDuration.hours();
             FlipEconomicsService.AuctionFeeBreakdown auctionFees = flipEconomicsService.computeAuctionFees(
                     grossRevenue,
                     durationHours,
@@ -428,14 +446,14 @@ public class UnifiedFlipDtoMapper {
     }
 
     private double resolveDepthAwareUnitPrice(PriceQuote quote,
+                                              FlipPricingKernel kernel,
                                               int amount,
                                               TradeSide tradeSide,
                                               LinkedHashSet<String> partialReasons) {
-        if (quote == null || quote.source() != MarketSource.BAZAAR || quote.bazaarQuote() == null || amount <= 0) {
+        if (quote == null || quote.source() != MarketSource.BAZAAR || amount <= 0) {
             return quote == null ? 0D : quote.unitPrice();
         }
-        UnifiedFlipInputSnapshot.BazaarQuote bazaar = quote.bazaarQuote();
-        long availableDepth = tradeSide == TradeSide.BUY ? bazaar.sellVolume() : bazaar.buyVolume();
+        long availableDepth = kernel.depth(quote.itemIndex(), tradeSide == TradeSide.BUY);
 
         if (availableDepth <= 0L) {
             addDepthPartialReason(quote.itemId(), tradeSide, partialReasons);
@@ -468,12 +486,12 @@ public class UnifiedFlipDtoMapper {
         partialReasons.add("INSUFFICIENT_OUTPUT_DEPTH:" + itemId);
     }
 
-    private int parseAuctionDurationHours(String paramsJson, LinkedHashSet<String> partialReasons) {
-        if (paramsJson == null || paramsJson.isBlank()) {
-            return DEFAULT_AUCTION_DURATION_HOURS;
-        }
+    /**
+     * Unusable durations fall back to the default and carry the partial reason to report once the leg is auctioned;
+     * a missing duration silently uses the default.
+     */
+    private AuctionDuration parseAuctionDuration(JsonNode node) {
         try {
-            JsonNode node = objectMapper.readTree(paramsJson);
             JsonNode durationNode = node.path("durationHours");
             int durationHours;
             if (durationNode.isInt() || durationNode.isLong()) {
@@ -481,40 +499,37 @@ public class UnifiedFlipDtoMapper {
             } else if (durationNode.isString()) {
                 durationHours = Integer.parseInt(durationNode.asString().trim());
             } else {
-                return DEFAULT_AUCTION_DURATION_HOURS;
+                return AuctionDuration.DEFAULT;
             }
 
             if (!AUCTION_DURATION_PRESETS_HOURS.contains(durationHours)) {
-                partialReasons.add("UNSUPPORTED_AUCTION_DURATION_PRESET");
-                return DEFAULT_AUCTION_DURATION_HOURS;
+                return new AuctionDuration(DEFAULT_AUCTION_DURATION_HOURS, "UNSUPPORTED_AUCTION_DURATION_PRESET");
             }
-            return durationHours;
+            return new AuctionDuration(durationHours, null);
         } catch (Exception ex) {
-            partialReasons.add("INVALID_AUCTION_DURATION");
-            return DEFAULT_AUCTION_DURATION_HOURS;
+            return new AuctionDuration(DEFAULT_AUCTION_DURATION_HOURS, "INVALID_AUCTION_DURATION");
         }
     }
 
     private PriceQuote resolveBuyPriceQuote(ParsedItemStack parsed,
-                                            UnifiedFlipInputSnapshot snapshot,
+                                            FlipPricingKernel kernel,
                                             LinkedHashSet<String> partialReasons) {
         String itemId = parsed.itemId();
         if (parsed.marketPreference() == MarketPreference.NPC) {
             if (parsed.npcUnitPrice() != null && parsed.npcUnitPrice() > 0) {
-                return new PriceQuote(itemId, parsed.npcUnitPrice(), MarketSource.NPC, null, null);
+                return new PriceQuote(itemId, FlipPricingKernel.MISSING, parsed.npcUnitPrice(), MarketSource.NPC);
             }
             partialReasons.add("MISSING_NPC_PRICE:" + itemId);
             return null;
         }
 
-        UnifiedFlipInputSnapshot.BazaarQuote bazaarQuote = snapshot.bazaarQuotes().get(itemId);
-        UnifiedFlipInputSnapshot.AuctionQuote auctionQuote = snapshot.auctionQuotesByItem().get(itemId);
-        boolean hasBazaar = bazaarQuote != null && bazaarQuote.buyPrice() > 0;
-        boolean hasAuction = auctionQuote != null && auctionQuote.lowestStartingBid() > 0;
+        int item = kernel.indexOf(itemId);
+        boolean hasBazaar = kernel.hasBazaarBuy(item);
+        boolean hasAuction = kernel.hasAuctionBuy(item);
 
         if (parsed.marketPreference() == MarketPreference.BAZAAR) {
             if (hasBazaar) {
-                return new PriceQuote(itemId, bazaarQuote.buyPrice(), MarketSource.BAZAAR, bazaarQuote, null);
+                return new PriceQuote(itemId, item, kernel.bazaarBuyPrice(item), MarketSource.BAZAAR);
             }
             partialReasons.add("MISSING_INPUT_PRICE_BAZAAR:" + itemId);
             return null;
@@ -522,7 +537,7 @@ public class UnifiedFlipDtoMapper {
 
         if (parsed.marketPreference() == MarketPreference.AUCTION) {
             if (hasAuction) {
-                return new PriceQuote(itemId, auctionQuote.lowestStartingBid(), MarketSource.AUCTION, null, auctionQuote);
+                return new PriceQuote(itemId, item, kernel.auctionBuyPrice(item), MarketSource.AUCTION);
             }
             partialReasons.add("MISSING_INPUT_PRICE_AUCTION:" + itemId);
             return null;
@@ -530,13 +545,13 @@ public class UnifiedFlipDtoMapper {
 
         if (hasBazaar && hasAuction) {
             partialReasons.add("AMBIGUOUS_INPUT_MARKET_SOURCE:" + itemId);
-            return new PriceQuote(itemId, bazaarQuote.buyPrice(), MarketSource.BAZAAR, bazaarQuote, null);
+            return new PriceQuote(itemId, item, kernel.bazaarBuyPrice(item), MarketSource.BAZAAR);
         }
         if (hasBazaar) {
-            return new PriceQuote(itemId, bazaarQuote.buyPrice(), MarketSource.BAZAAR, bazaarQuote, null);
+            return new PriceQuote(itemId, item, kernel.bazaarBuyPrice(item), MarketSource.BAZAAR);
         }
         if (hasAuction) {
-            return new PriceQuote(itemId, auctionQuote.lowestStartingBid(), MarketSource.AUCTION, null, auctionQuote);
+            return new PriceQuote(itemId, item, kernel.auctionBuyPrice(item), MarketSource.AUCTION);
         }
 
         partialReasons.add("MISSING_INPUT_PRICE:" + itemId);
@@ -544,7 +559,7 @@ public class UnifiedFlipDtoMapper {
     }
 
     private PriceQuote resolveSellPriceQuote(ParsedItemStack parsed,
-                                             UnifiedFlipInputSnapshot snapshot,
+                                             FlipPricingKernel kernel,
                                              LinkedHashSet<String> partialReasons) {
         String itemId = parsed.itemId();
         if (parsed.marketPreference() == MarketPreference.NPC) {
@@ -552,15 +567,13 @@ public class UnifiedFlipDtoMapper {
             return null;
         }
 
-        UnifiedFlipInputSnapshot.BazaarQuote bazaarQuote = snapshot.bazaarQuotes().get(itemId);
-        UnifiedFlipInputSnapshot.AuctionQuote auctionQuote = snapshot.auctionQuotesByItem().get(itemId);
-        boolean hasBazaar = bazaarQuote != null && bazaarQuote.sellPrice() > 0;
-        double conservativeAuctionSellPrice = resolveConservativeAuctionSellUnitPrice(auctionQuote);
-        boolean hasConservativeAuctionSellPrice = conservativeAuctionSellPrice > 0D;
+        int item = kernel.indexOf(itemId);
+        boolean hasBazaar = kernel.hasBazaarSell(item);
+        boolean hasConservativeAuctionSellPrice = kernel.hasAuctionSell(item);
 
         if (parsed.marketPreference() == MarketPreference.BAZAAR) {
             if (hasBazaar) {
-                return new PriceQuote(itemId, bazaarQuote.sellPrice(), MarketSource.BAZAAR, bazaarQuote, null);
+                return new PriceQuote(itemId, item, kernel.bazaarSellPrice(item), MarketSource.BAZAAR);
             }
             partialReasons.add("MISSING_OUTPUT_PRICE_BAZAAR:" + itemId);
             return null;
@@ -568,17 +581,17 @@ public class UnifiedFlipDtoMapper {
 
         if (parsed.marketPreference() == MarketPreference.AUCTION) {
             if (hasConservativeAuctionSellPrice) {
-                return new PriceQuote(itemId, conservativeAuctionSellPrice, MarketSource.AUCTION, null, auctionQuote);
+                return new PriceQuote(itemId, item, kernel.auctionSellPrice(item), MarketSource.AUCTION);
             }
             partialReasons.add("MISSING_OUTPUT_PRICE_AUCTION:" + itemId);
             return null;
         }
 
         if (hasBazaar) {
-            return new PriceQuote(itemId, bazaarQuote.sellPrice(), MarketSource.BAZAAR, bazaarQuote, null);
+            return new PriceQuote(itemId, item, kernel.bazaarSellPrice(item), MarketSource.BAZAAR);
         }
         if (hasConservativeAuctionSellPrice) {
-            return new PriceQuote(itemId, conservativeAuctionSellPrice, MarketSource.AUCTION, null, auctionQuote);
+            return new PriceQuote(itemId, item, kernel.auctionSellPrice(item), MarketSource.AUCTION);
         }
 
         partialReasons.add("MISSING_OUTPUT_PRICE:" + itemId);
@@ -586,10 +599,10 @@ public class UnifiedFlipDtoMapper {
     }
 
     private Double updateSignals(PriceQuote quote,
+                                 FlipPricingKernel kernel,
                                  int amount,
                                  TradeSide tradeSide,
                                  Double auctionFillHours,
-                                 FlipScoreFeatureSet featureSet,
                                  List<Double> inputLegLiquidityScores,
                                  List<Double> outputLegLiquidityScores,
                                  List<Double> legExecutionRiskScores,
@@ -599,17 +612,16 @@ public class UnifiedFlipDtoMapper {
             return null;
         }
 
-        if (quote.source() == MarketSource.BAZAAR && quote.bazaarQuote() != null) {
-            UnifiedFlipInputSnapshot.BazaarQuote bazaar = quote.bazaarQuote();
-            double spreadRel = computeRelativeSpread(bazaar);
-            double fillTimeHours = computeFillTimeHours(bazaar, amount, tradeSide, partialReasons, quote.itemId());
+        int item = quote.itemIndex();
+        if (quote.source() == MarketSource.BAZAAR) {
+            double spreadRel = kernel.bazaarRelativeSpread(item);
+            double fillTimeHours = computeFillTimeHours(kernel, item, amount, tradeSide, partialReasons, quote.itemId());
             bazaarSignalItemIds.add(quote.itemId());
 
             double liquidityScore = 100D
                     * (1D / (1D + fillTimeHours / LIQUIDITY_TIME_SCALE_HOURS))
                     * (1D / (1D + spreadRel / LIQUIDITY_SPREAD_SCALE));
-            FlipScoreFeatureSet.ItemTimescaleFeatures features = featureSet.get(quote.itemId());
-            if (features != null && features.structurallyIlliquid()) {
+            if (kernel.structurallyIlliquid(item)) {
                 liquidityScore -= STRUCTURAL_ILLIQUIDITY_PENALTY;
             }
             addLiquidityScore(tradeSide, clamp(liquidityScore, 0D, 100D), inputLegLiquidityScores, outputLegLiquidityScores);
@@ -622,10 +634,9 @@ public class UnifiedFlipDtoMapper {
             return fillTimeHours;
         }
 
-        if (quote.source() == MarketSource.AUCTION && quote.auctionQuote() != null) {
-            UnifiedFlipInputSnapshot.AuctionQuote auction = quote.auctionQuote();
-            double sampleLiquidity = 1D - Math.exp(-(double) auction.sampleSize() / 12D);
-            double spreadRel = computeAuctionRelativeSpread(auction);
+        if (quote.source() == MarketSource.AUCTION) {
+            double sampleLiquidity = kernel.auctionSampleLiquidity(item);
+            double spreadRel = kernel.auctionRelativeSpread(item);
             double spreadLiquidityFactor = 1D / (1D + (spreadRel / 0.05D));
             double liquidityScore = clamp(sampleLiquidity * spreadLiquidityFactor * 100D, 0D, 100D);
             addLiquidityScore(tradeSide, liquidityScore, inputLegLiquidityScores, outputLegLiquidityScores);
@@ -686,56 +697,13 @@ public class UnifiedFlipDtoMapper {
         return Math.min(inputLiquidityScore, outputLiquidityScore);
     }
 
-    private double computeRelativeSpread(UnifiedFlipInputSnapshot.BazaarQuote bazaarQuote) {
-        double high = Math.max(bazaarQuote.buyPrice(), bazaarQuote.sellPrice());
-        double low = Math.min(bazaarQuote.buyPrice(), bazaarQuote.sellPrice());
-        double mid = (high + low) / 2D;
-        if (mid <= 0D) {
-            return 1D;
-        }
-        return Math.max(0D, (high - low) / mid);
-    }
-
-    private double computeAuctionRelativeSpread(UnifiedFlipInputSnapshot.AuctionQuote quote) {
-        if (quote == null || quote.lowestStartingBid() <= 0L || quote.secondLowestStartingBid() <= 0L) {
-            return 1D;
-        }
-        double low = quote.lowestStartingBid();
-        double high = Math.max(low, quote.secondLowestStartingBid());
-        return Math.max(0D, (high - low) / low);
-    }
-
-    private double resolveConservativeAuctionSellUnitPrice(UnifiedFlipInputSnapshot.AuctionQuote quote) {
-        if (quote == null) {
-            return 0D;
-        }
-        if (quote.p25ObservedPrice() > 0D && quote.secondLowestStartingBid() > 0L) {
-            return Math.min(quote.p25ObservedPrice(), quote.secondLowestStartingBid());
-        }
-        if (quote.p25ObservedPrice() > 0D) {
-            return quote.p25ObservedPrice();
-        }
-        if (quote.secondLowestStartingBid() > 0L && quote.medianObservedPrice() > 0D) {
-            return Math.min(quote.secondLowestStartingBid(), quote.medianObservedPrice() * 0.97D);
-        }
-        if (quote.secondLowestStartingBid() > 0L) {
-            return quote.secondLowestStartingBid();
-        }
-        if (quote.medianObservedPrice() > 0D) {
-            return quote.medianObservedPrice() * 0.97D;
-        }
-        if (quote.averageObservedPrice() > 0D) {
-            return quote.averageObservedPrice() * 0.95D;
-        }
-        return quote.highestObservedBid() > 0L ? quote.highestObservedBid() : 0D;
-    }
-
-    private double computeFillTimeHours(UnifiedFlipInputSnapshot.BazaarQuote bazaarQuote,
+    private double computeFillTimeHours(FlipPricingKernel kernel,
+                                        int item,
                                         int amount,
                                         TradeSide tradeSide,
                                         LinkedHashSet<String> partialReasons,
                                         String itemId) {
-        double turnover = resolveTurnoverPerHour(bazaarQuote, tradeSide);
+        double turnover = kernel.turnoverPerHour(item, tradeSide == TradeSide.BUY);
         if (turnover <= 0D) {
             partialReasons.add("ZERO_TURNOVER:" + itemId);
             return MAX_TIME_FOR_SCORING_HOURS;
@@ -749,19 +717,6 @@ public class UnifiedFlipDtoMapper {
         return clamp(hours, 0D, MAX_TIME_FOR_SCORING_HOURS);
     }
 
-    private double resolveTurnoverPerHour(UnifiedFlipInputSnapshot.BazaarQuote bazaarQuote, TradeSide tradeSide) {
-        if (tradeSide == TradeSide.BUY) {
-            if (bazaarQuote.sellMovingWeek() > 0) {
-                return bazaarQuote.sellMovingWeek() / 168D;
-            }
-            return bazaarQuote.sellVolume() / 168D;
-        }
-        if (bazaarQuote.buyMovingWeek() > 0) {
-            return bazaarQuote.buyMovingWeek() / 168D;
-        }
-        return bazaarQuote.buyVolume() / 168D;
-    }
-
     private double clamp01(double value) {
         return clamp(value, 0D, 1D);
     }
@@ -838,7 +793,7 @@ public class UnifiedFlipDtoMapper {
             if (marketPreference == MarketPreference.NPC) {
                 npcUnitPrice = readPositiveDouble(node, "unitPrice", "npcUnitPrice", "npcPrice", "price", "coinCost");
             }
-            return new ParsedItemStack(itemId, Math.max(1, amount), marketPreference, npcUnitPrice);
+            return new ParsedItemStack(itemId, Math.max(1, amount), marketPreference, npcUnitPrice, parseAuctionDuration(node));
         } catch (Exception e) {
             log.warn("ParsedItemStack parse failed: reason=exception_during_json_parse rawParamsJson='{}' parsedType={} objectMapper={}",
                     paramsJson, ParsedItemStack.class.getSimpleName(), objectMapper.getClass().getName(), e);
@@ -846,20 +801,15 @@ public class UnifiedFlipDtoMapper {
         }
     }
 
-    private ParsedItemStack parseItemStack(Step step, StepParseCache stepParseCache) {
+    private ParsedItemStack parseItemStack(Step step) {
         if (step == null) {
             return null;
         }
-        if (stepParseCache == null) {
-            return parseItemStack(step.getParamsJson());
+        String paramsJson = step.getParamsJson();
+        if (paramsJson == null) {
+            return parseItemStack((String) null);
         }
-        Optional<ParsedItemStack> cached = stepParseCache.parsedItemStacks().get(step);
-        if (cached != null) {
-            return cached.orElse(null);
-        }
-        ParsedItemStack parsed = parseItemStack(step.getParamsJson());
-        stepParseCache.parsedItemStacks().put(step, Optional.ofNullable(parsed));
-        return parsed;
+        return parsedItemStacksByParamsJson.get(paramsJson, this::parseItemStack);
     }
 
     private MarketPreference parseMarketPreference(JsonNode node) {
@@ -941,10 +891,9 @@ public class UnifiedFlipDtoMapper {
 
     private record PriceQuote(
             String itemId,
+            int itemIndex,
             double unitPrice,
-            MarketSource source,
-            UnifiedFlipInputSnapshot.BazaarQuote bazaarQuote,
-            UnifiedFlipInputSnapshot.AuctionQuote auctionQuote
+            MarketSource source
     ) {
     }
 
@@ -962,18 +911,18 @@ public class UnifiedFlipDtoMapper {
             String itemId,
             int amount,
             MarketPreference marketPreference,
-            Double npcUnitPrice
+            Double npcUnitPrice,
+            AuctionDuration auctionDuration
     ) {
         private static ParsedItemStack implicitSell(String itemId) {
-            return new ParsedItemStack(itemId, 1, MarketPreference.ANY, null);
+            return new ParsedItemStack(itemId, 1, MarketPreference.ANY, null, AuctionDuration.DEFAULT);
         }
     }
 
-    private record StepParseCache(
-            Map<Step, Optional<ParsedItemStack>> parsedItemStacks
+    private record AuctionDuration(
+            int hours,
+            String partialReason
     ) {
-        private static StepParseCache create() {
-            return new StepParseCache(new IdentityHashMap<>());
-        }
+        private static final AuctionDuration DEFAULT = new AuctionDuration(DEFAULT_AUCTION_DURATION_HOURS, null);
     }
 }
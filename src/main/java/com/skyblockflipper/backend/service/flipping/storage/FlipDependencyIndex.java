@@ -0,0 +1,182 @@
+package com.skyblockflipper.backend.service.flipping.storage;
+
+import com.skyblockflipper.backend.api.dto.UnifiedFlipDto;
+import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
+import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
+import com.skyblockflipper.backend.service.flipping.FlipScoreFeatureSet;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Remembers which items every persisted flip was priced from, together with the market inputs of the last
+ * committed snapshot. Planning a new snapshot diffs its quotes and score features against those inputs and
+ * resolves the changed items to the flips that consume or produce them; every other flip can be carried forward.
+ */
+final class FlipDependencyIndex {
+
+    private static final long NO_SNAPSHOT = Long.MIN_VALUE;
+
+    private final Map<String, Set<String>> itemsByFlipKey = new HashMap<>();
+    private final Map<String, Set<String>> flipKeysByItem = new HashMap<>();
+    private long committedSnapshotEpochMillis = NO_SNAPSHOT;
+    private ContextSignature committedSignature;
+    private UnifiedFlipInputSnapshot committedMarketSnapshot;
+    private FlipScoreFeatureSet committedFeatures;
+
+    synchronized Plan plan(FlipCalculationContext context, long snapshotEpochMillis) {
+        long baseSnapshot = committedSnapshotEpochMillis;
+        if (context == null
+                || baseSnapshot == NO_SNAPSHOT
+                || snapshotEpochMillis <= baseSnapshot
+                || !ContextSignature.of(context).equals(committedSignature)) {
+            return Plan.full(baseSnapshot);
+        }
+        Set<String> changedItems = new HashSet<>();
+        UnifiedFlipInputSnapshot marketSnapshot = safeMarketSnapshot(context);
+        collectChangedKeys(committedMarketSnapshot.bazaarQuotes(), marketSnapshot.bazaarQuotes(), changedItems);
+        collectChangedKeys(committedMarketSnapshot.auctionQuotesByItem(), marketSnapshot.auctionQuotesByItem(), changedItems);
+        collectChangedKeys(committedFeatures.byItemId(), safeFeatures(context).byItemId(), changedItems);
+
+        Set<String> affectedFlipKeys = new HashSet<>();
+        for (String itemId : changedItems) {
+            Set<String> dependents = flipKeysByItem.get(itemId);
+            if (dependents != null) {
+                affectedFlipKeys.addAll(dependents);
+            }
+        }
+        return new Plan(false, baseSnapshot, Set.copyOf(itemsByFlipKey.keySet()), affectedFlipKeys, changedItems.size());
+    }
+
+    /**
+     * Publishes the outcome of a persisted snapshot. Flips that were neither recomputed nor carried are dropped, and
+     * a commit that raced another writer resets the index so the next snapshot is planned in full.
+     */
+    synchronized void commit(Plan plan,
+                             FlipCalculationContext context,
+                             long snapshotEpochMillis,
+                             Map<String, Set<String>> recomputedDependencies,
+                             Set<String> carriedFlipKeys) {
+        if (context == null
+                || plan.baseSnapshotEpochMillis() != committedSnapshotEpochMillis
+                || snapshotEpochMillis <= committedSnapshotEpochMillis) {
+            invalidate();
+            return;
+        }
+        Map<String, Set<String>> next = new HashMap<>(recomputedDependencies.size() + carriedFlipKeys.size());
+        for (String flipKey : carriedFlipKeys) {
+            Set<String> items = itemsByFlipKey.get(flipKey);
+            if (items != null) {
+                next.put(flipKey, items);
+            }
+        }
+        next.putAll(recomputedDependencies);
+
+        itemsByFlipKey.clear();
+        flipKeysByItem.clear();
+        for (Map.Entry<String, Set<String>> entry : next.entrySet()) {
+            itemsByFlipKey.put(entry.getKey(), entry.getValue());
+            for (String itemId : entry.getValue()) {
+                flipKeysByItem.computeIfAbsent(itemId, ignored -> new HashSet<>()).add(entry.getKey());
+            }
+        }
+        committedSnapshotEpochMillis = snapshotEpochMillis;
+        committedSignature = ContextSignature.of(context);
+        committedMarketSnapshot = safeMarketSnapshot(context);
+        committedFeatures = safeFeatures(context);
+    }
+
+    synchronized void invalidate() {
+        itemsByFlipKey.clear();
+        flipKeysByItem.clear();
+        committedSnapshotEpochMillis = NO_SNAPSHOT;
+        committedSignature = null;
+        committedMarketSnapshot = null;
+        committedFeatures = null;
+    }
+
+    synchronized int size() {
+        return itemsByFlipKey.size();
+    }
+
+    static Set<String> dependenciesOf(UnifiedFlipDto dto) {
+        Set<String> items = new HashSet<>();
+        addItemIds(dto.inputItems(), items);
+        addItemIds(dto.outputItems(), items);
+        return Set.copyOf(items);
+    }
+
+    private static void addItemIds(List<UnifiedFlipDto.ItemStackDto> stacks, Set<String> items) {
+        if (stacks == null) {
+            return;
+        }
+        for (UnifiedFlipDto.ItemStackDto stack : stacks) {
+            if (stack != null && stack.itemId() != null) {
+                items.add(stack.itemId());
+            }
+        }
+    }
+
+    private static <V> void collectChangedKeys(Map<String, V> previous, Map<String, V> current, Set<String> changed) {
+        for (Map.Entry<String, V> entry : current.entrySet()) {
+            if (!Objects.equals(entry.getValue(), previous.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String key : previous.keySet()) {
+            if (!current.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+    }
+
+    private static UnifiedFlipInputSnapshot safeMarketSnapshot(FlipCalculationContext context) {
+        return context.marketSnapshot() == null
+                ? new UnifiedFlipInputSnapshot(null, null, null)
+                : context.marketSnapshot();
+    }
+
+    private static FlipScoreFeatureSet safeFeatures(FlipCalculationContext context) {
+        return context.scoreFeatureSet() == null ? FlipScoreFeatureSet.empty() : context.scoreFeatureSet();
+    }
+
+    record Plan(
+            boolean full,
+            long baseSnapshotEpochMillis,
+            Set<String> indexedFlipKeys,
+            Set<String> affectedFlipKeys,
+            int changedItemCount
+    ) {
+        static Plan full(long baseSnapshotEpochMillis) {
+            return new Plan(true, baseSnapshotEpochMillis, Set.of(), Set.of(), -1);
+        }
+
+        boolean canCarry(String flipKey) {
+            return !full && indexedFlipKeys.contains(flipKey) && !affectedFlipKeys.contains(flipKey);
+        }
+    }
+
+    /**
+     * Context inputs that apply to every flip at once; any change here invalidates all carried results.
+     */
+    private record ContextSignature(
+            double bazaarTaxRate,
+            double auctionTaxMultiplier,
+            boolean electionPartial,
+            boolean marketSnapshotEmpty
+    ) {
+        private static ContextSignature of(FlipCalculationContext context) {
+            UnifiedFlipInputSnapshot marketSnapshot = safeMarketSnapshot(context);
+            return new ContextSignature(
+                    context.bazaarTaxRate(),
+                    context.auctionTaxMultiplier(),
+                    context.electionPartial(),
+                    marketSnapshot.bazaarQuotes().isEmpty() && marketSnapshot.auctionQuotesByItem().isEmpty()
+            );
+        }
+    }
+}
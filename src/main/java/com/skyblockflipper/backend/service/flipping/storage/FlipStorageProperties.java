@@ -4,6 +4,8 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @Setter
 @Getter
 @ConfigurationProperties(prefix = "config.flip.storage")
@@ -15,5 +17,9 @@ public class FlipStorageProperties {
     private double trendRelativeThreshold = 0.05D;
     private double trendScoreDeltaThreshold = 3.0D;
     private int paritySampleSize = 20;
+    private boolean incrementalRegenerationEnabled = true;
+    private boolean bulkWriteEnabled = true;
+    private boolean rankingIndexEnabled = true;
+    private Duration rankingIndexCheckInterval = Duration.ofSeconds(2);
 
 }
@@ -7,21 +7,26 @@ import com.skyblockflipper.backend.model.Flipping.Recipe.Recipe;
 import com.skyblockflipper.backend.model.Flipping.Recipe.RecipeToFlipMapper;
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
 import com.skyblockflipper.backend.repository.RecipeRepository;
+import com.skyblockflipper.backend.service.flipping.CompiledFlipTemplateCache;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
 import com.skyblockflipper.backend.service.flipping.MarketFlipMapper;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class OnDemandFlipSnapshotService {
@@ -34,6 +39,7 @@ public class OnDemandFlipSnapshotService {
     private final UnifiedFlipDtoMapper unifiedFlipDtoMapper;
     private final FlipCalculationContextService flipCalculationContextService;
     private final FlipIdentityService flipIdentityService;
+    private CompiledFlipTemplateCache compiledFlipTemplateCache;
 
     public OnDemandFlipSnapshotService(RecipeRepository recipeRepository,
                                        RecipeToFlipMapper recipeToFlipMapper,
@@ -53,6 +59,11 @@ public class OnDemandFlipSnapshotService {
         this.flipIdentityService = flipIdentityService;
     }
 
+    @Autowired(required = false)
+    public void setCompiledFlipTemplateCache(CompiledFlipTemplateCache compiledFlipTemplateCache) {
+        this.compiledFlipTemplateCache = compiledFlipTemplateCache;
+    }
+
     @Transactional(readOnly = true)
     public List<UnifiedFlipDto> computeSnapshotDtos(Instant snapshotTimestamp, FlipType flipType) {
         if (snapshotTimestamp == null) {
@@ -63,14 +74,22 @@ public class OnDemandFlipSnapshotService {
         FlipCalculationContext context = flipCalculationContextService.loadContextAsOf(snapshotTimestamp);
 
         List<Flip> generated = new ArrayList<>();
-        List<Recipe> recipes = recipeRepository.findAll(Sort.by("recipeId").ascending());
-        for (Recipe recipe : recipes) {
-            Flip mapped = recipeToFlipMapper.fromRecipe(recipe);
-            if (mapped == null) {
-                continue;
+        Map<Flip, UUID> templateIds = new IdentityHashMap<>();
+        if (compiledFlipTemplateCache != null) {
+            for (CompiledFlipTemplateCache.FlipTemplate template : compiledFlipTemplateCache.templates().templates()) {
+                generated.add(template.prototype());
+                templateIds.put(template.prototype(), template.identity().stableFlipId());
+            }
+        } else {
+            List<Recipe> recipes = recipeRepository.findAll(Sort.by("recipeId").ascending());
+            for (Recipe recipe : recipes) {
+                Flip mapped = recipeToFlipMapper.fromRecipe(recipe);
+                if (mapped == null) {
+                    continue;
+                }
+                mapped.setSnapshotTimestampEpochMillis(snapshotEpochMillis);
+                generated.add(mapped);
             }
-            mapped.setSnapshotTimestampEpochMillis(snapshotEpochMillis);
-            generated.add(mapped);
         }
 
         Optional<UnifiedFlipInputSnapshot> marketInput = marketSnapshotPersistenceService
@@ -91,7 +110,11 @@ public class OnDemandFlipSnapshotService {
                     if (dto == null) {
                         return null;
                     }
-                    return UnifiedFlipDtoIdMapper.withId(dto, flipIdentityService.derive(flip).stableFlipId());
+                    UUID stableFlipId = templateIds.get(flip);
+                    return UnifiedFlipDtoIdMapper.withId(
+                            dto,
+                            stableFlipId == null ? flipIdentityService.derive(flip).stableFlipId() : stableFlipId
+                    );
                 })
                 .filter(Objects::nonNull)
                 .toList();
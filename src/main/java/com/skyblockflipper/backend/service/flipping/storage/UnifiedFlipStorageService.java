@@ -7,12 +7,19 @@ import com.skyblockflipper.backend.model.flippingstorage.FlipDefinitionEntity;
 import com.skyblockflipper.backend.model.flippingstorage.FlipTrendSegmentEntity;
 import com.skyblockflipper.backend.repository.FlipCurrentRepository;
 import com.skyblockflipper.backend.repository.FlipDefinitionRepository;
+import com.skyblockflipper.backend.repository.FlipStorageBatchRepository;
 import com.skyblockflipper.backend.repository.FlipTrendSegmentRepository;
+import com.skyblockflipper.backend.service.flipping.CompiledFlipTemplateCache;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
+import com.skyblockflipper.backend.service.flipping.FlipRankingIndexService;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import tools.jackson.databind.ObjectMapper;
 
 import java.time.Instant;
@@ -22,10 +29,15 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class UnifiedFlipStorageService {
     private static final long UNIFIED_FLIP_WRITE_LOCK_KEY = 6_842_917_113L;
+    private static final int CARRY_FORWARD_BATCH_SIZE = 1_000;
+    private static final int BULK_WRITE_BATCH_SIZE = 500;
 
     private final FlipDefinitionRepository flipDefinitionRepository;
     private final FlipCurrentRepository flipCurrentRepository;
@@ -36,6 +48,11 @@ public class UnifiedFlipStorageService {
     private final FlipStorageProperties flipStorageProperties;
     private final ObjectMapper objectMapper;
     private final Object persistLock = new Object();
+    private final FlipDependencyIndex dependencyIndex = new FlipDependencyIndex();
+    private MeterRegistry meterRegistry;
+    private CompiledFlipTemplateCache compiledFlipTemplateCache;
+    private FlipStorageBatchRepository flipStorageBatchRepository;
+    private FlipRankingIndexService flipRankingIndexService;
 
     public UnifiedFlipStorageService(FlipDefinitionRepository flipDefinitionRepository,
                                      FlipCurrentRepository flipCurrentRepository,
@@ -55,6 +72,26 @@ public class UnifiedFlipStorageService {
         this.objectMapper = objectMapper;
     }
 
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Autowired(required = false)
+    public void setCompiledFlipTemplateCache(CompiledFlipTemplateCache compiledFlipTemplateCache) {
+        this.compiledFlipTemplateCache = compiledFlipTemplateCache;
+    }
+
+    @Autowired(required = false)
+    public void setFlipStorageBatchRepository(FlipStorageBatchRepository flipStorageBatchRepository) {
+        this.flipStorageBatchRepository = flipStorageBatchRepository;
+    }
+
+    @Autowired(required = false)
+    public void setFlipRankingIndexService(FlipRankingIndexService flipRankingIndexService) {
+        this.flipRankingIndexService = flipRankingIndexService;
+    }
+
     public boolean existsForSnapshot(long snapshotEpochMillis) {
         return flipCurrentRepository.existsBySnapshotTimestampEpochMillis(snapshotEpochMillis);
     }
@@ -92,128 +129,379 @@ public class UnifiedFlipStorageService {
 
         long snapshotEpochMillis = snapshotTimestamp.toEpochMilli();
         FlipCalculationContext context = flipCalculationContextService.loadContextAsOf(snapshotTimestamp);
+        // Backfills write historical snapshots out of order, so only the live path consults the dependency index.
+        FlipDependencyIndex.Plan plan = !forceWrite && flipStorageProperties.isIncrementalRegenerationEnabled()
+                ? dependencyIndex.plan(context, snapshotEpochMillis)
+                : null;
 
         Map<String, ComputedFlip> computedFlipsByKey = new LinkedHashMap<>(flips.size());
+        Map<String, Flip> carriedFlipsByKey = new LinkedHashMap<>();
         for (Flip flip : flips) {
             if (flip == null) {
                 continue;
             }
-            FlipIdentityService.Identity identity = flipIdentityService.derive(flip);
+            FlipIdentityService.Identity identity = identityOf(flip);
+            String flipKey = identity.flipKey();
+            if (computedFlipsByKey.containsKey(flipKey) || carriedFlipsByKey.containsKey(flipKey)) {
+                continue;
+            }
+            if (plan != null && plan.canCarry(flipKey)) {
+                carriedFlipsByKey.put(flipKey, flip);
+                continue;
+            }
             UnifiedFlipDto dto = unifiedFlipDtoMapper.toDto(flip, context);
             if (dto == null) {
                 continue;
             }
-            computedFlipsByKey.putIfAbsent(identity.flipKey(), new ComputedFlip(identity, dto));
+            computedFlipsByKey.put(flipKey, new ComputedFlip(identity, dto));
         }
-        if (computedFlipsByKey.isEmpty()) {
+        if (computedFlipsByKey.isEmpty() && carriedFlipsByKey.isEmpty()) {
             return;
         }
 
-        List<ComputedFlip> computedFlips = new ArrayList<>(computedFlipsByKey.values());
-        List<String> flipKeys = new ArrayList<>(computedFlipsByKey.keySet());
-
         // Transaction-scoped DB lock prevents duplicate inserts across concurrent pipelines
         // and across multiple application instances sharing the same PostgreSQL database.
         flipDefinitionRepository.acquireTransactionScopedWriteLock(UNIFIED_FLIP_WRITE_LOCK_KEY);
 
+        if (usesBulkWrite()) {
+            // Every bulk statement guards itself, so the advisory lock alone keeps concurrent writers consistent.
+            writeSnapshot(computedFlipsByKey, carriedFlipsByKey, plan, context, snapshotEpochMillis);
+            return;
+        }
         synchronized (persistLock) {
             // Keep read/modify/write atomic per JVM instance so parallel poller pipelines
             // cannot race inserting the same flip_key into flip_definition/flip_current.
-            Map<String, FlipDefinitionEntity> definitionsByKey = toMap(flipDefinitionRepository.findAllById(flipKeys));
-            Map<String, FlipCurrentEntity> currentByKey = toMapCurrent(flipCurrentRepository.findAllById(flipKeys));
-            Map<String, FlipTrendSegmentEntity> latestSegmentsByKey = latestSegmentsByFlipKey(flipKeys);
-
-            long now = System.currentTimeMillis();
-            List<FlipDefinitionEntity> definitionsToSave = new ArrayList<>(computedFlips.size());
-            List<FlipCurrentEntity> currentToSave = new ArrayList<>(computedFlips.size());
-            List<FlipTrendSegmentEntity> segmentsToSave = new ArrayList<>();
-
-            for (ComputedFlip computedFlip : computedFlips) {
-                FlipIdentityService.Identity identity = computedFlip.identity();
-                UnifiedFlipDto dto = computedFlip.dto();
-                String flipKey = identity.flipKey();
-                FlipCurrentEntity current = currentByKey.get(flipKey);
-                FlipTrendSegmentEntity latestSegment = latestSegmentsByKey.get(flipKey);
-
-                if (current != null && current.getSnapshotTimestampEpochMillis() >= snapshotEpochMillis) {
-                    // Monotonic write guard: ignore stale/same snapshot updates.
-                    continue;
+            writeSnapshot(computedFlipsByKey, carriedFlipsByKey, plan, context, snapshotEpochMillis);
+        }
+    }
+
+    private void writeSnapshot(Map<String, ComputedFlip> computedFlipsByKey,
+                               Map<String, Flip> carriedFlipsByKey,
+                               FlipDependencyIndex.Plan plan,
+                               FlipCalculationContext context,
+                               long snapshotEpochMillis) {
+        long now = System.currentTimeMillis();
+        Map<String, Set<String>> writtenDependencies = new HashMap<>();
+        if (!computedFlipsByKey.isEmpty()) {
+            writeComputedFlips(computedFlipsByKey.values(), snapshotEpochMillis, now, writtenDependencies);
+        }
+
+        Set<String> carriedFlipKeys = Set.of();
+        int recomputedCount = computedFlipsByKey.size();
+        if (plan != null && !carriedFlipsByKey.isEmpty()) {
+            int carriedRows = carryForward(
+                    carriedFlipsByKey.keySet(),
+                    plan.baseSnapshotEpochMillis(),
+                    snapshotEpochMillis,
+                    now
+            );
+            if (carriedRows == carriedFlipsByKey.size()) {
+                carriedFlipKeys = Set.copyOf(carriedFlipsByKey.keySet());
+            } else {
+                // Rows moved underneath the index (another writer or a cleared snapshot); price them again.
+                List<ComputedFlip> fallback = computeAll(carriedFlipsByKey.values(), context);
+                writeComputedFlips(fallback, snapshotEpochMillis, now, writtenDependencies);
+                recomputedCount += fallback.size();
+            }
+        }
+        incrementRegeneration("recomputed", recomputedCount);
+        incrementRegeneration("carried", carriedFlipKeys.size());
+        Set<String> committedCarriedKeys = carriedFlipKeys;
+        runAfterCommit(() -> {
+            if (plan != null) {
+                dependencyIndex.commit(plan, context, snapshotEpochMillis, writtenDependencies, committedCarriedKeys);
+            }
+            if (flipRankingIndexService != null) {
+                flipRankingIndexService.markStale();
+            }
+        });
+    }
+
+    private boolean usesBulkWrite() {
+        return flipStorageBatchRepository != null && flipStorageProperties.isBulkWriteEnabled();
+    }
+
+    private void writeComputedFlips(Collection<ComputedFlip> computedFlips,
+                                    long snapshotEpochMillis,
+                                    long now,
+                                    Map<String, Set<String>> writtenDependencies) {
+        boolean bulk = usesBulkWrite();
+        long startedNanos = System.nanoTime();
+        if (bulk) {
+            writeComputedFlipsBulk(computedFlips, snapshotEpochMillis, now, writtenDependencies);
+        } else {
+            writeComputedFlipsJpa(computedFlips, snapshotEpochMillis, now, writtenDependencies);
+            // Flush now rather than at commit so both paths time their statements.
+            flipCurrentRepository.flush();
+        }
+        if (meterRegistry != null) {
+            meterRegistry.timer("skyblock.flip.storage.write", "path", bulk ? "jdbc" : "jpa")
+                    .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void writeComputedFlipsBulk(Collection<ComputedFlip> computedFlips,
+                                        long snapshotEpochMillis,
+                                        long now,
+                                        Map<String, Set<String>> writtenDependencies) {
+        double relativeThreshold = Math.max(0.0D, flipStorageProperties.getTrendRelativeThreshold());
+        double scoreDeltaThreshold = Math.max(0.0D, flipStorageProperties.getTrendScoreDeltaThreshold());
+        List<ComputedFlip> flips = new ArrayList<>(computedFlips);
+        for (int from = 0; from < flips.size(); from += BULK_WRITE_BATCH_SIZE) {
+            List<ComputedFlip> batch = flips.subList(from, Math.min(flips.size(), from + BULK_WRITE_BATCH_SIZE));
+            List<FlipDefinitionEntity> definitionRows = new ArrayList<>(batch.size());
+            List<FlipCurrentEntity> currentRows = new ArrayList<>(batch.size());
+            for (ComputedFlip computedFlip : batch) {
+                FlipDefinitionEntity definition = new FlipDefinitionEntity();
+                definition.setFlipKey(computedFlip.identity().flipKey());
+                definition.setCreatedAtEpochMillis(now);
+                applyDefinition(definition, computedFlip.identity(), now);
+                definitionRows.add(definition);
+                FlipCurrentEntity current = new FlipCurrentEntity();
+                current.setFlipKey(computedFlip.identity().flipKey());
+                applyCurrent(current, computedFlip, snapshotEpochMillis, now);
+                currentRows.add(current);
+            }
+
+            // Existing rows take the guarded update; only keys without a current row fall through to the inserts.
+            int[] updated = flipStorageBatchRepository.updateCurrentIfOlder(currentRows);
+            boolean[] written = new boolean[batch.size()];
+            boolean[] definitionInserted = new boolean[batch.size()];
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                written[i] = updated[i] != 0;
+                if (!written[i]) {
+                    missing.add(i);
                 }
-                if (latestSegment != null) {
-                    long latestKnownSnapshot = Math.max(
-                            latestSegment.getValidFromSnapshotEpochMillis(),
-                            latestSegment.getValidToSnapshotEpochMillis()
-                    );
-                    if (latestKnownSnapshot >= snapshotEpochMillis) {
-                        // Monotonic write guard for trend history.
-                        continue;
-                    }
+            }
+            if (!missing.isEmpty()) {
+                List<FlipDefinitionEntity> definitions = new ArrayList<>(missing.size());
+                List<FlipCurrentEntity> inserts = new ArrayList<>(missing.size());
+                for (int i : missing) {
+                    definitions.add(definitionRows.get(i));
+                    inserts.add(currentRows.get(i));
+                }
+                int[] insertedDefinitions = flipStorageBatchRepository.insertMissingDefinitions(definitions);
+                int[] inserted = flipStorageBatchRepository.insertMissingCurrent(inserts);
+                for (int j = 0; j < missing.size(); j++) {
+                    definitionInserted[missing.get(j)] = insertedDefinitions[j] != 0;
+                    // A conflict here means the row exists with a newer or equal snapshot: the monotonic guard.
+                    written[missing.get(j)] = inserted[j] != 0;
                 }
+            }
 
-                FlipDefinitionEntity definition = definitionsByKey.get(flipKey);
-                if (definition == null) {
-                    definition = new FlipDefinitionEntity();
-                    definition.setFlipKey(flipKey);
-                    definition.setCreatedAtEpochMillis(now);
+            // Like the JPA path, every written flip refreshes its existing definition row.
+            List<FlipDefinitionEntity> definitionUpdates = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (written[i] && !definitionInserted[i]) {
+                    definitionUpdates.add(definitionRows.get(i));
                 }
-                definition.setStableFlipId(identity.stableFlipId());
-                definition.setFlipType(identity.flipType());
-                definition.setResultItemId(identity.resultItemId());
-                definition.setStepsJson(identity.stepsJson());
-                definition.setConstraintsJson(identity.constraintsJson());
-                definition.setKeyVersion(identity.keyVersion());
-                definition.setUpdatedAtEpochMillis(now);
-                definitionsToSave.add(definition);
-
-                if (current == null) {
-                    current = new FlipCurrentEntity();
-                    current.setFlipKey(flipKey);
+            }
+            flipStorageBatchRepository.updateDefinitions(definitionUpdates);
+
+            List<FlipTrendSegmentEntity> segmentCandidates = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                if (written[i]) {
+                    ComputedFlip computedFlip = batch.get(i);
+                    segmentCandidates.add(newSegment(computedFlip.identity().flipKey(), computedFlip.dto(), snapshotEpochMillis, now));
+                    writtenDependencies.put(computedFlip.identity().flipKey(), FlipDependencyIndex.dependenciesOf(computedFlip.dto()));
                 }
-                current.setStableFlipId(identity.stableFlipId());
-                current.setFlipType(identity.flipType());
-                current.setSnapshotTimestampEpochMillis(snapshotEpochMillis);
-                current.setRequiredCapital(dto.requiredCapital());
-                current.setExpectedProfit(dto.expectedProfit());
-                current.setRoi(dto.roi());
-                current.setRoiPerHour(dto.roiPerHour());
-                current.setDurationSeconds(dto.durationSeconds());
-                current.setFees(dto.fees());
-                current.setLiquidityScore(dto.liquidityScore());
-                current.setRiskScore(dto.riskScore());
-                current.setPartial(dto.partial());
-                current.setPartialReasonsJson(writeJson(dto.partialReasons()));
-                current.setUpdatedAtEpochMillis(now);
-                currentToSave.add(current);
-
-                if (latestSegment != null && shouldExtendSegment(latestSegment, dto)) {
-                    latestSegment.setValidToSnapshotEpochMillis(snapshotEpochMillis);
-                    latestSegment.setSampleCount(Math.max(1, latestSegment.getSampleCount()) + 1);
-                    latestSegment.setUpdatedAtEpochMillis(now);
-                    segmentsToSave.add(latestSegment);
-                } else {
-                    FlipTrendSegmentEntity newSegment = new FlipTrendSegmentEntity();
-                    newSegment.setFlipKey(flipKey);
-                    newSegment.setValidFromSnapshotEpochMillis(snapshotEpochMillis);
-                    newSegment.setValidToSnapshotEpochMillis(snapshotEpochMillis);
-                    newSegment.setRequiredCapital(dto.requiredCapital());
-                    newSegment.setExpectedProfit(dto.expectedProfit());
-                    newSegment.setRoi(dto.roi());
-                    newSegment.setRoiPerHour(dto.roiPerHour());
-                    newSegment.setDurationSeconds(dto.durationSeconds());
-                    newSegment.setFees(dto.fees());
-                    newSegment.setLiquidityScore(dto.liquidityScore());
-                    newSegment.setRiskScore(dto.riskScore());
-                    newSegment.setPartial(dto.partial());
-                    newSegment.setSampleCount(1);
-                    newSegment.setCreatedAtEpochMillis(now);
-                    newSegment.setUpdatedAtEpochMillis(now);
-                    segmentsToSave.add(newSegment);
+            }
+            int[] extended = flipStorageBatchRepository.extendLatestSegments(
+                    segmentCandidates,
+                    relativeThreshold,
+                    scoreDeltaThreshold
+            );
+            List<FlipTrendSegmentEntity> newSegments = new ArrayList<>();
+            for (int i = 0; i < segmentCandidates.size(); i++) {
+                if (extended[i] == 0) {
+                    newSegments.add(segmentCandidates.get(i));
                 }
             }
+            flipStorageBatchRepository.insertSegmentsAfterLatest(newSegments);
+        }
+    }
+
+    private void writeComputedFlipsJpa(Collection<ComputedFlip> computedFlips,
+                                       long snapshotEpochMillis,
+                                       long now,
+                                       Map<String, Set<String>> writtenDependencies) {
+        List<String> flipKeys = new ArrayList<>(computedFlips.size());
+        for (ComputedFlip computedFlip : computedFlips) {
+            flipKeys.add(computedFlip.identity().flipKey());
+        }
+        Map<String, FlipDefinitionEntity> definitionsByKey = toMap(flipDefinitionRepository.findAllById(flipKeys));
+        Map<String, FlipCurrentEntity> currentByKey = toMapCurrent(flipCurrentRepository.findAllById(flipKeys));
+        Map<String, FlipTrendSegmentEntity> latestSegmentsByKey = latestSegmentsByFlipKey(flipKeys);
+
+        List<FlipDefinitionEntity> definitionsToSave = new ArrayList<>(computedFlips.size());
+        List<FlipCurrentEntity> currentToSave = new ArrayList<>(computedFlips.size());
+        List<FlipTrendSegmentEntity> segmentsToSave = new ArrayList<>();
+
+        for (ComputedFlip computedFlip : computedFlips) {
+            FlipIdentityService.Identity identity = computedFlip.identity();
+            UnifiedFlipDto dto = computedFlip.dto();
+            String flipKey = identity.flipKey();
+            FlipCurrentEntity current = currentByKey.get(flipKey);
+            FlipTrendSegmentEntity latestSegment = latestSegmentsByKey.get(flipKey);
+
+            if (current != null && current.getSnapshotTimestampEpochMillis() >= snapshotEpochMillis) {
+                // Monotonic write guard: ignore stale/same snapshot updates.
+                continue;
+            }
+            if (latestSegment != null) {
+                long latestKnownSnapshot = Math.max(
+                        latestSegment.getValidFromSnapshotEpochMillis(),
+                        latestSegment.getValidToSnapshotEpochMillis()
+                );
+                if (latestKnownSnapshot >= snapshotEpochMillis) {
+                    // Monotonic write guard for trend history.
+                    continue;
+                }
+            }
+
+            FlipDefinitionEntity definition = definitionsByKey.get(flipKey);
+            if (definition == null) {
+                definition = new FlipDefinitionEntity();
+                definition.setFlipKey(flipKey);
+                definition.setCreatedAtEpochMillis(now);
+            }
+            applyDefinition(definition, identity, now);
+            definitionsToSave.add(definition);
+
+            if (current == null) {
+                current = new FlipCurrentEntity();
+                current.setFlipKey(flipKey);
+            }
+            applyCurrent(current, computedFlip, snapshotEpochMillis, now);
+            currentToSave.add(current);
+
+            if (latestSegment != null && shouldExtendSegment(latestSegment, dto)) {
+                latestSegment.setValidToSnapshotEpochMillis(snapshotEpochMillis);
+                latestSegment.setSampleCount(Math.max(1, latestSegment.getSampleCount()) + 1);
+                latestSegment.setUpdatedAtEpochMillis(now);
+                segmentsToSave.add(latestSegment);
+            } else {
+                segmentsToSave.add(newSegment(flipKey, dto, snapshotEpochMillis, now));
+            }
+            writtenDependencies.put(flipKey, FlipDependencyIndex.dependenciesOf(dto));
+        }
+
+        flipDefinitionRepository.saveAll(definitionsToSave);
+        flipCurrentRepository.saveAll(currentToSave);
+        flipTrendSegmentRepository.saveAll(segmentsToSave);
+    }
+
+    private void applyDefinition(FlipDefinitionEntity definition, FlipIdentityService.Identity identity, long now) {
+        definition.setStableFlipId(identity.stableFlipId());
+        definition.setFlipType(identity.flipType());
+        definition.setResultItemId(identity.resultItemId());
+        definition.setStepsJson(identity.stepsJson());
+        definition.setConstraintsJson(identity.constraintsJson());
+        definition.setKeyVersion(identity.keyVersion());
+        definition.setUpdatedAtEpochMillis(now);
+    }
+
+    private void applyCurrent(FlipCurrentEntity current, ComputedFlip computedFlip, long snapshotEpochMillis, long now) {
+        FlipIdentityService.Identity identity = computedFlip.identity();
+        UnifiedFlipDto dto = computedFlip.dto();
+        current.setStableFlipId(identity.stableFlipId());
+        current.setFlipType(identity.flipType());
+        current.setSnapshotTimestampEpochMillis(snapshotEpochMillis);
+        current.setRequiredCapital(dto.requiredCapital());
+        current.setExpectedProfit(dto.expectedProfit());
+        current.setRoi(dto.roi());
+        current.setRoiPerHour(dto.roiPerHour());
+        current.setDurationSeconds(dto.durationSeconds());
+        current.setFees(dto.fees());
+        current.setLiquidityScore(dto.liquidityScore());
+        current.setRiskScore(dto.riskScore());
+        current.setPartial(dto.partial());
+        current.setPartialReasonsJson(writeJson(dto.partialReasons()));
+        current.setUpdatedAtEpochMillis(now);
+    }
+
+    private FlipTrendSegmentEntity newSegment(String flipKey, UnifiedFlipDto dto, long snapshotEpochMillis, long now) {
+        FlipTrendSegmentEntity segment = new FlipTrendSegmentEntity();
+        segment.setFlipKey(flipKey);
+        segment.setValidFromSnapshotEpochMillis(snapshotEpochMillis);
+        segment.setValidToSnapshotEpochMillis(snapshotEpochMillis);
+        segment.setRequiredCapital(dto.requiredCapital());
+        segment.setExpectedProfit(dto.expectedProfit());
+        segment.setRoi(dto.roi());
+        segment.setRoiPerHour(dto.roiPerHour());
+        segment.setDurationSeconds(dto.durationSeconds());
+        segment.setFees(dto.fees());
+        segment.setLiquidityScore(dto.liquidityScore());
+        segment.setRiskScore(dto.riskScore());
+        segment.setPartial(dto.partial());
+        segment.setSampleCount(1);
+        segment.setCreatedAtEpochMillis(now);
+        segment.setUpdatedAtEpochMillis(now);
+        return segment;
+    }
+
+    private List<ComputedFlip> computeAll(Collection<Flip> flips, FlipCalculationContext context) {
+        List<ComputedFlip> computed = new ArrayList<>(flips.size());
+        for (Flip flip : flips) {
+            UnifiedFlipDto dto = unifiedFlipDtoMapper.toDto(flip, context);
+            if (dto != null) {
+                computed.add(new ComputedFlip(identityOf(flip), dto));
+            }
+        }
+        return computed;
+    }
+
+    private int carryForward(Collection<String> flipKeys,
+                             long previousSnapshotEpochMillis,
+                             long snapshotEpochMillis,
+                             long now) {
+        List<String> keys = new ArrayList<>(flipKeys);
+        int carriedRows = 0;
+        for (int from = 0; from < keys.size(); from += CARRY_FORWARD_BATCH_SIZE) {
+            List<String> batch = keys.subList(from, Math.min(keys.size(), from + CARRY_FORWARD_BATCH_SIZE));
+            carriedRows += flipCurrentRepository.carryForwardSnapshot(
+                    batch,
+                    previousSnapshotEpochMillis,
+                    snapshotEpochMillis,
+                    now
+            );
+            flipTrendSegmentRepository.extendLatestSegments(
+                    batch,
+                    previousSnapshotEpochMillis,
+                    snapshotEpochMillis,
+                    now
+            );
+        }
+        return carriedRows;
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private FlipIdentityService.Identity identityOf(Flip flip) {
+        if (compiledFlipTemplateCache != null) {
+            Optional<FlipIdentityService.Identity> precomputed = compiledFlipTemplateCache.precomputedIdentity(flip);
+            if (precomputed.isPresent()) {
+                return precomputed.get();
+            }
+        }
+        return flipIdentityService.derive(flip);
+    }
 
-            flipDefinitionRepository.saveAll(definitionsToSave);
-            flipCurrentRepository.saveAll(currentToSave);
-            flipTrendSegmentRepository.saveAll(segmentsToSave);
+    private void incrementRegeneration(String outcome, int amount) {
+        if (meterRegistry != null && amount > 0) {
+            meterRegistry.counter("skyblock.flip.regeneration.flips", "outcome", outcome).increment(amount);
         }
     }
 
@@ -1,5 +1,6 @@
 package com.skyblockflipper.backend.service.item;
 
+import com.skyblockflipper.backend.NEU.model.Item;
 import com.skyblockflipper.backend.NEU.repository.ItemRepository;
 import com.skyblockflipper.backend.api.dto.ItemQuickStatsDto;
 import com.skyblockflipper.backend.api.dto.PriceHistoryRange;
@@ -14,6 +15,9 @@ import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.market.MarketItemKeyService;
+import com.skyblockflipper.backend.service.market.PriceHistoryQueryService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -40,6 +44,8 @@ public class ItemAnalyticsService {
     private final UnifiedFlipDtoMapper unifiedFlipDtoMapper;
     private final FlipCalculationContextService flipCalculationContextService;
     private final ItemRepository itemRepository;
+    private PriceHistoryQueryService priceHistoryQueryService;
+    private MarketItemKeyService marketItemKeyService;
 
     public ItemAnalyticsService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
                                 FlipRepository flipRepository,
@@ -53,6 +59,22 @@ public class ItemAnalyticsService {
         this.itemRepository = itemRepository;
     }
 
+    @Autowired(required = false)
+    public void setPriceHistoryQueryService(PriceHistoryQueryService priceHistoryQueryService) {
+        this.priceHistoryQueryService = priceHistoryQueryService;
+    }
+
+    @Autowired(required = false)
+    public void setMarketItemKeyService(MarketItemKeyService marketItemKeyService) {
+        this.marketItemKeyService = marketItemKeyService;
+    }
+
+    /**
+     * One point per bucket of {@code range}. Bazaar items report the bucket's latest buy/sell price and buy volume.
+     * Auction items read from the aggregate tables report the lowest BIN, the listing-weighted typical BIN price and
+     * the BIN listing count (see {@link PriceHistoryQueryService}); the raw snapshot fallback reports the lowest
+     * starting bid, the mean current bid and the count of all matching auctions.
+     */
     @Transactional(readOnly = true)
     public List<PricePointDto> listPriceHistory(String itemId, PriceHistoryRange range) {
         String normalizedItemId = normalize(itemId);
@@ -66,6 +88,15 @@ public class ItemAnalyticsService {
 
         PriceHistoryRange safeRange = range == null ? PriceHistoryRange.D30 : range;
         Instant end = latestSnapshot.get().snapshotTimestamp();
+        boolean bazaarItem = latestSnapshot.get().bazaarProducts().containsKey(normalizedItemId);
+        if (priceHistoryQueryService != null && priceHistoryQueryService.isAvailable(bazaarItem)) {
+            return priceHistoryQueryService.history(
+                    normalizedItemId,
+                    bazaarItem ? Set.of() : auctionBaseIds(normalizedItemId),
+                    safeRange,
+                    end
+            );
+        }
         Instant start = end.minus(safeRange.lookback());
         List<MarketSnapshot> snapshots = marketSnapshotPersistenceService.between(start, end);
         if (snapshots.isEmpty()) {
@@ -224,6 +255,17 @@ public class ItemAnalyticsService {
         return new PricePointDto(snapshot.snapshotTimestamp(), buy, sell, (long) auctions.size());
     }
 
+    private Set<String> auctionBaseIds(String itemId) {
+        if (marketItemKeyService == null) {
+            return Set.of();
+        }
+        return itemRepository.findById(itemId)
+                .map(Item::getDisplayName)
+                .map(marketItemKeyService::auctionBaseIdForName)
+                .map(Set::of)
+                .orElse(Set.of());
+    }
+
     private boolean matchesAuction(AuctionMarketRecord auction, Set<String> aliases) {
         if (auction == null || auction.itemName() == null) {
             return false;
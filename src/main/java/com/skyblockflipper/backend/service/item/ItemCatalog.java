@@ -0,0 +1,289 @@
+package com.skyblockflipper.backend.service.item;
+
+import com.skyblockflipper.backend.NEU.model.Item;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable snapshot of the NEU item catalog. Search keeps the substring semantics of the former repository scan:
+ * every 1- to 3-gram of the normalized id, display name and Minecraft id is indexed, so short queries are answered
+ * by a single posting list and longer ones by intersecting their trigram postings before verifying the match.
+ * Category and rarity are indexed as facets; orderings are computed once per requested {@link Sort}.
+ * <p>
+ * Items are detached copies without lore or recipes and must be treated as read-only.
+ */
+public final class ItemCatalog {
+
+    static final int MAX_GRAM_LENGTH = 3;
+    private static final int MAX_CACHED_ORDERINGS = 32;
+    private static final Sort DEFAULT_SORT = Sort.by("id").ascending();
+    private static final Map<String, Function<Item, String>> SORTABLE_PROPERTIES = Map.of(
+            "id", Item::getId,
+            "displayName", Item::getDisplayName,
+            "minecraftId", Item::getMinecraftId,
+            "rarity", Item::getRarity,
+            "category", Item::getCategory
+    );
+
+    private final Item[] items;
+    private final String[][] normalizedNames;
+    private final Map<String, Integer> positionById;
+    private final Map<String, int[]> postingsByGram;
+    private final Map<String, int[]> positionsByCategory;
+    private final Map<String, int[]> positionsByRarity;
+    private final Map<Sort, int[]> orderings = new ConcurrentHashMap<>();
+
+    private ItemCatalog(List<Item> source) {
+        List<Item> copies = new ArrayList<>(source.size());
+        Set<String> seenIds = new HashSet<>();
+        for (Item item : source) {
+            if (item != null && item.getId() != null && seenIds.add(item.getId())) {
+                copies.add(detachedCopy(item));
+            }
+        }
+        copies.sort(Comparator.comparing(Item::getId));
+        this.items = copies.toArray(new Item[0]);
+        this.normalizedNames = new String[items.length][];
+        this.positionById = new HashMap<>(Math.max(16, items.length * 2));
+        Map<String, PositionList> grams = new HashMap<>();
+        Map<String, PositionList> categories = new HashMap<>();
+        Map<String, PositionList> rarities = new HashMap<>();
+        for (int i = 0; i < items.length; i++) {
+            Item item = items[i];
+            positionById.put(item.getId(), i);
+            String[] names = {
+                    normalize(item.getId()),
+                    normalize(item.getDisplayName()),
+                    normalize(item.getMinecraftId())
+            };
+            normalizedNames[i] = names;
+            Set<String> itemGrams = new HashSet<>();
+            for (String name : names) {
+                addGrams(name, itemGrams);
+            }
+            for (String gram : itemGrams) {
+                grams.computeIfAbsent(gram, ignored -> new PositionList()).add(i);
+            }
+            categories.computeIfAbsent(normalize(item.getCategory()), ignored -> new PositionList()).add(i);
+            rarities.computeIfAbsent(normalize(item.getRarity()), ignored -> new PositionList()).add(i);
+        }
+        this.postingsByGram = freeze(grams);
+        this.positionsByCategory = freeze(categories);
+        this.positionsByRarity = freeze(rarities);
+    }
+
+    public static ItemCatalog build(List<Item> items) {
+        return new ItemCatalog(items == null ? List.of() : items);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public List<Item> items() {
+        return List.of(items);
+    }
+
+    public Optional<Item> find(String itemId) {
+        Integer position = itemId == null ? null : positionById.get(normalize(itemId));
+        return position == null ? Optional.empty() : Optional.of(items[position]);
+    }
+
+    /**
+     * Items whose id, display name or Minecraft id contains {@code search} and whose category and rarity match
+     * (case-insensitively), ordered by {@code sort}. Sorts on unknown properties fall back to id ascending.
+     */
+    public List<Item> select(String search, String category, String rarity, Sort sort) {
+        String normalizedSearch = normalize(search);
+        String normalizedCategory = normalize(category);
+        String normalizedRarity = normalize(rarity);
+
+        int[] candidates = null;
+        if (!normalizedSearch.isEmpty()) {
+            candidates = searchCandidates(normalizedSearch);
+        }
+        if (!normalizedCategory.isEmpty()) {
+            candidates = intersect(candidates, positionsByCategory.getOrDefault(normalizedCategory, new int[0]));
+        }
+        if (!normalizedRarity.isEmpty()) {
+            candidates = intersect(candidates, positionsByRarity.getOrDefault(normalizedRarity, new int[0]));
+        }
+
+        int[] order = ordering(sort);
+        if (candidates == null) {
+            List<Item> ordered = new ArrayList<>(order.length);
+            for (int position : order) {
+                ordered.add(items[position]);
+            }
+            return ordered;
+        }
+        if (candidates.length == 0) {
+            return List.of();
+        }
+        boolean[] selected = new boolean[items.length];
+        for (int position : candidates) {
+            selected[position] = true;
+        }
+        List<Item> ordered = new ArrayList<>(candidates.length);
+        for (int position : order) {
+            if (selected[position]) {
+                ordered.add(items[position]);
+            }
+        }
+        return ordered;
+    }
+
+    private int[] searchCandidates(String search) {
+        if (search.length() <= MAX_GRAM_LENGTH) {
+            return postingsByGram.getOrDefault(search, new int[0]);
+        }
+        int[] candidates = null;
+        for (int start = 0; start + MAX_GRAM_LENGTH <= search.length(); start++) {
+            int[] postings = postingsByGram.get(search.substring(start, start + MAX_GRAM_LENGTH));
+            if (postings == null) {
+                return new int[0];
+            }
+            candidates = intersect(candidates, postings);
+            if (candidates.length == 0) {
+                return candidates;
+            }
+        }
+        int[] verified = new int[candidates.length];
+        int count = 0;
+        for (int position : candidates) {
+            for (String name : normalizedNames[position]) {
+                if (name.contains(search)) {
+                    verified[count++] = position;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(verified, count);
+    }
+
+    private int[] ordering(Sort sort) {
+        Sort resolved = sort == null || sort.isUnsorted() ? DEFAULT_SORT : sort;
+        for (Sort.Order order : resolved) {
+            if (!SORTABLE_PROPERTIES.containsKey(order.getProperty())) {
+                resolved = DEFAULT_SORT;
+                break;
+            }
+        }
+        int[] cached = orderings.get(resolved);
+        if (cached != null) {
+            return cached;
+        }
+        int[] computed = computeOrdering(resolved);
+        if (orderings.size() < MAX_CACHED_ORDERINGS) {
+            orderings.putIfAbsent(resolved, computed);
+        }
+        return computed;
+    }
+
+    private int[] computeOrdering(Sort sort) {
+        Comparator<Integer> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<String> values = order.isAscending()
+                    ? Comparator.naturalOrder()
+                    : Comparator.<String>reverseOrder();
+            Function<Item, String> extractor = SORTABLE_PROPERTIES.get(order.getProperty());
+            Comparator<Integer> next = Comparator.comparing(
+                    position -> extractor.apply(items[position]),
+                    Comparator.nullsLast(values)
+            );
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Integer[] boxed = new Integer[items.length];
+        for (int i = 0; i < boxed.length; i++) {
+            boxed[i] = i;
+        }
+        // Positions follow id order, so the position itself is the stable id tie-breaker.
+        Arrays.sort(boxed, comparator.thenComparingInt(Integer::intValue));
+        int[] order = new int[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        if (left == null) {
+            return right;
+        }
+        int[] result = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static void addGrams(String name, Set<String> grams) {
+        for (int start = 0; start < name.length(); start++) {
+            int maxEnd = Math.min(name.length(), start + MAX_GRAM_LENGTH);
+            for (int end = start + 1; end <= maxEnd; end++) {
+                grams.add(name.substring(start, end));
+            }
+        }
+    }
+
+    private static Map<String, int[]> freeze(Map<String, PositionList> lists) {
+        Map<String, int[]> frozen = new HashMap<>(Math.max(16, lists.size() * 2));
+        lists.forEach((key, list) -> frozen.put(key, list.toArray()));
+        return Map.copyOf(frozen);
+    }
+
+    private static Item detachedCopy(Item item) {
+        return Item.builder()
+                .id(item.getId())
+                .displayName(item.getDisplayName())
+                .minecraftId(item.getMinecraftId())
+                .rarity(item.getRarity())
+                .category(item.getCategory())
+                .infoLinks(item.getInfoLinks() == null ? List.of() : List.copyOf(item.getInfoLinks()))
+                .recipes(List.of())
+                .build();
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static final class PositionList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
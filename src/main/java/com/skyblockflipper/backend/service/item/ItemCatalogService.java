@@ -0,0 +1,67 @@
+package com.skyblockflipper.backend.service.item;
+
+import com.skyblockflipper.backend.NEU.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the {@link ItemCatalog} read by the item endpoints. The catalog is loaded on first use and replaced
+ * atomically by {@link #rebuild()} after every NEU ingestion; reads in between never touch the database.
+ */
+@Service
+public class ItemCatalogService {
+
+    private final ItemRepository itemRepository;
+    private final Object buildLock = new Object();
+    private volatile ItemCatalog catalog;
+    private MeterRegistry meterRegistry;
+
+    public ItemCatalogService(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("skyblock.item.catalog.size", this, service -> {
+            ItemCatalog published = service.catalog;
+            return published == null ? 0D : published.size();
+        });
+    }
+
+    public ItemCatalog current() {
+        ItemCatalog local = catalog;
+        if (local != null) {
+            return local;
+        }
+        synchronized (buildLock) {
+            local = catalog;
+            if (local == null) {
+                local = load();
+                catalog = local;
+            }
+            return local;
+        }
+    }
+
+    public ItemCatalog rebuild() {
+        synchronized (buildLock) {
+            ItemCatalog rebuilt = load();
+            catalog = rebuilt;
+            return rebuilt;
+        }
+    }
+
+    private ItemCatalog load() {
+        long startedNanos = System.nanoTime();
+        ItemCatalog loaded = ItemCatalog.build(itemRepository.findAllWithInfoLinks());
+        if (meterRegistry != null) {
+            meterRegistry.timer("skyblock.item.catalog.build")
+                    .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        }
+        return loaded;
+    }
+}
@@ -6,42 +6,111 @@ import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
 import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.repository.FlipRepository;
+import com.skyblockflipper.backend.service.market.CurrentMarketSnapshotHolder;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Classifies items by the marketplaces they trade on. The classification of the whole item catalog is computed once
+ * per published market snapshot and kept as an immutable map; a newer snapshot or a NEU re-ingestion calls
+ * {@link #invalidate()} and the next lookup rebuilds it.
+ */
 @Service
 public class ItemMarketplaceService {
 
     private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
     private final FlipRepository flipRepository;
+    private final ItemCatalogService itemCatalogService;
+    private final AtomicLong version = new AtomicLong();
+    private final Object buildLock = new Object();
+    private volatile Classification classification;
+    private MeterRegistry meterRegistry;
 
     public ItemMarketplaceService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
-                                  FlipRepository flipRepository) {
+                                  FlipRepository flipRepository,
+                                  ItemCatalogService itemCatalogService) {
         this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
         this.flipRepository = flipRepository;
+        this.itemCatalogService = itemCatalogService;
+    }
+
+    @Autowired(required = false)
+    public void setCurrentMarketSnapshotHolder(CurrentMarketSnapshotHolder currentMarketSnapshotHolder) {
+        currentMarketSnapshotHolder.subscribe(ignored -> invalidate());
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("skyblock.item.marketplace_classification.size", this, service -> {
+            Classification published = service.classification;
+            return published == null ? 0D : published.byItemId().size();
+        });
     }
 
     public Map<String, MarketplaceType> resolveMarketplaces(Collection<Item> items) {
         if (items == null || items.isEmpty()) {
             return Map.of();
         }
+        Classification local = classification();
+        Map<String, MarketplaceType> result = new HashMap<>();
+        for (Item item : items) {
+            if (item == null || item.getId() == null) {
+                continue;
+            }
+            MarketplaceType marketplace = local.byItemId().get(item.getId());
+            result.put(item.getId(), marketplace == null ? local.classify(item) : marketplace);
+        }
+        return result;
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        classification = null;
+    }
+
+    private Classification classification() {
+        Classification local = classification;
+        if (local != null) {
+            return local;
+        }
+        synchronized (buildLock) {
+            local = classification;
+            if (local != null) {
+                return local;
+            }
+            long buildVersion = version.get();
+            Classification fresh = build();
+            if (version.get() == buildVersion) {
+                classification = fresh;
+            }
+            return fresh;
+        }
+    }
 
+    private Classification build() {
+        long startedNanos = System.nanoTime();
         Set<String> bazaarSignals = new HashSet<>();
         Set<String> auctionSignals = new HashSet<>();
 
         Optional<MarketSnapshot> latestSnapshot = marketSnapshotPersistenceService.latest();
         latestSnapshot.ifPresent(snapshot -> {
             snapshot.bazaarProducts().keySet().stream()
-                    .map(this::normalize)
+                    .map(ItemMarketplaceService::normalize)
                     .filter(Objects::nonNull)
                     .forEach(bazaarSignals::add);
             snapshot.auctions().forEach(auction ->
@@ -55,42 +124,24 @@ public class ItemMarketplaceService {
                         .forEach(resultItemId -> addSignal(auctionSignals, resultItemId))
         );
 
-        Map<String, MarketplaceType> result = new HashMap<>();
-        for (Item item : items) {
-            if (item == null || item.getId() == null) {
-                continue;
+        Classification signalsOnly = new Classification(Set.copyOf(bazaarSignals), Set.copyOf(auctionSignals), Map.of());
+        List<Item> catalog = itemCatalogService == null ? List.of() : itemCatalogService.current().items();
+        Map<String, MarketplaceType> byItemId = new HashMap<>(Math.max(16, catalog.size() * 2));
+        for (Item item : catalog) {
+            if (item != null && item.getId() != null) {
+                byItemId.put(item.getId(), signalsOnly.classify(item));
             }
-            boolean bazaar = hasSignal(item, bazaarSignals);
-            boolean auction = hasSignal(item, auctionSignals);
-            result.put(item.getId(), resolveMarketplace(bazaar, auction));
-        }
-        return result;
-    }
-
-    private boolean hasSignal(Item item, Set<String> signals) {
-        String id = normalize(item.getId());
-        String displayName = normalize(item.getDisplayName());
-        String minecraftId = normalize(item.getMinecraftId());
-
-        return (id != null && signals.contains(id))
-                || (displayName != null && signals.contains(displayName))
-                || (minecraftId != null && signals.contains(minecraftId));
-    }
-
-    private MarketplaceType resolveMarketplace(boolean bazaar, boolean auction) {
-        if (bazaar && auction) {
-            return MarketplaceType.BOTH;
-        }
-        if (bazaar) {
-            return MarketplaceType.BAZAAR;
         }
-        if (auction) {
-            return MarketplaceType.AUCTION_HOUSE;
+        Classification built = new Classification(signalsOnly.bazaarSignals(), signalsOnly.auctionSignals(),
+                Map.copyOf(byItemId));
+        if (meterRegistry != null) {
+            meterRegistry.timer("skyblock.item.marketplace_classification.build")
+                    .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
         }
-        return MarketplaceType.NONE;
+        return built;
     }
 
-    private void addSignal(Set<String> set, String value) {
+    private static void addSignal(Set<String> set, String value) {
         String normalized = normalize(value);
         if (normalized == null) {
             return;
@@ -99,10 +150,46 @@ public class ItemMarketplaceService {
         set.add(normalized.replace("_", "").replace(" ", ""));
     }
 
-    private String normalize(String value) {
+    private static String normalize(String value) {
         if (value == null || value.isBlank()) {
             return null;
         }
         return value.trim().toUpperCase(Locale.ROOT);
     }
+
+    /**
+     * Signal sets of one snapshot plus the pre-classified catalog; items outside the catalog are classified on the fly
+     * against the same signals.
+     */
+    private record Classification(
+            Set<String> bazaarSignals,
+            Set<String> auctionSignals,
+            Map<String, MarketplaceType> byItemId
+    ) {
+
+        private MarketplaceType classify(Item item) {
+            boolean bazaar = hasSignal(item, bazaarSignals);
+            boolean auction = hasSignal(item, auctionSignals);
+            if (bazaar && auction) {
+                return MarketplaceType.BOTH;
+            }
+            if (bazaar) {
+                return MarketplaceType.BAZAAR;
+            }
+            if (auction) {
+                return MarketplaceType.AUCTION_HOUSE;
+            }
+            return MarketplaceType.NONE;
+        }
+
+        private static boolean hasSignal(Item item, Set<String> signals) {
+            String id = normalize(item.getId());
+            String displayName = normalize(item.getDisplayName());
+            String minecraftId = normalize(item.getMinecraftId());
+
+            return (id != null && signals.contains(id))
+                    || (displayName != null && signals.contains(displayName))
+                    || (minecraftId != null && signals.contains(minecraftId));
+        }
+    }
 }
@@ -1,7 +1,6 @@
 package com.skyblockflipper.backend.service.item;
 
 import com.skyblockflipper.backend.NEU.model.Item;
-import com.skyblockflipper.backend.NEU.repository.ItemRepository;
 import com.skyblockflipper.backend.api.dto.ItemDto;
 import com.skyblockflipper.backend.api.dto.MarketplaceType;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,73 +9,64 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class ItemReadService {
 
-    private final ItemRepository itemRepository;
+    private final ItemCatalogService itemCatalogService;
     private final ItemMarketplaceService itemMarketplaceService;
 
-    public ItemReadService(ItemRepository itemRepository) {
-        this(itemRepository, null);
+    public ItemReadService(ItemCatalogService itemCatalogService) {
+        this(itemCatalogService, null);
     }
 
     @Autowired
-    public ItemReadService(ItemRepository itemRepository, ItemMarketplaceService itemMarketplaceService) {
-        this.itemRepository = itemRepository;
+    public ItemReadService(ItemCatalogService itemCatalogService, ItemMarketplaceService itemMarketplaceService) {
+        this.itemCatalogService = itemCatalogService;
         this.itemMarketplaceService = itemMarketplaceService;
     }
 
-    @Transactional(readOnly = true)
     public Page<ItemDto> listItems(String itemId, Pageable pageable) {
         return listItems(itemId, null, null, null, null, pageable);
     }
 
-    @Transactional(readOnly = true)
     public Page<ItemDto> listItems(String itemId,
                                    String search,
                                    String category,
                                    String rarity,
                                    MarketplaceType marketplace,
                                    Pageable pageable) {
-        String normalizedSearch = normalize(search != null && !search.isBlank() ? search : itemId);
-        String normalizedCategory = normalize(category);
-        String normalizedRarity = normalize(rarity);
-
+        String effectiveSearch = search != null && !search.isBlank() ? search : itemId;
         Sort sort = pageable != null && pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id").ascending();
-        List<Item> all;
-        try {
-            all = itemRepository.findAll(sort);
-        } catch (RuntimeException ignored) {
-            all = itemRepository.findAll(Sort.by("id").ascending());
+        List<Item> matched = itemCatalogService.current().select(effectiveSearch, category, rarity, sort);
+
+        if (marketplace == null) {
+            List<Item> pageItems = pageSlice(matched, pageable);
+            Map<String, MarketplaceType> marketplaces = resolveMarketplaces(pageItems);
+            List<ItemDto> content = pageItems.stream()
+                    .map(item -> toDto(item, marketplaces.getOrDefault(item.getId(), MarketplaceType.NONE)))
+                    .toList();
+            return toPage(content, pageable, matched.size());
         }
 
-        Map<String, MarketplaceType> marketplaces = resolveMarketplaces(all);
-        List<ItemDto> filtered = all.stream()
-                .filter(item -> matchesSearch(item, normalizedSearch))
-                .filter(item -> normalizedCategory.isEmpty() || normalizedCategory.equalsIgnoreCase(normalize(item.getCategory())))
-                .filter(item -> normalizedRarity.isEmpty() || normalizedRarity.equalsIgnoreCase(normalize(item.getRarity())))
+        Map<String, MarketplaceType> marketplaces = resolveMarketplaces(matched);
+        List<ItemDto> filtered = matched.stream()
                 .map(item -> toDto(item, marketplaces.getOrDefault(item.getId(), MarketplaceType.NONE)))
-                .filter(dto -> marketplace == null || marketplace == dto.marketplace())
+                .filter(dto -> marketplace == dto.marketplace())
                 .toList();
-
-        return paginate(filtered, pageable);
+        return toPage(pageSlice(filtered, pageable), pageable, filtered.size());
     }
 
-    @Transactional(readOnly = true)
     public Optional<ItemDto> findItemById(String itemId) {
-        String normalized = normalize(itemId);
-        if (normalized.isEmpty()) {
+        if (itemId == null || itemId.isBlank()) {
             return Optional.empty();
         }
-        return itemRepository.findById(normalized)
+        return itemCatalogService.current().find(itemId)
                 .map(item -> {
                     Map<String, MarketplaceType> marketplaces = resolveMarketplaces(List.of(item));
                     return toDto(item, marketplaces.getOrDefault(item.getId(), MarketplaceType.NONE));
@@ -95,16 +85,6 @@ public class ItemReadService {
         );
     }
 
-    private boolean matchesSearch(Item item, String search) {
-        if (search.isEmpty()) {
-            return true;
-        }
-        String id = normalize(item.getId());
-        String displayName = normalize(item.getDisplayName());
-        String minecraftId = normalize(item.getMinecraftId());
-        return id.contains(search) || displayName.contains(search) || minecraftId.contains(search);
-    }
-
     private Map<String, MarketplaceType> resolveMarketplaces(List<Item> items) {
         if (itemMarketplaceService == null) {
             return Map.of();
@@ -112,17 +92,19 @@ public class ItemReadService {
         return itemMarketplaceService.resolveMarketplaces(items);
     }
 
-    private Page<ItemDto> paginate(List<ItemDto> values, Pageable pageable) {
+    private <T> List<T> pageSlice(List<T> values, Pageable pageable) {
         if (pageable == null || pageable.isUnpaged()) {
-            return new PageImpl<>(new ArrayList<>(values));
+            return values;
         }
         int fromIndex = (int) Math.min(pageable.getOffset(), values.size());
         int toIndex = Math.min(fromIndex + pageable.getPageSize(), values.size());
-        List<ItemDto> content = fromIndex >= toIndex ? List.of() : values.subList(fromIndex, toIndex);
-        return new PageImpl<>(content, pageable, values.size());
+        return fromIndex >= toIndex ? List.of() : values.subList(fromIndex, toIndex);
     }
 
-    private String normalize(String value) {
-        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    private Page<ItemDto> toPage(List<ItemDto> content, Pageable pageable, int total) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return new PageImpl<>(new ArrayList<>(content));
+        }
+        return new PageImpl<>(content, pageable, total);
     }
 }
@@ -4,18 +4,28 @@ import com.skyblockflipper.backend.NEU.NEUClient;
 import com.skyblockflipper.backend.NEU.NEUItemMapper;
 import com.skyblockflipper.backend.NEU.model.Item;
 import com.skyblockflipper.backend.NEU.repository.ItemRepository;
+import com.skyblockflipper.backend.service.flipping.CompiledFlipTemplateCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import tools.jackson.databind.JsonNode;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Slf4j
 public class NeuRepoIngestionService {
 
     private final NEUClient neuClient;
     private final NEUItemMapper neuItemMapper;
     private final ItemRepository itemRepository;
+    private CompiledFlipTemplateCache compiledFlipTemplateCache;
+    private ItemMarketplaceService itemMarketplaceService;
+    private ItemCatalogService itemCatalogService;
+    private NpcShopReadService npcShopReadService;
+    private Map<String, String> ingestedContentHashes = Map.of();
+    private boolean npcShopRebuildPending;
 
     public NeuRepoIngestionService(NEUClient neuClient,
                                    NEUItemMapper neuItemMapper,
@@ -25,13 +35,60 @@ public class NeuRepoIngestionService {
         this.itemRepository = itemRepository;
     }
 
+    @Autowired(required = false)
+    public void setCompiledFlipTemplateCache(CompiledFlipTemplateCache compiledFlipTemplateCache) {
+        this.compiledFlipTemplateCache = compiledFlipTemplateCache;
+    }
+
+    @Autowired(required = false)
+    public void setItemMarketplaceService(ItemMarketplaceService itemMarketplaceService) {
+        this.itemMarketplaceService = itemMarketplaceService;
+    }
+
+    @Autowired(required = false)
+    public void setItemCatalogService(ItemCatalogService itemCatalogService) {
+        this.itemCatalogService = itemCatalogService;
+    }
+
+    @Autowired(required = false)
+    public void setNpcShopReadService(NpcShopReadService npcShopReadService) {
+        this.npcShopReadService = npcShopReadService;
+    }
+
+    /**
+     * Ingests the NEU items whose source files changed since the last successful ingestion of this process; the first
+     * call after startup ingests everything. Returns the number of items saved. A failed NPC shop rebuild keeps the
+     * previous shop index and is retried on the next ingestion instead of failing this one.
+     */
     public synchronized int ingestLatestFilteredItems() throws IOException, InterruptedException {
-        List<JsonNode> nodes = neuClient.loadItemJsons();
-        List<Item> items = neuItemMapper.fromJson(nodes);
-        if (items.isEmpty()) {
-            return 0;
+        NEUClient.ItemScan scan = neuClient.scanItemJsons(ingestedContentHashes);
+        List<Item> items = neuItemMapper.fromJson(scan.changedItems());
+        if (!items.isEmpty()) {
+            itemRepository.saveAll(items);
+            if (compiledFlipTemplateCache != null) {
+                compiledFlipTemplateCache.invalidate(items.stream().map(Item::getId).toList());
+            }
+            if (itemCatalogService != null) {
+                itemCatalogService.rebuild();
+            }
+            if (itemMarketplaceService != null) {
+                itemMarketplaceService.invalidate();
+            }
+        }
+        if ((scan.changedFileCount() > 0 || npcShopRebuildPending) && npcShopReadService != null) {
+            npcShopRebuildPending = !rebuildNpcShops();
         }
-        itemRepository.saveAll(items);
+        ingestedContentHashes = scan.contentHashes();
         return items.size();
     }
+
+    private boolean rebuildNpcShops() throws InterruptedException {
+        try {
+            npcShopReadService.rebuild();
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to rebuild NPC shop offers; keeping the previous index: {}", e.toString());
+            return false;
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package com.skyblockflipper.backend.service.item;
+
+import com.skyblockflipper.backend.api.dto.NpcShopOfferDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * NPC shop offers extracted once from the NEU item JSONs, sorted by item id and NPC id and grouped by normalized
+ * item id so that a filtered page is a sublist view.
+ */
+final class NpcShopOfferIndex {
+
+    private static final String NPC_SHOP = "NPC_SHOP";
+    private static final String SKYBLOCK_COIN = "SKYBLOCK_COIN";
+
+    private final List<NpcShopOfferDto> offers;
+    private final Map<String, List<NpcShopOfferDto>> offersByItemId;
+
+    private NpcShopOfferIndex(List<NpcShopOfferDto> extracted) {
+        List<NpcShopOfferDto> sorted = new ArrayList<>(extracted);
+        sorted.sort(Comparator.comparing(NpcShopOfferDto::itemId)
+                .thenComparing(NpcShopOfferDto::npcId));
+        this.offers = List.copyOf(sorted);
+        Map<String, List<NpcShopOfferDto>> grouped = new HashMap<>();
+        for (NpcShopOfferDto offer : offers) {
+            grouped.computeIfAbsent(normalize(offer.itemId()), ignored -> new ArrayList<>()).add(offer);
+        }
+        grouped.replaceAll((ignored, values) -> List.copyOf(values));
+        this.offersByItemId = Map.copyOf(grouped);
+    }
+
+    static NpcShopOfferIndex build(List<JsonNode> nodes) {
+        return new NpcShopOfferIndex(extractNpcShopOffers(nodes == null ? List.of() : nodes));
+    }
+
+    int size() {
+        return offers.size();
+    }
+
+    Page<NpcShopOfferDto> page(String itemId, Pageable pageable) {
+        String normalizedItemId = normalize(itemId);
+        List<NpcShopOfferDto> matching = normalizedItemId.isEmpty()
+                ? offers
+                : offersByItemId.getOrDefault(normalizedItemId, List.of());
+        int start = (int) Math.min(pageable.getOffset(), matching.size());
+        int end = Math.min(start + pageable.getPageSize(), matching.size());
+        return new PageImpl<>(matching.subList(start, end), pageable, matching.size());
+    }
+
+    private static List<NpcShopOfferDto> extractNpcShopOffers(List<JsonNode> nodes) {
+        List<NpcShopOfferDto> offers = new ArrayList<>();
+        for (JsonNode node : nodes) {
+            if (node == null || !node.isObject()) {
+                continue;
+            }
+
+            String npcId = firstNonBlank(node, "id", "internalname");
+            String npcDisplayName = firstNonBlank(node, "displayname", "display_name", "name");
+
+            JsonNode recipes = node.path("recipes");
+            if (!recipes.isArray()) {
+                continue;
+            }
+
+            for (JsonNode recipe : recipes) {
+                if (recipe == null || !NPC_SHOP.equals(normalize(recipe.path("type").asString("")))) {
+                    continue;
+                }
+
+                ParsedStack result = parseStack(recipe.path("result").asString(""));
+                if (result == null) {
+                    continue;
+                }
+
+                List<NpcShopOfferDto.CostDto> costs = parseCosts(recipe.path("cost"));
+                long coinCost = costs.stream()
+                        .filter(cost -> SKYBLOCK_COIN.equals(cost.itemId()))
+                        .mapToLong(NpcShopOfferDto.CostDto::amount)
+                        .sum();
+                Long effectiveCoinCost = coinCost > 0 ? coinCost : null;
+                Double unitCoinCost = effectiveCoinCost == null
+                        ? null
+                        : (double) effectiveCoinCost / result.amount();
+
+                offers.add(new NpcShopOfferDto(
+                        npcId,
+                        npcDisplayName,
+                        result.itemId(),
+                        result.amount(),
+                        List.copyOf(costs),
+                        effectiveCoinCost,
+                        unitCoinCost
+                ));
+            }
+        }
+        return offers;
+    }
+
+    private static List<NpcShopOfferDto.CostDto> parseCosts(JsonNode costNode) {
+        if (costNode == null || !costNode.isArray()) {
+            return List.of();
+        }
+        List<NpcShopOfferDto.CostDto> costs = new ArrayList<>();
+        for (JsonNode cost : costNode) {
+            ParsedStack parsed = parseStack(cost.asString(""));
+            if (parsed != null) {
+                costs.add(new NpcShopOfferDto.CostDto(parsed.itemId(), parsed.amount()));
+            }
+        }
+        return costs;
+    }
+
+    private static ParsedStack parseStack(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        String[] parts = value.trim().split(":");
+        if (parts.length == 0 || parts[0].isBlank()) {
+            return null;
+        }
+
+        String itemId = parts[0].trim();
+        int amount = 1;
+        if (parts.length > 1) {
+            try {
+                amount = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return new ParsedStack(itemId, Math.max(1, amount));
+    }
+
+    private static String firstNonBlank(JsonNode node, String... fieldNames) {
+        for (String fieldName : fieldNames) {
+            String value = node.path(fieldName).asString("");
+            if (!value.isBlank()) {
+                return value;
+            }
+        }
+        return "";
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record ParsedStack(String itemId, int amount) {
+    }
+}
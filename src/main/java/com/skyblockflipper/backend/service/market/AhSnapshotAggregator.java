@@ -8,8 +8,8 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -59,17 +59,17 @@ public class AhSnapshotAggregator {
         long snapshotTs = snapshotTimestamp.toEpochMilli();
         long endingSoonThreshold = snapshotTs + ENDING_SOON_WINDOW_MILLIS;
 
-        Map<String, ItemAccumulator> byItem = new LinkedHashMap<>();
+        Map<String, ItemAccumulator> byItem = new HashMap<>();
         for (AuctionMarketRecord auction : auctions) {
             if (auction == null || auction.claimed()) {
                 continue;
             }
-            String itemKey = marketItemKeyService.toAuctionAggregateItemKey(auction);
-            if (itemKey == null || itemKey.isBlank()) {
+            MarketItemKeyService.AuctionAggregateKey key = marketItemKeyService.toAuctionAggregateKey(auction);
+            if (key == null || key.itemKey() == null || key.itemKey().isBlank()) {
                 continue;
             }
-            ItemAccumulator accumulator = byItem.computeIfAbsent(itemKey, ignored -> new ItemAccumulator());
-            boolean hasAdditionals = marketItemKeyService.hasAuctionAdditionals(auction);
+            ItemAccumulator accumulator = byItem.computeIfAbsent(key.itemKey(), ignored -> new ItemAccumulator());
+            boolean hasAdditionals = key.hasAdditionals();
             if (auction.bin() && auction.startingBid() > 0L) {
                 accumulator.totalBinCount++;
                 if (!hasAdditionals) {
@@ -87,47 +87,46 @@ public class AhSnapshotAggregator {
             return List.of();
         }
 
-        List<AhItemSnapshotEntity> aggregates = new ArrayList<>(byItem.size());
-        byItem.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .forEach(entry -> {
-                    String itemKey = entry.getKey();
-                    ItemAccumulator acc = entry.getValue();
-                    if (acc.totalBinCount == 0) {
-                        return;
-                    }
-                    Long binLowest = null;
-                    Long binLowestFiveMean = null;
-                    Long binP50 = null;
-                    Long binP95 = null;
-                    if (!acc.pricedBinPrices.isEmpty()) {
-                        acc.pricedBinPrices.sort(Comparator.naturalOrder());
-                        binLowest = acc.pricedBinPrices.getFirst();
-                        binLowestFiveMean = lowestFiveMean(acc.pricedBinPrices);
-                        binP50 = percentile(acc.pricedBinPrices, 0.50D);
-                        binP95 = percentile(acc.pricedBinPrices, 0.95D);
-                    }
-                    Long bidP50 = null;
-                    if (!acc.pricedBidPrices.isEmpty()) {
-                        acc.pricedBidPrices.sort(Comparator.naturalOrder());
-                        bidP50 = percentile(acc.pricedBidPrices, 0.50D);
-                    }
-                    aggregates.add(new AhItemSnapshotEntity(
-                            snapshotTs,
-                            itemKey,
-                            binLowest,
-                            binLowestFiveMean,
-                            binP50,
-                            binP95,
-                            acc.totalBinCount,
-                            bidP50,
-                            acc.endingSoonCount
-                    ));
-                });
+        String[] itemKeys = byItem.keySet().toArray(new String[0]);
+        Arrays.sort(itemKeys);
+        List<AhItemSnapshotEntity> aggregates = new ArrayList<>(itemKeys.length);
+        for (String itemKey : itemKeys) {
+            ItemAccumulator acc = byItem.get(itemKey);
+            if (acc.totalBinCount == 0) {
+                continue;
+            }
+            Long binLowest = null;
+            Long binLowestFiveMean = null;
+            Long binP50 = null;
+            Long binP95 = null;
+            if (!acc.pricedBinPrices.isEmpty()) {
+                acc.pricedBinPrices.sort();
+                binLowest = acc.pricedBinPrices.get(0);
+                binLowestFiveMean = lowestFiveMean(acc.pricedBinPrices);
+                binP50 = percentile(acc.pricedBinPrices, 0.50D);
+                binP95 = percentile(acc.pricedBinPrices, 0.95D);
+            }
+            Long bidP50 = null;
+            if (!acc.pricedBidPrices.isEmpty()) {
+                acc.pricedBidPrices.sort();
+                bidP50 = percentile(acc.pricedBidPrices, 0.50D);
+            }
+            aggregates.add(new AhItemSnapshotEntity(
+                    snapshotTs,
+                    itemKey,
+                    binLowest,
+                    binLowestFiveMean,
+                    binP50,
+                    binP95,
+                    acc.totalBinCount,
+                    bidP50,
+                    acc.endingSoonCount
+            ));
+        }
         return aggregates;
     }
 
-    private long lowestFiveMean(List<Long> sortedPrices) {
+    private long lowestFiveMean(PriceBuffer sortedPrices) {
         int sample = Math.min(5, sortedPrices.size());
         long sum = 0L;
         for (int i = 0; i < sample; i++) {
@@ -136,7 +135,7 @@ public class AhSnapshotAggregator {
         return Math.round((double) sum / sample);
     }
 
-    private long percentile(List<Long> sortedPrices, double percentile) {
+    private long percentile(PriceBuffer sortedPrices, double percentile) {
         if (sortedPrices.isEmpty()) {
             return 0L;
         }
@@ -146,9 +145,39 @@ public class AhSnapshotAggregator {
     }
 
     private static final class ItemAccumulator {
-        private final List<Long> pricedBinPrices = new ArrayList<>();
-        private final List<Long> pricedBidPrices = new ArrayList<>();
+        private final PriceBuffer pricedBinPrices = new PriceBuffer();
+        private final PriceBuffer pricedBidPrices = new PriceBuffer();
         private int totalBinCount;
         private int endingSoonCount;
     }
+
+    private static final class PriceBuffer {
+        private static final long[] EMPTY = new long[0];
+
+        private long[] values = EMPTY;
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(8, size * 2));
+            }
+            values[size++] = value;
+        }
+
+        private void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        private long get(int index) {
+            return values[index];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
 }
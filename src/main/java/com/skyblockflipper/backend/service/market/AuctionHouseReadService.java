@@ -5,8 +5,8 @@ import com.skyblockflipper.backend.api.dto.AhListingBreakdownDto;
 import com.skyblockflipper.backend.api.dto.AhListingDto;
 import com.skyblockflipper.backend.api.dto.AhListingSortBy;
 import com.skyblockflipper.backend.api.dto.AhRecentSaleDto;
-import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -14,50 +14,32 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 public class AuctionHouseReadService {
 
-    private static final String DEFAULT_REFORGE = "None";
-    private static final Pattern STAR_PATTERN = Pattern.compile("(\\d+)\\s*-?\\s*STAR", Pattern.CASE_INSENSITIVE);
-    private static final Pattern MINECRAFT_FORMATTING_PATTERN = Pattern.compile("§.");
-    private static final Pattern MODIFIER_PATTERN = Pattern.compile("(?i)\\bmodifier\\s*:\\s*([a-z\\- '\\\\]+)");
-    private static final Set<String> REFORGES = Set.of(
-            "WITHERED", "HEROIC", "FABLED", "SPIRITUAL", "PRECISE", "SUSPICIOUS",
-            "GILDED", "ANCIENT", "GIANT", "NECROTIC", "LOVING", "RENOWNED",
-            "BLOODY", "SHADED", "WARPED", "DIRTY", "MOIL",
-            "REFINED", "BLESSED", "AUSPICIOUS", "MITHRAIC", "JADED", "FLEET",
-            "SPICY", "SHARP", "LEGENDARY", "ODD", "FAST", "FAIR", "EPIC", "GENTLE",
-            "TOIL", "BOUNTIFUL", "STELLAR", "HEADSTRONG", "UNDEAD", "CANDIED"
-    );
-    private static final List<String> GEMSTONE_TYPES = List.of(
-            "RUBY", "AMETHYST", "JADE", "SAPPHIRE", "AMBER", "TOPAZ",
-            "JASPER", "OPAL", "ONYX", "AQUAMARINE", "CITRINE", "PERIDOT"
-    );
-    private static final List<String> GEMSTONE_SLOT_TYPES = List.of(
-            "COMBAT", "DEFENSIVE", "MINING", "UNIVERSAL"
-    );
-
     private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
     private final ItemRepository itemRepository;
+    private AuctionListingIndexService auctionListingIndexService;
 
     public AuctionHouseReadService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
                                    ItemRepository itemRepository) {
         this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
         this.itemRepository = itemRepository;
+        this.auctionListingIndexService = new AuctionListingIndexService(null);
+    }
+
+    @Autowired(required = false)
+    public void setAuctionListingIndexService(AuctionListingIndexService auctionListingIndexService) {
+        this.auctionListingIndexService = auctionListingIndexService;
     }
 
     @Transactional(readOnly = true)
@@ -74,17 +56,20 @@ public class AuctionHouseReadService {
             return new PageImpl<>(List.of(), pageable, 0);
         }
 
-        Set<String> aliases = aliasesFor(itemId);
-        List<AhListingDto> listings = latest.get().auctions().stream()
-                .filter(auction -> matchesItem(auction, aliases))
-                .map(this::toListing)
-                .filter(listing -> bin == null || listing.bin() == bin)
-                .filter(listing -> minStars == null || listing.stars() >= Math.max(0, minStars))
-                .filter(listing -> maxStars == null || listing.stars() <= Math.max(0, maxStars))
-                .filter(listing -> reforge == null || reforge.isBlank()
-                        || normalize(reforge).equals(normalize(listing.reforge())))
-                .sorted(listingComparator(sortBy, sortDirection))
-                .toList();
+        String requestedReforge = reforge == null || reforge.isBlank() ? null : AuctionListingParser.normalize(reforge);
+        List<AhListingDto> listings = new ArrayList<>();
+        for (AuctionListingIndex.IndexedListing indexed : listingsFor(latest.get(), itemId)) {
+            AhListingDto listing = indexed.listing();
+            if ((bin == null || listing.bin() == bin)
+                    && (minStars == null || listing.stars() >= Math.max(0, minStars))
+                    && (maxStars == null || listing.stars() <= Math.max(0, maxStars))
+                    && (requestedReforge == null || requestedReforge.equals(indexed.normalizedReforge()))) {
+                listings.add(listing);
+            }
+        }
+        if (!isIndexOrder(sortBy, sortDirection)) {
+            listings.sort(listingComparator(sortBy, sortDirection));
+        }
 
         return paginate(listings, pageable);
     }
@@ -113,7 +98,7 @@ public class AuctionHouseReadService {
         );
         Map<String, Long> byReforge = listings.stream()
                 .collect(java.util.stream.Collectors.groupingBy(
-                        listing -> listing.reforge() == null || listing.reforge().isBlank() ? DEFAULT_REFORGE : listing.reforge(),
+                        listing -> listing.reforge() == null || listing.reforge().isBlank() ? AuctionListingParser.DEFAULT_REFORGE : listing.reforge(),
                         LinkedHashMap::new,
                         java.util.stream.Collectors.counting()
                 ));
@@ -131,41 +116,29 @@ public class AuctionHouseReadService {
             return List.of();
         }
 
-        Set<String> aliases = aliasesFor(itemId);
-        return latest.get().auctions().stream()
-                .filter(auction -> matchesItem(auction, aliases))
-                .filter(AuctionMarketRecord::claimed)
-                .sorted(Comparator.comparingLong(AuctionMarketRecord::endTimestamp).reversed())
+        return listingsFor(latest.get(), itemId).stream()
+                .filter(AuctionListingIndex.IndexedListing::claimed)
+                .map(AuctionListingIndex.IndexedListing::listing)
+                .sorted(Comparator.comparing(AhListingDto::endsAt).reversed())
                 .limit(safeLimit)
-                .map(auction -> new AhRecentSaleDto(
-                        auction.auctionUuid(),
-                        auction.highestBidAmount() > 0 ? auction.highestBidAmount() : auction.startingBid(),
-                        extractStars(auction.itemName()),
-                        extractReforge(auction.itemName(), auction.itemLore()),
-                        Instant.ofEpochMilli(auction.endTimestamp()),
-                        auction.bin()
+                .map(listing -> new AhRecentSaleDto(
+                        listing.auctionId(),
+                        listing.estimatedValue(),
+                        listing.stars(),
+                        listing.reforge(),
+                        listing.endsAt(),
+                        listing.bin()
                 ))
                 .toList();
     }
 
-    private AhListingDto toListing(AuctionMarketRecord auction) {
-        long estimatedValue = auction.highestBidAmount() > 0 ? auction.highestBidAmount() : auction.startingBid();
-        String name = auction.itemName() == null ? "" : auction.itemName();
-        return new AhListingDto(
-                auction.auctionUuid(),
-                normalize(name),
-                name,
-                auction.startingBid(),
-                List.of(),
-                auction.tier(),
-                extractStars(name),
-                extractReforge(name, auction.itemLore()),
-                Instant.ofEpochMilli(auction.endTimestamp()),
-                auction.bin(),
-                estimatedValue,
-                0,
-                extractGemSlots(name, auction.itemLore())
-        );
+    private List<AuctionListingIndex.IndexedListing> listingsFor(MarketSnapshot snapshot, String itemId) {
+        return auctionListingIndexService.indexFor(snapshot).listingsFor(itemId, this::aliasesFor);
+    }
+
+    private boolean isIndexOrder(AhListingSortBy sortBy, Sort.Direction direction) {
+        return (sortBy == null || sortBy == AhListingSortBy.PRICE)
+                && (direction == null || direction == Sort.Direction.ASC);
     }
 
     private Comparator<AhListingDto> listingComparator(AhListingSortBy sortBy, Sort.Direction direction) {
@@ -179,25 +152,11 @@ public class AuctionHouseReadService {
         if (safeDirection == Sort.Direction.DESC) {
             comparator = comparator.reversed();
         }
-        return comparator.thenComparing(AhListingDto::auctionId);
-    }
-
-    private boolean matchesItem(AuctionMarketRecord auction, Set<String> aliases) {
-        if (auction == null || auction.itemName() == null) {
-            return false;
-        }
-        String normalized = normalize(auction.itemName());
-        String compact = normalized.replace("_", "").replace(" ", "");
-        return aliases.stream().anyMatch(alias ->
-                normalized.equals(alias)
-                        || compact.equals(alias)
-                        || normalized.contains(alias)
-                        || compact.contains(alias)
-        );
+        return comparator.thenComparing(AhListingDto::auctionId, Comparator.nullsLast(Comparator.naturalOrder()));
     }
 
     private Set<String> aliasesFor(String itemId) {
-        String normalized = normalize(itemId);
+        String normalized = AuctionListingParser.normalize(itemId);
         if (normalized.isEmpty()) {
             return Set.of();
         }
@@ -212,7 +171,7 @@ public class AuctionHouseReadService {
     }
 
     private void addAlias(Set<String> aliases, String value) {
-        String normalized = normalize(value);
+        String normalized = AuctionListingParser.normalize(value);
         if (normalized.isEmpty()) {
             return;
         }
@@ -229,153 +188,4 @@ public class AuctionHouseReadService {
         List<AhListingDto> content = fromIndex >= toIndex ? List.of() : values.subList(fromIndex, toIndex);
         return new PageImpl<>(content, pageable, values.size());
     }
-
-    private int extractStars(String displayName) {
-        if (displayName == null || displayName.isBlank()) {
-            return 0;
-        }
-        int glyphCount = (int) displayName.chars().filter(ch -> ch == '✪').count();
-        if (glyphCount > 0) {
-            return Math.min(5, glyphCount);
-        }
-        Matcher matcher = STAR_PATTERN.matcher(displayName);
-        if (matcher.find()) {
-            try {
-                return Math.min(5, Math.max(0, Integer.parseInt(matcher.group(1))));
-            } catch (NumberFormatException ignored) {
-                return 0;
-            }
-        }
-        return 0;
-    }
-
-    private String extractReforge(String displayName, String itemLore) {
-        String loreReforge = extractReforgeFromLore(itemLore);
-        if (loreReforge != null) {
-            return loreReforge;
-        }
-        if (displayName == null || displayName.isBlank()) {
-            return DEFAULT_REFORGE;
-        }
-        String normalized = normalize(displayName);
-        for (String reforge : REFORGES) {
-            if (normalized.startsWith(reforge + " ")) {
-                return toTitle(reforge);
-            }
-        }
-        String[] segments = normalized.split("[(),]");
-        for (String segment : segments) {
-            String candidate = segment.trim().replace("'", "");
-            if (REFORGES.contains(candidate)) {
-                return toTitle(candidate);
-            }
-        }
-        return DEFAULT_REFORGE;
-    }
-
-    private String extractReforgeFromLore(String itemLore) {
-        if (itemLore == null || itemLore.isBlank()) {
-            return null;
-        }
-        String plain = stripFormatting(itemLore);
-        Matcher matcher = MODIFIER_PATTERN.matcher(plain);
-        if (!matcher.find()) {
-            return null;
-        }
-        String raw = matcher.group(1);
-        if (raw == null || raw.isBlank()) {
-            return null;
-        }
-        String normalized = raw.replaceAll("[^A-Za-z'\\- ]", " ").trim();
-        return normalized.isBlank() ? null : toTitleWords(normalized);
-    }
-
-    private List<String> extractGemSlots(String displayName, String itemLore) {
-        List<String> loreSlots = extractGemSlotsFromLore(itemLore);
-        if (!loreSlots.isEmpty()) {
-            return loreSlots;
-        }
-        if (displayName == null || displayName.isBlank()) {
-            return List.of();
-        }
-        String normalized = normalize(displayName);
-        List<String> slots = new ArrayList<>();
-        for (String slotType : GEMSTONE_SLOT_TYPES) {
-            if (normalized.contains(slotType + " GEMSTONE SLOT") || normalized.contains(slotType + " SLOT")) {
-                slots.add(toTitle(slotType));
-            }
-        }
-        for (String gemType : GEMSTONE_TYPES) {
-            if (normalized.contains(gemType + " GEMSTONE SLOT")
-                    || normalized.contains(gemType + " SLOT")
-                    || normalized.contains(gemType + " GEMSTONE")) {
-                slots.add(toTitle(gemType));
-            }
-        }
-        return List.copyOf(new LinkedHashSet<>(slots));
-    }
-
-    private List<String> extractGemSlotsFromLore(String itemLore) {
-        if (itemLore == null || itemLore.isBlank()) {
-            return List.of();
-        }
-        String upper = stripFormatting(itemLore).toUpperCase(Locale.ROOT);
-        LinkedHashSet<String> slots = new LinkedHashSet<>();
-        if (upper.contains("COMBAT SLOT")) {
-            slots.add("Combat");
-        }
-        if (upper.contains("DEFENSIVE SLOT")) {
-            slots.add("Defensive");
-        }
-        if (upper.contains("MINING SLOT")) {
-            slots.add("Mining");
-        }
-        if (upper.contains("UNIVERSAL SLOT")) {
-            slots.add("Universal");
-        }
-        for (String gemType : GEMSTONE_TYPES) {
-            if (upper.contains(gemType + " SLOT")
-                    || upper.contains(gemType + " GEMSTONE")
-                    || upper.contains(gemType + " SLOT TYPE")) {
-                slots.add(toTitle(gemType));
-            }
-        }
-        return List.copyOf(slots);
-    }
-
-    private String stripFormatting(String value) {
-        return MINECRAFT_FORMATTING_PATTERN.matcher(value).replaceAll("");
-    }
-
-    private String normalize(String value) {
-        if (value == null || value.isBlank()) {
-            return "";
-        }
-        return value.trim().toUpperCase(Locale.ROOT);
-    }
-
-    private String toTitle(String value) {
-        String lower = value.toLowerCase(Locale.ROOT);
-        if (lower.isEmpty()) {
-            return value;
-        }
-        return Character.toUpperCase(lower.charAt(0)) + lower.substring(1);
-    }
-
-    private String toTitleWords(String value) {
-        String[] words = value.trim().split("\\s+");
-        List<String> result = new ArrayList<>(words.length);
-        for (String word : words) {
-            if (word.isBlank()) {
-                continue;
-            }
-            String[] parts = word.split("-");
-            List<String> titleParts = new ArrayList<>(parts.length);
-            for (String part : parts) {
-                titleParts.add(toTitle(part));
-            }
-            result.add(String.join("-", titleParts));
-        }
-        return String.join(" ", result);
-    }
 }
@@ -0,0 +1,128 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.api.dto.AhListingDto;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Snapshot-scoped view of the auction house with every auction parsed once and grouped by normalized item name.
+ * Item lookups keep the alias/substring matching of the linear scan, but run it over the distinct names instead of
+ * every auction and remember the resolved, price-sorted listings per requested item id.
+ */
+final class AuctionListingIndex {
+
+    static final Comparator<IndexedListing> PRICE_ORDER = Comparator
+            .comparingLong((IndexedListing listing) -> listing.listing().price())
+            .thenComparing(listing -> listing.listing().auctionId(), Comparator.nullsLast(Comparator.naturalOrder()));
+    private static final int MAX_RESOLVED_ITEMS = 4_096;
+
+    private final long snapshotEpochMillis;
+    private final List<NameGroup> nameGroups;
+    private final Map<String, List<IndexedListing>> resolvedByItemId = new ConcurrentHashMap<>();
+
+    private AuctionListingIndex(long snapshotEpochMillis, List<NameGroup> nameGroups) {
+        this.snapshotEpochMillis = snapshotEpochMillis;
+        this.nameGroups = nameGroups;
+    }
+
+    static AuctionListingIndex build(MarketSnapshot snapshot, AuctionListingParser parser) {
+        Map<String, List<IndexedListing>> listingsByName = new LinkedHashMap<>();
+        for (AuctionMarketRecord auction : snapshot.auctions()) {
+            if (auction == null || auction.itemName() == null) {
+                continue;
+            }
+            String normalizedName = AuctionListingParser.normalize(auction.itemName());
+            if (normalizedName.isEmpty()) {
+                continue;
+            }
+            AhListingDto listing = parser.toListing(auction);
+            listingsByName.computeIfAbsent(normalizedName, ignored -> new ArrayList<>()).add(new IndexedListing(
+                    listing,
+                    AuctionListingParser.normalize(listing.reforge()),
+                    auction.claimed()
+            ));
+        }
+        List<NameGroup> groups = new ArrayList<>(listingsByName.size());
+        for (Map.Entry<String, List<IndexedListing>> entry : listingsByName.entrySet()) {
+            groups.add(new NameGroup(entry.getKey(), compact(entry.getKey()), List.copyOf(entry.getValue())));
+        }
+        return new AuctionListingIndex(snapshot.snapshotTimestamp().toEpochMilli(), List.copyOf(groups));
+    }
+
+    long snapshotEpochMillis() {
+        return snapshotEpochMillis;
+    }
+
+    int distinctNames() {
+        return nameGroups.size();
+    }
+
+    /**
+     * Listings for an item sorted by price ascending, then auction id. Aliases are only resolved on the first lookup
+     * of an item id within this snapshot.
+     */
+    List<IndexedListing> listingsFor(String itemId, Function<String, Set<String>> aliasResolver) {
+        String key = AuctionListingParser.normalize(itemId);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        List<IndexedListing> cached = resolvedByItemId.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<IndexedListing> resolved = resolve(aliasResolver.apply(itemId));
+        if (resolvedByItemId.size() < MAX_RESOLVED_ITEMS) {
+            resolvedByItemId.putIfAbsent(key, resolved);
+        }
+        return resolved;
+    }
+
+    private List<IndexedListing> resolve(Set<String> aliases) {
+        if (aliases == null || aliases.isEmpty()) {
+            return List.of();
+        }
+        List<IndexedListing> matches = new ArrayList<>();
+        for (NameGroup group : nameGroups) {
+            if (group.matches(aliases)) {
+                matches.addAll(group.listings());
+            }
+        }
+        matches.sort(PRICE_ORDER);
+        return List.copyOf(matches);
+    }
+
+    private static String compact(String normalized) {
+        return normalized.replace("_", "").replace(" ", "");
+    }
+
+    record IndexedListing(
+            AhListingDto listing,
+            String normalizedReforge,
+            boolean claimed
+    ) {
+    }
+
+    private record NameGroup(
+            String normalized,
+            String compact,
+            List<IndexedListing> listings
+    ) {
+        private boolean matches(Set<String> aliases) {
+            for (String alias : aliases) {
+                if (normalized.contains(alias) || compact.contains(alias)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
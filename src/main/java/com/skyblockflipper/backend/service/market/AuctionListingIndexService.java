@@ -0,0 +1,57 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link AuctionListingIndex} of the newest market snapshot. The index is rebuilt when
+ * {@link CurrentMarketSnapshotHolder} publishes a snapshot, so requests normally find it ready; a request for a
+ * snapshot that has not been indexed yet builds it once and publishes it for everyone else.
+ */
+@Service
+public class AuctionListingIndexService {
+
+    private final AuctionListingParser parser = new AuctionListingParser();
+    private final Object buildLock = new Object();
+    private volatile AuctionListingIndex current;
+    private MeterRegistry meterRegistry;
+
+    public AuctionListingIndexService(CurrentMarketSnapshotHolder currentSnapshotHolder) {
+        if (currentSnapshotHolder != null) {
+            currentSnapshotHolder.subscribe(this::indexFor);
+        }
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    AuctionListingIndex indexFor(MarketSnapshot snapshot) {
+        long snapshotEpochMillis = snapshot.snapshotTimestamp().toEpochMilli();
+        AuctionListingIndex local = current;
+        if (local != null && local.snapshotEpochMillis() == snapshotEpochMillis) {
+            return local;
+        }
+        synchronized (buildLock) {
+            local = current;
+            if (local != null && local.snapshotEpochMillis() == snapshotEpochMillis) {
+                return local;
+            }
+            long startedNanos = System.nanoTime();
+            AuctionListingIndex built = AuctionListingIndex.build(snapshot, parser);
+            if (meterRegistry != null) {
+                meterRegistry.timer("skyblock.ah.listing_index.build")
+                        .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+            }
+            if (local == null || local.snapshotEpochMillis() < snapshotEpochMillis) {
+                current = built;
+            }
+            return built;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.api.dto.AhListingDto;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns raw auctions into listing DTOs, extracting stars, reforge and gemstone slots from the name and lore.
+ */
+final class AuctionListingParser {
+
+    static final String DEFAULT_REFORGE = "None";
+    private static final Pattern STAR_PATTERN = Pattern.compile("(\\d+)\\s*-?\\s*STAR", Pattern.CASE_INSENSITIVE);
+    private static final Pattern MINECRAFT_FORMATTING_PATTERN = Pattern.compile("§.");
+    private static final Pattern MODIFIER_PATTERN = Pattern.compile("(?i)\\bmodifier\\s*:\\s*([a-z\\- '\\\\]+)");
+    private static final Set<String> REFORGES = Set.of(
+            "WITHERED", "HEROIC", "FABLED", "SPIRITUAL", "PRECISE", "SUSPICIOUS",
+            "GILDED", "ANCIENT", "GIANT", "NECROTIC", "LOVING", "RENOWNED",
+            "BLOODY", "SHADED", "WARPED", "DIRTY", "MOIL",
+            "REFINED", "BLESSED", "AUSPICIOUS", "MITHRAIC", "JADED", "FLEET",
+            "SPICY", "SHARP", "LEGENDARY", "ODD", "FAST", "FAIR", "EPIC", "GENTLE",
+            "TOIL", "BOUNTIFUL", "STELLAR", "HEADSTRONG", "UNDEAD", "CANDIED"
+    );
+    private static final List<String> GEMSTONE_TYPES = List.of(
+            "RUBY", "AMETHYST", "JADE", "SAPPHIRE", "AMBER", "TOPAZ",
+            "JASPER", "OPAL", "ONYX", "AQUAMARINE", "CITRINE", "PERIDOT"
+    );
+    private static final List<String> GEMSTONE_SLOT_TYPES = List.of(
+            "COMBAT", "DEFENSIVE", "MINING", "UNIVERSAL"
+    );
+
+    AhListingDto toListing(AuctionMarketRecord auction) {
+        long estimatedValue = auction.highestBidAmount() > 0 ? auction.highestBidAmount() : auction.startingBid();
+        String name = auction.itemName() == null ? "" : auction.itemName();
+        return new AhListingDto(
+                auction.auctionUuid(),
+                normalize(name),
+                name,
+                auction.startingBid(),
+                List.of(),
+                auction.tier(),
+                extractStars(name),
+                extractReforge(name, auction.itemLore()),
+                Instant.ofEpochMilli(auction.endTimestamp()),
+                auction.bin(),
+                estimatedValue,
+                0,
+                extractGemSlots(name, auction.itemLore())
+        );
+    }
+
+    int extractStars(String displayName) {
+        if (displayName == null || displayName.isBlank()) {
+            return 0;
+        }
+        int glyphCount = (int) displayName.chars().filter(ch -> ch == '✪').count();
+        if (glyphCount > 0) {
+            return Math.min(5, glyphCount);
+        }
+        Matcher matcher = STAR_PATTERN.matcher(displayName);
+        if (matcher.find()) {
+            try {
+                return Math.min(5, Math.max(0, Integer.parseInt(matcher.group(1))));
+            } catch (NumberFormatException ignored) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    String extractReforge(String displayName, String itemLore) {
+        String loreReforge = extractReforgeFromLore(itemLore);
+        if (loreReforge != null) {
+            return loreReforge;
+        }
+        if (displayName == null || displayName.isBlank()) {
+            return DEFAULT_REFORGE;
+        }
+        String normalized = normalize(displayName);
+        for (String reforge : REFORGES) {
+            if (normalized.startsWith(reforge + " ")) {
+                return toTitle(reforge);
+            }
+        }
+        String[] segments = normalized.split("[(),]");
+        for (String segment : segments) {
+            String candidate = segment.trim().replace("'", "");
+            if (REFORGES.contains(candidate)) {
+                return toTitle(candidate);
+            }
+        }
+        return DEFAULT_REFORGE;
+    }
+
+    private String extractReforgeFromLore(String itemLore) {
+        if (itemLore == null || itemLore.isBlank()) {
+            return null;
+        }
+        String plain = stripFormatting(itemLore);
+        Matcher matcher = MODIFIER_PATTERN.matcher(plain);
+        if (!matcher.find()) {
+            return null;
+        }
+        String raw = matcher.group(1);
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        String normalized = raw.replaceAll("[^A-Za-z'\\- ]", " ").trim();
+        return normalized.isBlank() ? null : toTitleWords(normalized);
+    }
+
+    private List<String> extractGemSlots(String displayName, String itemLore) {
+        List<String> loreSlots = extractGemSlotsFromLore(itemLore);
+        if (!loreSlots.isEmpty()) {
+            return loreSlots;
+        }
+        if (displayName == null || displayName.isBlank()) {
+            return List.of();
+        }
+        String normalized = normalize(displayName);
+        List<String> slots = new ArrayList<>();
+        for (String slotType : GEMSTONE_SLOT_TYPES) {
+            if (normalized.contains(slotType + " GEMSTONE SLOT") || normalized.contains(slotType + " SLOT")) {
+                slots.add(toTitle(slotType));
+            }
+        }
+        for (String gemType : GEMSTONE_TYPES) {
+            if (normalized.contains(gemType + " GEMSTONE SLOT")
+                    || normalized.contains(gemType + " SLOT")
+                    || normalized.contains(gemType + " GEMSTONE")) {
+                slots.add(toTitle(gemType));
+            }
+        }
+        return List.copyOf(new LinkedHashSet<>(slots));
+    }
+
+    private List<String> extractGemSlotsFromLore(String itemLore) {
+        if (itemLore == null || itemLore.isBlank()) {
+            return List.of();
+        }
+        String upper = stripFormatting(itemLore).toUpperCase(Locale.ROOT);
+        LinkedHashSet<String> slots = new LinkedHashSet<>();
+        if (upper.contains("COMBAT SLOT")) {
+            slots.add("Combat");
+        }
+        if (upper.contains("DEFENSIVE SLOT")) {
+            slots.add("Defensive");
+        }
+        if (upper.contains("MINING SLOT")) {
+            slots.add("Mining");
+        }
+        if (upper.contains("UNIVERSAL SLOT")) {
+            slots.add("Universal");
+        }
+        for (String gemType : GEMSTONE_TYPES) {
+            if (upper.contains(gemType + " SLOT")
+                    || upper.contains(gemType + " GEMSTONE")
+                    || upper.contains(gemType + " SLOT TYPE")) {
+                slots.add(toTitle(gemType));
+            }
+        }
+        return List.copyOf(slots);
+    }
+
+    private String stripFormatting(String value) {
+        return MINECRAFT_FORMATTING_PATTERN.matcher(value).replaceAll("");
+    }
+
+    static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return "";
+        }
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private String toTitle(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (lower.isEmpty()) {
+            return value;
+        }
+        return Character.toUpperCase(lower.charAt(0)) + lower.substring(1);
+    }
+
+    private String toTitleWords(String value) {
+        String[] words = value.trim().split("\\s+");
+        List<String> result = new ArrayList<>(words.length);
+        for (String word : words) {
+            if (word.isBlank()) {
+                continue;
+            }
+            String[] parts = word.split("-");
+            List<String> titleParts = new ArrayList<>(parts.length);
+            for (String part : parts) {
+                titleParts.add(toTitle(part));
+            }
+            result.add(String.join("-", titleParts));
+        }
+        return String.join(" ", result);
+    }
+}
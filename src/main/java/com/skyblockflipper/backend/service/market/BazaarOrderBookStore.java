@@ -0,0 +1,112 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.hypixel.model.BazaarProduct;
+import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
+import com.skyblockflipper.backend.hypixel.model.BazaarSummaryEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Order books of the most recently polled bazaar payload, kept as primitive price/amount/order arrays per product.
+ * The poller publishes every accepted payload; readers only see complete, immutable generations and never touch the
+ * Hypixel API themselves.
+ */
+@Component
+public class BazaarOrderBookStore {
+
+    private static final Generation EMPTY = new Generation(0L, Map.of());
+
+    private volatile Generation current = EMPTY;
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("skyblock.bazaar.order_book.products", this, store -> store.current.books().size());
+    }
+
+    /**
+     * Replaces the stored books with the payload's books unless the payload is older than the current generation.
+     */
+    public boolean publish(BazaarResponse response) {
+        if (response == null || !response.isSuccess() || response.getProducts() == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (response.getLastUpdated() < current.version()) {
+                return false;
+            }
+            Map<String, ProductOrderBook> books = new HashMap<>(Math.max(16, response.getProducts().size() * 2));
+            for (Map.Entry<String, BazaarProduct> entry : response.getProducts().entrySet()) {
+                BazaarProduct product = entry.getValue();
+                if (entry.getKey() == null || product == null) {
+                    continue;
+                }
+                books.put(entry.getKey(), new ProductOrderBook(
+                        OrderSide.of(product.getSellSummary()),
+                        OrderSide.of(product.getBuySummary())
+                ));
+            }
+            current = new Generation(response.getLastUpdated(), Map.copyOf(books));
+            return true;
+        }
+    }
+
+    public long version() {
+        return current.version();
+    }
+
+    public Optional<ProductOrderBook> orderBook(String productId) {
+        if (productId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.books().get(productId));
+    }
+
+    private record Generation(long version, Map<String, ProductOrderBook> books) {
+    }
+
+    public record ProductOrderBook(OrderSide sellSide, OrderSide buySide) {
+    }
+
+    public record OrderSide(double[] prices, long[] amounts, int[] orders) {
+
+        private static final OrderSide EMPTY = new OrderSide(new double[0], new long[0], new int[0]);
+
+        private static OrderSide of(List<BazaarSummaryEntry> entries) {
+            if (entries == null || entries.isEmpty()) {
+                return EMPTY;
+            }
+            int size = 0;
+            double[] prices = new double[entries.size()];
+            long[] amounts = new long[entries.size()];
+            int[] orders = new int[entries.size()];
+            for (BazaarSummaryEntry entry : entries) {
+                if (entry == null) {
+                    continue;
+                }
+                prices[size] = entry.getPricePerUnit();
+                amounts[size] = entry.getAmount();
+                orders[size] = entry.getOrders();
+                size++;
+            }
+            if (size == prices.length) {
+                return new OrderSide(prices, amounts, orders);
+            }
+            return new OrderSide(
+                    Arrays.copyOf(prices, size),
+                    Arrays.copyOf(amounts, size),
+                    Arrays.copyOf(orders, size)
+            );
+        }
+
+        public int depth() {
+            return prices.length;
+        }
+    }
+}
@@ -4,15 +4,12 @@ import com.skyblockflipper.backend.NEU.repository.ItemRepository;
 import com.skyblockflipper.backend.api.dto.BazaarOrderBookDto;
 import com.skyblockflipper.backend.api.dto.BazaarProductDto;
 import com.skyblockflipper.backend.api.dto.BazaarQuickFlipDto;
-import com.skyblockflipper.backend.hypixel.HypixelClient;
-import com.skyblockflipper.backend.hypixel.model.BazaarProduct;
-import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
-import com.skyblockflipper.backend.hypixel.model.BazaarSummaryEntry;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
@@ -23,14 +20,14 @@ import java.util.Optional;
 public class BazaarReadService {
 
     private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
-    private final HypixelClient hypixelClient;
+    private final BazaarOrderBookStore bazaarOrderBookStore;
     private final ItemRepository itemRepository;
 
     public BazaarReadService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
-                             HypixelClient hypixelClient,
+                             BazaarOrderBookStore bazaarOrderBookStore,
                              ItemRepository itemRepository) {
         this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
-        this.hypixelClient = hypixelClient;
+        this.bazaarOrderBookStore = bazaarOrderBookStore;
         this.itemRepository = itemRepository;
     }
 
@@ -49,18 +46,12 @@ public class BazaarReadService {
     public BazaarOrderBookDto getOrderBook(String itemId, int depth) {
         String normalized = normalize(itemId);
         int safeDepth = Math.max(1, depth);
-        BazaarResponse response = hypixelClient.fetchBazaar();
-        if (response == null || response.getProducts() == null) {
-            return new BazaarOrderBookDto(List.of(), List.of());
-        }
-        BazaarProduct product = response.getProducts().get(normalized);
-        if (product == null) {
-            return new BazaarOrderBookDto(List.of(), List.of());
-        }
-        return new BazaarOrderBookDto(
-                toLevels(product.getSellSummary(), safeDepth),
-                toLevels(product.getBuySummary(), safeDepth)
-        );
+        return bazaarOrderBookStore.orderBook(normalized)
+                .map(book -> new BazaarOrderBookDto(
+                        toLevels(book.sellSide(), safeDepth),
+                        toLevels(book.buySide(), safeDepth)
+                ))
+                .orElseGet(() -> new BazaarOrderBookDto(List.of(), List.of()));
     }
 
     @Transactional(readOnly = true)
@@ -119,18 +110,13 @@ public class BazaarReadService {
         );
     }
 
-    private List<BazaarOrderBookDto.OrderLevelDto> toLevels(List<BazaarSummaryEntry> entries, int depth) {
-        if (entries == null || entries.isEmpty()) {
-            return List.of();
+    private List<BazaarOrderBookDto.OrderLevelDto> toLevels(BazaarOrderBookStore.OrderSide side, int depth) {
+        int levels = Math.min(depth, side.depth());
+        List<BazaarOrderBookDto.OrderLevelDto> result = new ArrayList<>(levels);
+        for (int i = 0; i < levels; i++) {
+            result.add(new BazaarOrderBookDto.OrderLevelDto(side.prices()[i], side.amounts()[i], side.orders()[i]));
         }
-        return entries.stream()
-                .limit(depth)
-                .map(entry -> new BazaarOrderBookDto.OrderLevelDto(
-                        entry.getPricePerUnit(),
-                        entry.getAmount(),
-                        entry.getOrders()
-                ))
-                .toList();
+        return result;
     }
 
     private String normalize(String value) {
@@ -0,0 +1,113 @@
+package com.skyblockflipper.backend.service.market;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Small concurrent memo with expire-after-access and a hard size bound. When the bound is exceeded the least
+ * recently used tenth of the entries is dropped in one pass, so eviction cost is amortized across many inserts.
+ */
+public final class BoundedTtlCache<K, V> {
+
+    private static final double TRIM_TARGET_RATIO = 0.9D;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long sweepIntervalMillis;
+    private final LongSupplier clock;
+    private final Object evictionLock = new Object();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private volatile long lastSweepMillis;
+
+    public BoundedTtlCache(String metricPrefix,
+                           int maxEntries,
+                           long ttlMillis,
+                           LongSupplier clock,
+                           MeterRegistry meterRegistry) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = Math.max(1L, ttlMillis);
+        this.sweepIntervalMillis = Math.max(1L, this.ttlMillis / 4L);
+        this.clock = clock == null ? System::currentTimeMillis : clock;
+        this.lastSweepMillis = this.clock.getAsLong();
+        if (meterRegistry == null) {
+            this.hits = null;
+            this.misses = null;
+            this.evictions = null;
+        } else {
+            this.hits = meterRegistry.counter(metricPrefix + ".lookup", "result", "hit");
+            this.misses = meterRegistry.counter(metricPrefix + ".lookup", "result", "miss");
+            this.evictions = meterRegistry.counter(metricPrefix + ".evictions");
+            meterRegistry.gauge(metricPrefix + ".size", entries, Map::size);
+        }
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = clock.getAsLong();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now - entry.lastAccessMillis <= ttlMillis) {
+            entry.lastAccessMillis = now;
+            increment(hits, 1);
+            return entry.value;
+        }
+        increment(misses, 1);
+        V value = loader.apply(key);
+        entries.put(key, new Entry<>(value, now));
+        if (entries.size() > maxEntries || now - lastSweepMillis >= sweepIntervalMillis) {
+            evict(now);
+        }
+        return value;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evict(long now) {
+        synchronized (evictionLock) {
+            lastSweepMillis = now;
+            int before = entries.size();
+            entries.values().removeIf(entry -> now - entry.lastAccessMillis > ttlMillis);
+            if (entries.size() > maxEntries) {
+                List<Map.Entry<K, Entry<V>>> snapshot = new ArrayList<>(entries.entrySet());
+                snapshot.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastAccessMillis));
+                int target = (int) (maxEntries * TRIM_TARGET_RATIO);
+                int toRemove = snapshot.size() - target;
+                for (int i = 0; i < toRemove; i++) {
+                    entries.remove(snapshot.get(i).getKey(), snapshot.get(i).getValue());
+                }
+            }
+            increment(evictions, Math.max(0, before - entries.size()));
+        }
+    }
+
+    private void increment(Counter counter, int amount) {
+        if (counter != null && amount > 0) {
+            counter.increment(amount);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private volatile long lastAccessMillis;
+
+        private Entry(V value, long lastAccessMillis) {
+            this.value = value;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+    }
+}
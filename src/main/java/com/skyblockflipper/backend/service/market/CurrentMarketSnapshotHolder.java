@@ -0,0 +1,104 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide holder for the most recently committed market snapshot, published after persistence commits.
+ */
+@Slf4j
+@Component
+public class CurrentMarketSnapshotHolder {
+
+    static final String LOOKUP_METRIC_NAME = "skyblock.snapshot.cache.lookup";
+    static final String VERSION_METRIC_NAME = "skyblock.snapshot.cache.version";
+
+    private final AtomicReference<VersionedMarketSnapshot> current = new AtomicReference<>();
+    private final MeterRegistry meterRegistry;
+    private final List<Consumer<MarketSnapshot>> listeners = new CopyOnWriteArrayList<>();
+
+    public CurrentMarketSnapshotHolder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge(VERSION_METRIC_NAME, this, CurrentMarketSnapshotHolder::version);
+    }
+
+    public boolean publish(MarketSnapshot snapshot) {
+        if (snapshot == null) {
+            return false;
+        }
+        long timestampEpochMillis = snapshot.snapshotTimestamp().toEpochMilli();
+        while (true) {
+            VersionedMarketSnapshot previous = current.get();
+            if (previous != null && previous.timestampEpochMillis() > timestampEpochMillis) {
+                return false;
+            }
+            long nextVersion = previous == null ? 1L : previous.version() + 1L;
+            VersionedMarketSnapshot next = new VersionedMarketSnapshot(nextVersion, timestampEpochMillis, snapshot);
+            if (current.compareAndSet(previous, next)) {
+                notifyListeners(snapshot);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Registers a callback invoked on the publishing thread whenever a newer snapshot is published.
+     */
+    public void subscribe(Consumer<MarketSnapshot> listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    public Optional<VersionedMarketSnapshot> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    public long version() {
+        VersionedMarketSnapshot snapshot = current.get();
+        return snapshot == null ? 0L : snapshot.version();
+    }
+
+    private void notifyListeners(MarketSnapshot snapshot) {
+        for (Consumer<MarketSnapshot> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException e) {
+                log.warn("Market snapshot listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    void recordLookup(String lookup, LookupResult result) {
+        meterRegistry.counter(LOOKUP_METRIC_NAME, "lookup", lookup, "result", result.tag()).increment();
+    }
+
+    public record VersionedMarketSnapshot(long version,
+                                          long timestampEpochMillis,
+                                          MarketSnapshot snapshot) {
+    }
+
+    enum LookupResult {
+        HIT("hit"),
+        MISS("miss"),
+        STALE("stale");
+
+        private final String tag;
+
+        LookupResult(String tag) {
+            this.tag = tag;
+        }
+
+        String tag() {
+            return tag;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import com.skyblockflipper.backend.service.flipping.FlipCalculationContextServic
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
 import com.skyblockflipper.backend.service.flipping.storage.UnifiedFlipCurrentReadService;
 import com.skyblockflipper.backend.service.item.ItemMarketplaceService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -38,6 +39,7 @@ public class DashboardReadService {
     private final FlipCalculationContextService flipCalculationContextService;
     private final UnifiedFlipCurrentReadService unifiedFlipCurrentReadService;
     private final ItemMarketplaceService itemMarketplaceService;
+    private TrendingIndexService trendingIndexService;
 
     public DashboardReadService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
                                 MarketSnapshotHistoryRepository marketSnapshotHistoryRepository,
@@ -59,6 +61,11 @@ public class DashboardReadService {
         this.itemMarketplaceService = itemMarketplaceService;
     }
 
+    @Autowired(required = false)
+    public void setTrendingIndexService(TrendingIndexService trendingIndexService) {
+        this.trendingIndexService = trendingIndexService;
+    }
+
     @Transactional(readOnly = true)
     public DashboardOverviewDto overview() {
         long totalItems = itemRepository.count();
@@ -98,6 +105,12 @@ public class DashboardReadService {
     @Transactional(readOnly = true)
     public List<TrendingItemDto> trending(int limit) {
         int safeLimit = Math.max(1, limit);
+        if (trendingIndexService != null) {
+            Optional<List<TrendingItemDto>> indexed = trendingIndexService.top(safeLimit);
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
+        }
         Optional<MarketSnapshot> latestOpt = marketSnapshotPersistenceService.latest();
         if (latestOpt.isEmpty()) {
             return List.of();
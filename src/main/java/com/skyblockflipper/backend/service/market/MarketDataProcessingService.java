@@ -68,6 +68,8 @@ public class MarketDataProcessingService {
     private long lastBazaarLastUpdated = -1L;
     private boolean auctionRefreshInFlight;
     private boolean bazaarRefreshInFlight;
+    private BazaarOrderBookStore bazaarOrderBookStore;
+    private MarketTimescaleFeatureService marketTimescaleFeatureService;
 
     public MarketDataProcessingService(HypixelClient hypixelClient,
                                        HypixelMarketSnapshotMapper marketSnapshotMapper,
@@ -227,6 +229,16 @@ public class MarketDataProcessingService {
         validateStorageConfiguration(this.snapshotStorageProperties);
     }
 
+    @Autowired(required = false)
+    public void setBazaarOrderBookStore(BazaarOrderBookStore bazaarOrderBookStore) {
+        this.bazaarOrderBookStore = bazaarOrderBookStore;
+    }
+
+    @Autowired(required = false)
+    public void setMarketTimescaleFeatureService(MarketTimescaleFeatureService marketTimescaleFeatureService) {
+        this.marketTimescaleFeatureService = marketTimescaleFeatureService;
+    }
+
     private static long sanitizeDuration(Duration configured, Duration fallback) {
         Duration safeDuration = configured == null || configured.isNegative() || configured.isZero() ? fallback : configured;
         return safeDuration.toMillis();
@@ -303,6 +315,7 @@ public class MarketDataProcessingService {
         AuctionResponse auctionSnapshot;
         BazaarResponse bazaarSnapshot;
         long payloadBytes;
+        publishOrderBooks(bazaarResponse);
         synchronized (pollStateLock) {
             cachedBazaarResponse = bazaarResponse;
             if (bazaarResponse != null && bazaarResponse.getLastUpdated() > 0L) {
@@ -338,14 +351,16 @@ public class MarketDataProcessingService {
         cycleInstrumentationService.endPhase("normalize", normalizeStart, true, payloadBytes);
 
         long persistStart = cycleInstrumentationService.startPhase();
+        List<BzItemSnapshotEntity> bzAggregates = null;
         try {
-            persistAggregateSnapshots(snapshot, auctionResponse);
+            bzAggregates = persistAggregateSnapshots(snapshot, auctionResponse);
         } catch (RuntimeException e) {
             log.warn("Aggregate snapshot persistence failed but raw snapshot path will continue.", e);
         }
         if (snapshotStorageProperties.isPersistRawMarketSnapshot()) {
             marketSnapshotPersistenceService.save(snapshot);
         }
+        publishTimescaleFeatures(snapshot, bzAggregates);
         cycleInstrumentationService.endPhase("persist/cache_update", persistStart, true, payloadBytes);
 
         if (!prepareFlipInput) {
@@ -379,9 +394,12 @@ public class MarketDataProcessingService {
         return marketSnapshotPersistenceService.compactSnapshots();
     }
 
-    private void persistAggregateSnapshots(MarketSnapshot snapshot, AuctionResponse auctionResponse) {
+    /**
+     * @return the Bazaar aggregates of the snapshot when they were computed, otherwise {@code null}
+     */
+    private List<BzItemSnapshotEntity> persistAggregateSnapshots(MarketSnapshot snapshot, AuctionResponse auctionResponse) {
         if (snapshot == null || snapshot.snapshotTimestamp() == null) {
-            return;
+            return null;
         }
         if (snapshotStorageProperties.isPersistAhAggregates() && ahItemSnapshotRepository != null) {
             try {
@@ -399,9 +417,10 @@ public class MarketDataProcessingService {
                 log.warn("Failed to persist AH aggregate snapshots for {}", snapshot.snapshotTimestamp(), e);
             }
         }
+        List<BzItemSnapshotEntity> bzAggregates = null;
         if (snapshotStorageProperties.isPersistBzAggregates() && bzItemSnapshotRepository != null) {
             try {
-                List<BzItemSnapshotEntity> bzAggregates = bzSnapshotAggregator.aggregate(snapshot.snapshotTimestamp(), snapshot.bazaarProducts());
+                bzAggregates = bzSnapshotAggregator.aggregate(snapshot.snapshotTimestamp(), snapshot.bazaarProducts());
                 for (int fromIndex = 0; fromIndex < bzAggregates.size(); fromIndex += aggregateInsertBatchSize) {
                     int toIndex = Math.min(fromIndex + aggregateInsertBatchSize, bzAggregates.size());
                     bzItemSnapshotRepository.insertIgnoreBatch(bzAggregates.subList(fromIndex, toIndex));
@@ -410,6 +429,25 @@ public class MarketDataProcessingService {
                 log.warn("Failed to persist Bazaar aggregate snapshots for {}", snapshot.snapshotTimestamp(), e);
             }
         }
+        return bzAggregates;
+    }
+
+    /**
+     * Hands the snapshot to the rolling timescale features so flip contexts built for it need no history queries.
+     * Reuses the Bazaar aggregates of the persist phase when they were computed.
+     */
+    private void publishTimescaleFeatures(MarketSnapshot snapshot, List<BzItemSnapshotEntity> bzAggregates) {
+        if (marketTimescaleFeatureService == null || snapshot == null || snapshot.snapshotTimestamp() == null) {
+            return;
+        }
+        try {
+            List<BzItemSnapshotEntity> rows = bzAggregates != null
+                    ? bzAggregates
+                    : bzSnapshotAggregator.aggregate(snapshot.snapshotTimestamp(), snapshot.bazaarProducts());
+            marketTimescaleFeatureService.ingest(snapshot, rows);
+        } catch (RuntimeException e) {
+            log.warn("Failed to update timescale features for {}", snapshot.snapshotTimestamp(), e);
+        }
     }
 
     private void validateStorageConfiguration(MarketSnapshotStorageProperties storageProperties) {
@@ -565,6 +603,7 @@ public class MarketDataProcessingService {
             log.warn("Bazaar refresh failed, keeping cached payload: {}", e.getMessage());
             fetched = null;
         }
+        boolean accepted = false;
         synchronized (pollStateLock) {
             try {
                 long decisionNow = nowSupplier.getAsLong();
@@ -575,7 +614,7 @@ public class MarketDataProcessingService {
                 }
 
                 long fetchedLastUpdated = fetched.getLastUpdated();
-                boolean accepted = fetchedLastUpdated > 0L && fetchedLastUpdated >= lastBazaarLastUpdated;
+                accepted = fetchedLastUpdated > 0L && fetchedLastUpdated >= lastBazaarLastUpdated;
                 boolean advanced = accepted && fetchedLastUpdated > lastBazaarLastUpdated;
                 if (accepted) {
                     cachedBazaarResponse = fetched;
@@ -601,6 +640,15 @@ public class MarketDataProcessingService {
                 bazaarRefreshInFlight = false;
             }
         }
+        if (accepted) {
+            publishOrderBooks(fetched);
+        }
+    }
+
+    private void publishOrderBooks(BazaarResponse bazaarResponse) {
+        if (bazaarOrderBookStore != null) {
+            bazaarOrderBookStore.publish(bazaarResponse);
+        }
     }
 
     private long growInterval(long currentIntervalMillis, long baseIntervalMillis, long maxIntervalMillis) {
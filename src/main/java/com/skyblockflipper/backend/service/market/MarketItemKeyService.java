@@ -2,8 +2,16 @@ package com.skyblockflipper.backend.service.market;
 
 import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -18,6 +26,41 @@ public class MarketItemKeyService {
             Pattern.CASE_INSENSITIVE
     );
     private static final Pattern ENCHANT_LIKE_PATTERN = Pattern.compile("\\b[A-Z][A-Z'\\- ]{2,}\\s+[IVXLCDM]{1,6}\\b");
+    private static final Pattern LEADING_PET_LEVEL_PATTERN = Pattern.compile("^\\[LVL\\s*\\d+]\\s*");
+    private static final Pattern MINECRAFT_FORMATTING_PATTERN = Pattern.compile("§.");
+    private static final ThreadLocal<MessageDigest> CONTENT_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+    // Instances built outside Spring (tests, fallback wiring) get a small memo instead of the production bound.
+    private static final int UNMANAGED_KEY_CACHE_MAX_ENTRIES = 1_024;
+    private static final Duration DEFAULT_KEY_CACHE_TTL = Duration.ofMinutes(30);
+    static final String KEY_CACHE_METRIC_PREFIX = "skyblock.market.item_key_cache";
+
+    private final BoundedTtlCache<AuctionKeyContent, CachedAuctionKey> auctionKeyCache;
+
+    public MarketItemKeyService() {
+        this(UNMANAGED_KEY_CACHE_MAX_ENTRIES, DEFAULT_KEY_CACHE_TTL, null);
+    }
+
+    @Autowired
+    public MarketItemKeyService(@Value("${config.snapshot.item-key-cache.max-entries:100000}") int keyCacheMaxEntries,
+                                @Value("${config.snapshot.item-key-cache.ttl:PT30M}") Duration keyCacheTtl,
+                                MeterRegistry meterRegistry) {
+        Duration ttl = keyCacheTtl == null || keyCacheTtl.isNegative() || keyCacheTtl.isZero()
+                ? DEFAULT_KEY_CACHE_TTL
+                : keyCacheTtl;
+        this.auctionKeyCache = new BoundedTtlCache<>(
+                KEY_CACHE_METRIC_PREFIX,
+                keyCacheMaxEntries,
+                ttl.toMillis(),
+                System::currentTimeMillis,
+                meterRegistry
+        );
+    }
 
     public String toAuctionItemKey(AuctionMarketRecord record) {
         AuctionKeyParts keyParts = extractAuctionKeyParts(record);
@@ -34,27 +77,70 @@ public class MarketItemKeyService {
     }
 
     public String toAuctionAggregateItemKey(AuctionMarketRecord record) {
-        AuctionKeyParts keyParts = extractAuctionKeyParts(record);
-        if (keyParts == null) {
+        CachedAuctionKey cached = cachedAuctionKey(record);
+        return cached == null ? null : cached.aggregateKey().itemKey();
+    }
+
+    public boolean hasAuctionAdditionals(AuctionMarketRecord record) {
+        CachedAuctionKey cached = cachedAuctionKey(record);
+        return cached != null && cached.aggregateKey().hasAdditionals();
+    }
+
+    public AuctionAggregateKey toAuctionAggregateKey(AuctionMarketRecord record) {
+        CachedAuctionKey cached = cachedAuctionKey(record);
+        return cached == null ? null : cached.aggregateKey();
+    }
+
+    int auctionKeyCacheSize() {
+        return auctionKeyCache.size();
+    }
+
+    private CachedAuctionKey cachedAuctionKey(AuctionMarketRecord record) {
+        if (record == null) {
             return null;
         }
+        return auctionKeyCache.get(AuctionKeyContent.of(record), content -> computeAuctionKey(record));
+    }
+
+    private AuctionKeyParts extractAuctionKeyParts(AuctionMarketRecord record) {
+        CachedAuctionKey cached = cachedAuctionKey(record);
+        return cached == null ? null : cached.parts();
+    }
+
+    private CachedAuctionKey computeAuctionKey(AuctionMarketRecord record) {
+        AuctionKeyParts keyParts = parseAuctionKeyParts(record);
+        return new CachedAuctionKey(
+                keyParts,
+                new AuctionAggregateKey(aggregateItemKey(keyParts), hasAdditionals(record, keyParts))
+        );
+    }
+
+    private String aggregateItemKey(AuctionKeyParts keyParts) {
         return keyParts.baseId()
                 + "|T:" + keyParts.tier()
                 + "|C:" + keyParts.category()
                 + "|P:" + keyParts.petLevelToken();
     }
 
-    public boolean hasAuctionAdditionals(AuctionMarketRecord record) {
-        AuctionKeyParts keyParts = extractAuctionKeyParts(record);
-        if (keyParts == null) {
-            return false;
-        }
+    private boolean hasAdditionals(AuctionMarketRecord record, AuctionKeyParts keyParts) {
         return keyParts.stars() > 0
                 || keyParts.recombobulated()
                 || hasEnchantLikeTokens(record.itemLore())
                 || hasAdditionalSignalsInExtra(record.extra());
     }
 
+    /**
+     * The base id auctions named {@code itemName} are keyed under when their extra carries no internal id, or
+     * {@code null} for a blank name.
+     */
+    public String auctionBaseIdForName(String itemName) {
+        if (itemName == null || itemName.isBlank()) {
+            return null;
+        }
+        String baseId = normalizeIdentifier(parseItemName(MINECRAFT_FORMATTING_PATTERN.matcher(itemName).replaceAll("")).baseName());
+        return baseId.isBlank() ? null : baseId;
+    }
+
     public String toBazaarItemKey(BazaarMarketRecord record) {
         if (record == null) {
             return null;
@@ -106,14 +192,11 @@ public class MarketItemKeyService {
             return "";
         }
         String normalized = value.trim().toUpperCase(Locale.ROOT);
-        normalized = normalized.replaceAll("^\\[LVL\\s*\\d+]\\s*", "");
+        normalized = LEADING_PET_LEVEL_PATTERN.matcher(normalized).replaceFirst("");
         return normalized.replace(' ', '_');
     }
 
-    private AuctionKeyParts extractAuctionKeyParts(AuctionMarketRecord record) {
-        if (record == null) {
-            return null;
-        }
+    private AuctionKeyParts parseAuctionKeyParts(AuctionMarketRecord record) {
         ParsedItemName parsedItemName = parseItemName(record.itemName());
         String baseId = firstNonBlank(
                 parseBaseIdFromExtra(record.extra()),
@@ -184,7 +267,7 @@ public class MarketItemKeyService {
     }
 
     private String stripMinecraftFormatting(String text) {
-        return text.replaceAll("§.", " ");
+        return MINECRAFT_FORMATTING_PATTERN.matcher(text).replaceAll(" ");
     }
 
     private Integer tryParseInteger(String value) {
@@ -211,6 +294,49 @@ public class MarketItemKeyService {
         return "UNKNOWN";
     }
 
+    public record AuctionAggregateKey(String itemKey, boolean hasAdditionals) {
+    }
+
+    /**
+     * Cache key of an auction's key-relevant content. Lore and extra are only scanned for stars, the recombobulator
+     * marker, enchant-like tokens and the internal id, so they are keyed by a 128-bit SHA-256 prefix of both texts
+     * instead of being retained in full by every cache entry; a hit is then as good as a full comparison.
+     */
+    private record AuctionKeyContent(String itemName,
+                                     String tier,
+                                     String category,
+                                     long contentDigestHigh,
+                                     long contentDigestLow) {
+        private static AuctionKeyContent of(AuctionMarketRecord record) {
+            MessageDigest digest = CONTENT_DIGEST.get();
+            update(digest, record.itemLore());
+            update(digest, record.extra());
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+            return new AuctionKeyContent(
+                    record.itemName(),
+                    record.tier(),
+                    record.category(),
+                    hash.getLong(),
+                    hash.getLong()
+            );
+        }
+
+        private static void update(MessageDigest digest, String text) {
+            if (text == null) {
+                digest.update((byte) 0);
+                return;
+            }
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            // Tag and length-prefix each text so the boundary between lore and extra cannot shift.
+            digest.update((byte) 1);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+            digest.update(bytes);
+        }
+    }
+
+    private record CachedAuctionKey(AuctionKeyParts parts, AuctionAggregateKey aggregateKey) {
+    }
+
     private record ParsedItemName(String baseName, Integer petLevel) {
     }
 
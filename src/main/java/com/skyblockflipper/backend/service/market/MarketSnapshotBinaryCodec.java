@@ -0,0 +1,539 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned columnar encoding for raw market snapshot payloads.
+ * <p>
+ * Layout: {@code 'F' 'S' version flags} followed by the (optionally deflated) body. The body holds the row count,
+ * a string dictionary shared by all text columns, then one column after another. Timestamps are delta encoded,
+ * numeric columns are zig-zag varints and bazaar prices are raw IEEE doubles.
+ */
+public class MarketSnapshotBinaryCodec {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final byte MAGIC_0 = 'F';
+    private static final byte MAGIC_1 = 'S';
+    private static final int HEADER_LENGTH = 4;
+    private static final int FLAG_DEFLATE = 1;
+    private static final int UUID_NULL = 0;
+    private static final int UUID_HEX = 1;
+    private static final int UUID_TEXT = 2;
+
+    private final boolean compress;
+
+    public MarketSnapshotBinaryCodec(boolean compress) {
+        this.compress = compress;
+    }
+
+    public byte[] encodeAuctions(List<AuctionMarketRecord> auctions) {
+        List<AuctionMarketRecord> rows = auctions == null ? List.of() : auctions;
+        StringDictionary dictionary = new StringDictionary();
+        int count = rows.size();
+        int[] itemNames = new int[count];
+        int[] categories = new int[count];
+        int[] tiers = new int[count];
+        int[] lores = new int[count];
+        int[] extras = new int[count];
+        for (int i = 0; i < count; i++) {
+            AuctionMarketRecord row = rows.get(i);
+            itemNames[i] = dictionary.ref(row.itemName());
+            categories[i] = dictionary.ref(row.category());
+            tiers[i] = dictionary.ref(row.tier());
+            lores[i] = dictionary.ref(row.itemLore());
+            extras[i] = dictionary.ref(row.extra());
+        }
+
+        ByteSink body = new ByteSink(64 + count * 24);
+        body.writeVarLong(count);
+        dictionary.writeTo(body);
+        for (AuctionMarketRecord row : rows) {
+            writeUuid(body, row.auctionUuid());
+        }
+        writeRefs(body, itemNames);
+        writeRefs(body, categories);
+        writeRefs(body, tiers);
+        for (AuctionMarketRecord row : rows) {
+            body.writeZigZag(row.startingBid());
+        }
+        for (AuctionMarketRecord row : rows) {
+            body.writeZigZag(row.highestBidAmount());
+        }
+        long previousStart = 0L;
+        for (AuctionMarketRecord row : rows) {
+            body.writeZigZag(row.startTimestamp() - previousStart);
+            previousStart = row.startTimestamp();
+        }
+        for (AuctionMarketRecord row : rows) {
+            body.writeZigZag(row.endTimestamp() - row.startTimestamp());
+        }
+        for (AuctionMarketRecord row : rows) {
+            body.writeByte((row.claimed() ? 1 : 0) | (row.bin() ? 2 : 0));
+        }
+        writeRefs(body, lores);
+        writeRefs(body, extras);
+        return frame(body);
+    }
+
+    public List<AuctionMarketRecord> decodeAuctions(byte[] encoded) {
+        ByteSource body = unframe(encoded);
+        int count = body.readCount();
+        String[] dictionary = readDictionary(body);
+        String[] uuids = new String[count];
+        for (int i = 0; i < count; i++) {
+            uuids[i] = readUuid(body);
+        }
+        String[] itemNames = readRefs(body, dictionary, count);
+        String[] categories = readRefs(body, dictionary, count);
+        String[] tiers = readRefs(body, dictionary, count);
+        long[] startingBids = new long[count];
+        for (int i = 0; i < count; i++) {
+            startingBids[i] = body.readZigZag();
+        }
+        long[] highestBids = new long[count];
+        for (int i = 0; i < count; i++) {
+            highestBids[i] = body.readZigZag();
+        }
+        long[] starts = new long[count];
+        long previousStart = 0L;
+        for (int i = 0; i < count; i++) {
+            previousStart += body.readZigZag();
+            starts[i] = previousStart;
+        }
+        long[] ends = new long[count];
+        for (int i = 0; i < count; i++) {
+            ends[i] = starts[i] + body.readZigZag();
+        }
+        byte[] flags = body.readBytes(count);
+        String[] lores = readRefs(body, dictionary, count);
+        String[] extras = readRefs(body, dictionary, count);
+
+        List<AuctionMarketRecord> auctions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            auctions.add(new AuctionMarketRecord(
+                    uuids[i],
+                    itemNames[i],
+                    categories[i],
+                    tiers[i],
+                    startingBids[i],
+                    highestBids[i],
+                    starts[i],
+                    ends[i],
+                    (flags[i] & 1) != 0,
+                    (flags[i] & 2) != 0,
+                    lores[i],
+                    extras[i]
+            ));
+        }
+        return auctions;
+    }
+
+    public byte[] encodeBazaar(Map<String, BazaarMarketRecord> bazaarProducts) {
+        Map<String, BazaarMarketRecord> products = bazaarProducts == null ? Map.of() : bazaarProducts;
+        StringDictionary dictionary = new StringDictionary();
+        int count = products.size();
+        int[] keys = new int[count];
+        int[] productIds = new int[count];
+        List<BazaarMarketRecord> rows = new ArrayList<>(count);
+        int index = 0;
+        for (Map.Entry<String, BazaarMarketRecord> entry : products.entrySet()) {
+            BazaarMarketRecord row = entry.getValue();
+            keys[index] = dictionary.ref(entry.getKey());
+            productIds[index] = dictionary.ref(row == null ? null : row.productId());
+            rows.add(row);
+            index++;
+        }
+
+        ByteSink body = new ByteSink(64 + count * 64);
+        body.writeVarLong(count);
+        dictionary.writeTo(body);
+        writeRefs(body, keys);
+        writeRefs(body, productIds);
+        for (BazaarMarketRecord row : rows) {
+            body.writeByte(row == null ? 0 : 1);
+        }
+        for (BazaarMarketRecord row : rows) {
+            body.writeDouble(row == null ? 0.0D : row.buyPrice());
+        }
+        for (BazaarMarketRecord row : rows) {
+            body.writeDouble(row == null ? 0.0D : row.sellPrice());
+        }
+        for (BazaarMarketRecord row : rows) {
+            body.writeZigZag(row == null ? 0L : row.buyVolume());
+        }
+        for (BazaarMarketRecord row : rows) {
+            body.writeZigZag(row == null ? 0L : row.sellVolume());
+        }
+        for (BazaarMarketRecord row : rows) {
+            body.writeZigZag(row == null ? 0L : row.buyMovingWeek());
+        }
+        for (BazaarMarketRecord row : rows) {
+            body.writeZigZag(row == null ? 0L : row.sellMovingWeek());
+        }
+        for (BazaarMarketRecord row : rows) {
+            body.writeZigZag(row == null ? 0L : row.buyOrders());
+        }
+        for (BazaarMarketRecord row : rows) {
+            body.writeZigZag(row == null ? 0L : row.sellOrders());
+        }
+        return frame(body);
+    }
+
+    public Map<String, BazaarMarketRecord> decodeBazaar(byte[] encoded) {
+        ByteSource body = unframe(encoded);
+        int count = body.readCount();
+        String[] dictionary = readDictionary(body);
+        String[] keys = readRefs(body, dictionary, count);
+        String[] productIds = readRefs(body, dictionary, count);
+        byte[] present = body.readBytes(count);
+        double[] buyPrices = new double[count];
+        for (int i = 0; i < count; i++) {
+            buyPrices[i] = body.readDouble();
+        }
+        double[] sellPrices = new double[count];
+        for (int i = 0; i < count; i++) {
+            sellPrices[i] = body.readDouble();
+        }
+        long[] buyVolumes = readZigZagColumn(body, count);
+        long[] sellVolumes = readZigZagColumn(body, count);
+        long[] buyMovingWeeks = readZigZagColumn(body, count);
+        long[] sellMovingWeeks = readZigZagColumn(body, count);
+        long[] buyOrders = readZigZagColumn(body, count);
+        long[] sellOrders = readZigZagColumn(body, count);
+
+        Map<String, BazaarMarketRecord> products = new LinkedHashMap<>(Math.max(16, (int) (count / 0.75f) + 1));
+        for (int i = 0; i < count; i++) {
+            products.put(keys[i], present[i] == 0 ? null : new BazaarMarketRecord(
+                    productIds[i],
+                    buyPrices[i],
+                    sellPrices[i],
+                    buyVolumes[i],
+                    sellVolumes[i],
+                    buyMovingWeeks[i],
+                    sellMovingWeeks[i],
+                    (int) buyOrders[i],
+                    (int) sellOrders[i]
+            ));
+        }
+        return products;
+    }
+
+    private byte[] frame(ByteSink body) {
+        byte[] payload = body.toByteArray();
+        int flags = 0;
+        if (compress) {
+            payload = deflate(payload);
+            flags |= FLAG_DEFLATE;
+        }
+        byte[] framed = new byte[HEADER_LENGTH + payload.length];
+        framed[0] = MAGIC_0;
+        framed[1] = MAGIC_1;
+        framed[2] = FORMAT_VERSION;
+        framed[3] = (byte) flags;
+        System.arraycopy(payload, 0, framed, HEADER_LENGTH, payload.length);
+        return framed;
+    }
+
+    private ByteSource unframe(byte[] encoded) {
+        if (encoded == null || encoded.length < HEADER_LENGTH || encoded[0] != MAGIC_0 || encoded[1] != MAGIC_1) {
+            throw new IllegalStateException("Not a binary market snapshot payload.");
+        }
+        if (encoded[2] != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported market snapshot encoding version " + encoded[2] + ".");
+        }
+        byte[] payload = Arrays.copyOfRange(encoded, HEADER_LENGTH, encoded.length);
+        if ((encoded[3] & FLAG_DEFLATE) != 0) {
+            payload = inflate(payload);
+        }
+        return new ByteSource(payload);
+    }
+
+    private byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteSink out = new ByteSink(Math.max(64, raw.length / 3));
+            byte[] chunk = new byte[8_192];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                out.writeBytes(chunk, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteSink out = new ByteSink(Math.max(64, compressed.length * 4));
+            byte[] chunk = new byte[8_192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(chunk);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed market snapshot payload.");
+                }
+                out.writeBytes(chunk, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed market snapshot payload.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private void writeRefs(ByteSink body, int[] refs) {
+        for (int ref : refs) {
+            body.writeVarLong(ref);
+        }
+    }
+
+    private String[] readRefs(ByteSource body, String[] dictionary, int count) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            int ref = (int) body.readVarLong();
+            if (ref < 0 || ref > dictionary.length) {
+                throw new IllegalStateException("Market snapshot dictionary reference out of range: " + ref);
+            }
+            values[i] = ref == 0 ? null : dictionary[ref - 1];
+        }
+        return values;
+    }
+
+    private String[] readDictionary(ByteSource body) {
+        int size = body.readCount();
+        String[] dictionary = new String[size];
+        for (int i = 0; i < size; i++) {
+            dictionary[i] = body.readString();
+        }
+        return dictionary;
+    }
+
+    private long[] readZigZagColumn(ByteSource body, int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = body.readZigZag();
+        }
+        return values;
+    }
+
+    private void writeUuid(ByteSink body, String uuid) {
+        if (uuid == null) {
+            body.writeByte(UUID_NULL);
+            return;
+        }
+        if (isCompactHex(uuid)) {
+            body.writeByte(UUID_HEX);
+            body.writeLong(Long.parseUnsignedLong(uuid, 0, 16, 16));
+            body.writeLong(Long.parseUnsignedLong(uuid, 16, 32, 16));
+            return;
+        }
+        body.writeByte(UUID_TEXT);
+        body.writeString(uuid);
+    }
+
+    private String readUuid(ByteSource body) {
+        int marker = body.readByte();
+        return switch (marker) {
+            case UUID_NULL -> null;
+            case UUID_HEX -> toHex(body.readLong()) + toHex(body.readLong());
+            case UUID_TEXT -> body.readString();
+            default -> throw new IllegalStateException("Unknown auction uuid marker " + marker + ".");
+        };
+    }
+
+    private boolean isCompactHex(String value) {
+        if (value.length() != 32) {
+            return false;
+        }
+        for (int i = 0; i < 32; i++) {
+            char c = value.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String toHex(long value) {
+        String hex = Long.toHexString(value);
+        return hex.length() == 16 ? hex : "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private static final class StringDictionary {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        private int ref(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer existing = refs.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            values.add(value);
+            int ref = values.size();
+            refs.put(value, ref);
+            return ref;
+        }
+
+        private void writeTo(ByteSink body) {
+            body.writeVarLong(values.size());
+            for (String value : values) {
+                body.writeString(value);
+            }
+        }
+    }
+
+    private static final class ByteSink {
+        private byte[] buffer;
+        private int size;
+
+        private ByteSink(int initialCapacity) {
+            this.buffer = new byte[Math.max(16, initialCapacity)];
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, 0, buffer, size, length);
+            size += length;
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0L) {
+                buffer[size++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            buffer[size++] = (byte) remaining;
+        }
+
+        private void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeDouble(double value) {
+            writeLong(Double.doubleToLongBits(value));
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes, bytes.length);
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class ByteSource {
+        private final byte[] buffer;
+        private int position;
+
+        private ByteSource(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private void require(int length) {
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalStateException("Truncated market snapshot payload.");
+            }
+        }
+
+        private int readByte() {
+            require(1);
+            return buffer[position++] & 0xFF;
+        }
+
+        private byte[] readBytes(int length) {
+            require(length);
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        private long readVarLong() {
+            long value = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Malformed varint in market snapshot payload.");
+        }
+
+        private int readCount() {
+            long count = readVarLong();
+            if (count < 0L || count > buffer.length) {
+                throw new IllegalStateException("Invalid row count in market snapshot payload: " + count);
+            }
+            return (int) count;
+        }
+
+        private long readZigZag() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1L);
+        }
+
+        private long readLong() {
+            require(8);
+            long value = 0L;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFFL);
+            }
+            return value;
+        }
+
+        private double readDouble() {
+            return Double.longBitsToDouble(readLong());
+        }
+
+        private String readString() {
+            int length = readCount();
+            require(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
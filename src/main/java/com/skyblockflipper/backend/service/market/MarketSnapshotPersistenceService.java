@@ -22,6 +22,8 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import tools.jackson.core.JacksonException;
 import tools.jackson.core.type.TypeReference;
@@ -37,6 +39,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -65,6 +68,9 @@ public class MarketSnapshotPersistenceService {
     private final TransactionTemplate requiresNewTransactionTemplate;
     private volatile PartitionLifecycleService partitionLifecycleService;
     private volatile PartitioningProperties partitioningProperties = new PartitioningProperties();
+    private volatile CurrentMarketSnapshotHolder currentSnapshotHolder;
+    private volatile boolean binaryEncodingEnabled = true;
+    private volatile MarketSnapshotBinaryCodec binaryCodec = new MarketSnapshotBinaryCodec(true);
 
     public MarketSnapshotPersistenceService(MarketSnapshotRepository marketSnapshotRepository,
                                             RetainedMarketSnapshotRepository retainedMarketSnapshotRepository,
@@ -125,16 +131,38 @@ public class MarketSnapshotPersistenceService {
         }
     }
 
+    @Autowired(required = false)
+    public void setCurrentSnapshotHolder(CurrentMarketSnapshotHolder currentSnapshotHolder) {
+        this.currentSnapshotHolder = currentSnapshotHolder;
+    }
+
+    @Autowired(required = false)
+    public void setSnapshotStorageProperties(MarketSnapshotStorageProperties storageProperties) {
+        if (storageProperties != null) {
+            this.binaryEncodingEnabled = storageProperties.isBinaryRawSnapshotEncoding();
+            this.binaryCodec = new MarketSnapshotBinaryCodec(storageProperties.isBinaryRawSnapshotCompression());
+        }
+    }
+
     public MarketSnapshot save(MarketSnapshot snapshot) {
         try {
-            MarketSnapshotEntity entity = new MarketSnapshotEntity(
-                    snapshot.snapshotTimestamp().toEpochMilli(),
-                    snapshot.auctions().size(),
-                    snapshot.bazaarProducts().size(),
-                    objectMapper.writeValueAsString(snapshot.auctions()),
-                    objectMapper.writeValueAsString(snapshot.bazaarProducts())
-            );
+            MarketSnapshotEntity entity = binaryEncodingEnabled
+                    ? new MarketSnapshotEntity(
+                            snapshot.snapshotTimestamp().toEpochMilli(),
+                            snapshot.auctions().size(),
+                            snapshot.bazaarProducts().size(),
+                            binaryCodec.encodeAuctions(snapshot.auctions()),
+                            binaryCodec.encodeBazaar(snapshot.bazaarProducts())
+                    )
+                    : new MarketSnapshotEntity(
+                            snapshot.snapshotTimestamp().toEpochMilli(),
+                            snapshot.auctions().size(),
+                            snapshot.bazaarProducts().size(),
+                            objectMapper.writeValueAsString(snapshot.auctions()),
+                            objectMapper.writeValueAsString(snapshot.bazaarProducts())
+                    );
             blockingTimeTracker.record("db.marketSnapshot.save", "db", () -> marketSnapshotRepository.save(entity));
+            publishAfterCommit(snapshot);
             return snapshot;
         } catch (JacksonException e) {
             throw new IllegalStateException("Failed to serialize market snapshot for persistence.", e);
@@ -143,12 +171,11 @@ public class MarketSnapshotPersistenceService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<MarketSnapshot> latest() {
-        Optional<SnapshotPayload> payload = blockingTimeTracker.record(
+        return resolveThroughCurrentSnapshot("latest", Long.MAX_VALUE, () -> blockingTimeTracker.record(
                 "db.marketSnapshot.latest",
                 "db",
                 this::loadLatestPayload
-        );
-        return payload.map(this::toDomain);
+        ));
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -156,12 +183,59 @@ public class MarketSnapshotPersistenceService {
         if (asOfTimestamp == null) {
             return latest();
         }
-        Optional<SnapshotPayload> payload = blockingTimeTracker.record(
+        return resolveThroughCurrentSnapshot("asOf", asOfTimestamp.toEpochMilli(), () -> blockingTimeTracker.record(
                 "db.marketSnapshot.asOf",
                 "db",
                 () -> loadAsOfPayload(asOfTimestamp)
-        );
-        return payload.map(this::toDomain);
+        ));
+    }
+
+    private Optional<MarketSnapshot> resolveThroughCurrentSnapshot(String lookup,
+                                                                   long asOfEpochMillis,
+                                                                   Supplier<Optional<SnapshotPayload>> payloadLoader) {
+        CurrentMarketSnapshotHolder holder = this.currentSnapshotHolder;
+        if (holder == null) {
+            return payloadLoader.get().map(this::toDomain);
+        }
+
+        CurrentMarketSnapshotHolder.VersionedMarketSnapshot cached = holder.current().orElse(null);
+        CurrentMarketSnapshotHolder.LookupResult result = CurrentMarketSnapshotHolder.LookupResult.MISS;
+        if (cached != null && cached.timestampEpochMillis() <= asOfEpochMillis) {
+            Optional<Long> persistedTimestamp = blockingTimeTracker.record(
+                    "db.marketSnapshot.latestTimestamp",
+                    "db",
+                    () -> loadNewestTimestampAtOrBefore(asOfEpochMillis)
+            );
+            if (persistedTimestamp.isPresent() && persistedTimestamp.get() == cached.timestampEpochMillis()) {
+                holder.recordLookup(lookup, CurrentMarketSnapshotHolder.LookupResult.HIT);
+                return Optional.of(cached.snapshot());
+            }
+            result = CurrentMarketSnapshotHolder.LookupResult.STALE;
+        }
+        holder.recordLookup(lookup, result);
+
+        Optional<MarketSnapshot> loaded = payloadLoader.get().map(this::toDomain);
+        if (cached != null || asOfEpochMillis == Long.MAX_VALUE) {
+            loaded.ifPresent(holder::publish);
+        }
+        return loaded;
+    }
+
+    private void publishAfterCommit(MarketSnapshot snapshot) {
+        CurrentMarketSnapshotHolder holder = this.currentSnapshotHolder;
+        if (holder == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            holder.publish(snapshot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                holder.publish(snapshot);
+            }
+        });
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -480,6 +554,8 @@ public class MarketSnapshotPersistenceService {
                         sourceEntity.getBazaarProductCount(),
                         sourceEntity.getAuctionsJson(),
                         sourceEntity.getBazaarProductsJson(),
+                        sourceEntity.getAuctionsBlob(),
+                        sourceEntity.getBazaarProductsBlob(),
                         sourceEntity.getCreatedAtEpochMillis(),
                         retainedAtEpochMillis
                 );
@@ -488,6 +564,8 @@ public class MarketSnapshotPersistenceService {
                 retainedEntity.setBazaarProductCount(sourceEntity.getBazaarProductCount());
                 retainedEntity.setAuctionsJson(sourceEntity.getAuctionsJson());
                 retainedEntity.setBazaarProductsJson(sourceEntity.getBazaarProductsJson());
+                retainedEntity.setAuctionsBlob(sourceEntity.getAuctionsBlob());
+                retainedEntity.setBazaarProductsBlob(sourceEntity.getBazaarProductsBlob());
                 retainedEntity.setCreatedAtEpochMillis(sourceEntity.getCreatedAtEpochMillis());
                 retainedEntity.setRetainedAtEpochMillis(retainedAtEpochMillis);
             }
@@ -508,6 +586,18 @@ public class MarketSnapshotPersistenceService {
         );
     }
 
+    private Optional<Long> loadNewestTimestampAtOrBefore(long asOfEpochMillis) {
+        Optional<Long> raw = marketSnapshotRepository.findMaxSnapshotTimestampEpochMillisAtOrBefore(asOfEpochMillis);
+        Optional<Long> retained = retainedMarketSnapshotRepository.findMaxSnapshotTimestampEpochMillisAtOrBefore(asOfEpochMillis);
+        if (raw == null || raw.isEmpty()) {
+            return retained == null ? Optional.empty() : retained;
+        }
+        if (retained == null || retained.isEmpty()) {
+            return raw;
+        }
+        return Optional.of(Math.max(raw.get(), retained.get()));
+    }
+
     private Optional<SnapshotPayload> loadAsOfPayload(Instant asOfTimestamp) {
         long asOfEpochMillis = asOfTimestamp.toEpochMilli();
         return newerSnapshot(
@@ -550,10 +640,15 @@ public class MarketSnapshotPersistenceService {
 
     private MarketSnapshot toDomain(SnapshotPayload payload) {
         try {
-            List<AuctionMarketRecord> auctions = objectMapper.readValue(payload.auctionsJson(), AUCTIONS_TYPE);
-            Map<String, BazaarMarketRecord> bazaar = objectMapper.readValue(payload.bazaarProductsJson(), BAZAAR_TYPE);
+            MarketSnapshotBinaryCodec codec = this.binaryCodec;
+            List<AuctionMarketRecord> auctions = payload.auctionsBlob() != null
+                    ? codec.decodeAuctions(payload.auctionsBlob())
+                    : objectMapper.readValue(payload.auctionsJson(), AUCTIONS_TYPE);
+            Map<String, BazaarMarketRecord> bazaar = payload.bazaarProductsBlob() != null
+                    ? codec.decodeBazaar(payload.bazaarProductsBlob())
+                    : objectMapper.readValue(payload.bazaarProductsJson(), BAZAAR_TYPE);
             return new MarketSnapshot(Instant.ofEpochMilli(payload.snapshotTimestampEpochMillis()), auctions, bazaar);
-        } catch (JacksonException e) {
+        } catch (JacksonException | IllegalStateException e) {
             throw new IllegalStateException("Failed to deserialize market snapshot from persistence.", e);
         }
     }
@@ -562,7 +657,9 @@ public class MarketSnapshotPersistenceService {
         return new SnapshotPayload(
                 entity.getSnapshotTimestampEpochMillis(),
                 entity.getAuctionsJson(),
-                entity.getBazaarProductsJson()
+                entity.getBazaarProductsJson(),
+                entity.getAuctionsBlob(),
+                entity.getBazaarProductsBlob()
         );
     }
 
@@ -570,7 +667,9 @@ public class MarketSnapshotPersistenceService {
         return new SnapshotPayload(
                 entity.getSnapshotTimestampEpochMillis(),
                 entity.getAuctionsJson(),
-                entity.getBazaarProductsJson()
+                entity.getBazaarProductsJson(),
+                entity.getAuctionsBlob(),
+                entity.getBazaarProductsBlob()
         );
     }
 
@@ -609,6 +708,8 @@ public class MarketSnapshotPersistenceService {
 
     private record SnapshotPayload(long snapshotTimestampEpochMillis,
                                    String auctionsJson,
-                                   String bazaarProductsJson) {
+                                   String bazaarProductsJson,
+                                   byte[] auctionsBlob,
+                                   byte[] bazaarProductsBlob) {
     }
 }
@@ -9,6 +9,8 @@ public class MarketSnapshotStorageProperties {
     private boolean persistAhAggregates = true;
     private boolean persistBzAggregates = true;
     private int aggregateBatchSize = 500;
+    private boolean binaryRawSnapshotEncoding = true;
+    private boolean binaryRawSnapshotCompression = true;
 
     public static MarketSnapshotStorageProperties rawOnlyDefaults() {
         MarketSnapshotStorageProperties properties = new MarketSnapshotStorageProperties();
@@ -49,4 +51,20 @@ public class MarketSnapshotStorageProperties {
     public void setAggregateBatchSize(int aggregateBatchSize) {
         this.aggregateBatchSize = aggregateBatchSize;
     }
+
+    public boolean isBinaryRawSnapshotEncoding() {
+        return binaryRawSnapshotEncoding;
+    }
+
+    public void setBinaryRawSnapshotEncoding(boolean binaryRawSnapshotEncoding) {
+        this.binaryRawSnapshotEncoding = binaryRawSnapshotEncoding;
+    }
+
+    public boolean isBinaryRawSnapshotCompression() {
+        return binaryRawSnapshotCompression;
+    }
+
+    public void setBinaryRawSnapshotCompression(boolean binaryRawSnapshotCompression) {
+        this.binaryRawSnapshotCompression = binaryRawSnapshotCompression;
+    }
 }
@@ -5,13 +5,14 @@ import com.skyblockflipper.backend.model.market.BzItemSnapshotEntity;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.repository.BzItemSnapshotRepository;
 import com.skyblockflipper.backend.service.flipping.FlipScoreFeatureSet;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,7 @@ import java.util.Objects;
 import java.util.Set;
 
 @Service
+@Slf4j
 public class MarketTimescaleFeatureService {
 
     private static final long SECONDS_PER_UTC_DAY = 86_400L;
@@ -32,9 +34,16 @@ public class MarketTimescaleFeatureService {
     private static final double MICRO_LOG_RETURN_CAP = 0.20D;
     private static final double STRUCTURAL_SPREAD_THRESHOLD = 0.05D;
     private static final double STRUCTURAL_TURNOVER_PER_HOUR_THRESHOLD = 10D;
+    // Days evaluationDay - (MACRO_WINDOW_DAYS + 2) through evaluationDay.
+    private static final int DAILY_HISTORY_DAYS = MACRO_WINDOW_DAYS + 3;
+    private static final TimescaleItemSeries EMPTY_SERIES = new TimescaleItemSeries(1);
 
     private final BzItemSnapshotRepository bzItemSnapshotRepository;
     private final MarketItemKeyService marketItemKeyService;
+    private final Map<String, TimescaleItemSeries> rollingSeries = new HashMap<>();
+    private long lastAnchorDay = Long.MIN_VALUE;
+    private boolean seeded;
+    private volatile Generation current = Generation.EMPTY;
 
     @Autowired
     public MarketTimescaleFeatureService(BzItemSnapshotRepository bzItemSnapshotRepository,
@@ -43,6 +52,11 @@ public class MarketTimescaleFeatureService {
         this.marketItemKeyService = Objects.requireNonNull(marketItemKeyService, "marketItemKeyService must not be null");
     }
 
+    /**
+     * Features of the given snapshot. The snapshot last passed to {@link #ingest} is answered from the published
+     * generation without touching the database; any other snapshot (an as-of lookup, or a node that does not poll)
+     * is computed from {@code bz_item_snapshot}.
+     */
     public FlipScoreFeatureSet computeFor(MarketSnapshot latestSnapshot) {
         if (latestSnapshot == null || latestSnapshot.bazaarProducts().isEmpty()) {
             return FlipScoreFeatureSet.empty();
@@ -52,15 +66,85 @@ public class MarketTimescaleFeatureService {
         if (evaluationTs == null) {
             return FlipScoreFeatureSet.empty();
         }
+        Generation generation = current;
+        if (evaluationTs.equals(generation.snapshotTs())) {
+            return generation.features();
+        }
 
-        Set<String> normalizedIds = latestSnapshot.bazaarProducts().values().stream()
-                .map(record -> marketItemKeyService.toBazaarItemKey(record))
-                .filter(id -> id != null && !id.isBlank())
-                .collect(java.util.stream.Collectors.toSet());
+        Set<String> normalizedIds = normalizedIds(latestSnapshot);
         if (normalizedIds.isEmpty()) {
             return FlipScoreFeatureSet.empty();
         }
+        Map<String, TimescaleItemSeries> seriesByItem = new HashMap<>();
+        loadSeries(evaluationTs, normalizedIds, seriesByItem);
+        return computeFeatures(latestSnapshot, evaluationTs, seriesByItem);
+    }
+
+    /**
+     * Folds a freshly ingested bazaar snapshot and its aggregated {@code bz_item_snapshot} rows into the rolling
+     * per-product series and publishes the snapshot's features as the current generation. The series are seeded from
+     * the database once; afterwards each snapshot only appends its own points. The first snapshot of a UTC day becomes
+     * that day's anchor, like {@code findFirstSnapshotTsPerDayBetween}. Snapshots not newer than the current
+     * generation are ignored.
+     *
+     * @return whether a new generation was published
+     */
+    public boolean ingest(MarketSnapshot snapshot, List<BzItemSnapshotEntity> rows) {
+        if (snapshot == null || snapshot.snapshotTimestamp() == null || rows == null) {
+            return false;
+        }
+        Instant evaluationTs = snapshot.snapshotTimestamp();
+        synchronized (rollingSeries) {
+            Instant currentTs = current.snapshotTs();
+            if (currentTs != null && !evaluationTs.isAfter(currentTs)) {
+                return false;
+            }
+            if (!seeded) {
+                Set<String> productIds = new HashSet<>();
+                for (BzItemSnapshotEntity row : rows) {
+                    if (row != null && row.getProductId() != null) {
+                        productIds.add(row.getProductId());
+                    }
+                }
+                try {
+                    lastAnchorDay = Math.max(lastAnchorDay, loadSeries(evaluationTs, productIds, rollingSeries));
+                } catch (RuntimeException e) {
+                    rollingSeries.clear();
+                    log.warn("Failed to seed timescale features at {}; retrying with the next snapshot.", evaluationTs, e);
+                    return false;
+                }
+                seeded = true;
+            }
 
+            long evaluationDay = epochDay(evaluationTs);
+            boolean anchor = evaluationDay > lastAnchorDay;
+            if (anchor) {
+                lastAnchorDay = evaluationDay;
+            }
+            for (BzItemSnapshotEntity row : rows) {
+                appendRow(rollingSeries, row, anchor);
+            }
+            long microStartInclusive = evaluationTs.toEpochMilli() - (MICRO_WINDOW_SECONDS * 1_000L);
+            long earliestEpochDay = evaluationDay - (MACRO_WINDOW_DAYS + 2L);
+            rollingSeries.values().removeIf(series -> {
+                series.retainMicroFrom(microStartInclusive);
+                series.retainDailyFrom(earliestEpochDay);
+                return series.isEmpty();
+            });
+            current = new Generation(evaluationTs, computeFeatures(snapshot, evaluationTs, rollingSeries));
+            return true;
+        }
+    }
+
+    /**
+     * Fills {@code seriesByItem} with the micro window and the daily anchors ending at {@code evaluationTs}.
+     *
+     * @return the epoch day of the latest daily anchor, or {@link Long#MIN_VALUE} when there is none
+     */
+    private long loadSeries(Instant evaluationTs, Set<String> normalizedIds, Map<String, TimescaleItemSeries> seriesByItem) {
+        if (normalizedIds.isEmpty()) {
+            return Long.MIN_VALUE;
+        }
         long evaluationEpochMillis = evaluationTs.toEpochMilli();
         long microStartInclusive = evaluationEpochMillis - (MICRO_WINDOW_SECONDS * 1_000L);
         List<BzItemSnapshotEntity> microRows = bzItemSnapshotRepository
@@ -83,87 +167,87 @@ public class MarketTimescaleFeatureService {
                         normalizedIds
                 );
 
-        Map<String, List<PricePoint>> microSeriesByItem = buildMicroSeriesByItem(microRows);
-        Map<String, List<DailyPoint>> dailySeriesByItem = buildDailySeriesByItem(dailyRows);
-
-        Map<String, FlipScoreFeatureSet.ItemTimescaleFeatures> byItem = new LinkedHashMap<>();
-        for (Map.Entry<String, BazaarMarketRecord> entry : latestSnapshot.bazaarProducts().entrySet()) {
-            BazaarMarketRecord latestRecord = entry.getValue();
-            String normalizedId = marketItemKeyService.toBazaarItemKey(latestRecord);
-            if (normalizedId == null || normalizedId.isBlank()) {
-                continue;
+        for (BzItemSnapshotEntity row : dailyRows) {
+            appendRow(seriesByItem, row, true);
+        }
+        for (BzItemSnapshotEntity row : microRows) {
+            appendRow(seriesByItem, row, false);
+        }
+        long latestAnchorDay = Long.MIN_VALUE;
+        for (Long anchorTs : dailyAnchorSnapshotTs) {
+            if (anchorTs != null) {
+                latestAnchorDay = Math.max(latestAnchorDay, Math.floorDiv(anchorTs, MILLIS_PER_DAY));
             }
-            List<PricePoint> microSeries = microSeriesByItem.getOrDefault(normalizedId, List.of());
-            List<DailyPoint> dailyPoints = dailySeriesByItem.getOrDefault(normalizedId, List.of());
-            DailyFeatureSeries dailySeries = buildDailySeries(dailyPoints);
-            byItem.put(normalizedId, computeItemFeatures(evaluationTs, latestRecord, microSeries, dailySeries));
         }
-        return new FlipScoreFeatureSet(byItem);
+        return latestAnchorDay;
     }
 
-    private Map<String, List<PricePoint>> buildMicroSeriesByItem(List<BzItemSnapshotEntity> rows) {
-        if (rows == null || rows.isEmpty()) {
-            return Map.of();
+    /**
+     * Adds the row's mid price as a micro point, or as the daily observation of its day when {@code daily} is set.
+     * Rows without a usable mid are skipped.
+     */
+    private void appendRow(Map<String, TimescaleItemSeries> seriesByItem, BzItemSnapshotEntity row, boolean daily) {
+        if (row == null || row.getProductId() == null) {
+            return;
         }
-        Map<String, List<PricePoint>> byItem = new LinkedHashMap<>();
-        for (BzItemSnapshotEntity row : rows) {
-            if (row == null) {
-                continue;
-            }
-            Double mid = resolveMid(row.getBuyPrice(), row.getSellPrice());
-            if (mid == null) {
-                continue;
+        Double mid = resolveMid(row.getBuyPrice(), row.getSellPrice());
+        if (mid == null) {
+            return;
+        }
+        TimescaleItemSeries series = seriesByItem.computeIfAbsent(row.getProductId(),
+                ignored -> new TimescaleItemSeries(DAILY_HISTORY_DAYS));
+        if (!daily) {
+            series.addMicro(row.getSnapshotTs(), mid);
+            return;
+        }
+        series.addDaily(
+                Math.floorDiv(row.getSnapshotTs(), MILLIS_PER_DAY),
+                mid,
+                computeRelativeSpread(row.getBuyPrice(), row.getSellPrice()),
+                resolveConservativeTurnoverPerHour(row.getBuyVolume(), row.getSellVolume())
+        );
+    }
+
+    private Set<String> normalizedIds(MarketSnapshot snapshot) {
+        Set<String> normalizedIds = new HashSet<>();
+        for (BazaarMarketRecord record : snapshot.bazaarProducts().values()) {
+            String id = marketItemKeyService.toBazaarItemKey(record);
+            if (id != null && !id.isBlank()) {
+                normalizedIds.add(id);
             }
-            byItem.computeIfAbsent(row.getProductId(), ignored -> new ArrayList<>())
-                    .add(new PricePoint(Instant.ofEpochMilli(row.getSnapshotTs()), mid));
-        }
-        for (List<PricePoint> points : byItem.values()) {
-            points.sort(Comparator.comparing(PricePoint::timestamp));
         }
-        return byItem;
+        return normalizedIds;
     }
 
-    private Map<String, List<DailyPoint>> buildDailySeriesByItem(List<BzItemSnapshotEntity> rows) {
-        if (rows == null || rows.isEmpty()) {
-            return Map.of();
-        }
-        Map<String, List<DailyPoint>> byItem = new LinkedHashMap<>();
-        for (BzItemSnapshotEntity row : rows) {
-            if (row == null) {
-                continue;
-            }
-            Double mid = resolveMid(row.getBuyPrice(), row.getSellPrice());
-            if (mid == null) {
+    private FlipScoreFeatureSet computeFeatures(MarketSnapshot snapshot,
+                                                Instant evaluationTs,
+                                                Map<String, TimescaleItemSeries> seriesByItem) {
+        Map<String, FlipScoreFeatureSet.ItemTimescaleFeatures> byItem = new LinkedHashMap<>();
+        for (Map.Entry<String, BazaarMarketRecord> entry : snapshot.bazaarProducts().entrySet()) {
+            BazaarMarketRecord latestRecord = entry.getValue();
+            String normalizedId = marketItemKeyService.toBazaarItemKey(latestRecord);
+            if (normalizedId == null || normalizedId.isBlank()) {
                 continue;
             }
-            long day = Math.floorDiv(row.getSnapshotTs(), MILLIS_PER_DAY);
-            byItem.computeIfAbsent(row.getProductId(), ignored -> new ArrayList<>())
-                    .add(new DailyPoint(
-                            day,
-                            mid,
-                            computeRelativeSpread(row.getBuyPrice(), row.getSellPrice()),
-                            resolveConservativeTurnoverPerHour(row.getBuyVolume(), row.getSellVolume())
-                    ));
-        }
-        for (List<DailyPoint> points : byItem.values()) {
-            points.sort(Comparator.comparing(DailyPoint::day));
-        }
-        return byItem;
+            TimescaleItemSeries series = seriesByItem.getOrDefault(normalizedId, EMPTY_SERIES);
+            byItem.put(normalizedId, computeItemFeatures(evaluationTs, latestRecord, series));
+        }
+        return new FlipScoreFeatureSet(byItem);
     }
 
     private FlipScoreFeatureSet.ItemTimescaleFeatures computeItemFeatures(Instant evaluationTs,
                                                                           BazaarMarketRecord latestRecord,
-                                                                          List<PricePoint> microSeries,
-                                                                          DailyFeatureSeries dailySeries) {
-        Double microReturn = computeOneMinuteReturn(microSeries, evaluationTs);
-        Double microVolatility = computeLogReturnStdev(microSeries);
-        FlipScoreFeatureSet.ConfidenceLevel microConfidence = resolveMicroConfidence(microSeries, microReturn, microVolatility);
+                                                                          TimescaleItemSeries series) {
+        Double microReturn = computeOneMinuteReturn(series, evaluationTs);
+        Double microVolatility = computeLogReturnStdev(series);
+        FlipScoreFeatureSet.ConfidenceLevel microConfidence = resolveMicroConfidence(series.microSize(), microReturn, microVolatility);
 
-        Double macroReturn = resolveLatestDailyReturn(dailySeries, evaluationTs);
-        Double macroVolatility = computeMacroVolatility(dailySeries.dailyLogReturns());
-        FlipScoreFeatureSet.ConfidenceLevel macroConfidence = resolveMacroConfidence(dailySeries.dailyLogReturns().size());
+        double[] dailyLogReturns = dailyLogReturns(series);
+        Double macroReturn = resolveLatestDailyReturn(series, evaluationTs);
+        Double macroVolatility = computeMacroVolatility(dailyLogReturns);
+        FlipScoreFeatureSet.ConfidenceLevel macroConfidence = resolveMacroConfidence(dailyLogReturns.length);
 
-        boolean structurallyIlliquid = isStructurallyIlliquid(latestRecord, dailySeries.dailyLiquidityObservations());
+        boolean structurallyIlliquid = isStructurallyIlliquid(latestRecord, series);
         return new FlipScoreFeatureSet.ItemTimescaleFeatures(
                 microVolatility,
                 microReturn,
@@ -175,10 +259,9 @@ public class MarketTimescaleFeatureService {
         );
     }
 
-    private FlipScoreFeatureSet.ConfidenceLevel resolveMicroConfidence(List<PricePoint> points,
+    private FlipScoreFeatureSet.ConfidenceLevel resolveMicroConfidence(int pointCount,
                                                                        Double microReturn,
                                                                        Double microVolatility) {
-        int pointCount = points == null ? 0 : points.size();
         boolean hasSignal = microReturn != null || microVolatility != null;
         if (pointCount >= MICRO_HIGH_CONFIDENCE_POINTS && microReturn != null && microVolatility != null) {
             return FlipScoreFeatureSet.ConfidenceLevel.HIGH;
@@ -199,100 +282,101 @@ public class MarketTimescaleFeatureService {
         return FlipScoreFeatureSet.ConfidenceLevel.LOW;
     }
 
-    private Double computeOneMinuteReturn(List<PricePoint> points, Instant evaluationTs) {
-        if (points == null || points.isEmpty() || evaluationTs == null) {
+    private Double computeOneMinuteReturn(TimescaleItemSeries series, Instant evaluationTs) {
+        int size = series.microSize();
+        if (size == 0 || evaluationTs == null) {
             return null;
         }
-        PricePoint latest = points.getLast();
-        if (latest.mid() <= 0) {
+        double latestMid = series.microMid(size - 1);
+        long latestTs = series.microTs(size - 1);
+        if (latestMid <= 0) {
             return null;
         }
 
-        Instant target = evaluationTs.minusSeconds(MICRO_WINDOW_SECONDS);
-        PricePoint boundary = points.stream()
-                .min(Comparator.comparingLong((PricePoint point) -> Math.abs(Duration.between(target, point.timestamp()).toMillis()))
-                        .thenComparing(PricePoint::timestamp))
-                .orElse(null);
-        if (boundary == null || boundary.mid() <= 0 || !boundary.timestamp().isBefore(latest.timestamp())) {
+        long target = evaluationTs.toEpochMilli() - (MICRO_WINDOW_SECONDS * 1_000L);
+        // Closest point to one minute ago; points are ascending, so ties keep the earlier one.
+        int boundary = 0;
+        long bestDistance = Math.abs(series.microTs(0) - target);
+        for (int i = 1; i < size; i++) {
+            long distance = Math.abs(series.microTs(i) - target);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                boundary = i;
+            }
+        }
+        double boundaryMid = series.microMid(boundary);
+        if (boundaryMid <= 0 || series.microTs(boundary) >= latestTs) {
             return null;
         }
-        return safeLogRatio(latest.mid(), boundary.mid());
+        return safeLogRatio(latestMid, boundaryMid);
     }
 
-    private DailyFeatureSeries buildDailySeries(List<DailyPoint> points) {
-        if (points == null || points.isEmpty()) {
-            return DailyFeatureSeries.empty();
+    private double[] dailyLogReturns(TimescaleItemSeries series) {
+        int size = series.dailySize();
+        if (size < 2) {
+            return new double[0];
         }
-        List<DailyPoint> ordered = new ArrayList<>(points);
-        ordered.sort(Comparator.comparing(DailyPoint::day));
-
-        List<Double> dailyLogReturns = new ArrayList<>();
-        for (int i = 1; i < ordered.size(); i++) {
-            DailyPoint previous = ordered.get(i - 1);
-            DailyPoint current = ordered.get(i);
-            if (current.day() - previous.day() != 1L) {
+        double[] returns = new double[size - 1];
+        int count = 0;
+        for (int i = 1; i < size; i++) {
+            if (series.day(i) - series.day(i - 1) != 1L) {
                 continue;
             }
-            Double ret = safeLogRatio(current.mid(), previous.mid());
+            Double ret = safeLogRatio(series.dailyMid(i), series.dailyMid(i - 1));
             if (ret != null) {
-                dailyLogReturns.add(ret);
+                returns[count++] = ret;
             }
         }
-        return new DailyFeatureSeries(List.copyOf(ordered), dailyLogReturns);
+        return count == returns.length ? returns : Arrays.copyOf(returns, count);
     }
 
-    private Double resolveLatestDailyReturn(DailyFeatureSeries dailySeries, Instant evaluationTs) {
-        if (dailySeries == null || dailySeries.points().size() < 2 || evaluationTs == null) {
+    private Double resolveLatestDailyReturn(TimescaleItemSeries series, Instant evaluationTs) {
+        int size = series.dailySize();
+        if (size < 2 || evaluationTs == null) {
             return null;
         }
         long evaluationDay = epochDay(evaluationTs);
-        List<DailyPoint> points = dailySeries.points();
 
-        for (int i = points.size() - 1; i >= 1; i--) {
-            DailyPoint current = points.get(i);
-            DailyPoint previous = points.get(i - 1);
-            if (current.day() - previous.day() != 1L) {
+        for (int i = size - 1; i >= 1; i--) {
+            if (series.day(i) - series.day(i - 1) != 1L) {
                 continue;
             }
-            if (current.day() == evaluationDay) {
-                return safeLogRatio(current.mid(), previous.mid());
+            if (series.day(i) == evaluationDay) {
+                return safeLogRatio(series.dailyMid(i), series.dailyMid(i - 1));
             }
         }
 
-        DailyPoint latest = points.getLast();
-        DailyPoint previous = points.get(points.size() - 2);
-        if (latest.day() - previous.day() != 1L) {
+        if (series.day(size - 1) - series.day(size - 2) != 1L) {
             return null;
         }
-        return safeLogRatio(latest.mid(), previous.mid());
+        return safeLogRatio(series.dailyMid(size - 1), series.dailyMid(size - 2));
     }
 
-    private Double computeMacroVolatility(List<Double> dailyLogReturns) {
-        if (dailyLogReturns == null || dailyLogReturns.isEmpty()) {
+    private Double computeMacroVolatility(double[] dailyLogReturns) {
+        if (dailyLogReturns.length == 0) {
             return null;
         }
-        int startIndex = Math.max(0, dailyLogReturns.size() - MACRO_WINDOW_DAYS);
-        List<Double> tail = dailyLogReturns.subList(startIndex, dailyLogReturns.size());
-        return computeStdev(tail);
+        int startIndex = Math.max(0, dailyLogReturns.length - MACRO_WINDOW_DAYS);
+        return computeStdev(dailyLogReturns, startIndex, dailyLogReturns.length);
     }
 
-    private Double computeLogReturnStdev(List<PricePoint> points) {
-        if (points == null || points.size() < 2) {
+    private Double computeLogReturnStdev(TimescaleItemSeries series) {
+        int size = series.microSize();
+        if (size < 2) {
             return null;
         }
-        List<Double> returns = new ArrayList<>();
-        for (int i = 1; i < points.size(); i++) {
-            PricePoint previous = points.get(i - 1);
-            PricePoint current = points.get(i);
-            Double ret = safeLogRatio(current.mid(), previous.mid());
+        double[] returns = new double[size - 1];
+        int count = 0;
+        for (int i = 1; i < size; i++) {
+            Double ret = safeLogRatio(series.microMid(i), series.microMid(i - 1));
             if (ret != null) {
-                returns.add(clamp(ret, -MICRO_LOG_RETURN_CAP, MICRO_LOG_RETURN_CAP));
+                returns[count++] = clamp(ret, -MICRO_LOG_RETURN_CAP, MICRO_LOG_RETURN_CAP);
             }
         }
-        return computeStdev(returns);
+        return computeStdev(returns, 0, count);
     }
 
-    private boolean isStructurallyIlliquid(BazaarMarketRecord latestRecord, List<DailyLiquidityObservation> dailyObservations) {
+    private boolean isStructurallyIlliquid(BazaarMarketRecord latestRecord, TimescaleItemSeries series) {
         if (latestRecord == null) {
             return false;
         }
@@ -301,17 +385,17 @@ public class MarketTimescaleFeatureService {
         if (latestSpread >= STRUCTURAL_SPREAD_THRESHOLD && latestTurnover <= STRUCTURAL_TURNOVER_PER_HOUR_THRESHOLD) {
             return true;
         }
-        if (dailyObservations == null || dailyObservations.size() < 3) {
+        int size = series.dailySize();
+        if (size < 3) {
             return false;
         }
 
-        int startIndex = Math.max(0, dailyObservations.size() - 7);
-        List<DailyLiquidityObservation> recent = dailyObservations.subList(startIndex, dailyObservations.size());
-        List<Double> spreads = new ArrayList<>(recent.size());
-        List<Double> turnovers = new ArrayList<>(recent.size());
-        for (DailyLiquidityObservation observation : recent) {
-            spreads.add(observation.spreadRel());
-            turnovers.add(observation.turnoverPerHour());
+        int startIndex = Math.max(0, size - 7);
+        double[] spreads = new double[size - startIndex];
+        double[] turnovers = new double[size - startIndex];
+        for (int i = startIndex; i < size; i++) {
+            spreads[i - startIndex] = series.dailySpreadRel(i);
+            turnovers[i - startIndex] = series.dailyTurnoverPerHour(i);
         }
 
         double medianSpread = median(spreads);
@@ -332,13 +416,6 @@ public class MarketTimescaleFeatureService {
         return mid;
     }
 
-    private Double resolveMid(BazaarMarketRecord record) {
-        if (record == null) {
-            return null;
-        }
-        return resolveMid(record.buyPrice(), record.sellPrice());
-    }
-
     private double computeRelativeSpread(BazaarMarketRecord record) {
         if (record == null) {
             return 1D;
@@ -383,16 +460,16 @@ public class MarketTimescaleFeatureService {
         return value;
     }
 
-    private Double computeStdev(List<Double> values) {
-        if (values == null || values.size() < 2) {
+    private Double computeStdev(double[] values, int fromIndex, int toIndex) {
+        if (toIndex - fromIndex < 2) {
             return null;
         }
-        double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN);
+        double mean = Arrays.stream(values, fromIndex, toIndex).average().orElse(Double.NaN);
         if (Double.isNaN(mean) || Double.isInfinite(mean)) {
             return null;
         }
-        double variance = values.stream()
-                .mapToDouble(value -> {
+        double variance = Arrays.stream(values, fromIndex, toIndex)
+                .map(value -> {
                     double delta = value - mean;
                     return delta * delta;
                 })
@@ -404,17 +481,17 @@ public class MarketTimescaleFeatureService {
         return Math.sqrt(variance);
     }
 
-    private double median(List<Double> values) {
-        if (values == null || values.isEmpty()) {
+    private double median(double[] values) {
+        if (values.length == 0) {
             return 0D;
         }
-        List<Double> copy = new ArrayList<>(values);
-        copy.sort(Double::compareTo);
-        int mid = copy.size() / 2;
-        if (copy.size() % 2 == 0) {
-            return (copy.get(mid - 1) + copy.get(mid)) / 2D;
+        double[] copy = values.clone();
+        Arrays.sort(copy);
+        int mid = copy.length / 2;
+        if (copy.length % 2 == 0) {
+            return (copy[mid - 1] + copy[mid]) / 2D;
         }
-        return copy.get(mid);
+        return copy[mid];
     }
 
     private double clamp(double value, double min, double max) {
@@ -428,43 +505,10 @@ public class MarketTimescaleFeatureService {
         return Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_UTC_DAY);
     }
 
-    private record PricePoint(
-            Instant timestamp,
-            double mid
-    ) {
-    }
-
-    private record DailyPoint(
-            long day,
-            double mid,
-            double spreadRel,
-            double turnoverPerHour
-    ) {
-    }
-
-    private record DailyLiquidityObservation(
-            double spreadRel,
-            double turnoverPerHour
-    ) {
-    }
-
-    private record DailyFeatureSeries(
-            List<DailyPoint> points,
-            List<Double> dailyLogReturns
-    ) {
-        private static DailyFeatureSeries empty() {
-            return new DailyFeatureSeries(List.of(), List.of());
-        }
-
-        private List<DailyLiquidityObservation> dailyLiquidityObservations() {
-            if (points.isEmpty()) {
-                return List.of();
-            }
-            List<DailyLiquidityObservation> observations = new ArrayList<>(points.size());
-            for (DailyPoint point : points) {
-                observations.add(new DailyLiquidityObservation(point.spreadRel(), point.turnoverPerHour()));
-            }
-            return observations;
-        }
+    /**
+     * The features published for one ingested snapshot.
+     */
+    private record Generation(Instant snapshotTs, FlipScoreFeatureSet features) {
+        private static final Generation EMPTY = new Generation(null, FlipScoreFeatureSet.empty());
     }
 }
@@ -0,0 +1,362 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.api.dto.PriceHistoryRange;
+import com.skyblockflipper.backend.api.dto.PricePointDto;
+import com.skyblockflipper.backend.model.market.AhItemBucketRollupEntity;
+import com.skyblockflipper.backend.model.market.AhItemSnapshotEntity;
+import com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity;
+import com.skyblockflipper.backend.model.market.BzItemSnapshotEntity;
+import com.skyblockflipper.backend.repository.AhItemBucketRollupRepository;
+import com.skyblockflipper.backend.repository.AhItemSnapshotRepository;
+import com.skyblockflipper.backend.repository.BzItemBucketRollupRepository;
+import com.skyblockflipper.backend.repository.BzItemSnapshotRepository;
+import com.skyblockflipper.backend.service.market.rollup.MarketBucketGranularity;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-item price history read from the bazaar/auction aggregate tables instead of raw market snapshots. Closed
+ * buckets come from the coarsest rollup granularity that evenly divides the requested bucket size, the still-open
+ * tail from the per-snapshot aggregate rows; both are read for one item through the item/time indexes. Results are
+ * keyed by the latest snapshot timestamp and briefly cached, so the price, score and quick-stats endpoints share them.
+ * <p>
+ * Bazaar points keep the snapshot semantics: the bucket's latest sample, looked up by the rollup's last snapshot
+ * timestamp, and the rollup medians only once that raw row has been pruned. Auction points are built from the BIN
+ * aggregates of every variant keyed under one of the given base ids, so they differ from a scan of all auctions:
+ * buy is the lowest BIN (the lowest-5 mean for closed buckets), sell the listing-weighted mean of the variants' BIN
+ * p50, and volume the number of BIN listings. Auctions whose key starts with anything else, such as a reforge
+ * prefix, are not matched.
+ */
+@Service
+public class PriceHistoryQueryService {
+
+    static final String CACHE_METRIC_PREFIX = "skyblock.item.price_history_cache";
+    private static final int DEFAULT_CACHE_MAX_ENTRIES = 2_048;
+    private static final Duration DEFAULT_CACHE_TTL = Duration.ofSeconds(30);
+
+    private final BzItemSnapshotRepository bzItemSnapshotRepository;
+    private final AhItemSnapshotRepository ahItemSnapshotRepository;
+    private final BzItemBucketRollupRepository bzItemBucketRollupRepository;
+    private final AhItemBucketRollupRepository ahItemBucketRollupRepository;
+    private final BoundedTtlCache<HistoryKey, List<PricePointDto>> cache;
+    private MarketSnapshotStorageProperties snapshotStorageProperties;
+
+    @Autowired
+    public PriceHistoryQueryService(BzItemSnapshotRepository bzItemSnapshotRepository,
+                                    AhItemSnapshotRepository ahItemSnapshotRepository,
+                                    BzItemBucketRollupRepository bzItemBucketRollupRepository,
+                                    AhItemBucketRollupRepository ahItemBucketRollupRepository,
+                                    @Value("${config.snapshot.price-history-cache.max-entries:2048}") int cacheMaxEntries,
+                                    @Value("${config.snapshot.price-history-cache.ttl:PT30S}") Duration cacheTtl,
+                                    MeterRegistry meterRegistry) {
+        this(bzItemSnapshotRepository, ahItemSnapshotRepository, bzItemBucketRollupRepository, ahItemBucketRollupRepository,
+                cacheMaxEntries, cacheTtl, meterRegistry, System::currentTimeMillis);
+    }
+
+    PriceHistoryQueryService(BzItemSnapshotRepository bzItemSnapshotRepository,
+                             AhItemSnapshotRepository ahItemSnapshotRepository,
+                             BzItemBucketRollupRepository bzItemBucketRollupRepository,
+                             AhItemBucketRollupRepository ahItemBucketRollupRepository,
+                             int cacheMaxEntries,
+                             Duration cacheTtl,
+                             MeterRegistry meterRegistry,
+                             LongSupplier clock) {
+        this.bzItemSnapshotRepository = bzItemSnapshotRepository;
+        this.ahItemSnapshotRepository = ahItemSnapshotRepository;
+        this.bzItemBucketRollupRepository = bzItemBucketRollupRepository;
+        this.ahItemBucketRollupRepository = ahItemBucketRollupRepository;
+        Duration ttl = cacheTtl == null || cacheTtl.isNegative() || cacheTtl.isZero() ? DEFAULT_CACHE_TTL : cacheTtl;
+        this.cache = new BoundedTtlCache<>(
+                CACHE_METRIC_PREFIX,
+                cacheMaxEntries <= 0 ? DEFAULT_CACHE_MAX_ENTRIES : cacheMaxEntries,
+                ttl.toMillis(),
+                clock,
+                meterRegistry
+        );
+    }
+
+    @Autowired(required = false)
+    public void setSnapshotStorageProperties(MarketSnapshotStorageProperties snapshotStorageProperties) {
+        this.snapshotStorageProperties = snapshotStorageProperties;
+    }
+
+    /**
+     * Whether the aggregate table of the item's market is being written; without it callers have to fall back to
+     * raw snapshots for that item.
+     */
+    public boolean isAvailable(boolean bazaarItem) {
+        if (snapshotStorageProperties == null) {
+            return true;
+        }
+        return bazaarItem ? snapshotStorageProperties.isPersistBzAggregates() : snapshotStorageProperties.isPersistAhAggregates();
+    }
+
+    public List<PricePointDto> history(String itemId, PriceHistoryRange range, Instant end) {
+        return history(itemId, Set.of(), range, end);
+    }
+
+    /**
+     * One point per bucket of {@code range} ending at {@code end}, each taken from the latest sample inside the
+     * bucket. Bazaar data wins; auction aggregates over all variants keyed under the item id or one of
+     * {@code auctionBaseIds} are used only for non-bazaar items.
+     */
+    public List<PricePointDto> history(String itemId, Set<String> auctionBaseIds, PriceHistoryRange range, Instant end) {
+        String normalizedItemId = normalize(itemId);
+        if (normalizedItemId.isEmpty() || end == null) {
+            return List.of();
+        }
+        Set<String> baseIds = new TreeSet<>();
+        baseIds.add(normalizedItemId);
+        if (auctionBaseIds != null) {
+            for (String baseId : auctionBaseIds) {
+                String normalized = normalize(baseId);
+                if (!normalized.isEmpty()) {
+                    baseIds.add(normalized);
+                }
+            }
+        }
+        PriceHistoryRange safeRange = range == null ? PriceHistoryRange.D30 : range;
+        return cache.get(new HistoryKey(normalizedItemId, Set.copyOf(baseIds), safeRange, end.toEpochMilli()), this::load);
+    }
+
+    private List<PricePointDto> load(HistoryKey key) {
+        long endMillis = key.endEpochMillis();
+        long startMillis = endMillis - key.range().lookback().toMillis();
+        long bucketSizeMillis = key.range().bucketSize().toMillis();
+        MarketBucketGranularity granularity = rollupGranularity(bucketSizeMillis);
+        List<Sample> samples = bazaarSamples(key.itemId(), granularity, bucketSizeMillis, startMillis, endMillis);
+        if (samples.isEmpty()) {
+            samples = auctionSamples(key.auctionBaseIds(), granularity, startMillis, endMillis);
+        }
+        return toPoints(samples, bucketSizeMillis, startMillis, endMillis);
+    }
+
+    static MarketBucketGranularity rollupGranularity(long bucketSizeMillis) {
+        MarketBucketGranularity coarsest = null;
+        for (MarketBucketGranularity granularity : MarketBucketGranularity.values()) {
+            if (bucketSizeMillis % granularity.durationMillis() == 0L
+                    && (coarsest == null || granularity.durationMillis() > coarsest.durationMillis())) {
+                coarsest = granularity;
+            }
+        }
+        return coarsest;
+    }
+
+    private List<Sample> bazaarSamples(String productId,
+                                       MarketBucketGranularity granularity,
+                                       long bucketSizeMillis,
+                                       long startMillis,
+                                       long endMillis) {
+        List<Sample> samples = new ArrayList<>();
+        long rawFrom = startMillis;
+        if (granularity != null) {
+            Map<Long, BzItemBucketRollupEntity> latestPerBucket = new TreeMap<>();
+            for (BzItemBucketRollupEntity rollup : bzItemBucketRollupRepository
+                    .findByProductIdAndBucketGranularityAndBucketStartEpochMillisBetweenOrderByBucketStartEpochMillisAsc(
+                            productId,
+                            granularity.code(),
+                            startMillis - granularity.durationMillis() + 1L,
+                            endMillis
+                    )) {
+                long timestamp = sampleTimestamp(rollup.getLastSnapshotTs(), rollup.getBucketStartEpochMillis());
+                latestPerBucket.merge(Math.floorDiv(timestamp, bucketSizeMillis), rollup, (existing, candidate) ->
+                        sampleTimestamp(candidate.getLastSnapshotTs(), candidate.getBucketStartEpochMillis())
+                                > sampleTimestamp(existing.getLastSnapshotTs(), existing.getBucketStartEpochMillis())
+                                ? candidate
+                                : existing);
+                rawFrom = Math.max(rawFrom, rollup.getBucketEndEpochMillis());
+            }
+            samples.addAll(latestBazaarSamples(productId, latestPerBucket.values()));
+        }
+        for (BzItemSnapshotEntity row : bzItemSnapshotRepository
+                .findByProductIdAndSnapshotTsBetweenOrderBySnapshotTsAsc(productId, rawFrom, endMillis)) {
+            samples.add(bazaarSample(row));
+        }
+        return samples;
+    }
+
+    /**
+     * The latest raw sample of each closed bucket, fetched in one indexed lookup by the rollups' last snapshot
+     * timestamps; a bucket whose raw row is already pruned falls back to its rollup medians.
+     */
+    private List<Sample> latestBazaarSamples(String productId, Collection<BzItemBucketRollupEntity> rollups) {
+        if (rollups.isEmpty()) {
+            return List.of();
+        }
+        List<Long> lastSnapshotTs = new ArrayList<>(rollups.size());
+        for (BzItemBucketRollupEntity rollup : rollups) {
+            if (rollup.getLastSnapshotTs() != null) {
+                lastSnapshotTs.add(rollup.getLastSnapshotTs());
+            }
+        }
+        Map<Long, BzItemSnapshotEntity> rawByTs = new HashMap<>();
+        if (!lastSnapshotTs.isEmpty()) {
+            for (BzItemSnapshotEntity row : bzItemSnapshotRepository
+                    .findBySnapshotTsInAndProductIdInOrderBySnapshotTsAsc(lastSnapshotTs, List.of(productId))) {
+                rawByTs.put(row.getSnapshotTs(), row);
+            }
+        }
+        List<Sample> samples = new ArrayList<>(rollups.size());
+        for (BzItemBucketRollupEntity rollup : rollups) {
+            BzItemSnapshotEntity raw = rollup.getLastSnapshotTs() == null ? null : rawByTs.get(rollup.getLastSnapshotTs());
+            samples.add(raw != null
+                    ? bazaarSample(raw)
+                    : new Sample(
+                            sampleTimestamp(rollup.getLastSnapshotTs(), rollup.getBucketStartEpochMillis()),
+                            round(rollup.getMedianBuyPrice()),
+                            round(rollup.getMedianSellPrice()),
+                            round(rollup.getMedianBuyVolume())
+                    ));
+        }
+        return samples;
+    }
+
+    private static Sample bazaarSample(BzItemSnapshotEntity row) {
+        return new Sample(row.getSnapshotTs(), round(row.getBuyPrice()), round(row.getSellPrice()), row.getBuyVolume());
+    }
+
+    private List<Sample> auctionSamples(Set<String> baseIds,
+                                        MarketBucketGranularity granularity,
+                                        long startMillis,
+                                        long endMillis) {
+        Map<Long, AuctionAccumulator> byBucket = new TreeMap<>();
+        Map<Long, AuctionAccumulator> bySnapshot = new TreeMap<>();
+        for (String baseId : new TreeSet<>(baseIds)) {
+            collectAuctionVariants(baseId, granularity, startMillis, endMillis, byBucket, bySnapshot);
+        }
+        List<Sample> samples = new ArrayList<>(byBucket.size() + bySnapshot.size());
+        byBucket.values().forEach(accumulator -> samples.add(accumulator.toSample()));
+        bySnapshot.values().forEach(accumulator -> samples.add(accumulator.toSample()));
+        return samples;
+    }
+
+    private void collectAuctionVariants(String baseId,
+                                        MarketBucketGranularity granularity,
+                                        long startMillis,
+                                        long endMillis,
+                                        Map<Long, AuctionAccumulator> byBucket,
+                                        Map<Long, AuctionAccumulator> bySnapshot) {
+        String keyFrom = baseId + "|";
+        String keyTo = baseId + "}";
+        long rawFrom = startMillis;
+        if (granularity != null) {
+            for (AhItemBucketRollupEntity rollup : ahItemBucketRollupRepository
+                    .findByItemKeyGreaterThanEqualAndItemKeyLessThanAndBucketGranularityAndBucketStartEpochMillisBetweenOrderByBucketStartEpochMillisAsc(
+                            keyFrom,
+                            keyTo,
+                            granularity.code(),
+                            startMillis - granularity.durationMillis() + 1L,
+                            endMillis
+                    )) {
+                byBucket.computeIfAbsent(rollup.getBucketStartEpochMillis(), ignored -> new AuctionAccumulator())
+                        .add(
+                                sampleTimestamp(rollup.getLastSnapshotTs(), rollup.getBucketStartEpochMillis()),
+                                round(rollup.getMedianBinLowest5Mean()),
+                                round(rollup.getMedianBinP50()),
+                                rollup.getMedianBinCount() == null ? 0D : rollup.getMedianBinCount()
+                        );
+                rawFrom = Math.max(rawFrom, rollup.getBucketEndEpochMillis());
+            }
+        }
+        for (AhItemSnapshotEntity row : ahItemSnapshotRepository
+                .findByItemKeyGreaterThanEqualAndItemKeyLessThanAndSnapshotTsBetweenOrderBySnapshotTsAsc(
+                        keyFrom, keyTo, rawFrom, endMillis)) {
+            bySnapshot.computeIfAbsent(row.getSnapshotTs(), ignored -> new AuctionAccumulator())
+                    .add(row.getSnapshotTs(), row.getBinLowest(), row.getBinP50(), row.getBinCount());
+        }
+    }
+
+    private List<PricePointDto> toPoints(List<Sample> samples, long bucketSizeMillis, long startMillis, long endMillis) {
+        Map<Long, Sample> perBucket = new TreeMap<>();
+        for (Sample sample : samples) {
+            if (sample.timestampMillis() < startMillis || sample.timestampMillis() > endMillis
+                    || (sample.buyPrice() == null && sample.sellPrice() == null)) {
+                continue;
+            }
+            long bucket = Math.floorDiv(sample.timestampMillis(), bucketSizeMillis) * bucketSizeMillis;
+            perBucket.merge(bucket, sample, (existing, candidate) ->
+                    candidate.timestampMillis() > existing.timestampMillis() ? candidate : existing);
+        }
+        List<PricePointDto> points = new ArrayList<>(perBucket.size());
+        for (Sample sample : perBucket.values()) {
+            points.add(new PricePointDto(
+                    Instant.ofEpochMilli(sample.timestampMillis()),
+                    sample.buyPrice(),
+                    sample.sellPrice(),
+                    sample.volume()
+            ));
+        }
+        return List.copyOf(points);
+    }
+
+    private static long sampleTimestamp(Long lastSnapshotTs, long bucketStartEpochMillis) {
+        return lastSnapshotTs == null ? bucketStartEpochMillis : lastSnapshotTs;
+    }
+
+    private static Long round(Double value) {
+        if (value == null || value.isNaN() || value.isInfinite()) {
+            return null;
+        }
+        return Math.round(value);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record HistoryKey(String itemId, Set<String> auctionBaseIds, PriceHistoryRange range, long endEpochMillis) {
+    }
+
+    private record Sample(long timestampMillis, Long buyPrice, Long sellPrice, Long volume) {
+    }
+
+    /**
+     * Folds the variants of one auction item (tier, stars, recombobulation...) into a single sample: the cheapest
+     * variant sets the buy price, the sell price is the listing-weighted mean of the variants' typical prices, and
+     * listing counts are summed.
+     */
+    private static final class AuctionAccumulator {
+        private long timestampMillis = Long.MIN_VALUE;
+        private Long buyPrice;
+        private double weightedTypical;
+        private double typicalWeight;
+        private Long unweightedTypical;
+        private double totalCount;
+
+        private void add(long timestampMillis, Long lowest, Long typical, double count) {
+            this.timestampMillis = Math.max(this.timestampMillis, timestampMillis);
+            if (lowest != null && (buyPrice == null || lowest < buyPrice)) {
+                buyPrice = lowest;
+            }
+            double weight = Math.max(0D, count);
+            if (typical != null) {
+                weightedTypical += typical * weight;
+                typicalWeight += weight;
+                if (unweightedTypical == null) {
+                    unweightedTypical = typical;
+                }
+            }
+            totalCount += weight;
+        }
+
+        private Sample toSample() {
+            Long sellPrice = typicalWeight > 0D ? Long.valueOf(Math.round(weightedTypical / typicalWeight)) : unweightedTypical;
+            return new Sample(timestampMillis, buyPrice, sellPrice, Math.round(totalCount));
+        }
+    }
+}
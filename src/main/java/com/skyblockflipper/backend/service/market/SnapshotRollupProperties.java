@@ -16,6 +16,18 @@ public class SnapshotRollupProperties {
     private long rawRetentionDays = 7L;
     private long testRawRetentionDays = 1L;
     private int maxBucketsPerRun = 128;
+    /**
+     * Buckets materialized concurrently; each holds one database connection while it runs.
+     */
+    private int materializationConcurrency = 2;
+    /**
+     * Worker threads for the per-item analysis of a bucket; 1 analyzes on the materializing thread.
+     */
+    private int analysisParallelism = 4;
+    /**
+     * Derive 2h buckets from 1m rollups and 1d buckets from 2h rollups instead of re-scanning raw snapshots.
+     */
+    private boolean hierarchical = true;
     private double minDailyRollupDistinctCoverageRatio = 0.90D;
     private final Anomaly anomaly = new Anomaly();
 
@@ -0,0 +1,128 @@
+package com.skyblockflipper.backend.service.market;
+
+/**
+ * Rolling price history of one bazaar product: the mid prices of recent snapshots (micro points) and one daily anchor
+ * observation per UTC day, both kept in primitive ring buffers in chronological order. Points that are not newer than
+ * the latest stored one are ignored, so replaying an already seen snapshot is harmless.
+ */
+final class TimescaleItemSeries {
+
+    private static final int INITIAL_MICRO_CAPACITY = 16;
+
+    private long[] microTs = new long[INITIAL_MICRO_CAPACITY];
+    private double[] microMid = new double[INITIAL_MICRO_CAPACITY];
+    private int microHead;
+    private int microSize;
+
+    private final long[] dailyDay;
+    private final double[] dailyMid;
+    private final double[] dailySpreadRel;
+    private final double[] dailyTurnoverPerHour;
+    private int dailyHead;
+    private int dailySize;
+
+    TimescaleItemSeries(int dailyCapacity) {
+        int capacity = Math.max(1, dailyCapacity);
+        this.dailyDay = new long[capacity];
+        this.dailyMid = new double[capacity];
+        this.dailySpreadRel = new double[capacity];
+        this.dailyTurnoverPerHour = new double[capacity];
+    }
+
+    void addMicro(long snapshotTs, double mid) {
+        if (microSize > 0 && snapshotTs <= microTs(microSize - 1)) {
+            return;
+        }
+        if (microSize == microTs.length) {
+            growMicro();
+        }
+        int index = (microHead + microSize) % microTs.length;
+        microTs[index] = snapshotTs;
+        microMid[index] = mid;
+        microSize++;
+    }
+
+    void retainMicroFrom(long fromInclusive) {
+        while (microSize > 0 && microTs[microHead] < fromInclusive) {
+            microHead = (microHead + 1) % microTs.length;
+            microSize--;
+        }
+    }
+
+    int microSize() {
+        return microSize;
+    }
+
+    long microTs(int index) {
+        return microTs[(microHead + index) % microTs.length];
+    }
+
+    double microMid(int index) {
+        return microMid[(microHead + index) % microMid.length];
+    }
+
+    /**
+     * Appends a daily observation; once the buffer is full the oldest day is overwritten.
+     */
+    void addDaily(long day, double mid, double spreadRel, double turnoverPerHour) {
+        if (dailySize > 0 && day <= day(dailySize - 1)) {
+            return;
+        }
+        int index;
+        if (dailySize == dailyDay.length) {
+            index = dailyHead;
+            dailyHead = (dailyHead + 1) % dailyDay.length;
+        } else {
+            index = (dailyHead + dailySize) % dailyDay.length;
+            dailySize++;
+        }
+        dailyDay[index] = day;
+        dailyMid[index] = mid;
+        dailySpreadRel[index] = spreadRel;
+        dailyTurnoverPerHour[index] = turnoverPerHour;
+    }
+
+    void retainDailyFrom(long fromDayInclusive) {
+        while (dailySize > 0 && dailyDay[dailyHead] < fromDayInclusive) {
+            dailyHead = (dailyHead + 1) % dailyDay.length;
+            dailySize--;
+        }
+    }
+
+    int dailySize() {
+        return dailySize;
+    }
+
+    long day(int index) {
+        return dailyDay[(dailyHead + index) % dailyDay.length];
+    }
+
+    double dailyMid(int index) {
+        return dailyMid[(dailyHead + index) % dailyMid.length];
+    }
+
+    double dailySpreadRel(int index) {
+        return dailySpreadRel[(dailyHead + index) % dailySpreadRel.length];
+    }
+
+    double dailyTurnoverPerHour(int index) {
+        return dailyTurnoverPerHour[(dailyHead + index) % dailyTurnoverPerHour.length];
+    }
+
+    boolean isEmpty() {
+        return microSize == 0 && dailySize == 0;
+    }
+
+    private void growMicro() {
+        int capacity = microTs.length * 2;
+        long[] ts = new long[capacity];
+        double[] mid = new double[capacity];
+        for (int i = 0; i < microSize; i++) {
+            ts[i] = microTs(i);
+            mid[i] = microMid(i);
+        }
+        microTs = ts;
+        microMid = mid;
+        microHead = 0;
+    }
+}
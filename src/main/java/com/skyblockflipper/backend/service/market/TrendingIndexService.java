@@ -0,0 +1,199 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.NEU.model.Item;
+import com.skyblockflipper.backend.NEU.repository.ItemRepository;
+import com.skyblockflipper.backend.api.dto.MarketplaceType;
+import com.skyblockflipper.backend.api.dto.TrendingItemDto;
+import com.skyblockflipper.backend.model.market.BzItemSnapshotEntity;
+import com.skyblockflipper.backend.repository.BzItemSnapshotRepository;
+import com.skyblockflipper.backend.service.item.ItemMarketplaceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ready-to-serve ranking of bazaar products by absolute 24h buy-price change. A refresh reads only two
+ * {@code bz_item_snapshot} generations through the timestamp index, the first one inside the 24h window and the
+ * latest one, and is skipped entirely while the latest generation has not moved. The top-K entries are published
+ * with item metadata; the rest of the ranking is kept bare and enriched only when a request reaches past top-K.
+ */
+@Service
+public class TrendingIndexService {
+
+    static final Duration WINDOW = Duration.ofHours(24);
+    private static final int DEFAULT_TOP_K = 100;
+    private static final Comparator<TrendingItemDto> RANKING = Comparator
+            .comparingDouble((TrendingItemDto dto) -> Math.abs(dto.priceChange24h())).reversed()
+            .thenComparing(TrendingItemDto::itemId);
+
+    private final BzItemSnapshotRepository bzItemSnapshotRepository;
+    private final ItemRepository itemRepository;
+    private final ItemMarketplaceService itemMarketplaceService;
+    private final int topK;
+    private final AtomicReference<Ranking> current = new AtomicReference<>();
+    private final Object refreshLock = new Object();
+    private MeterRegistry meterRegistry;
+
+    public TrendingIndexService(BzItemSnapshotRepository bzItemSnapshotRepository,
+                                ItemRepository itemRepository,
+                                ItemMarketplaceService itemMarketplaceService,
+                                @Value("${config.snapshot.trending.top-k:100}") int topK) {
+        this.bzItemSnapshotRepository = bzItemSnapshotRepository;
+        this.itemRepository = itemRepository;
+        this.itemMarketplaceService = itemMarketplaceService;
+        this.topK = topK <= 0 ? DEFAULT_TOP_K : topK;
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the first {@code limit} ranked products, or empty when no bazaar generation has been persisted yet
+     * (for instance while bazaar aggregate persistence is disabled) so callers can fall back to another source.
+     */
+    public Optional<List<TrendingItemDto>> top(int limit) {
+        Ranking ranking = current.get();
+        if (ranking == null) {
+            ranking = refresh();
+        }
+        if (ranking == Ranking.EMPTY) {
+            return Optional.empty();
+        }
+        int safeLimit = Math.max(1, limit);
+        List<TrendingItemDto> items = ranking.items();
+        if (safeLimit <= items.size() || ranking.beyondTopK().isEmpty()) {
+            return Optional.of(items.subList(0, Math.min(safeLimit, items.size())));
+        }
+        List<TrendingItemDto> beyondTopK = ranking.beyondTopK();
+        List<TrendingItemDto> combined = new ArrayList<>(items);
+        combined.addAll(withItemMetadata(beyondTopK.subList(0, Math.min(safeLimit - items.size(), beyondTopK.size()))));
+        return Optional.of(List.copyOf(combined));
+    }
+
+    /**
+     * Rebuilds the ranking when a newer bazaar generation exists and returns the ranking that is now published.
+     */
+    public Ranking refresh() {
+        synchronized (refreshLock) {
+            Ranking published = current.get();
+            Long latestSnapshotTs = bzItemSnapshotRepository.findMaxSnapshotTs();
+            if (latestSnapshotTs == null) {
+                return publish(published, Ranking.EMPTY);
+            }
+            if (published != null && published.latestSnapshotTs() == latestSnapshotTs) {
+                return published;
+            }
+            long startedNanos = System.nanoTime();
+            Ranking rebuilt = build(latestSnapshotTs);
+            if (meterRegistry != null) {
+                meterRegistry.timer("skyblock.dashboard.trending.refresh")
+                        .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+            }
+            return publish(published, rebuilt);
+        }
+    }
+
+    private Ranking publish(Ranking previous, Ranking next) {
+        current.compareAndSet(previous, next);
+        return next;
+    }
+
+    private Ranking build(long latestSnapshotTs) {
+        Long firstSnapshotTs = bzItemSnapshotRepository.findMinSnapshotTsBetween(
+                latestSnapshotTs - WINDOW.toMillis(),
+                latestSnapshotTs
+        );
+        if (firstSnapshotTs == null || firstSnapshotTs >= latestSnapshotTs) {
+            return new Ranking(latestSnapshotTs, List.of(), List.of());
+        }
+        Map<String, BzItemSnapshotEntity> firstByProduct = new HashMap<>();
+        for (BzItemSnapshotEntity row : bzItemSnapshotRepository.findBySnapshotTsOrderByProductIdAsc(firstSnapshotTs)) {
+            firstByProduct.put(row.getProductId(), row);
+        }
+        List<TrendingItemDto> ranked = new ArrayList<>();
+        for (BzItemSnapshotEntity latest : bzItemSnapshotRepository.findBySnapshotTsOrderByProductIdAsc(latestSnapshotTs)) {
+            TrendingItemDto dto = toTrending(firstByProduct.get(latest.getProductId()), latest);
+            if (dto != null) {
+                ranked.add(dto);
+            }
+        }
+        ranked.sort(RANKING);
+        int cut = Math.min(topK, ranked.size());
+        return new Ranking(
+                latestSnapshotTs,
+                withItemMetadata(ranked.subList(0, cut)),
+                List.copyOf(ranked.subList(cut, ranked.size()))
+        );
+    }
+
+    private TrendingItemDto toTrending(BzItemSnapshotEntity first, BzItemSnapshotEntity latest) {
+        if (first == null
+                || first.getBuyPrice() == null || first.getBuyPrice() <= 0D
+                || first.getBuyVolume() == null || first.getBuyVolume() <= 0L
+                || latest.getBuyPrice() == null || latest.getBuyVolume() == null) {
+            return null;
+        }
+        double priceChange = ((latest.getBuyPrice() - first.getBuyPrice()) / first.getBuyPrice()) * 100D;
+        double volumeChange = ((latest.getBuyVolume() - first.getBuyVolume()) * 100D) / first.getBuyVolume();
+        return new TrendingItemDto(
+                latest.getProductId(),
+                latest.getProductId(),
+                round2(priceChange),
+                round2(volumeChange),
+                Math.round(latest.getBuyPrice()),
+                MarketplaceType.BAZAAR
+        );
+    }
+
+    private List<TrendingItemDto> withItemMetadata(List<TrendingItemDto> top) {
+        if (top.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Item> itemById = new HashMap<>();
+        for (Item item : itemRepository.findAllById(top.stream().map(TrendingItemDto::itemId).toList())) {
+            if (item != null && item.getId() != null) {
+                itemById.putIfAbsent(item.getId().toUpperCase(Locale.ROOT), item);
+            }
+        }
+        Map<String, MarketplaceType> marketplaceById = itemMarketplaceService.resolveMarketplaces(itemById.values());
+        List<TrendingItemDto> enriched = new ArrayList<>(top.size());
+        for (TrendingItemDto dto : top) {
+            Item item = itemById.get(dto.itemId().toUpperCase(Locale.ROOT));
+            if (item == null) {
+                enriched.add(dto);
+                continue;
+            }
+            enriched.add(new TrendingItemDto(
+                    dto.itemId(),
+                    item.getDisplayName() == null ? dto.itemId() : item.getDisplayName(),
+                    dto.priceChange24h(),
+                    dto.volumeChange24h(),
+                    dto.currentPrice(),
+                    marketplaceById.getOrDefault(item.getId(), MarketplaceType.BAZAAR)
+            ));
+        }
+        return List.copyOf(enriched);
+    }
+
+    private double round2(double value) {
+        return Math.round(value * 100D) / 100D;
+    }
+
+    public record Ranking(long latestSnapshotTs, List<TrendingItemDto> items, List<TrendingItemDto> beyondTopK) {
+        static final Ranking EMPTY = new Ranking(Long.MIN_VALUE, List.of(), List.of());
+    }
+}
@@ -168,6 +168,8 @@ public class MarketSnapshotArchiveService {
                     sourceEntity.getBazaarProductCount(),
                     sourceEntity.getAuctionsJson(),
                     sourceEntity.getBazaarProductsJson(),
+                    sourceEntity.getAuctionsBlob(),
+                    sourceEntity.getBazaarProductsBlob(),
                     sourceEntity.getCreatedAtEpochMillis(),
                     nowMillis
             );
@@ -176,6 +178,8 @@ public class MarketSnapshotArchiveService {
             retainedEntity.setBazaarProductCount(sourceEntity.getBazaarProductCount());
             retainedEntity.setAuctionsJson(sourceEntity.getAuctionsJson());
             retainedEntity.setBazaarProductsJson(sourceEntity.getBazaarProductsJson());
+            retainedEntity.setAuctionsBlob(sourceEntity.getAuctionsBlob());
+            retainedEntity.setBazaarProductsBlob(sourceEntity.getBazaarProductsBlob());
             retainedEntity.setCreatedAtEpochMillis(sourceEntity.getCreatedAtEpochMillis());
             retainedEntity.setRetainedAtEpochMillis(nowMillis);
         }
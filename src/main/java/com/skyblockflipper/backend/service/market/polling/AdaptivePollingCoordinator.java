@@ -1,6 +1,8 @@
 package com.skyblockflipper.backend.service.market.polling;
 
 import com.skyblockflipper.backend.config.properties.AdaptivePollingProperties;
+import com.skyblockflipper.backend.hypixel.AuctionPageScanner;
+import com.skyblockflipper.backend.hypixel.AuctionPageStreamDecoder;
 import com.skyblockflipper.backend.hypixel.HypixelConditionalClient;
 import com.skyblockflipper.backend.hypixel.HypixelHttpResult;
 import com.skyblockflipper.backend.hypixel.model.Auction;
@@ -191,11 +193,18 @@ public class AdaptivePollingCoordinator {
 
     private AdaptivePoller<AuctionResponse> buildAuctionsPoller(GlobalRequestLimiter globalLimiter) {
         AdaptivePollingProperties.Endpoint endpointCfg = adaptivePollingProperties.getAuctions();
+        GlobalRequestLimiter commitPageLimiter = new GlobalRequestLimiter(endpointCfg.getCommitMaxRequestsPerSecond());
         HypixelConditionalClient client = new HypixelConditionalClient(
                 apiUrl,
                 apiKey,
                 endpointCfg.getConnectTimeout(),
-                endpointCfg.getRequestTimeout()
+                endpointCfg.getRequestTimeout(),
+                new AuctionPageScanner(
+                        endpointCfg.getCommitPageConcurrency(),
+                        commitPageLimiter::reserveDelayMillis,
+                        meterRegistry
+                ),
+                new AuctionPageStreamDecoder(meterRegistry)
         );
         ProcessingPipeline<AuctionResponse> processingPipeline = new ProcessingPipeline<>(
                 endpointCfg.getName(),
@@ -290,7 +299,7 @@ public class AdaptivePollingCoordinator {
             long commitStartNanos = System.nanoTime();
             List<Auction> filteredAuctions = new ArrayList<>();
             try {
-                HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> full = client.fetchAllAuctionPages(
+                HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> full = client.fetchAllBinAuctionPages(
                         endpointCfg.getPath(),
                         probeBody,
                         auction -> {
@@ -7,6 +7,7 @@ import com.skyblockflipper.backend.service.market.SnapshotRollupProperties;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
@@ -14,6 +15,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 @Service
 public class AhItemBucketAnalyzer {
@@ -21,6 +23,12 @@ public class AhItemBucketAnalyzer {
     private static final long DEFAULT_SAMPLE_CADENCE_MILLIS = 5_000L;
     private static final double EPSILON = 1e-9D;
     private static final double ANOMALY_SHARE_THRESHOLD = 0.20D;
+    private static final int SKETCH_BIN_LOWEST5_MEAN = 0;
+    private static final int SKETCH_BIN_P50 = 1;
+    private static final int SKETCH_BIN_P95 = 2;
+    private static final int SKETCH_BID_P50 = 3;
+    private static final int SKETCH_BIN_COUNT = 4;
+    private static final int SKETCH_ENDING_SOON_COUNT = 5;
 
     private final SnapshotRollupProperties properties;
 
@@ -33,10 +41,29 @@ public class AhItemBucketAnalyzer {
                                               long bucketEndEpochMillis,
                                               String itemKey,
                                               List<AhItemSnapshotEntity> rawSamples) {
+        if (itemKey == null) {
+            return new AhItemBucketAnalysisResult(Optional.empty(), List.of());
+        }
+        return analyze(
+                granularity,
+                bucketStartEpochMillis,
+                bucketEndEpochMillis,
+                itemKey,
+                AhSnapshotSeries.of(itemKey, rawSamples),
+                rawSamples == null ? 0 : rawSamples.size()
+        );
+    }
+
+    AhItemBucketAnalysisResult analyze(MarketBucketGranularity granularity,
+                                       long bucketStartEpochMillis,
+                                       long bucketEndEpochMillis,
+                                       String itemKey,
+                                       AhSnapshotSeries rawSamples,
+                                       int rawSampleCount) {
         if (granularity == null || itemKey == null || itemKey.isBlank() || bucketEndEpochMillis <= bucketStartEpochMillis) {
             return new AhItemBucketAnalysisResult(Optional.empty(), List.of());
         }
-        List<AhSamplePoint> validSamples = toValidSamples(itemKey, bucketStartEpochMillis, bucketEndEpochMillis, rawSamples);
+        List<AhSamplePoint> validSamples = toValidSamples(bucketStartEpochMillis, bucketEndEpochMillis, rawSamples);
         if (validSamples.isEmpty()) {
             return new AhItemBucketAnalysisResult(Optional.empty(), List.of());
         }
@@ -83,7 +110,7 @@ public class AhItemBucketAnalyzer {
                 bucketStartEpochMillis,
                 bucketEndEpochMillis,
                 itemKey,
-                rawSamples == null ? 0 : rawSamples.size(),
+                rawSampleCount,
                 validSamples,
                 effectiveRollupSamples,
                 anomalySamples.size(),
@@ -92,39 +119,114 @@ public class AhItemBucketAnalyzer {
         return new AhItemBucketAnalysisResult(Optional.of(rollup), anomalySegments);
     }
 
-    private List<AhSamplePoint> toValidSamples(String itemKey,
-                                               long bucketStartEpochMillis,
+    /**
+     * Builds the rollup of a coarser bucket from the rollups of its finer buckets by merging their sketches. Anomaly
+     * samples stay excluded as they were at the finer granularity; no new anomaly segments are detected, and the
+     * representative snapshot is the one of the child whose median BIN p50 is closest to the merged median.
+     */
+    public Optional<AhItemBucketRollupEntity> derive(MarketBucketGranularity granularity,
+                                                     long bucketStartEpochMillis,
+                                                     long bucketEndEpochMillis,
+                                                     String itemKey,
+                                                     List<AhItemBucketRollupEntity> children) {
+        if (granularity == null || itemKey == null || itemKey.isBlank() || children == null || children.isEmpty()) {
+            return Optional.empty();
+        }
+        int sampleCount = 0;
+        int validSampleCount = 0;
+        int anomalySampleCount = 0;
+        boolean allChildrenFellBack = true;
+        Long firstSnapshotTs = null;
+        Long lastSnapshotTs = null;
+        List<RollupSketch> sketches = new ArrayList<>(children.size());
+        for (AhItemBucketRollupEntity child : children) {
+            RollupSketch sketch = RollupSketch.fromBytes(child.getSketch());
+            if (sketch == null) {
+                throw new IllegalArgumentException("rollup " + itemKey + "@" + child.getBucketStartEpochMillis() + " has no sketch");
+            }
+            sketches.add(sketch);
+            sampleCount += child.getSampleCount();
+            validSampleCount += child.getValidSampleCount();
+            anomalySampleCount += child.getAnomalySampleCount();
+            allChildrenFellBack &= child.getAnomalySampleCount() >= child.getValidSampleCount();
+            if (child.getFirstSnapshotTs() != null && (firstSnapshotTs == null || child.getFirstSnapshotTs() < firstSnapshotTs)) {
+                firstSnapshotTs = child.getFirstSnapshotTs();
+            }
+            if (child.getLastSnapshotTs() != null && (lastSnapshotTs == null || child.getLastSnapshotTs() > lastSnapshotTs)) {
+                lastSnapshotTs = child.getLastSnapshotTs();
+            }
+        }
+        if (validSampleCount == 0) {
+            return Optional.empty();
+        }
+        RollupSketch merged = RollupSketch.merge(sketches);
+        QuantileDigest binP50Values = merged.digest(SKETCH_BIN_P50);
+
+        SnapshotRollupProperties.Anomaly anomalyProperties = properties.getAnomaly();
+        double coverageRatio = validSampleCount / (double) granularity.expectedSampleCount(DEFAULT_SAMPLE_CADENCE_MILLIS);
+        boolean partial = validSampleCount < minValidSamples(granularity, anomalyProperties)
+                || coverageRatio < anomalyProperties.getMinBucketCoverageRatio()
+                || allChildrenFellBack;
+
+        long now = System.currentTimeMillis();
+        AhItemBucketRollupEntity rollup = new AhItemBucketRollupEntity();
+        rollup.setBucketStartEpochMillis(bucketStartEpochMillis);
+        rollup.setBucketEndEpochMillis(bucketEndEpochMillis);
+        rollup.setBucketGranularity(granularity.code());
+        rollup.setItemKey(itemKey);
+        rollup.setSampleCount(sampleCount);
+        rollup.setValidSampleCount(validSampleCount);
+        rollup.setAnomalySampleCount(anomalySampleCount);
+        rollup.setPartial(partial);
+        rollup.setRepresentativeSnapshotTs(closestRepresentative(children, binP50Values.median()));
+        rollup.setMedianBinLowest5Mean(merged.digest(SKETCH_BIN_LOWEST5_MEAN).median());
+        rollup.setMedianBinP50(binP50Values.median());
+        rollup.setMedianBinP95(merged.digest(SKETCH_BIN_P95).median());
+        rollup.setMedianBidP50(merged.digest(SKETCH_BID_P50).median());
+        rollup.setMedianBinCount(merged.digest(SKETCH_BIN_COUNT).median());
+        rollup.setMedianEndingSoonCount(merged.digest(SKETCH_ENDING_SOON_COUNT).median());
+        rollup.setP10BinP50(binP50Values.quantile(0.10D));
+        rollup.setP25BinP50(binP50Values.quantile(0.25D));
+        rollup.setP75BinP50(binP50Values.quantile(0.75D));
+        rollup.setP90BinP50(binP50Values.quantile(0.90D));
+        rollup.setMinBinP50(binP50Values.min());
+        rollup.setMaxBinP50(binP50Values.max());
+        rollup.setWinsorizedAvgBinP50(binP50Values.winsorizedMean(0.10D, 0.90D));
+        rollup.setFirstSnapshotTs(firstSnapshotTs);
+        rollup.setLastSnapshotTs(lastSnapshotTs);
+        rollup.setSketch(granularity.keepsSketch() ? merged.toBytes() : null);
+        rollup.setCreatedAtEpochMillis(now);
+        rollup.setUpdatedAtEpochMillis(now);
+        return Optional.of(rollup);
+    }
+
+    private List<AhSamplePoint> toValidSamples(long bucketStartEpochMillis,
                                                long bucketEndEpochMillis,
-                                               List<AhItemSnapshotEntity> rawSamples) {
-        if (rawSamples == null || rawSamples.isEmpty()) {
+                                               AhSnapshotSeries rawSamples) {
+        if (rawSamples.size() == 0) {
             return List.of();
         }
-        List<AhSamplePoint> points = new ArrayList<>();
-        for (AhItemSnapshotEntity row : rawSamples) {
-            if (row == null || !itemKey.equals(row.getItemKey())) {
-                continue;
-            }
-            long ts = row.getSnapshotTs();
+        List<AhSamplePoint> points = new ArrayList<>(rawSamples.size());
+        for (int i = 0; i < rawSamples.size(); i++) {
+            long ts = rawSamples.snapshotTs(i);
             if (ts < bucketStartEpochMillis || ts >= bucketEndEpochMillis) {
                 continue;
             }
-            Double priceAnchor = positiveDouble(row.getBinLowest5Mean());
-            Double binP50 = positiveDouble(row.getBinP50());
-            if (priceAnchor == null && binP50 == null) {
+            Double binLowest5Mean = positiveDouble(rawSamples.binLowest5Mean(i));
+            Double binP50 = positiveDouble(rawSamples.binP50(i));
+            if (binLowest5Mean == null && binP50 == null) {
                 continue;
             }
-            if (priceAnchor == null) {
-                priceAnchor = binP50;
-            }
-            long binCount = Math.max(0, row.getBinCount());
-            int endingSoonCount = Math.max(0, row.getEndingSoonCount());
+            double priceAnchor = binLowest5Mean == null ? binP50 : binLowest5Mean;
+            long binCount = Math.max(0, rawSamples.binCount(i));
+            int endingSoonCount = Math.max(0, rawSamples.endingSoonCount(i));
             points.add(new AhSamplePoint(
                     ts,
                     priceAnchor,
-                    positiveDouble(row.getBinLowest5Mean()),
+                    binLowest5Mean,
                     binP50,
-                    positiveDouble(row.getBinP95()),
-                    positiveDouble(row.getBidP50()),
+                    positiveDouble(rawSamples.binP95(i)),
+                    positiveDouble(rawSamples.bidP50(i)),
                     (double) binCount,
                     (double) endingSoonCount,
                     Math.log(priceAnchor),
@@ -276,21 +378,38 @@ public class AhItemBucketAnalyzer {
         rollup.setAnomalySampleCount(anomalySampleCount);
         rollup.setPartial(partial);
         rollup.setRepresentativeSnapshotTs(chooseRepresentativeSnapshotTs(rollupSamples));
-        rollup.setMedianBinLowest5Mean(RobustStatistics.median(values(rollupSamples, AhSamplePoint::binLowest5Mean)));
-        rollup.setMedianBinP50(RobustStatistics.median(values(rollupSamples, AhSamplePoint::binP50)));
-        rollup.setMedianBinP95(RobustStatistics.median(values(rollupSamples, AhSamplePoint::binP95)));
-        rollup.setMedianBidP50(RobustStatistics.median(values(rollupSamples, AhSamplePoint::bidP50)));
-        rollup.setMedianBinCount(RobustStatistics.median(values(rollupSamples, AhSamplePoint::binCount)));
-        rollup.setMedianEndingSoonCount(RobustStatistics.median(values(rollupSamples, AhSamplePoint::endingSoonCount)));
-        rollup.setP10BinP50(RobustStatistics.percentile(values(rollupSamples, AhSamplePoint::binP50), 0.10D));
-        rollup.setP25BinP50(RobustStatistics.percentile(values(rollupSamples, AhSamplePoint::binP50), 0.25D));
-        rollup.setP75BinP50(RobustStatistics.percentile(values(rollupSamples, AhSamplePoint::binP50), 0.75D));
-        rollup.setP90BinP50(RobustStatistics.percentile(values(rollupSamples, AhSamplePoint::binP50), 0.90D));
-        rollup.setMinBinP50(RobustStatistics.min(values(rollupSamples, AhSamplePoint::binP50)));
-        rollup.setMaxBinP50(RobustStatistics.max(values(rollupSamples, AhSamplePoint::binP50)));
-        rollup.setWinsorizedAvgBinP50(RobustStatistics.winsorizedMean(values(rollupSamples, AhSamplePoint::binP50), 0.10D, 0.90D));
+        double[] binLowest5Means = values(rollupSamples, AhSamplePoint::binLowest5Mean);
+        double[] binP50Array = values(rollupSamples, AhSamplePoint::binP50);
+        double[] binP95Values = values(rollupSamples, AhSamplePoint::binP95);
+        double[] bidP50Values = values(rollupSamples, AhSamplePoint::bidP50);
+        double[] binCounts = values(rollupSamples, AhSamplePoint::binCount);
+        double[] endingSoonCounts = values(rollupSamples, AhSamplePoint::endingSoonCount);
+        RobustStatistics.Series binP50Values = RobustStatistics.sorted(binP50Array);
+        rollup.setMedianBinLowest5Mean(RobustStatistics.median(binLowest5Means));
+        rollup.setMedianBinP50(binP50Values.median());
+        rollup.setMedianBinP95(RobustStatistics.median(binP95Values));
+        rollup.setMedianBidP50(RobustStatistics.median(bidP50Values));
+        rollup.setMedianBinCount(RobustStatistics.median(binCounts));
+        rollup.setMedianEndingSoonCount(RobustStatistics.median(endingSoonCounts));
+        rollup.setP10BinP50(binP50Values.percentile(0.10D));
+        rollup.setP25BinP50(binP50Values.percentile(0.25D));
+        rollup.setP75BinP50(binP50Values.percentile(0.75D));
+        rollup.setP90BinP50(binP50Values.percentile(0.90D));
+        rollup.setMinBinP50(binP50Values.min());
+        rollup.setMaxBinP50(binP50Values.max());
+        rollup.setWinsorizedAvgBinP50(binP50Values.winsorizedMean(0.10D, 0.90D));
         rollup.setFirstSnapshotTs(validSamples.getFirst().snapshotTs());
         rollup.setLastSnapshotTs(validSamples.getLast().snapshotTs());
+        if (granularity.keepsSketch()) {
+            rollup.setSketch(RollupSketch.of(
+                    QuantileDigest.of(binLowest5Means),
+                    QuantileDigest.of(binP50Array),
+                    QuantileDigest.of(binP95Values),
+                    QuantileDigest.of(bidP50Values),
+                    QuantileDigest.of(binCounts),
+                    QuantileDigest.of(endingSoonCounts)
+            ).toBytes());
+        }
         rollup.setCreatedAtEpochMillis(now);
         rollup.setUpdatedAtEpochMillis(now);
         return rollup;
@@ -342,6 +461,24 @@ public class AhItemBucketAnalyzer {
         return representative.snapshotTs();
     }
 
+    private Long closestRepresentative(List<AhItemBucketRollupEntity> children, Double medianBinP50) {
+        Long representative = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (AhItemBucketRollupEntity child : children) {
+            if (child.getRepresentativeSnapshotTs() == null) {
+                continue;
+            }
+            double distance = medianBinP50 == null || child.getMedianBinP50() == null || child.getMedianBinP50() <= 0.0D
+                    ? Double.MAX_VALUE
+                    : Math.abs(Math.log(child.getMedianBinP50()) - Math.log(medianBinP50));
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                representative = child.getRepresentativeSnapshotTs();
+            }
+        }
+        return representative;
+    }
+
     private double distanceToCenter(AhSamplePoint sample, AhMetricCenters centers) {
         double distance = 0.0D;
         distance += Math.abs(sample.logPriceAnchor() - centers.medianLogPriceAnchor()) / safeScale(centers.madLogPriceAnchor());
@@ -376,20 +513,29 @@ public class AhItemBucketAnalyzer {
         return asDouble > 0.0D ? asDouble : null;
     }
 
-    private List<Double> values(List<AhSamplePoint> samples, Function<AhSamplePoint, Double> extractor) {
-        List<Double> values = new ArrayList<>();
+    private static double[] values(List<AhSamplePoint> samples, Function<AhSamplePoint, Double> extractor) {
         if (samples == null || samples.isEmpty()) {
-            return values;
+            return new double[0];
         }
+        double[] values = new double[samples.size()];
+        int count = 0;
         for (AhSamplePoint sample : samples) {
             if (sample == null) {
                 continue;
             }
             Double value = extractor.apply(sample);
             if (value != null) {
-                values.add(value);
+                values[count++] = value;
             }
         }
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    private static double[] primitiveValues(List<AhSamplePoint> samples, ToDoubleFunction<AhSamplePoint> extractor) {
+        double[] values = new double[samples.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = extractor.applyAsDouble(samples.get(i));
+        }
         return values;
     }
 
@@ -435,36 +581,25 @@ public class AhItemBucketAnalyzer {
                                    double madLogBinCount) {
 
         private static AhMetricCenters from(List<AhSamplePoint> samples) {
-            List<Double> priceAnchors = samples.stream().map(AhSamplePoint::priceAnchor).toList();
-            List<Double> logPriceAnchors = samples.stream().map(AhSamplePoint::logPriceAnchor).toList();
-            List<Double> binP50Values = values(samples, AhSamplePoint::binP50);
-            List<Double> logBinP50Values = values(samples, sample -> sample.binP50() == null ? null : Math.log(sample.binP50()));
-            List<Double> binCounts = samples.stream().map(AhSamplePoint::binCount).toList();
-            List<Double> logBinCounts = samples.stream().map(AhSamplePoint::logBinCount).toList();
+            RobustStatistics.MedianAndMad logPriceAnchors =
+                    RobustStatistics.medianAndMad(primitiveValues(samples, AhSamplePoint::logPriceAnchor));
+            RobustStatistics.MedianAndMad logBinP50Values = RobustStatistics.medianAndMad(
+                    values(samples, sample -> sample.binP50() == null ? null : Math.log(sample.binP50())));
+            RobustStatistics.MedianAndMad logBinCounts =
+                    RobustStatistics.medianAndMad(primitiveValues(samples, AhSamplePoint::logBinCount));
             return new AhMetricCenters(
-                    defaultIfNull(RobustStatistics.median(priceAnchors), 0.0D),
-                    defaultIfNull(RobustStatistics.median(logPriceAnchors), 0.0D),
-                    defaultIfNull(RobustStatistics.mad(logPriceAnchors), 0.0D),
-                    defaultIfNull(RobustStatistics.median(binP50Values), 0.0D),
-                    defaultIfNull(RobustStatistics.median(logBinP50Values), 0.0D),
-                    defaultIfNull(RobustStatistics.mad(logBinP50Values), 0.0D),
-                    defaultIfNull(RobustStatistics.median(binCounts), 0.0D),
-                    defaultIfNull(RobustStatistics.median(logBinCounts), 0.0D),
-                    defaultIfNull(RobustStatistics.mad(logBinCounts), 0.0D)
+                    defaultIfNull(RobustStatistics.median(primitiveValues(samples, AhSamplePoint::priceAnchor)), 0.0D),
+                    logPriceAnchors == null ? 0.0D : logPriceAnchors.median(),
+                    logPriceAnchors == null ? 0.0D : defaultIfNull(logPriceAnchors.mad(), 0.0D),
+                    defaultIfNull(RobustStatistics.median(values(samples, AhSamplePoint::binP50)), 0.0D),
+                    logBinP50Values == null ? 0.0D : logBinP50Values.median(),
+                    logBinP50Values == null ? 0.0D : defaultIfNull(logBinP50Values.mad(), 0.0D),
+                    defaultIfNull(RobustStatistics.median(values(samples, AhSamplePoint::binCount)), 0.0D),
+                    logBinCounts == null ? 0.0D : logBinCounts.median(),
+                    logBinCounts == null ? 0.0D : defaultIfNull(logBinCounts.mad(), 0.0D)
             );
         }
 
-        private static List<Double> values(List<AhSamplePoint> samples, Function<AhSamplePoint, Double> extractor) {
-            List<Double> values = new ArrayList<>();
-            for (AhSamplePoint sample : samples) {
-                Double value = extractor.apply(sample);
-                if (value != null) {
-                    values.add(value);
-                }
-            }
-            return values;
-        }
-
         private static double defaultIfNull(Double value, double fallback) {
             return value == null ? fallback : value;
         }
@@ -0,0 +1,109 @@
+package com.skyblockflipper.backend.service.market.rollup;
+
+import com.skyblockflipper.backend.model.market.AhItemSnapshotEntity;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The raw snapshot rows of one item inside a bucket, held as parallel primitive columns instead of one entity per
+ * row. Missing prices are stored as {@code 0}, which the analyzer treats like {@code null}.
+ */
+final class AhSnapshotSeries {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] snapshotTs = new long[INITIAL_CAPACITY];
+    private long[] binLowest5Mean = new long[INITIAL_CAPACITY];
+    private long[] binP50 = new long[INITIAL_CAPACITY];
+    private long[] binP95 = new long[INITIAL_CAPACITY];
+    private long[] bidP50 = new long[INITIAL_CAPACITY];
+    private int[] binCount = new int[INITIAL_CAPACITY];
+    private int[] endingSoonCount = new int[INITIAL_CAPACITY];
+    private int size;
+
+    static AhSnapshotSeries of(String itemKey, List<AhItemSnapshotEntity> rows) {
+        AhSnapshotSeries series = new AhSnapshotSeries();
+        if (rows == null) {
+            return series;
+        }
+        for (AhItemSnapshotEntity row : rows) {
+            if (row == null || !itemKey.equals(row.getItemKey())) {
+                continue;
+            }
+            series.add(
+                    row.getSnapshotTs(),
+                    row.getBinLowest5Mean() == null ? 0L : row.getBinLowest5Mean(),
+                    row.getBinP50() == null ? 0L : row.getBinP50(),
+                    row.getBinP95() == null ? 0L : row.getBinP95(),
+                    row.getBidP50() == null ? 0L : row.getBidP50(),
+                    row.getBinCount(),
+                    row.getEndingSoonCount()
+            );
+        }
+        return series;
+    }
+
+    void add(long snapshotTs,
+             long binLowest5Mean,
+             long binP50,
+             long binP95,
+             long bidP50,
+             int binCount,
+             int endingSoonCount) {
+        if (size == this.snapshotTs.length) {
+            grow();
+        }
+        this.snapshotTs[size] = snapshotTs;
+        this.binLowest5Mean[size] = binLowest5Mean;
+        this.binP50[size] = binP50;
+        this.binP95[size] = binP95;
+        this.bidP50[size] = bidP50;
+        this.binCount[size] = binCount;
+        this.endingSoonCount[size] = endingSoonCount;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long snapshotTs(int index) {
+        return snapshotTs[index];
+    }
+
+    long binLowest5Mean(int index) {
+        return binLowest5Mean[index];
+    }
+
+    long binP50(int index) {
+        return binP50[index];
+    }
+
+    long binP95(int index) {
+        return binP95[index];
+    }
+
+    long bidP50(int index) {
+        return bidP50[index];
+    }
+
+    int binCount(int index) {
+        return binCount[index];
+    }
+
+    int endingSoonCount(int index) {
+        return endingSoonCount[index];
+    }
+
+    private void grow() {
+        int capacity = snapshotTs.length * 2;
+        snapshotTs = Arrays.copyOf(snapshotTs, capacity);
+        binLowest5Mean = Arrays.copyOf(binLowest5Mean, capacity);
+        binP50 = Arrays.copyOf(binP50, capacity);
+        binP95 = Arrays.copyOf(binP95, capacity);
+        bidP50 = Arrays.copyOf(bidP50, capacity);
+        binCount = Arrays.copyOf(binCount, capacity);
+        endingSoonCount = Arrays.copyOf(endingSoonCount, capacity);
+    }
+}
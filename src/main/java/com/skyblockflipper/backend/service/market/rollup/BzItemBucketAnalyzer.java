@@ -13,7 +13,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 @Service
 public class BzItemBucketAnalyzer {
@@ -21,6 +21,12 @@ public class BzItemBucketAnalyzer {
     private static final long DEFAULT_SAMPLE_CADENCE_MILLIS = 5_000L;
     private static final double EPSILON = 1e-9D;
     private static final double ANOMALY_SHARE_THRESHOLD = 0.20D;
+    private static final int SKETCH_BUY_PRICE = 0;
+    private static final int SKETCH_SELL_PRICE = 1;
+    private static final int SKETCH_MID_PRICE = 2;
+    private static final int SKETCH_SPREAD = 3;
+    private static final int SKETCH_BUY_VOLUME = 4;
+    private static final int SKETCH_SELL_VOLUME = 5;
 
     private final SnapshotRollupProperties properties;
 
@@ -33,10 +39,29 @@ public class BzItemBucketAnalyzer {
                                               long bucketEndEpochMillis,
                                               String productId,
                                               List<BzItemSnapshotEntity> rawSamples) {
+        if (productId == null) {
+            return new BzItemBucketAnalysisResult(Optional.empty(), List.of());
+        }
+        return analyze(
+                granularity,
+                bucketStartEpochMillis,
+                bucketEndEpochMillis,
+                productId,
+                BzSnapshotSeries.of(productId, rawSamples),
+                rawSamples == null ? 0 : rawSamples.size()
+        );
+    }
+
+    BzItemBucketAnalysisResult analyze(MarketBucketGranularity granularity,
+                                       long bucketStartEpochMillis,
+                                       long bucketEndEpochMillis,
+                                       String productId,
+                                       BzSnapshotSeries rawSamples,
+                                       int rawSampleCount) {
         if (granularity == null || productId == null || productId.isBlank() || bucketEndEpochMillis <= bucketStartEpochMillis) {
             return new BzItemBucketAnalysisResult(Optional.empty(), List.of());
         }
-        List<BzSamplePoint> validSamples = toValidSamples(productId, bucketStartEpochMillis, bucketEndEpochMillis, rawSamples);
+        List<BzSamplePoint> validSamples = toValidSamples(bucketStartEpochMillis, bucketEndEpochMillis, rawSamples);
         if (validSamples.isEmpty()) {
             return new BzItemBucketAnalysisResult(Optional.empty(), List.of());
         }
@@ -83,7 +108,7 @@ public class BzItemBucketAnalyzer {
                 bucketStartEpochMillis,
                 bucketEndEpochMillis,
                 productId,
-                rawSamples == null ? 0 : rawSamples.size(),
+                rawSampleCount,
                 validSamples,
                 effectiveRollupSamples,
                 anomalySamples.size(),
@@ -92,33 +117,116 @@ public class BzItemBucketAnalyzer {
         return new BzItemBucketAnalysisResult(Optional.of(rollup), anomalySegments);
     }
 
-    private List<BzSamplePoint> toValidSamples(String productId,
-                                               long bucketStartEpochMillis,
+    /**
+     * Builds the rollup of a coarser bucket from the rollups of its finer buckets by merging their sketches. Anomaly
+     * samples stay excluded as they were at the finer granularity; no new anomaly segments are detected, and the
+     * representative snapshot is the one of the child whose median mid price is closest to the merged median.
+     */
+    public Optional<BzItemBucketRollupEntity> derive(MarketBucketGranularity granularity,
+                                                     long bucketStartEpochMillis,
+                                                     long bucketEndEpochMillis,
+                                                     String productId,
+                                                     List<BzItemBucketRollupEntity> children) {
+        if (granularity == null || productId == null || productId.isBlank() || children == null || children.isEmpty()) {
+            return Optional.empty();
+        }
+        int sampleCount = 0;
+        int validSampleCount = 0;
+        int anomalySampleCount = 0;
+        boolean allChildrenFellBack = true;
+        Double minLiquidity = null;
+        Double maxLiquidity = null;
+        Long firstSnapshotTs = null;
+        Long lastSnapshotTs = null;
+        List<RollupSketch> sketches = new ArrayList<>(children.size());
+        for (BzItemBucketRollupEntity child : children) {
+            RollupSketch sketch = RollupSketch.fromBytes(child.getSketch());
+            if (sketch == null) {
+                throw new IllegalArgumentException("rollup " + productId + "@" + child.getBucketStartEpochMillis() + " has no sketch");
+            }
+            sketches.add(sketch);
+            sampleCount += child.getSampleCount();
+            validSampleCount += child.getValidSampleCount();
+            anomalySampleCount += child.getAnomalySampleCount();
+            allChildrenFellBack &= child.getAnomalySampleCount() >= child.getValidSampleCount();
+            minLiquidity = minOf(minLiquidity, child.getMinLiquidity());
+            maxLiquidity = maxOf(maxLiquidity, child.getMaxLiquidity());
+            if (child.getFirstSnapshotTs() != null && (firstSnapshotTs == null || child.getFirstSnapshotTs() < firstSnapshotTs)) {
+                firstSnapshotTs = child.getFirstSnapshotTs();
+            }
+            if (child.getLastSnapshotTs() != null && (lastSnapshotTs == null || child.getLastSnapshotTs() > lastSnapshotTs)) {
+                lastSnapshotTs = child.getLastSnapshotTs();
+            }
+        }
+        RollupSketch merged = RollupSketch.merge(sketches);
+        QuantileDigest midPrices = merged.digest(SKETCH_MID_PRICE);
+        if (validSampleCount == 0 || midPrices.count() == 0L) {
+            return Optional.empty();
+        }
+
+        SnapshotRollupProperties.Anomaly anomalyProperties = properties.getAnomaly();
+        double coverageRatio = validSampleCount / (double) granularity.expectedSampleCount(DEFAULT_SAMPLE_CADENCE_MILLIS);
+        boolean partial = validSampleCount < minValidSamples(granularity, anomalyProperties)
+                || coverageRatio < anomalyProperties.getMinBucketCoverageRatio()
+                || allChildrenFellBack;
+
+        long now = System.currentTimeMillis();
+        BzItemBucketRollupEntity rollup = new BzItemBucketRollupEntity();
+        rollup.setBucketStartEpochMillis(bucketStartEpochMillis);
+        rollup.setBucketEndEpochMillis(bucketEndEpochMillis);
+        rollup.setBucketGranularity(granularity.code());
+        rollup.setProductId(productId);
+        rollup.setSampleCount(sampleCount);
+        rollup.setValidSampleCount(validSampleCount);
+        rollup.setAnomalySampleCount(anomalySampleCount);
+        rollup.setPartial(partial);
+        rollup.setRepresentativeSnapshotTs(closestRepresentative(children, midPrices.median()));
+        rollup.setMedianBuyPrice(merged.digest(SKETCH_BUY_PRICE).median());
+        rollup.setMedianSellPrice(merged.digest(SKETCH_SELL_PRICE).median());
+        rollup.setMedianMidPrice(midPrices.median());
+        rollup.setMedianSpread(merged.digest(SKETCH_SPREAD).median());
+        rollup.setP10MidPrice(midPrices.quantile(0.10D));
+        rollup.setP25MidPrice(midPrices.quantile(0.25D));
+        rollup.setP75MidPrice(midPrices.quantile(0.75D));
+        rollup.setP90MidPrice(midPrices.quantile(0.90D));
+        rollup.setMinMidPrice(midPrices.min());
+        rollup.setMaxMidPrice(midPrices.max());
+        rollup.setWinsorizedAvgMidPrice(midPrices.winsorizedMean(0.10D, 0.90D));
+        rollup.setMedianBuyVolume(merged.digest(SKETCH_BUY_VOLUME).median());
+        rollup.setMedianSellVolume(merged.digest(SKETCH_SELL_VOLUME).median());
+        rollup.setMinLiquidity(minLiquidity);
+        rollup.setMaxLiquidity(maxLiquidity);
+        rollup.setFirstSnapshotTs(firstSnapshotTs);
+        rollup.setLastSnapshotTs(lastSnapshotTs);
+        rollup.setSketch(granularity.keepsSketch() ? merged.toBytes() : null);
+        rollup.setCreatedAtEpochMillis(now);
+        rollup.setUpdatedAtEpochMillis(now);
+        return Optional.of(rollup);
+    }
+
+    private List<BzSamplePoint> toValidSamples(long bucketStartEpochMillis,
                                                long bucketEndEpochMillis,
-                                               List<BzItemSnapshotEntity> rawSamples) {
-        if (rawSamples == null || rawSamples.isEmpty()) {
+                                               BzSnapshotSeries rawSamples) {
+        if (rawSamples.size() == 0) {
             return List.of();
         }
-        List<BzSamplePoint> points = new ArrayList<>();
-        for (BzItemSnapshotEntity row : rawSamples) {
-            if (row == null || !productId.equals(row.getProductId())) {
-                continue;
-            }
-            long ts = row.getSnapshotTs();
+        List<BzSamplePoint> points = new ArrayList<>(rawSamples.size());
+        for (int i = 0; i < rawSamples.size(); i++) {
+            long ts = rawSamples.snapshotTs(i);
             if (ts < bucketStartEpochMillis || ts >= bucketEndEpochMillis) {
                 continue;
             }
-            Double buyPrice = row.getBuyPrice();
-            Double sellPrice = row.getSellPrice();
-            if (buyPrice == null || sellPrice == null || buyPrice <= 0.0D || sellPrice <= 0.0D) {
+            double buyPrice = rawSamples.buyPrice(i);
+            double sellPrice = rawSamples.sellPrice(i);
+            if (!(buyPrice > 0.0D) || !(sellPrice > 0.0D)) {
                 continue;
             }
             double midPrice = (buyPrice + sellPrice) / 2.0D;
             if (midPrice <= 0.0D) {
                 continue;
             }
-            long buyVolume = row.getBuyVolume() == null ? 0L : Math.max(0L, row.getBuyVolume());
-            long sellVolume = row.getSellVolume() == null ? 0L : Math.max(0L, row.getSellVolume());
+            long buyVolume = Math.max(0L, rawSamples.buyVolume(i));
+            long sellVolume = Math.max(0L, rawSamples.sellVolume(i));
             double liquidity = Math.min(buyVolume, sellVolume);
             double relativeSpread = (buyPrice - sellPrice) / midPrice;
             points.add(new BzSamplePoint(
@@ -278,23 +386,40 @@ public class BzItemBucketAnalyzer {
         rollup.setAnomalySampleCount(anomalySampleCount);
         rollup.setPartial(partial);
         rollup.setRepresentativeSnapshotTs(chooseRepresentativeSnapshotTs(rollupSamples));
-        rollup.setMedianBuyPrice(RobustStatistics.median(values(rollupSamples, BzSamplePoint::buyPrice)));
-        rollup.setMedianSellPrice(RobustStatistics.median(values(rollupSamples, BzSamplePoint::sellPrice)));
-        rollup.setMedianMidPrice(RobustStatistics.median(values(rollupSamples, BzSamplePoint::midPrice)));
-        rollup.setMedianSpread(RobustStatistics.median(values(rollupSamples, BzSamplePoint::relativeSpread)));
-        rollup.setP10MidPrice(RobustStatistics.percentile(values(rollupSamples, BzSamplePoint::midPrice), 0.10D));
-        rollup.setP25MidPrice(RobustStatistics.percentile(values(rollupSamples, BzSamplePoint::midPrice), 0.25D));
-        rollup.setP75MidPrice(RobustStatistics.percentile(values(rollupSamples, BzSamplePoint::midPrice), 0.75D));
-        rollup.setP90MidPrice(RobustStatistics.percentile(values(rollupSamples, BzSamplePoint::midPrice), 0.90D));
-        rollup.setMinMidPrice(RobustStatistics.min(values(rollupSamples, BzSamplePoint::midPrice)));
-        rollup.setMaxMidPrice(RobustStatistics.max(values(rollupSamples, BzSamplePoint::midPrice)));
-        rollup.setWinsorizedAvgMidPrice(RobustStatistics.winsorizedMean(values(rollupSamples, BzSamplePoint::midPrice), 0.10D, 0.90D));
-        rollup.setMedianBuyVolume(RobustStatistics.median(values(rollupSamples, sample -> (double) sample.buyVolume())));
-        rollup.setMedianSellVolume(RobustStatistics.median(values(rollupSamples, sample -> (double) sample.sellVolume())));
+        double[] buyPrices = values(rollupSamples, BzSamplePoint::buyPrice);
+        double[] sellPrices = values(rollupSamples, BzSamplePoint::sellPrice);
+        double[] midPriceValues = values(rollupSamples, BzSamplePoint::midPrice);
+        double[] spreads = values(rollupSamples, BzSamplePoint::relativeSpread);
+        double[] buyVolumes = values(rollupSamples, sample -> (double) sample.buyVolume());
+        double[] sellVolumes = values(rollupSamples, sample -> (double) sample.sellVolume());
+        RobustStatistics.Series midPrices = RobustStatistics.sorted(midPriceValues);
+        rollup.setMedianBuyPrice(RobustStatistics.median(buyPrices));
+        rollup.setMedianSellPrice(RobustStatistics.median(sellPrices));
+        rollup.setMedianMidPrice(midPrices.median());
+        rollup.setMedianSpread(RobustStatistics.median(spreads));
+        rollup.setP10MidPrice(midPrices.percentile(0.10D));
+        rollup.setP25MidPrice(midPrices.percentile(0.25D));
+        rollup.setP75MidPrice(midPrices.percentile(0.75D));
+        rollup.setP90MidPrice(midPrices.percentile(0.90D));
+        rollup.setMinMidPrice(midPrices.min());
+        rollup.setMaxMidPrice(midPrices.max());
+        rollup.setWinsorizedAvgMidPrice(midPrices.winsorizedMean(0.10D, 0.90D));
+        rollup.setMedianBuyVolume(RobustStatistics.median(buyVolumes));
+        rollup.setMedianSellVolume(RobustStatistics.median(sellVolumes));
         rollup.setMinLiquidity(RobustStatistics.min(values(rollupSamples, BzSamplePoint::liquidity)));
         rollup.setMaxLiquidity(RobustStatistics.max(values(rollupSamples, BzSamplePoint::liquidity)));
         rollup.setFirstSnapshotTs(validSamples.getFirst().snapshotTs());
         rollup.setLastSnapshotTs(validSamples.getLast().snapshotTs());
+        if (granularity.keepsSketch()) {
+            rollup.setSketch(RollupSketch.of(
+                    QuantileDigest.of(buyPrices),
+                    QuantileDigest.of(sellPrices),
+                    QuantileDigest.of(midPriceValues),
+                    QuantileDigest.of(spreads),
+                    QuantileDigest.of(buyVolumes),
+                    QuantileDigest.of(sellVolumes)
+            ).toBytes());
+        }
         rollup.setCreatedAtEpochMillis(now);
         rollup.setUpdatedAtEpochMillis(now);
         return rollup;
@@ -346,6 +471,30 @@ public class BzItemBucketAnalyzer {
         return representative.snapshotTs();
     }
 
+    private Long closestRepresentative(List<BzItemBucketRollupEntity> children, double medianMidPrice) {
+        Long representative = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (BzItemBucketRollupEntity child : children) {
+            if (child.getRepresentativeSnapshotTs() == null || child.getMedianMidPrice() == null || child.getMedianMidPrice() <= 0.0D) {
+                continue;
+            }
+            double distance = Math.abs(Math.log(child.getMedianMidPrice()) - Math.log(medianMidPrice));
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                representative = child.getRepresentativeSnapshotTs();
+            }
+        }
+        return representative;
+    }
+
+    private static Double minOf(Double current, Double candidate) {
+        return candidate == null ? current : current == null ? candidate : Math.min(current, candidate);
+    }
+
+    private static Double maxOf(Double current, Double candidate) {
+        return candidate == null ? current : current == null ? candidate : Math.max(current, candidate);
+    }
+
     private double distanceToCenter(BzSamplePoint sample, MetricCenters centers) {
         double distance = 0.0D;
         distance += Math.abs(sample.logMidPrice() - centers.medianLogMidPrice()) / safeScale(centers.madLogMidPrice());
@@ -370,19 +519,13 @@ public class BzItemBucketAnalyzer {
         return Math.max(EPSILON, mad);
     }
 
-    private List<Double> values(List<BzSamplePoint> samples, Function<BzSamplePoint, Double> extractor) {
-        List<Double> values = new ArrayList<>();
+    private static double[] values(List<BzSamplePoint> samples, ToDoubleFunction<BzSamplePoint> extractor) {
         if (samples == null || samples.isEmpty()) {
-            return values;
+            return new double[0];
         }
-        for (BzSamplePoint sample : samples) {
-            if (sample == null) {
-                continue;
-            }
-            Double value = extractor.apply(sample);
-            if (value != null) {
-                values.add(value);
-            }
+        double[] values = new double[samples.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = extractor.applyAsDouble(samples.get(i));
         }
         return values;
     }
@@ -428,20 +571,18 @@ public class BzItemBucketAnalyzer {
                                  double madLogLiquidity) {
 
         private static MetricCenters from(List<BzSamplePoint> samples) {
-            List<Double> midPrices = samples.stream().map(BzSamplePoint::midPrice).toList();
-            List<Double> spreads = samples.stream().map(BzSamplePoint::relativeSpread).toList();
-            List<Double> liquidities = samples.stream().map(BzSamplePoint::liquidity).toList();
-            List<Double> logMidPrices = samples.stream().map(BzSamplePoint::logMidPrice).toList();
-            List<Double> logLiquidities = samples.stream().map(BzSamplePoint::logLiquidity).toList();
+            RobustStatistics.MedianAndMad spreads = RobustStatistics.medianAndMad(values(samples, BzSamplePoint::relativeSpread));
+            RobustStatistics.MedianAndMad logMidPrices = RobustStatistics.medianAndMad(values(samples, BzSamplePoint::logMidPrice));
+            RobustStatistics.MedianAndMad logLiquidities = RobustStatistics.medianAndMad(values(samples, BzSamplePoint::logLiquidity));
             return new MetricCenters(
-                    defaultIfNull(RobustStatistics.median(midPrices), 0.0D),
-                    defaultIfNull(RobustStatistics.median(spreads), 0.0D),
-                    defaultIfNull(RobustStatistics.median(liquidities), 0.0D),
-                    defaultIfNull(RobustStatistics.median(logMidPrices), 0.0D),
-                    defaultIfNull(RobustStatistics.mad(logMidPrices), 0.0D),
-                    defaultIfNull(RobustStatistics.mad(spreads), 0.0D),
-                    defaultIfNull(RobustStatistics.median(logLiquidities), 0.0D),
-                    defaultIfNull(RobustStatistics.mad(logLiquidities), 0.0D)
+                    defaultIfNull(RobustStatistics.median(values(samples, BzSamplePoint::midPrice)), 0.0D),
+                    spreads == null ? 0.0D : spreads.median(),
+                    defaultIfNull(RobustStatistics.median(values(samples, BzSamplePoint::liquidity)), 0.0D),
+                    logMidPrices == null ? 0.0D : logMidPrices.median(),
+                    logMidPrices == null ? 0.0D : defaultIfNull(logMidPrices.mad(), 0.0D),
+                    spreads == null ? 0.0D : defaultIfNull(spreads.mad(), 0.0D),
+                    logLiquidities == null ? 0.0D : logLiquidities.median(),
+                    logLiquidities == null ? 0.0D : defaultIfNull(logLiquidities.mad(), 0.0D)
             );
         }
 
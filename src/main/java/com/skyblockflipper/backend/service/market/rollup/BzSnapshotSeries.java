@@ -0,0 +1,87 @@
+package com.skyblockflipper.backend.service.market.rollup;
+
+import com.skyblockflipper.backend.model.market.BzItemSnapshotEntity;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The raw snapshot rows of one product inside a bucket, held as parallel primitive columns instead of one entity per
+ * row. Missing prices and volumes are stored as {@code 0}, which the analyzer treats like {@code null}.
+ */
+final class BzSnapshotSeries {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] snapshotTs = new long[INITIAL_CAPACITY];
+    private double[] buyPrice = new double[INITIAL_CAPACITY];
+    private double[] sellPrice = new double[INITIAL_CAPACITY];
+    private long[] buyVolume = new long[INITIAL_CAPACITY];
+    private long[] sellVolume = new long[INITIAL_CAPACITY];
+    private int size;
+
+    static BzSnapshotSeries of(String productId, List<BzItemSnapshotEntity> rows) {
+        BzSnapshotSeries series = new BzSnapshotSeries();
+        if (rows == null) {
+            return series;
+        }
+        for (BzItemSnapshotEntity row : rows) {
+            if (row == null || !productId.equals(row.getProductId())) {
+                continue;
+            }
+            series.add(
+                    row.getSnapshotTs(),
+                    row.getBuyPrice() == null ? 0.0D : row.getBuyPrice(),
+                    row.getSellPrice() == null ? 0.0D : row.getSellPrice(),
+                    row.getBuyVolume() == null ? 0L : row.getBuyVolume(),
+                    row.getSellVolume() == null ? 0L : row.getSellVolume()
+            );
+        }
+        return series;
+    }
+
+    void add(long snapshotTs, double buyPrice, double sellPrice, long buyVolume, long sellVolume) {
+        if (size == this.snapshotTs.length) {
+            grow();
+        }
+        this.snapshotTs[size] = snapshotTs;
+        this.buyPrice[size] = buyPrice;
+        this.sellPrice[size] = sellPrice;
+        this.buyVolume[size] = buyVolume;
+        this.sellVolume[size] = sellVolume;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long snapshotTs(int index) {
+        return snapshotTs[index];
+    }
+
+    double buyPrice(int index) {
+        return buyPrice[index];
+    }
+
+    double sellPrice(int index) {
+        return sellPrice[index];
+    }
+
+    long buyVolume(int index) {
+        return buyVolume[index];
+    }
+
+    long sellVolume(int index) {
+        return sellVolume[index];
+    }
+
+    private void grow() {
+        int capacity = snapshotTs.length * 2;
+        snapshotTs = Arrays.copyOf(snapshotTs, capacity);
+        buyPrice = Arrays.copyOf(buyPrice, capacity);
+        sellPrice = Arrays.copyOf(sellPrice, capacity);
+        buyVolume = Arrays.copyOf(buyVolume, capacity);
+        sellVolume = Arrays.copyOf(sellVolume, capacity);
+    }
+}
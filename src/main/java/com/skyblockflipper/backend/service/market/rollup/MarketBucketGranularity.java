@@ -21,6 +21,26 @@ public enum MarketBucketGranularity {
         return durationMillis;
     }
 
+    /**
+     * The granularity whose rollups a bucket of this one is derived from in hierarchical materialization; {@code null}
+     * for the finest granularity, which is always built from raw snapshots.
+     */
+    public MarketBucketGranularity finer() {
+        return switch (this) {
+            case ONE_MINUTE -> null;
+            case TWO_HOURS -> ONE_MINUTE;
+            case ONE_DAY -> TWO_HOURS;
+        };
+    }
+
+    /**
+     * Whether rollups of this granularity are written with a sketch. Only granularities a coarser bucket is derived
+     * from need one, and even those drop it again once that coarser bucket is finalized.
+     */
+    public boolean keepsSketch() {
+        return this != ONE_DAY;
+    }
+
     public int expectedSampleCount(long cadenceMillis) {
         long safeCadence = Math.max(1L, cadenceMillis);
         return (int) Math.max(1L, durationMillis / safeCadence);
@@ -2,10 +2,8 @@ package com.skyblockflipper.backend.service.market.rollup;
 
 import com.skyblockflipper.backend.model.market.AhItemAnomalySegmentEntity;
 import com.skyblockflipper.backend.model.market.AhItemBucketRollupEntity;
-import com.skyblockflipper.backend.model.market.AhItemSnapshotEntity;
 import com.skyblockflipper.backend.model.market.BzItemAnomalySegmentEntity;
 import com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity;
-import com.skyblockflipper.backend.model.market.BzItemSnapshotEntity;
 import com.skyblockflipper.backend.model.market.ItemBucketMaterializationStateEntity;
 import com.skyblockflipper.backend.repository.AhItemAnomalySegmentRepository;
 import com.skyblockflipper.backend.repository.AhItemBucketRollupRepository;
@@ -17,6 +15,7 @@ import com.skyblockflipper.backend.repository.ItemBucketMaterializationStateRepo
 import com.skyblockflipper.backend.service.market.SnapshotRollupProperties;
 import com.skyblockflipper.backend.service.market.partitioning.PartitioningProperties;
 import com.skyblockflipper.backend.service.market.partitioning.UtcDayBucket;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
@@ -28,20 +27,48 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
-import java.util.function.Function;
-
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Materializes closed BZ and AH buckets for every granularity. Each run plans the due buckets of all
+ * (market, granularity) scopes, checkpoints them as pending in {@link ItemBucketMaterializationStateEntity}, and
+ * hands the independent bucket units to a work-stealing pool sized by the configured connection budget. A scope
+ * resumes at its earliest pending bucket, so buckets left unfinished by an interrupted run are materialized again;
+ * every bucket replaces its own rollups, which keeps re-runs idempotent.
+ * <p>
+ * A bucket is processed in one pass: scan rows arrive from the JDBC cursor as primitives ordered by item, each item is
+ * analyzed as soon as its key changes, and results are inserted in JDBC batches while the scan continues. Peak memory
+ * is therefore bounded by the analyses in flight rather than by the number of rows or items in the bucket.
+ * <p>
+ * In hierarchical mode 2h and 1d buckets are derived by merging the sketches of the finer rollups they contain
+ * (1m and 2h respectively) and are only planned once all of those are finalized. A bucket whose children are
+ * incomplete, failed or were written without sketches is built from raw snapshots as before. Once a coarser bucket is
+ * finalized the sketches of its children are cleared, and 1d rollups are written without one, so only the sketches
+ * of not yet rolled-up 1m and 2h buckets are kept.
+ */
 @Service
 @Profile("compactor")
 @Slf4j
 public class MarketBucketMaterializationService {
 
     private static final int MATERIALIZATION_FETCH_SIZE = 1_000;
+    private static final int MATERIALIZATION_WRITE_BATCH_SIZE = 500;
+    private static final int ANALYSES_IN_FLIGHT_PER_WORKER = 4;
 
     private final SnapshotRollupProperties rollupProperties;
     private final PartitioningProperties partitioningProperties;
@@ -56,6 +83,7 @@ public class MarketBucketMaterializationService {
     private final AhItemBucketAnalyzer ahItemBucketAnalyzer;
     private final TransactionTemplate requiresNewTransactionTemplate;
     private final ReentrantLock materializationRunLock = new ReentrantLock();
+    private final ForkJoinPool analysisPool;
 
     public MarketBucketMaterializationService(SnapshotRollupProperties rollupProperties,
                                               PartitioningProperties partitioningProperties,
@@ -85,6 +113,15 @@ public class MarketBucketMaterializationService {
                 "transactionManager must not be null"
         ));
         this.requiresNewTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int analysisParallelism = rollupProperties.getAnalysisParallelism();
+        this.analysisPool = analysisParallelism > 1 ? new ForkJoinPool(analysisParallelism) : null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (analysisPool != null) {
+            analysisPool.shutdownNow();
+        }
     }
 
     public boolean isEnabled() {
@@ -101,22 +138,37 @@ public class MarketBucketMaterializationService {
         }
         try {
             Instant safeNow = now == null ? Instant.now() : now;
+            List<ScopePlan> plans = new ArrayList<>();
+            for (MarketBucketGranularity granularity : MarketBucketGranularity.values()) {
+                plans.add(planBz(granularity, safeNow));
+                plans.add(planAh(granularity, safeNow));
+            }
+            List<BucketUnit> units = new ArrayList<>();
+            for (ScopePlan plan : plans) {
+                checkpointPending(plan);
+                for (long bucketStart : plan.bucketStarts()) {
+                    units.add(new BucketUnit(plan, bucketStart));
+                }
+            }
+            // Oldest buckets first across all scopes, so every scope catches up at the same pace.
+            units.sort(Comparator.comparingLong(BucketUnit::bucketStart));
+            List<Boolean> outcomes = runUnits(units);
+
             int processed = 0;
             int failed = 0;
             Map<String, Integer> processedByScope = new LinkedHashMap<>();
-
-            for (MarketBucketGranularity granularity : MarketBucketGranularity.values()) {
-                BucketProcessingReport bzReport = materializeBz(granularity, safeNow);
-                processed += bzReport.processedBuckets();
-                failed += bzReport.failedBuckets();
-                processedByScope.put("BZ:" + granularity.code(), bzReport.processedBuckets());
-
-                BucketProcessingReport ahReport = materializeAh(granularity, safeNow);
-                processed += ahReport.processedBuckets();
-                failed += ahReport.failedBuckets();
-                processedByScope.put("AH:" + granularity.code(), ahReport.processedBuckets());
+            for (ScopePlan plan : plans) {
+                processedByScope.put(plan.scopeKey(), 0);
+            }
+            for (int i = 0; i < units.size(); i++) {
+                Boolean outcome = outcomes.get(i);
+                if (Boolean.TRUE.equals(outcome)) {
+                    processed++;
+                    processedByScope.merge(units.get(i).plan().scopeKey(), 1, Integer::sum);
+                } else if (Boolean.FALSE.equals(outcome)) {
+                    failed++;
+                }
             }
-
             return new BucketMaterializationReport(processed, failed, Map.copyOf(processedByScope));
         } finally {
             materializationRunLock.unlock();
@@ -150,154 +202,343 @@ public class MarketBucketMaterializationService {
         return hasDailyRollupCoverage(parentTable, partitionDayUtc, marketType);
     }
 
-    private BucketProcessingReport materializeBz(MarketBucketGranularity granularity, Instant now) {
-        Long minSnapshotTs = bzItemSnapshotRepository.findMinSnapshotTs();
-        Long maxSnapshotTs = bzItemSnapshotRepository.findMaxSnapshotTs();
-        return materializeMarket(
+    private ScopePlan planBz(MarketBucketGranularity granularity, Instant now) {
+        String parentTable = partitioningProperties.getBzSnapshotParentTable();
+        return planScope(
                 "BZ",
-                partitioningProperties.getBzSnapshotParentTable(),
+                parentTable,
                 granularity,
                 now,
-                minSnapshotTs,
-                maxSnapshotTs,
-                (start, end) -> materializeBzBucket(granularity, partitioningProperties.getBzSnapshotParentTable(), start, end)
+                bzItemSnapshotRepository.findMinSnapshotTs(),
+                bzItemSnapshotRepository.findMaxSnapshotTs(),
+                (start, end) -> materializeBzBucket(granularity, parentTable, start, end)
         );
     }
 
-    private BucketProcessingReport materializeAh(MarketBucketGranularity granularity, Instant now) {
-        Long minSnapshotTs = ahItemSnapshotRepository.findMinSnapshotTs();
-        Long maxSnapshotTs = ahItemSnapshotRepository.findMaxSnapshotTs();
-        return materializeMarket(
+    private ScopePlan planAh(MarketBucketGranularity granularity, Instant now) {
+        String parentTable = partitioningProperties.getAhSnapshotParentTable();
+        return planScope(
                 "AH",
-                partitioningProperties.getAhSnapshotParentTable(),
+                parentTable,
                 granularity,
                 now,
-                minSnapshotTs,
-                maxSnapshotTs,
-                (start, end) -> materializeAhBucket(granularity, partitioningProperties.getAhSnapshotParentTable(), start, end)
+                ahItemSnapshotRepository.findMinSnapshotTs(),
+                ahItemSnapshotRepository.findMaxSnapshotTs(),
+                (start, end) -> materializeAhBucket(granularity, parentTable, start, end)
         );
     }
 
-    private BucketProcessingReport materializeMarket(String marketType,
-                                                     String parentTable,
-                                                     MarketBucketGranularity granularity,
-                                                     Instant now,
-                                                     Long minSnapshotTs,
-                                                     Long maxSnapshotTs,
-                                                     BucketMaterializer bucketMaterializer) {
+    private ScopePlan planScope(String marketType,
+                                String parentTable,
+                                MarketBucketGranularity granularity,
+                                Instant now,
+                                Long minSnapshotTs,
+                                Long maxSnapshotTs,
+                                BucketMaterializer bucketMaterializer) {
+        List<Long> bucketStarts = new ArrayList<>();
+        ScopePlan plan = new ScopePlan(marketType, parentTable, granularity, bucketStarts, bucketMaterializer);
         if (minSnapshotTs == null || maxSnapshotTs == null) {
-            return BucketProcessingReport.empty();
+            return plan;
         }
 
         long latestClosedBucketStart = latestClosedBucketStart(now.toEpochMilli(), granularity);
         long latestRawBucketStart = alignToBucketStart(maxSnapshotTs, granularity);
         long upperBoundBucketStart = Math.min(latestClosedBucketStart, latestRawBucketStart);
         if (upperBoundBucketStart < 0L) {
-            return BucketProcessingReport.empty();
+            return plan;
         }
 
-        long nextBucketStart = resolveNextBucketStart(marketType, granularity, minSnapshotTs);
-        if (nextBucketStart > upperBoundBucketStart) {
-            return BucketProcessingReport.empty();
+        MarketBucketGranularity finer = granularity.finer();
+        if (rollupProperties.isHierarchical() && finer != null) {
+            long finerFrontier = resolveNextBucketStart(marketType, finer, minSnapshotTs);
+            upperBoundBucketStart = Math.min(upperBoundBucketStart, finerFrontier - granularity.durationMillis());
         }
 
+        long nextBucketStart = resolveNextBucketStart(marketType, granularity, minSnapshotTs);
         int maxBuckets = Math.max(1, rollupProperties.getMaxBucketsPerRun());
-        int processed = 0;
-        int failed = 0;
         for (int i = 0; i < maxBuckets && nextBucketStart <= upperBoundBucketStart; i++) {
-            long bucketEnd = nextBucketStart + granularity.durationMillis();
-            try {
-                long currentBucketStart = nextBucketStart;
-                requiresNewTransactionTemplate.executeWithoutResult(status ->
-                        bucketMaterializer.materialize(currentBucketStart, bucketEnd)
-                );
-                processed++;
-            } catch (Exception e) {
-                failed++;
-                saveFailedState(marketType, granularity, parentTable, nextBucketStart, bucketEnd);
-                log.warn("Failed to materialize {} bucket {} {}: {}", marketType, granularity.code(), nextBucketStart, e.toString(), e);
-            }
+            bucketStarts.add(nextBucketStart);
             nextBucketStart += granularity.durationMillis();
         }
-        return new BucketProcessingReport(processed, failed);
+        return plan;
+    }
+
+    private void checkpointPending(ScopePlan plan) {
+        if (plan.bucketStarts().isEmpty()) {
+            return;
+        }
+        List<ItemBucketMaterializationStateEntity> pending = new ArrayList<>(plan.bucketStarts().size());
+        for (long bucketStart : plan.bucketStarts()) {
+            pending.add(newState(plan.marketType(), plan.granularity(), plan.parentTable(), bucketStart,
+                    bucketStart + plan.granularity().durationMillis()));
+        }
+        materializationStateRepository.saveAll(pending);
+    }
+
+    private List<Boolean> runUnits(List<BucketUnit> units) {
+        List<Boolean> outcomes = new ArrayList<>(units.size());
+        int budget = Math.min(Math.max(1, rollupProperties.getMaterializationConcurrency()), units.size());
+        if (budget <= 1) {
+            for (BucketUnit unit : units) {
+                outcomes.add(materializeUnit(unit));
+            }
+            return outcomes;
+        }
+        ExecutorService executor = Executors.newWorkStealingPool(budget);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>(units.size());
+            for (BucketUnit unit : units) {
+                tasks.add(() -> materializeUnit(unit));
+            }
+            for (Future<Boolean> future : executor.invokeAll(tasks)) {
+                outcomes.add(outcome(future));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Bucket materialization interrupted; unfinished buckets stay pending for the next run.");
+        } finally {
+            executor.shutdownNow();
+        }
+        while (outcomes.size() < units.size()) {
+            outcomes.add(null);
+        }
+        return outcomes;
+    }
+
+    private Boolean outcome(Future<Boolean> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.warn("Bucket materialization unit failed: {}", e.getCause().toString(), e.getCause());
+            return false;
+        }
+    }
+
+    private boolean materializeUnit(BucketUnit unit) {
+        ScopePlan plan = unit.plan();
+        long bucketStart = unit.bucketStart();
+        long bucketEnd = bucketStart + plan.granularity().durationMillis();
+        try {
+            requiresNewTransactionTemplate.executeWithoutResult(status ->
+                    plan.bucketMaterializer().materialize(bucketStart, bucketEnd)
+            );
+            return true;
+        } catch (Exception e) {
+            saveFailedState(plan.marketType(), plan.granularity(), plan.parentTable(), bucketStart, bucketEnd);
+            log.warn("Failed to materialize {} bucket {} {}: {}", plan.marketType(), plan.granularity().code(), bucketStart, e.toString(), e);
+            return false;
+        }
     }
 
     protected void materializeBzBucket(MarketBucketGranularity granularity,
                                        String parentTable,
                                        long bucketStart,
                                        long bucketEnd) {
-        List<BzItemBucketRollupEntity> rollups = new ArrayList<>();
-        List<BzItemAnomalySegmentEntity> anomalies = new ArrayList<>();
+        if (deriveBzBucket(granularity, parentTable, bucketStart, bucketEnd)) {
+            return;
+        }
+        BucketWriter<BzItemBucketRollupEntity, BzItemAnomalySegmentEntity> writer = clearBzBucket(granularity, bucketStart);
         long[] rawRowCount = {0L};
-        GroupedRowsAccumulator<BzItemSnapshotEntity> accumulator = new GroupedRowsAccumulator<>(
-                BzItemSnapshotEntity::getProductId,
-                (productId, rows) -> {
-                    BzItemBucketAnalysisResult analysis = bzItemBucketAnalyzer.analyze(granularity, bucketStart, bucketEnd, productId, rows);
-                    analysis.rollup().ifPresent(rollups::add);
-                    anomalies.addAll(analysis.anomalySegments());
-                }
-        );
-        bzItemSnapshotRepository.scanBucketRows(bucketStart, bucketEnd, MATERIALIZATION_FETCH_SIZE, row -> {
-            rawRowCount[0]++;
-            accumulator.accept(row);
+        OrderedParallelAnalysis<BzItemBucketAnalysisResult> analyses = newAnalysis(analysis -> {
+            analysis.rollup().ifPresent(rollup -> {
+                rollup.setBucketEndEpochMillis(bucketEnd);
+                writer.addRollup(rollup);
+            });
+            for (BzItemAnomalySegmentEntity anomaly : analysis.anomalySegments()) {
+                anomaly.setBucketEndEpochMillis(bucketEnd);
+                writer.addAnomaly(anomaly);
+            }
         });
-        accumulator.finish();
+        ItemGroups<BzSnapshotSeries> groups = new ItemGroups<>(
+                BzSnapshotSeries::new,
+                (productId, series) -> analyses.submit(() ->
+                        bzItemBucketAnalyzer.analyze(granularity, bucketStart, bucketEnd, productId, series, series.size()))
+        );
+        bzItemSnapshotRepository.scanBucketRows(bucketStart, bucketEnd, MATERIALIZATION_FETCH_SIZE,
+                (productId, snapshotTs, buyPrice, sellPrice, buyVolume, sellVolume) -> {
+                    rawRowCount[0]++;
+                    groups.groupFor(productId).add(snapshotTs, buyPrice, sellPrice, buyVolume, sellVolume);
+                });
+        groups.finish();
+        analyses.finish();
+        writer.flush();
+        saveSuccessState("BZ", granularity, parentTable, bucketStart, bucketEnd, rawRowCount[0], writer.rollupCount(), writer.anomalyCount());
+        releaseBzChildSketches(granularity, bucketStart, bucketEnd);
+    }
 
-        for (BzItemBucketRollupEntity rollup : rollups) {
-            rollup.setBucketEndEpochMillis(bucketEnd);
+    private boolean deriveBzBucket(MarketBucketGranularity granularity,
+                                   String parentTable,
+                                   long bucketStart,
+                                   long bucketEnd) {
+        MarketBucketGranularity finer = derivableFrom("BZ", granularity, bucketStart, bucketEnd);
+        if (finer == null) {
+            return false;
         }
-        for (BzItemAnomalySegmentEntity anomaly : anomalies) {
-            anomaly.setBucketEndEpochMillis(bucketEnd);
+        if (bzItemBucketRollupRepository.countBucketRollupsWithoutSketch(finer.code(), bucketStart, bucketEnd) > 0L) {
+            log.debug("BZ {} bucket {} has {} rollups without sketches; materializing from raw snapshots.", granularity.code(), bucketStart, finer.code());
+            return false;
         }
+        BucketWriter<BzItemBucketRollupEntity, BzItemAnomalySegmentEntity> writer = clearBzBucket(granularity, bucketStart);
+        long[] coveredRowCount = {0L};
+        OrderedParallelAnalysis<Optional<BzItemBucketRollupEntity>> derivations = newAnalysis(derived ->
+                derived.ifPresent(rollup -> {
+                    rollup.setBucketEndEpochMillis(bucketEnd);
+                    writer.addRollup(rollup);
+                })
+        );
+        ItemGroups<List<BzItemBucketRollupEntity>> groups = new ItemGroups<>(
+                ArrayList::new,
+                (productId, children) -> derivations.submit(() ->
+                        bzItemBucketAnalyzer.derive(granularity, bucketStart, bucketEnd, productId, children))
+        );
+        bzItemBucketRollupRepository.scanBucketRollups(finer.code(), bucketStart, bucketEnd, MATERIALIZATION_FETCH_SIZE, child -> {
+            coveredRowCount[0] += child.getSampleCount();
+            groups.groupFor(child.getProductId()).add(child);
+        });
+        groups.finish();
+        derivations.finish();
+        writer.flush();
+        saveSuccessState("BZ", granularity, parentTable, bucketStart, bucketEnd, coveredRowCount[0], writer.rollupCount(), writer.anomalyCount());
+        releaseBzChildSketches(granularity, bucketStart, bucketEnd);
+        return true;
+    }
 
-        bzItemAnomalySegmentRepository.deleteByBucketStartEpochMillisAndBucketGranularity(bucketStart, granularity.code());
-        bzItemBucketRollupRepository.deleteByBucketStartEpochMillisAndBucketGranularity(bucketStart, granularity.code());
-        if (!rollups.isEmpty()) {
-            bzItemBucketRollupRepository.saveAll(rollups);
-        }
-        if (!anomalies.isEmpty()) {
-            bzItemAnomalySegmentRepository.saveAll(anomalies);
-        }
-        saveSuccessState("BZ", granularity, parentTable, bucketStart, bucketEnd, rawRowCount[0], rollups.size(), anomalies.size());
+    /**
+     * Removes what an earlier attempt wrote for the bucket and returns a writer for its new rows. The deletes run
+     * through JDBC like the inserts, so no persistence-context flush can reorder them.
+     */
+    private BucketWriter<BzItemBucketRollupEntity, BzItemAnomalySegmentEntity> clearBzBucket(MarketBucketGranularity granularity,
+                                                                                            long bucketStart) {
+        bzItemAnomalySegmentRepository.deleteBucket(granularity.code(), bucketStart);
+        bzItemBucketRollupRepository.deleteBucket(granularity.code(), bucketStart);
+        return new BucketWriter<>(bzItemBucketRollupRepository::insertBatch, bzItemAnomalySegmentRepository::insertBatch);
     }
 
     protected void materializeAhBucket(MarketBucketGranularity granularity,
                                        String parentTable,
                                        long bucketStart,
                                        long bucketEnd) {
-        List<AhItemBucketRollupEntity> rollups = new ArrayList<>();
-        List<AhItemAnomalySegmentEntity> anomalies = new ArrayList<>();
+        if (deriveAhBucket(granularity, parentTable, bucketStart, bucketEnd)) {
+            return;
+        }
+        BucketWriter<AhItemBucketRollupEntity, AhItemAnomalySegmentEntity> writer = clearAhBucket(granularity, bucketStart);
         long[] rawRowCount = {0L};
-        GroupedRowsAccumulator<AhItemSnapshotEntity> accumulator = new GroupedRowsAccumulator<>(
-                AhItemSnapshotEntity::getItemKey,
-                (itemKey, rows) -> {
-                    AhItemBucketAnalysisResult analysis = ahItemBucketAnalyzer.analyze(granularity, bucketStart, bucketEnd, itemKey, rows);
-                    analysis.rollup().ifPresent(rollups::add);
-                    anomalies.addAll(analysis.anomalySegments());
-                }
-        );
-        ahItemSnapshotRepository.scanBucketRows(bucketStart, bucketEnd, MATERIALIZATION_FETCH_SIZE, row -> {
-            rawRowCount[0]++;
-            accumulator.accept(row);
+        OrderedParallelAnalysis<AhItemBucketAnalysisResult> analyses = newAnalysis(analysis -> {
+            analysis.rollup().ifPresent(rollup -> {
+                rollup.setBucketEndEpochMillis(bucketEnd);
+                writer.addRollup(rollup);
+            });
+            for (AhItemAnomalySegmentEntity anomaly : analysis.anomalySegments()) {
+                anomaly.setBucketEndEpochMillis(bucketEnd);
+                writer.addAnomaly(anomaly);
+            }
         });
-        accumulator.finish();
+        ItemGroups<AhSnapshotSeries> groups = new ItemGroups<>(
+                AhSnapshotSeries::new,
+                (itemKey, series) -> analyses.submit(() ->
+                        ahItemBucketAnalyzer.analyze(granularity, bucketStart, bucketEnd, itemKey, series, series.size()))
+        );
+        ahItemSnapshotRepository.scanBucketRows(bucketStart, bucketEnd, MATERIALIZATION_FETCH_SIZE,
+                (itemKey, snapshotTs, binLowest5Mean, binP50, binP95, bidP50, binCount, endingSoonCount) -> {
+                    rawRowCount[0]++;
+                    groups.groupFor(itemKey).add(snapshotTs, binLowest5Mean, binP50, binP95, bidP50, binCount, endingSoonCount);
+                });
+        groups.finish();
+        analyses.finish();
+        writer.flush();
+        saveSuccessState("AH", granularity, parentTable, bucketStart, bucketEnd, rawRowCount[0], writer.rollupCount(), writer.anomalyCount());
+        releaseAhChildSketches(granularity, bucketStart, bucketEnd);
+    }
 
-        for (AhItemBucketRollupEntity rollup : rollups) {
-            rollup.setBucketEndEpochMillis(bucketEnd);
+    private boolean deriveAhBucket(MarketBucketGranularity granularity,
+                                   String parentTable,
+                                   long bucketStart,
+                                   long bucketEnd) {
+        MarketBucketGranularity finer = derivableFrom("AH", granularity, bucketStart, bucketEnd);
+        if (finer == null) {
+            return false;
         }
-        for (AhItemAnomalySegmentEntity anomaly : anomalies) {
-            anomaly.setBucketEndEpochMillis(bucketEnd);
+        if (ahItemBucketRollupRepository.countBucketRollupsWithoutSketch(finer.code(), bucketStart, bucketEnd) > 0L) {
+            log.debug("AH {} bucket {} has {} rollups without sketches; materializing from raw snapshots.", granularity.code(), bucketStart, finer.code());
+            return false;
         }
+        BucketWriter<AhItemBucketRollupEntity, AhItemAnomalySegmentEntity> writer = clearAhBucket(granularity, bucketStart);
+        long[] coveredRowCount = {0L};
+        OrderedParallelAnalysis<Optional<AhItemBucketRollupEntity>> derivations = newAnalysis(derived ->
+                derived.ifPresent(rollup -> {
+                    rollup.setBucketEndEpochMillis(bucketEnd);
+                    writer.addRollup(rollup);
+                })
+        );
+        ItemGroups<List<AhItemBucketRollupEntity>> groups = new ItemGroups<>(
+                ArrayList::new,
+                (itemKey, children) -> derivations.submit(() ->
+                        ahItemBucketAnalyzer.derive(granularity, bucketStart, bucketEnd, itemKey, children))
+        );
+        ahItemBucketRollupRepository.scanBucketRollups(finer.code(), bucketStart, bucketEnd, MATERIALIZATION_FETCH_SIZE, child -> {
+            coveredRowCount[0] += child.getSampleCount();
+            groups.groupFor(child.getItemKey()).add(child);
+        });
+        groups.finish();
+        derivations.finish();
+        writer.flush();
+        saveSuccessState("AH", granularity, parentTable, bucketStart, bucketEnd, coveredRowCount[0], writer.rollupCount(), writer.anomalyCount());
+        releaseAhChildSketches(granularity, bucketStart, bucketEnd);
+        return true;
+    }
 
-        ahItemAnomalySegmentRepository.deleteByBucketStartEpochMillisAndBucketGranularity(bucketStart, granularity.code());
-        ahItemBucketRollupRepository.deleteByBucketStartEpochMillisAndBucketGranularity(bucketStart, granularity.code());
-        if (!rollups.isEmpty()) {
-            ahItemBucketRollupRepository.saveAll(rollups);
+    /**
+     * Drops the sketches of the finer rollups inside a finalized bucket. Nothing derives from them any more, and a
+     * re-run of the bucket sees the missing sketches and rebuilds it from raw snapshots.
+     */
+    private void releaseBzChildSketches(MarketBucketGranularity granularity, long bucketStart, long bucketEnd) {
+        MarketBucketGranularity finer = granularity.finer();
+        if (finer != null) {
+            bzItemBucketRollupRepository.clearSketches(finer.code(), bucketStart, bucketEnd);
         }
-        if (!anomalies.isEmpty()) {
-            ahItemAnomalySegmentRepository.saveAll(anomalies);
+    }
+
+    private BucketWriter<AhItemBucketRollupEntity, AhItemAnomalySegmentEntity> clearAhBucket(MarketBucketGranularity granularity,
+                                                                                            long bucketStart) {
+        ahItemAnomalySegmentRepository.deleteBucket(granularity.code(), bucketStart);
+        ahItemBucketRollupRepository.deleteBucket(granularity.code(), bucketStart);
+        return new BucketWriter<>(ahItemBucketRollupRepository::insertBatch, ahItemAnomalySegmentRepository::insertBatch);
+    }
+
+    private void releaseAhChildSketches(MarketBucketGranularity granularity, long bucketStart, long bucketEnd) {
+        MarketBucketGranularity finer = granularity.finer();
+        if (finer != null) {
+            ahItemBucketRollupRepository.clearSketches(finer.code(), bucketStart, bucketEnd);
         }
-        saveSuccessState("AH", granularity, parentTable, bucketStart, bucketEnd, rawRowCount[0], rollups.size(), anomalies.size());
+    }
+
+    /**
+     * The finer granularity a bucket can be derived from, or {@code null} when hierarchical mode is off, the bucket is
+     * of the finest granularity, or not every finer bucket inside it is finalized. The raw row count of a derived
+     * bucket is the number of raw rows its children were built from.
+     */
+    private MarketBucketGranularity derivableFrom(String marketType,
+                                                  MarketBucketGranularity granularity,
+                                                  long bucketStart,
+                                                  long bucketEnd) {
+        MarketBucketGranularity finer = granularity.finer();
+        if (!rollupProperties.isHierarchical() || finer == null) {
+            return null;
+        }
+        long expectedChildren = (bucketEnd - bucketStart) / finer.durationMillis();
+        long finalizedChildren = materializationStateRepository
+                .countByMarketTypeAndBucketGranularityAndFinalizedTrueAndBucketStartEpochMillisGreaterThanEqualAndBucketStartEpochMillisLessThan(
+                        marketType,
+                        finer.code(),
+                        bucketStart,
+                        bucketEnd
+                );
+        return finalizedChildren >= expectedChildren ? finer : null;
+    }
+
+    private <R> OrderedParallelAnalysis<R> newAnalysis(Consumer<R> sink) {
+        int maxInFlight = analysisPool == null ? 1 : analysisPool.getParallelism() * ANALYSES_IN_FLIGHT_PER_WORKER;
+        return new OrderedParallelAnalysis<>(analysisPool, maxInFlight, sink);
     }
 
     private void saveSuccessState(String marketType,
@@ -309,14 +550,8 @@ public class MarketBucketMaterializationService {
                                   long rollupRowCount,
                                   long anomalyRowCount) {
         long now = System.currentTimeMillis();
-        ItemBucketMaterializationStateEntity state = new ItemBucketMaterializationStateEntity();
-        state.setBucketStartEpochMillis(bucketStart);
-        state.setBucketEndEpochMillis(bucketEnd);
-        state.setBucketGranularity(granularity.code());
-        state.setMarketType(marketType);
-        state.setSourcePartition(partitionName(parentTable, UtcDayBucket.utcDay(Instant.ofEpochMilli(bucketStart))));
+        ItemBucketMaterializationStateEntity state = newState(marketType, granularity, parentTable, bucketStart, bucketEnd);
         state.setFinalized(true);
-        state.setFailed(false);
         state.setRawRowCount(rawRowCount);
         state.setRollupRowCount(rollupRowCount);
         state.setAnomalyRowCount(anomalyRowCount);
@@ -330,7 +565,19 @@ public class MarketBucketMaterializationService {
                                  String parentTable,
                                  long bucketStart,
                                  long bucketEnd) {
-        long now = System.currentTimeMillis();
+        ItemBucketMaterializationStateEntity state = newState(marketType, granularity, parentTable, bucketStart, bucketEnd);
+        state.setFailed(true);
+        materializationStateRepository.save(state);
+    }
+
+    /**
+     * A pending state: neither finalized nor failed, with no counts yet.
+     */
+    private ItemBucketMaterializationStateEntity newState(String marketType,
+                                                          MarketBucketGranularity granularity,
+                                                          String parentTable,
+                                                          long bucketStart,
+                                                          long bucketEnd) {
         ItemBucketMaterializationStateEntity state = new ItemBucketMaterializationStateEntity();
         state.setBucketStartEpochMillis(bucketStart);
         state.setBucketEndEpochMillis(bucketEnd);
@@ -338,13 +585,13 @@ public class MarketBucketMaterializationService {
         state.setMarketType(marketType);
         state.setSourcePartition(partitionName(parentTable, UtcDayBucket.utcDay(Instant.ofEpochMilli(bucketStart))));
         state.setFinalized(false);
-        state.setFailed(true);
+        state.setFailed(false);
         state.setRawRowCount(0L);
         state.setRollupRowCount(0L);
         state.setAnomalyRowCount(0L);
         state.setFinalizedAtEpochMillis(null);
-        state.setUpdatedAtEpochMillis(now);
-        materializationStateRepository.save(state);
+        state.setUpdatedAtEpochMillis(System.currentTimeMillis());
+        return state;
     }
 
     private long resolveNextBucketStart(String marketType, MarketBucketGranularity granularity, long minSnapshotTs) {
@@ -353,10 +600,19 @@ public class MarketBucketMaterializationService {
                         marketType,
                         granularity.code()
                 );
-        if (latest != null) {
-            return latest.getBucketStartEpochMillis() + granularity.durationMillis();
+        long nextBucketStart = latest != null
+                ? latest.getBucketStartEpochMillis() + granularity.durationMillis()
+                : startOfUtcDay(minSnapshotTs);
+        // A pending bucket behind the latest finalized one was interrupted while later buckets completed.
+        ItemBucketMaterializationStateEntity earliestPending = materializationStateRepository
+                .findTopByMarketTypeAndBucketGranularityAndFinalizedFalseAndFailedFalseOrderByBucketStartEpochMillisAsc(
+                        marketType,
+                        granularity.code()
+                );
+        if (earliestPending != null) {
+            nextBucketStart = Math.min(nextBucketStart, earliestPending.getBucketStartEpochMillis());
         }
-        return startOfUtcDay(minSnapshotTs);
+        return nextBucketStart;
     }
 
     private long latestClosedBucketStart(long nowEpochMillis, MarketBucketGranularity granularity) {
@@ -439,31 +695,29 @@ public class MarketBucketMaterializationService {
         void materialize(long fromInclusive, long toExclusive);
     }
 
-    private static final class GroupedRowsAccumulator<T> {
+    /**
+     * Splits a scan ordered by item key into per-item groups. A group is handed on as soon as the key changes, so only
+     * the group being filled is held here.
+     */
+    private static final class ItemGroups<G> {
 
-        private final Function<T, String> keyExtractor;
-        private final BiConsumer<String, List<T>> groupConsumer;
+        private final Supplier<G> groupFactory;
+        private final BiConsumer<String, G> groupConsumer;
         private String currentKey;
-        private List<T> currentRows = new ArrayList<>();
+        private G currentGroup;
 
-        private GroupedRowsAccumulator(Function<T, String> keyExtractor, BiConsumer<String, List<T>> groupConsumer) {
-            this.keyExtractor = Objects.requireNonNull(keyExtractor, "keyExtractor must not be null");
+        private ItemGroups(Supplier<G> groupFactory, BiConsumer<String, G> groupConsumer) {
+            this.groupFactory = Objects.requireNonNull(groupFactory, "groupFactory must not be null");
             this.groupConsumer = Objects.requireNonNull(groupConsumer, "groupConsumer must not be null");
         }
 
-        private void accept(T row) {
-            if (row == null) {
-                return;
-            }
-            String key = keyExtractor.apply(row);
-            if (key == null || key.isBlank()) {
-                return;
-            }
-            if (!Objects.equals(currentKey, key)) {
+        private G groupFor(String key) {
+            if (currentGroup == null || !Objects.equals(currentKey, key)) {
                 flushCurrent();
                 currentKey = key;
+                currentGroup = groupFactory.get();
             }
-            currentRows.add(row);
+            return currentGroup;
         }
 
         private void finish() {
@@ -471,19 +725,84 @@ public class MarketBucketMaterializationService {
         }
 
         private void flushCurrent() {
-            if (currentKey == null || currentRows.isEmpty()) {
+            if (currentGroup == null) {
                 return;
             }
-            groupConsumer.accept(currentKey, currentRows);
-            currentKey = null;
-            currentRows = new ArrayList<>();
+            G group = currentGroup;
+            currentGroup = null;
+            if (currentKey != null && !currentKey.isBlank()) {
+                groupConsumer.accept(currentKey, group);
+            }
         }
     }
 
-    private record BucketProcessingReport(int processedBuckets, int failedBuckets) {
-        private static BucketProcessingReport empty() {
-            return new BucketProcessingReport(0, 0);
+    /**
+     * Buffers a bucket's rollups and anomaly segments and inserts them in JDBC batches of
+     * {@link #MATERIALIZATION_WRITE_BATCH_SIZE} rows.
+     */
+    private static final class BucketWriter<R, A> {
+
+        private final Consumer<List<R>> rollupInserter;
+        private final Consumer<List<A>> anomalyInserter;
+        private final List<R> rollups = new ArrayList<>(MATERIALIZATION_WRITE_BATCH_SIZE);
+        private final List<A> anomalies = new ArrayList<>(MATERIALIZATION_WRITE_BATCH_SIZE);
+        private long rollupCount;
+        private long anomalyCount;
+
+        private BucketWriter(Consumer<List<R>> rollupInserter, Consumer<List<A>> anomalyInserter) {
+            this.rollupInserter = rollupInserter;
+            this.anomalyInserter = anomalyInserter;
+        }
+
+        private void addRollup(R rollup) {
+            rollups.add(rollup);
+            rollupCount++;
+            if (rollups.size() >= MATERIALIZATION_WRITE_BATCH_SIZE) {
+                insert(rollups, rollupInserter);
+            }
+        }
+
+        private void addAnomaly(A anomaly) {
+            anomalies.add(anomaly);
+            anomalyCount++;
+            if (anomalies.size() >= MATERIALIZATION_WRITE_BATCH_SIZE) {
+                insert(anomalies, anomalyInserter);
+            }
         }
+
+        private void flush() {
+            insert(rollups, rollupInserter);
+            insert(anomalies, anomalyInserter);
+        }
+
+        private long rollupCount() {
+            return rollupCount;
+        }
+
+        private long anomalyCount() {
+            return anomalyCount;
+        }
+
+        private static <T> void insert(List<T> rows, Consumer<List<T>> inserter) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            inserter.accept(List.copyOf(rows));
+            rows.clear();
+        }
+    }
+
+    private record ScopePlan(String marketType,
+                             String parentTable,
+                             MarketBucketGranularity granularity,
+                             List<Long> bucketStarts,
+                             BucketMaterializer bucketMaterializer) {
+        private String scopeKey() {
+            return marketType + ":" + granularity.code();
+        }
+    }
+
+    private record BucketUnit(ScopePlan plan, long bucketStart) {
     }
 
     public record BucketMaterializationReport(int processedBuckets,
@@ -0,0 +1,63 @@
+package com.skyblockflipper.backend.service.market.rollup;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs per-item analyses of one bucket on an executor while the bucket scan keeps streaming rows. At most
+ * {@code maxInFlight} analyses (and therefore their row groups) are held at once. Results are handed to the sink in
+ * submission order on the submitting thread as soon as they are done, so nothing accumulates beyond the window; the
+ * first failure is rethrown so the bucket transaction rolls back as before.
+ */
+final class OrderedParallelAnalysis<R> {
+
+    private final Executor executor;
+    private final int maxInFlight;
+    private final Deque<CompletableFuture<R>> inFlight = new ArrayDeque<>();
+    private final Consumer<R> sink;
+
+    OrderedParallelAnalysis(Executor executor, int maxInFlight, Consumer<R> sink) {
+        this.executor = executor;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.sink = Objects.requireNonNull(sink, "sink must not be null");
+    }
+
+    void submit(Supplier<R> analysis) {
+        if (executor == null) {
+            sink.accept(analysis.get());
+            return;
+        }
+        if (inFlight.size() >= maxInFlight) {
+            sink.accept(join(inFlight.removeFirst()));
+        }
+        inFlight.addLast(CompletableFuture.supplyAsync(analysis, executor));
+    }
+
+    void finish() {
+        while (!inFlight.isEmpty()) {
+            sink.accept(join(inFlight.removeFirst()));
+        }
+    }
+
+    private R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            inFlight.forEach(pending -> pending.cancel(false));
+            inFlight.clear();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.skyblockflipper.backend.service.market.rollup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Mergeable quantile summary of a finite series (a merging t-digest). Values are kept as weighted centroids ordered by
+ * mean, and adjacent centroids are only combined while they span at most one unit of the arcsine scale function
+ * {@code k(q) = compression/(2π)·asin(2q−1)}. That keeps the tails at full resolution, bounds a digest to about
+ * {@code compression} centroids, and leaves series of fewer than {@code 2·compression/π} values uncompressed.
+ * Quantiles interpolate linearly between centroid ranks exactly like {@link RobustStatistics}, which makes an
+ * uncompressed digest answer what the sorted series would.
+ */
+public final class QuantileDigest {
+
+    public static final int DEFAULT_COMPRESSION = 100;
+
+    private static final QuantileDigest EMPTY = new QuantileDigest(new double[0], new int[0], 0L, Double.NaN, Double.NaN);
+
+    private final double[] means;
+    private final int[] weights;
+    private final long count;
+    private final double min;
+    private final double max;
+
+    private QuantileDigest(double[] means, int[] weights, long count, double min, double max) {
+        this.means = means;
+        this.weights = weights;
+        this.count = count;
+        this.min = min;
+        this.max = max;
+    }
+
+    public static QuantileDigest empty() {
+        return EMPTY;
+    }
+
+    public static QuantileDigest of(double[] values) {
+        double[] sorted = finiteSorted(values);
+        if (sorted.length == 0) {
+            return EMPTY;
+        }
+        int[] weights = new int[sorted.length];
+        Arrays.fill(weights, 1);
+        return compress(sorted, weights, sorted.length, sorted[0], sorted[sorted.length - 1], DEFAULT_COMPRESSION);
+    }
+
+    public static QuantileDigest merge(Collection<QuantileDigest> digests) {
+        if (digests == null || digests.isEmpty()) {
+            return EMPTY;
+        }
+        List<QuantileDigest> nonEmpty = new ArrayList<>(digests.size());
+        long count = 0L;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (QuantileDigest digest : digests) {
+            if (digest == null || digest.count == 0L) {
+                continue;
+            }
+            nonEmpty.add(digest);
+            count += digest.count;
+            min = Math.min(min, digest.min);
+            max = Math.max(max, digest.max);
+        }
+        if (nonEmpty.isEmpty()) {
+            return EMPTY;
+        }
+        if (nonEmpty.size() == 1) {
+            return nonEmpty.getFirst();
+        }
+        Run merged = mergeRuns(nonEmpty, 0, nonEmpty.size());
+        return compress(merged.means(), merged.weights(), count, min, max, DEFAULT_COMPRESSION);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int centroidCount() {
+        return means.length;
+    }
+
+    public Double min() {
+        return count == 0L ? null : min;
+    }
+
+    public Double max() {
+        return count == 0L ? null : max;
+    }
+
+    public Double median() {
+        return quantile(0.5D);
+    }
+
+    public Double quantile(double percentile) {
+        if (count == 0L) {
+            return null;
+        }
+        if (count == 1L) {
+            return means[0];
+        }
+        double index = Math.max(0.0D, Math.min(1.0D, percentile)) * (count - 1);
+        double firstCenter = (weights[0] - 1) / 2.0D;
+        if (index <= firstCenter) {
+            return interpolate(0.0D, min, firstCenter, means[0], index);
+        }
+        double cumulative = 0.0D;
+        for (int i = 0; i < means.length - 1; i++) {
+            double center = cumulative + (weights[i] - 1) / 2.0D;
+            cumulative += weights[i];
+            double nextCenter = cumulative + (weights[i + 1] - 1) / 2.0D;
+            if (index <= nextCenter) {
+                return interpolate(center, means[i], nextCenter, means[i + 1], index);
+            }
+        }
+        double lastCenter = cumulative + (weights[means.length - 1] - 1) / 2.0D;
+        return interpolate(lastCenter, means[means.length - 1], count - 1, max, index);
+    }
+
+    /**
+     * Mean of the series with every value clamped to the given percentiles; centroids are clamped as a whole.
+     */
+    public Double winsorizedMean(double lowerPercentile, double upperPercentile) {
+        if (count == 0L) {
+            return null;
+        }
+        double lower = quantile(lowerPercentile);
+        double upper = quantile(upperPercentile);
+        double sum = 0.0D;
+        for (int i = 0; i < means.length; i++) {
+            sum += weights[i] * Math.min(upper, Math.max(lower, means[i]));
+        }
+        return sum / count;
+    }
+
+    int serializedSize() {
+        int size = varIntSize(means.length);
+        if (means.length == 0) {
+            return size;
+        }
+        size += 2 * Double.BYTES + means.length * Double.BYTES;
+        for (int weight : weights) {
+            size += varIntSize(weight);
+        }
+        return size;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        putVarInt(buffer, means.length);
+        if (means.length == 0) {
+            return;
+        }
+        buffer.putDouble(min);
+        buffer.putDouble(max);
+        for (int i = 0; i < means.length; i++) {
+            buffer.putDouble(means[i]);
+            putVarInt(buffer, weights[i]);
+        }
+    }
+
+    static QuantileDigest readFrom(ByteBuffer buffer) {
+        int centroids = getVarInt(buffer);
+        if (centroids < 0) {
+            throw new IllegalArgumentException("negative centroid count: " + centroids);
+        }
+        if (centroids == 0) {
+            return EMPTY;
+        }
+        double min = buffer.getDouble();
+        double max = buffer.getDouble();
+        double[] means = new double[centroids];
+        int[] weights = new int[centroids];
+        long count = 0L;
+        for (int i = 0; i < centroids; i++) {
+            means[i] = buffer.getDouble();
+            weights[i] = getVarInt(buffer);
+            if (weights[i] <= 0) {
+                throw new IllegalArgumentException("non-positive centroid weight: " + weights[i]);
+            }
+            count += weights[i];
+        }
+        return new QuantileDigest(means, weights, count, min, max);
+    }
+
+    private static QuantileDigest compress(double[] means,
+                                           int[] weights,
+                                           long count,
+                                           double min,
+                                           double max,
+                                           int compression) {
+        double[] outMeans = new double[means.length];
+        int[] outWeights = new int[means.length];
+        int size = 0;
+        double currentMean = means[0];
+        int currentWeight = weights[0];
+        long weightBefore = 0L;
+        double kLeft = scale(0.0D, compression);
+        for (int i = 1; i < means.length; i++) {
+            long proposed = (long) currentWeight + weights[i];
+            double kRight = scale((weightBefore + proposed) / (double) count, compression);
+            if (kRight - kLeft <= 1.0D && proposed <= Integer.MAX_VALUE) {
+                currentMean += (means[i] - currentMean) * weights[i] / proposed;
+                currentWeight = (int) proposed;
+                continue;
+            }
+            outMeans[size] = currentMean;
+            outWeights[size] = currentWeight;
+            size++;
+            weightBefore += currentWeight;
+            kLeft = scale(weightBefore / (double) count, compression);
+            currentMean = means[i];
+            currentWeight = weights[i];
+        }
+        outMeans[size] = currentMean;
+        outWeights[size] = currentWeight;
+        size++;
+        return new QuantileDigest(
+                size == outMeans.length ? outMeans : Arrays.copyOf(outMeans, size),
+                size == outWeights.length ? outWeights : Arrays.copyOf(outWeights, size),
+                count,
+                min,
+                max
+        );
+    }
+
+    /**
+     * Merges the already ordered centroids of {@code digests[from, to)} pairwise, so each centroid is copied
+     * {@code log2(k)} times instead of sorting all of them again.
+     */
+    private static Run mergeRuns(List<QuantileDigest> digests, int from, int to) {
+        if (to - from == 1) {
+            QuantileDigest digest = digests.get(from);
+            return new Run(digest.means, digest.weights);
+        }
+        int middle = (from + to) >>> 1;
+        Run left = mergeRuns(digests, from, middle);
+        Run right = mergeRuns(digests, middle, to);
+        int size = left.means().length + right.means().length;
+        double[] means = new double[size];
+        int[] weights = new int[size];
+        int l = 0;
+        int r = 0;
+        for (int i = 0; i < size; i++) {
+            boolean takeLeft = r == right.means().length
+                    || (l < left.means().length && left.means()[l] <= right.means()[r]);
+            if (takeLeft) {
+                means[i] = left.means()[l];
+                weights[i] = left.weights()[l++];
+            } else {
+                means[i] = right.means()[r];
+                weights[i] = right.weights()[r++];
+            }
+        }
+        return new Run(means, weights);
+    }
+
+    private static double scale(double q, int compression) {
+        return compression / (2.0D * Math.PI) * Math.asin(2.0D * Math.min(1.0D, Math.max(0.0D, q)) - 1.0D);
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte next = buffer.get();
+            value |= (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    private static double interpolate(double leftRank, double leftValue, double rightRank, double rightValue, double rank) {
+        if (rightRank <= leftRank) {
+            return leftValue;
+        }
+        double weight = (rank - leftRank) / (rightRank - leftRank);
+        return (leftValue * (1.0D - weight)) + (rightValue * weight);
+    }
+
+    private static double[] finiteSorted(double[] values) {
+        if (values == null || values.length == 0) {
+            return new double[0];
+        }
+        double[] copy = new double[values.length];
+        int size = 0;
+        for (double value : values) {
+            if (Double.isFinite(value)) {
+                copy[size++] = value;
+            }
+        }
+        double[] sorted = size == copy.length ? copy : Arrays.copyOf(copy, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private record Run(double[] means, int[] weights) {
+    }
+}
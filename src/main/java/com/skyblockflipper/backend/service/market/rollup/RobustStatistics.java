@@ -1,100 +1,320 @@
 package com.skyblockflipper.backend.service.market.rollup;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
+/**
+ * Order statistics over finite values; {@code null}, NaN and infinite inputs are ignored and an empty series yields
+ * {@code null}. The {@code double[]} overloads never modify their argument: single quantiles are answered by
+ * selection on one scratch copy, and {@link #sorted(double[])} sorts once for series that need several quantiles.
+ */
 public final class RobustStatistics {
 
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
     private RobustStatistics() {
     }
 
     public static Double median(Collection<Double> values) {
-        List<Double> sorted = sorted(values);
-        if (sorted.isEmpty()) {
+        return median(toArray(values));
+    }
+
+    public static Double percentile(Collection<Double> values, double percentile) {
+        return percentile(toArray(values), percentile);
+    }
+
+    public static Double mad(Collection<Double> values) {
+        return mad(toArray(values));
+    }
+
+    public static Double winsorizedMean(Collection<Double> values, double lowerPercentile, double upperPercentile) {
+        return winsorizedMean(toArray(values), lowerPercentile, upperPercentile);
+    }
+
+    public static Double min(Collection<Double> values) {
+        return min(toArray(values));
+    }
+
+    public static Double max(Collection<Double> values) {
+        return max(toArray(values));
+    }
+
+    public static Double median(double[] values) {
+        double[] scratch = finiteCopy(values);
+        return scratch.length == 0 ? null : medianInPlace(scratch, scratch.length);
+    }
+
+    public static Double percentile(double[] values, double percentile) {
+        double[] scratch = finiteCopy(values);
+        return scratch.length == 0 ? null : percentileInPlace(scratch, scratch.length, percentile);
+    }
+
+    public static Double mad(double[] values) {
+        MedianAndMad medianAndMad = medianAndMad(values);
+        return medianAndMad == null ? null : medianAndMad.mad();
+    }
+
+    /**
+     * Median and median absolute deviation from a single scratch copy: the deviations overwrite the values in place.
+     */
+    public static MedianAndMad medianAndMad(double[] values) {
+        double[] scratch = finiteCopy(values);
+        if (scratch.length == 0) {
             return null;
         }
-        int middle = sorted.size() / 2;
-        if ((sorted.size() & 1) == 1) {
-            return sorted.get(middle);
+        double median = medianInPlace(scratch, scratch.length);
+        int count = 0;
+        for (double value : scratch) {
+            double deviation = Math.abs(value - median);
+            if (Double.isFinite(deviation)) {
+                scratch[count++] = deviation;
+            }
         }
-        return (sorted.get(middle - 1) + sorted.get(middle)) / 2.0D;
+        Double mad = count == 0 ? null : medianInPlace(scratch, count);
+        return new MedianAndMad(median, mad);
     }
 
-    public static Double percentile(Collection<Double> values, double percentile) {
-        List<Double> sorted = sorted(values);
-        if (sorted.isEmpty()) {
-            return null;
+    public static Double winsorizedMean(double[] values, double lowerPercentile, double upperPercentile) {
+        return sorted(values).winsorizedMean(lowerPercentile, upperPercentile);
+    }
+
+    public static Double min(double[] values) {
+        Double min = null;
+        if (values != null) {
+            for (double value : values) {
+                if (Double.isFinite(value) && (min == null || value < min)) {
+                    min = value;
+                }
+            }
         }
-        if (sorted.size() == 1) {
-            return sorted.getFirst();
+        return min;
+    }
+
+    public static Double max(double[] values) {
+        Double max = null;
+        if (values != null) {
+            for (double value : values) {
+                if (Double.isFinite(value) && (max == null || value > max)) {
+                    max = value;
+                }
+            }
         }
-        double clamped = Math.max(0.0D, Math.min(1.0D, percentile));
-        double index = clamped * (sorted.size() - 1);
+        return max;
+    }
+
+    public static Series sorted(double[] values) {
+        double[] sorted = finiteCopy(values);
+        Arrays.sort(sorted);
+        return new Series(sorted);
+    }
+
+    private static double medianInPlace(double[] values, int length) {
+        int middle = length / 2;
+        double upper = select(values, length, middle);
+        if ((length & 1) == 1) {
+            return upper;
+        }
+        // After selection everything left of the middle is <= upper, so its maximum is the lower middle value.
+        double lower = values[0];
+        for (int i = 1; i < middle; i++) {
+            lower = Math.max(lower, values[i]);
+        }
+        return (lower + upper) / 2.0D;
+    }
+
+    private static double percentileInPlace(double[] values, int length, double percentile) {
+        if (length == 1) {
+            return values[0];
+        }
+        double index = clampedIndex(percentile, length);
         int lower = (int) Math.floor(index);
         int upper = (int) Math.ceil(index);
+        double lowerValue = select(values, length, lower);
         if (lower == upper) {
-            return sorted.get(lower);
+            return lowerValue;
+        }
+        double upperValue = values[upper];
+        for (int i = upper + 1; i < length; i++) {
+            upperValue = Math.min(upperValue, values[i]);
         }
         double weight = index - lower;
-        return (sorted.get(lower) * (1.0D - weight)) + (sorted.get(upper) * weight);
+        return (lowerValue * (1.0D - weight)) + (upperValue * weight);
     }
 
-    public static Double mad(Collection<Double> values) {
-        Double median = median(values);
-        if (median == null) {
-            return null;
+    private static double sortedPercentile(double[] sorted, double percentile) {
+        if (sorted.length == 1) {
+            return sorted[0];
         }
-        List<Double> deviations = new ArrayList<>();
-        for (Double value : values) {
-            if (value == null) {
-                continue;
+        double index = clampedIndex(percentile, sorted.length);
+        int lower = (int) Math.floor(index);
+        int upper = (int) Math.ceil(index);
+        if (lower == upper) {
+            return sorted[lower];
+        }
+        double weight = index - lower;
+        return (sorted[lower] * (1.0D - weight)) + (sorted[upper] * weight);
+    }
+
+    private static double clampedIndex(double percentile, int length) {
+        double clamped = Math.max(0.0D, Math.min(1.0D, percentile));
+        return clamped * (length - 1);
+    }
+
+    /**
+     * Introselect: median-of-three quickselect that falls back to sorting the remaining range once the partitioning
+     * depth exceeds 2·log2(n), which bounds adversarial inputs at O(n log n). Leaves the k-th smallest value at
+     * {@code values[k]} with every smaller index holding values &lt;= it and every larger index values &gt;= it.
+     */
+    private static double select(double[] values, int length, int k) {
+        int from = 0;
+        int to = length - 1;
+        int depthBudget = 2 * (32 - Integer.numberOfLeadingZeros(length));
+        while (to > from) {
+            if (to - from < INSERTION_SORT_THRESHOLD) {
+                insertionSort(values, from, to);
+                return values[k];
+            }
+            if (depthBudget-- == 0) {
+                Arrays.sort(values, from, to + 1);
+                return values[k];
+            }
+            int middle = (from + to) >>> 1;
+            orderThree(values, from, middle, to);
+            double pivot = values[middle];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i++, j--);
+                }
+            }
+            if (k <= j) {
+                to = j;
+            } else if (k >= i) {
+                from = i;
+            } else {
+                return values[k];
             }
-            deviations.add(Math.abs(value - median));
         }
-        return median(deviations);
+        return values[k];
     }
 
-    public static Double winsorizedMean(Collection<Double> values, double lowerPercentile, double upperPercentile) {
-        List<Double> sorted = sorted(values);
-        if (sorted.isEmpty()) {
-            return null;
+    private static void orderThree(double[] values, int first, int second, int third) {
+        if (values[second] < values[first]) {
+            swap(values, first, second);
         }
-        Double lower = percentile(sorted, lowerPercentile);
-        Double upper = percentile(sorted, upperPercentile);
-        if (lower == null || upper == null) {
-            return null;
+        if (values[third] < values[second]) {
+            swap(values, second, third);
+            if (values[second] < values[first]) {
+                swap(values, first, second);
+            }
         }
-        double sum = 0.0D;
-        for (Double value : sorted) {
-            sum += Math.min(upper, Math.max(lower, value));
+    }
+
+    private static void insertionSort(double[] values, int from, int to) {
+        for (int i = from + 1; i <= to; i++) {
+            double value = values[i];
+            int j = i - 1;
+            while (j >= from && values[j] > value) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
         }
-        return sum / sorted.size();
     }
 
-    public static Double min(Collection<Double> values) {
-        List<Double> sorted = sorted(values);
-        return sorted.isEmpty() ? null : sorted.getFirst();
+    private static void swap(double[] values, int left, int right) {
+        double value = values[left];
+        values[left] = values[right];
+        values[right] = value;
     }
 
-    public static Double max(Collection<Double> values) {
-        List<Double> sorted = sorted(values);
-        return sorted.isEmpty() ? null : sorted.getLast();
+    private static double[] finiteCopy(double[] values) {
+        if (values == null || values.length == 0) {
+            return new double[0];
+        }
+        double[] copy = new double[values.length];
+        int count = 0;
+        for (double value : values) {
+            if (Double.isFinite(value)) {
+                copy[count++] = value;
+            }
+        }
+        return count == copy.length ? copy : Arrays.copyOf(copy, count);
     }
 
-    private static List<Double> sorted(Collection<Double> values) {
+    private static double[] toArray(Collection<Double> values) {
         if (values == null || values.isEmpty()) {
-            return List.of();
+            return new double[0];
         }
-        List<Double> sorted = new ArrayList<>();
+        double[] array = new double[values.size()];
+        int count = 0;
         for (Double value : values) {
-            if (value == null || value.isNaN() || value.isInfinite()) {
-                continue;
+            if (value != null) {
+                array[count++] = value;
+            }
+        }
+        return count == array.length ? array : Arrays.copyOf(array, count);
+    }
+
+    public record MedianAndMad(double median, Double mad) {
+    }
+
+    /**
+     * A sorted copy of a series' finite values, for callers that read several quantiles of the same series.
+     */
+    public static final class Series {
+
+        private final double[] sorted;
+
+        private Series(double[] sorted) {
+            this.sorted = sorted;
+        }
+
+        public int size() {
+            return sorted.length;
+        }
+
+        public Double median() {
+            if (sorted.length == 0) {
+                return null;
+            }
+            int middle = sorted.length / 2;
+            if ((sorted.length & 1) == 1) {
+                return sorted[middle];
+            }
+            return (sorted[middle - 1] + sorted[middle]) / 2.0D;
+        }
+
+        public Double percentile(double percentile) {
+            return sorted.length == 0 ? null : sortedPercentile(sorted, percentile);
+        }
+
+        public Double min() {
+            return sorted.length == 0 ? null : sorted[0];
+        }
+
+        public Double max() {
+            return sorted.length == 0 ? null : sorted[sorted.length - 1];
+        }
+
+        public Double winsorizedMean(double lowerPercentile, double upperPercentile) {
+            if (sorted.length == 0) {
+                return null;
+            }
+            double lower = sortedPercentile(sorted, lowerPercentile);
+            double upper = sortedPercentile(sorted, upperPercentile);
+            double sum = 0.0D;
+            for (double value : sorted) {
+                sum += Math.min(upper, Math.max(lower, value));
             }
-            sorted.add(value);
+            return sum / sorted.length;
         }
-        Collections.sort(sorted);
-        return sorted;
     }
 }
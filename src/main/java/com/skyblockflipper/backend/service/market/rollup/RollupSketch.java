@@ -0,0 +1,94 @@
+package com.skyblockflipper.backend.service.market.rollup;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The per-metric {@link QuantileDigest}s persisted with a bucket rollup. Merging the sketches of the finer rollups
+ * inside a coarser bucket yields that bucket's distribution without re-reading its raw snapshot rows. Metric positions
+ * are defined by the analyzer that writes the sketch.
+ */
+public final class RollupSketch {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final QuantileDigest[] digests;
+
+    private RollupSketch(QuantileDigest[] digests) {
+        this.digests = digests;
+    }
+
+    public static RollupSketch of(QuantileDigest... digests) {
+        QuantileDigest[] copy = new QuantileDigest[digests.length];
+        for (int i = 0; i < digests.length; i++) {
+            copy[i] = digests[i] == null ? QuantileDigest.empty() : digests[i];
+        }
+        return new RollupSketch(copy);
+    }
+
+    public static RollupSketch merge(List<RollupSketch> sketches) {
+        if (sketches == null || sketches.isEmpty()) {
+            throw new IllegalArgumentException("sketches must not be empty");
+        }
+        int metricCount = sketches.getFirst().metricCount();
+        QuantileDigest[] merged = new QuantileDigest[metricCount];
+        for (int metric = 0; metric < metricCount; metric++) {
+            List<QuantileDigest> digests = new ArrayList<>(sketches.size());
+            for (RollupSketch sketch : sketches) {
+                if (sketch.metricCount() != metricCount) {
+                    throw new IllegalArgumentException("sketch metric count " + sketch.metricCount() + " != " + metricCount);
+                }
+                digests.add(sketch.digests[metric]);
+            }
+            merged[metric] = QuantileDigest.merge(digests);
+        }
+        return new RollupSketch(merged);
+    }
+
+    public int metricCount() {
+        return digests.length;
+    }
+
+    public QuantileDigest digest(int metric) {
+        return digests[metric];
+    }
+
+    public byte[] toBytes() {
+        int size = 2;
+        for (QuantileDigest digest : digests) {
+            size += digest.serializedSize();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(FORMAT_VERSION);
+        buffer.put((byte) digests.length);
+        for (QuantileDigest digest : digests) {
+            digest.writeTo(buffer);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a persisted sketch; {@code null} for rollups written before sketches existed.
+     */
+    public static RollupSketch fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported rollup sketch version " + version);
+        }
+        try {
+            QuantileDigest[] digests = new QuantileDigest[Byte.toUnsignedInt(buffer.get())];
+            for (int i = 0; i < digests.length; i++) {
+                digests[i] = QuantileDigest.readFrom(buffer);
+            }
+            return new RollupSketch(digests);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("truncated rollup sketch", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+alter table if exists market_snapshot add column if not exists auctions_blob bytea;
+alter table if exists market_snapshot add column if not exists bazaar_products_blob bytea;
+alter table if exists market_snapshot alter column auctions_json drop not null;
+alter table if exists market_snapshot alter column bazaar_products_json drop not null;
+
+alter table if exists market_snapshot_retained add column if not exists auctions_blob bytea;
+alter table if exists market_snapshot_retained add column if not exists bazaar_products_blob bytea;
+alter table if exists market_snapshot_retained alter column auctions_json drop not null;
+alter table if exists market_snapshot_retained alter column bazaar_products_json drop not null;
+
+alter table if exists market_snapshot alter column auctions_blob set storage external;
+alter table if exists market_snapshot alter column bazaar_products_blob set storage external;
+alter table if exists market_snapshot_retained alter column auctions_blob set storage external;
+alter table if exists market_snapshot_retained alter column bazaar_products_blob set storage external;
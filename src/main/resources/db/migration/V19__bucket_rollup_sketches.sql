@@ -0,0 +1,2 @@
+alter table if exists bz_item_bucket_rollup add column if not exists sketch bytea;
+alter table if exists ah_item_bucket_rollup add column if not exists sketch bytea;
@@ -0,0 +1,35 @@
+-- Rollup sketches cost roughly 0.5 KB per row. They are only needed until the coarser bucket above them is
+-- finalized: kept for every 1m rollup they would add about 1 GB per day across bazaar and auction items, so the
+-- materializer now clears child sketches once their 2h or 1d bucket is finalized and writes 1d rollups without one.
+-- Release what earlier runs left behind under the same rule.
+update bz_item_bucket_rollup
+set sketch = null
+where sketch is not null
+  and (
+    bucket_granularity = '1d'
+    or exists (
+        select 1
+        from item_bucket_materialization_state s
+        where s.market_type = 'BZ'
+          and s.finalized
+          and s.bucket_granularity = case bz_item_bucket_rollup.bucket_granularity when '1m' then '2h' else '1d' end
+          and bz_item_bucket_rollup.bucket_start_epoch_millis >= s.bucket_start_epoch_millis
+          and bz_item_bucket_rollup.bucket_start_epoch_millis < s.bucket_end_epoch_millis
+    )
+  );
+
+update ah_item_bucket_rollup
+set sketch = null
+where sketch is not null
+  and (
+    bucket_granularity = '1d'
+    or exists (
+        select 1
+        from item_bucket_materialization_state s
+        where s.market_type = 'AH'
+          and s.finalized
+          and s.bucket_granularity = case ah_item_bucket_rollup.bucket_granularity when '1m' then '2h' else '1d' end
+          and ah_item_bucket_rollup.bucket_start_epoch_millis >= s.bucket_start_epoch_millis
+          and ah_item_bucket_rollup.bucket_start_epoch_millis < s.bucket_end_epoch_millis
+    )
+  );
@@ -17,6 +17,7 @@ import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.Instant;
@@ -128,6 +129,38 @@ class NEUClientTest {
         verify(repository, never()).save(any());
     }
 
+    @Test
+    void scanItemJsonsParsesOnlyFilesWhoseContentHashChanged() throws Exception {
+        Path itemsDir = createItemsDir();
+        Files.writeString(itemsDir.resolve("FARM_MERCHANT_NPC.json"), "{\"internalname\":\"FARM_MERCHANT_NPC\"}");
+
+        ReflectionTestUtils.setField(client, "itemsDir", itemsDir);
+
+        DataSourceHashRepository repository = mock(DataSourceHashRepository.class);
+        when(repository.findBySourceKey("NEU-ITEMS"))
+                .thenReturn(new DataSourceHash(null, "NEU-ITEMS", "hash", Instant.now()));
+
+        ReflectionTestUtils.setField(client, "dataSourceHashRepository", repository);
+
+        NEUClient.ItemScan first = client.scanItemJsons(Map.of());
+        assertEquals(3, first.changedFileCount());
+        assertEquals(2, first.changedItems().size());
+        assertEquals(Set.of("FARM_MERCHANT_NPC.json", "ARMADILLO;5.json", Path.of("nested", "ARMOR_OF_YOG_BOOTS.json").toString()),
+                first.contentHashes().keySet());
+
+        NEUClient.ItemScan unchanged = client.scanItemJsons(first.contentHashes());
+        assertEquals(0, unchanged.changedFileCount());
+        assertTrue(unchanged.changedItems().isEmpty());
+        assertEquals(first.contentHashes(), unchanged.contentHashes());
+
+        Files.writeString(itemsDir.resolve("FARM_MERCHANT_NPC.json"), "{\"internalname\":\"FARM_MERCHANT_NPC\",\"x\":1}");
+        NEUClient.ItemScan npcChanged = client.scanItemJsons(first.contentHashes());
+        assertEquals(1, npcChanged.changedFileCount());
+        assertTrue(npcChanged.changedItems().isEmpty());
+        assertNotEquals(first.contentHashes().get("FARM_MERCHANT_NPC.json"),
+                npcChanged.contentHashes().get("FARM_MERCHANT_NPC.json"));
+    }
+
     @Test
     void resolveZipUrlSupportsGitHubAndZipUrls() {
         String github = ReflectionTestUtils.invokeMethod(client, "resolveZipUrl",
@@ -234,14 +267,32 @@ class NEUClientTest {
     }
 
     @Test
-    void deleteDirectoryRemovesNestedFiles() throws Exception {
-        Path dir = tempDir.resolve("to-delete");
-        Files.createDirectories(dir.resolve("nested"));
-        Files.writeString(dir.resolve("nested").resolve("a.json"), "{\"id\":\"a\"}");
-
-        ReflectionTestUtils.invokeMethod(client, "deleteDirectory", dir);
+    void downloadAndExtractItemsWritesOnlyChangedEntriesAndRemovesDroppedFiles() throws Exception {
+        Path itemsDir = tempDir.resolve("differential-items");
+        Files.createDirectories(itemsDir.resolve("nested"));
+        Files.writeString(itemsDir.resolve("ITEM_A.json"), "{\"id\":\"ITEM_A\"}");
+        Files.writeString(itemsDir.resolve("nested").resolve("STALE.json"), "{\"id\":\"STALE\"}");
+        FileTime past = FileTime.from(Instant.parse("2020-01-01T00:00:00Z"));
+        Files.setLastModifiedTime(itemsDir.resolve("ITEM_A.json"), past);
 
-        assertFalse(Files.exists(dir));
+        extractFrom(Map.of(
+                "repo/items/ITEM_A.json", "{\"id\":\"ITEM_A\"}",
+                "repo/items/nested/ITEM_B.json", "{\"id\":\"ITEM_B\"}"
+        ), itemsDir);
+
+        assertEquals(past, Files.getLastModifiedTime(itemsDir.resolve("ITEM_A.json")));
+        assertEquals("{\"id\":\"ITEM_B\"}", Files.readString(itemsDir.resolve("nested").resolve("ITEM_B.json")));
+        assertFalse(Files.exists(itemsDir.resolve("nested").resolve("STALE.json")));
+        assertTrue(Files.exists(tempDir.resolve("differential-items.manifest")));
+
+        Files.setLastModifiedTime(itemsDir.resolve("nested").resolve("ITEM_B.json"), past);
+        extractFrom(Map.of(
+                "repo/items/ITEM_A.json", "{\"id\":\"ITEM_A\",\"v\":2}",
+                "repo/items/nested/ITEM_B.json", "{\"id\":\"ITEM_B\"}"
+        ), itemsDir);
+
+        assertEquals("{\"id\":\"ITEM_A\",\"v\":2}", Files.readString(itemsDir.resolve("ITEM_A.json")));
+        assertEquals(past, Files.getLastModifiedTime(itemsDir.resolve("nested").resolve("ITEM_B.json")));
     }
 
     @Test
@@ -281,6 +332,16 @@ class NEUClientTest {
         return value == null ? "" : value;
     }
 
+    private void extractFrom(Map<String, String> entries, Path itemsDir) throws IOException {
+        HttpServer server = startZipServer(buildZip(entries));
+        String url = "http://localhost:" + server.getAddress().getPort() + "/repo.zip";
+        try {
+            ReflectionTestUtils.invokeMethod(client, "downloadAndExtractItems", url, "main", itemsDir);
+        } finally {
+            server.stop(0);
+        }
+    }
+
     private HttpServer startZipServer(byte[] zipBytes) throws IOException {
         HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
         server.createContext("/repo.zip", exchange -> {
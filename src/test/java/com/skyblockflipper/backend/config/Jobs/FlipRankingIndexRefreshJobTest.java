@@ -0,0 +1,19 @@
+package com.skyblockflipper.backend.config.Jobs;
+
+import com.skyblockflipper.backend.service.flipping.FlipRankingIndexService;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class FlipRankingIndexRefreshJobTest {
+
+    @Test
+    void refreshRankingIndexQueuesBackgroundRefresh() {
+        FlipRankingIndexService service = mock(FlipRankingIndexService.class);
+
+        new FlipRankingIndexRefreshJob(service).refreshRankingIndex();
+
+        verify(service).requestRefresh();
+    }
+}
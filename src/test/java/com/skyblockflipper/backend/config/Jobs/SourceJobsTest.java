@@ -165,6 +165,30 @@ class SourceJobsTest {
         verify(flipGenerationService).regenerateForSnapshot(snapshotTimestamp);
     }
 
+    @Test
+    void copyRepoDailySkipsRegenerationWhenNoItemsChanged() throws IOException, InterruptedException {
+        NeuRepoIngestionService neuRepoIngestionService = mock(NeuRepoIngestionService.class);
+        MarketDataProcessingService marketDataProcessingService = mock(MarketDataProcessingService.class);
+        FlipGenerationService flipGenerationService = mock(FlipGenerationService.class);
+        SourceJobs jobs = new SourceJobs(
+                neuRepoIngestionService,
+                marketDataProcessingService,
+                flipGenerationService,
+                mock(AhItemSnapshotRepository.class),
+                mock(BzItemSnapshotRepository.class),
+                new SnapshotRetentionProperties(),
+                mock(ElectionPollFreshnessService.class),
+                mock(PartitionAdminRepository.class),
+                new PartitioningProperties()
+        );
+        when(neuRepoIngestionService.ingestLatestFilteredItems()).thenReturn(0);
+
+        jobs.copyRepoDaily();
+
+        verify(neuRepoIngestionService).ingestLatestFilteredItems();
+        verifyNoInteractions(marketDataProcessingService, flipGenerationService);
+    }
+
     @Test
     void copyRepoDailyAsyncDelegatesToSameRefreshLogic() throws IOException, InterruptedException {
         NeuRepoIngestionService neuRepoIngestionService = mock(NeuRepoIngestionService.class);
@@ -0,0 +1,24 @@
+package com.skyblockflipper.backend.config.Jobs;
+
+import com.skyblockflipper.backend.service.market.TrendingIndexService;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TrendingRefreshJobTest {
+
+    @Test
+    void refreshTrendingInvokesServiceAndSwallowsExceptions() {
+        TrendingIndexService service = mock(TrendingIndexService.class);
+        TrendingRefreshJob job = new TrendingRefreshJob(service);
+
+        job.refreshTrending();
+        doThrow(new RuntimeException("boom")).when(service).refresh();
+        job.refreshTrending();
+
+        verify(service, times(2)).refresh();
+    }
+}
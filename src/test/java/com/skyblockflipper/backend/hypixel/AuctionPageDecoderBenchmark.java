@@ -0,0 +1,99 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.hypixel.model.Auction;
+import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming BIN-only decoder against full databind plus filtering on the recorded auctions page
+ * fixture, replicated up to a Hypixel-sized page. Run with {@code scripts/run_jmh.sh AuctionPageDecoderBenchmark}
+ * and add {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuctionPageDecoderBenchmark {
+
+    @Param({"1000"})
+    public int auctionsPerPage;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AuctionPageStreamDecoder decoder = new AuctionPageStreamDecoder(null);
+    private byte[] pageBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonNode fixture;
+        try (InputStream body = AuctionPageDecoderBenchmark.class.getResourceAsStream("/hypixel/auctions_page.json")) {
+            fixture = objectMapper.readTree(body);
+        }
+        ArrayNode recorded = (ArrayNode) fixture.get("auctions");
+        ObjectNode page = ((ObjectNode) fixture).deepCopy();
+        ArrayNode auctions = page.putArray("auctions");
+        for (int i = 0; i < auctionsPerPage; i++) {
+            ObjectNode auction = ((ObjectNode) recorded.get(i % recorded.size())).deepCopy();
+            auction.put("uuid", auction.get("uuid").asString() + i);
+            auctions.add(auction);
+        }
+        pageBytes = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<Auction> streamingDecode() {
+        return decoder.decode(new ByteArrayInputStream(pageBytes)).getAuctions();
+    }
+
+    @Benchmark
+    public List<Auction> databindThenFilter() {
+        AuctionResponse page = objectMapper.readValue(pageBytes, AuctionResponse.class);
+        List<Auction> kept = new ArrayList<>();
+        for (Auction auction : page.getAuctions()) {
+            if (!auction.isBin() || auction.isClaimed()) {
+                continue;
+            }
+            kept.add(new Auction(
+                    auction.getUuid(),
+                    null,
+                    null,
+                    List.of(),
+                    auction.getStart(),
+                    auction.getEnd(),
+                    auction.getItemName(),
+                    null,
+                    null,
+                    auction.getCategory(),
+                    auction.getTier(),
+                    auction.getStartingBid(),
+                    auction.isClaimed(),
+                    auction.isBin(),
+                    List.of(),
+                    auction.getHighestBidAmount(),
+                    List.of()
+            ));
+        }
+        return kept;
+    }
+}
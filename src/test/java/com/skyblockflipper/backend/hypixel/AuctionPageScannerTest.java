@@ -0,0 +1,201 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.hypixel.model.Auction;
+import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
+import com.skyblockflipper.backend.service.market.polling.GlobalRequestLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuctionPageScannerTest {
+
+    @Test
+    void parallelScanStreamsEveryPageAndRecordsLatencies() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AtomicInteger pacingCalls = new AtomicInteger();
+        AuctionPageScanner scanner = new AuctionPageScanner(3, () -> {
+            pacingCalls.incrementAndGet();
+            return 0L;
+        }, meterRegistry);
+        Set<Integer> requestedPages = ConcurrentHashMap.newKeySet();
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result = scanner.scan(
+                page(0, 6, 100L),
+                page -> {
+                    requestedPages.add(page);
+                    return HypixelHttpResult.success(200, HttpHeaders.EMPTY, page(page, 6, 100L));
+                },
+                auction -> seen.add(auction.getUuid())
+        );
+
+        assertTrue(result.isSuccessful());
+        assertEquals(6, result.body().pagesFetched());
+        assertEquals(6L, result.body().auctionsSeen());
+        assertEquals(100L, result.body().lastUpdated());
+        assertEquals(Set.of(1, 2, 3, 4, 5), requestedPages);
+        assertEquals(Set.of("a0", "a1", "a2", "a3", "a4", "a5"), seen);
+        assertEquals(5, pacingCalls.get());
+        assertEquals(5L, meterRegistry.get(AuctionPageScanner.PAGE_LATENCY_METRIC).tag("mode", "parallel").timer().count());
+        assertEquals(1L, meterRegistry.get(AuctionPageScanner.COMMIT_DURATION_METRIC)
+                .tag("mode", "parallel").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void parallelScanAbortsWhenLastUpdatedChangesMidScan() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuctionPageScanner scanner = new AuctionPageScanner(2, null, meterRegistry);
+
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result = scanner.scan(
+                page(0, 4, 100L),
+                page -> HypixelHttpResult.success(200, HttpHeaders.EMPTY, page(page, 4, page == 2 ? 200L : 100L)),
+                auction -> {
+                }
+        );
+
+        assertFalse(result.isSuccessful());
+        assertEquals(AuctionPageScanner.LAST_UPDATED_CHANGED_STATUS, result.statusCode());
+        assertEquals("Auctions lastUpdated changed during scan at page 2", result.errorMessage());
+        assertEquals(1L, meterRegistry.get(AuctionPageScanner.COMMIT_DURATION_METRIC)
+                .tag("mode", "parallel").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void parallelScanReturnsPageFailureAndMapsExceptionsToTransportErrors() {
+        AuctionPageScanner scanner = new AuctionPageScanner(4, null, null);
+
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result = scanner.scan(
+                page(0, 3, 100L),
+                page -> {
+                    throw new IllegalStateException("boom");
+                },
+                auction -> {
+                }
+        );
+
+        assertFalse(result.isSuccessful());
+        assertEquals(500, result.statusCode());
+        assertTrue(result.errorMessage().startsWith("Failed to fetch auctions page "));
+    }
+
+    @Test
+    void sequentialScanWaitsForRequestBudgetAndAbortsOnChangedLastUpdated() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AtomicInteger pacingCalls = new AtomicInteger();
+        AuctionPageScanner scanner = new AuctionPageScanner(1, () -> pacingCalls.getAndIncrement() == 0 ? 1L : 0L, meterRegistry);
+        AtomicInteger streamed = new AtomicInteger();
+
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result = scanner.scan(
+                page(0, 3, 100L),
+                page -> page == 1
+                        ? HypixelHttpResult.success(200, HttpHeaders.EMPTY, page(1, 3, 100L))
+                        : HypixelHttpResult.success(200, HttpHeaders.EMPTY, page(2, 3, 101L)),
+                auction -> streamed.incrementAndGet()
+        );
+
+        assertFalse(result.isSuccessful());
+        assertEquals(AuctionPageScanner.LAST_UPDATED_CHANGED_STATUS, result.statusCode());
+        assertEquals(2, streamed.get());
+        assertEquals(3, pacingCalls.get());
+        assertEquals(2L, meterRegistry.get(AuctionPageScanner.PAGE_LATENCY_METRIC).tag("mode", "sequential").timer().count());
+    }
+
+    @Test
+    void scanRejectsMissingFirstPageAndClampsConcurrency() {
+        AuctionPageScanner scanner = new AuctionPageScanner(0, null, null);
+
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result = scanner.scan(null, page -> null, auction -> {
+        });
+
+        assertEquals(1, scanner.maxConcurrency());
+        assertEquals(500, result.statusCode());
+        assertEquals("Invalid first auctions page", result.errorMessage());
+    }
+
+    @Test
+    void parallelScanStaysWithinTheCommitRequestBudget() {
+        GlobalRequestLimiter commitLimiter = new GlobalRequestLimiter(20.0d);
+        AuctionPageScanner scanner = new AuctionPageScanner(4, commitLimiter::reserveDelayMillis, null);
+        List<Long> requestedAtNanos = Collections.synchronizedList(new ArrayList<>());
+
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result = scanner.scan(
+                page(0, 7, 100L),
+                page -> {
+                    requestedAtNanos.add(System.nanoTime());
+                    return HypixelHttpResult.success(200, HttpHeaders.EMPTY, page(page, 7, 100L));
+                },
+                auction -> {
+                }
+        );
+
+        assertTrue(result.isSuccessful());
+        List<Long> ordered = new ArrayList<>(requestedAtNanos);
+        Collections.sort(ordered);
+        assertEquals(6, ordered.size());
+        for (int i = 1; i < ordered.size(); i++) {
+            long gapMillis = (ordered.get(i) - ordered.get(i - 1)) / 1_000_000L;
+            assertTrue(gapMillis >= 45L, "page requests " + gapMillis + "ms apart exceed the 20 rps budget");
+        }
+        assertTrue(commitLimiter.reserveDelayMillis() > 0L);
+    }
+
+    @Test
+    void interruptedWhileWaitingForTheBudgetAbortsWithoutFetching() {
+        AuctionPageScanner scanner = new AuctionPageScanner(1, () -> 60_000L, null);
+        AtomicInteger fetched = new AtomicInteger();
+
+        Thread.currentThread().interrupt();
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result;
+        try {
+            result = scanner.scan(
+                    page(0, 3, 100L),
+                    page -> {
+                        fetched.incrementAndGet();
+                        return HypixelHttpResult.success(200, HttpHeaders.EMPTY, page(page, 3, 100L));
+                    },
+                    auction -> {
+                    }
+            );
+        } finally {
+            assertTrue(Thread.interrupted(), "The interrupt flag should be restored");
+        }
+
+        assertFalse(result.isSuccessful());
+        assertEquals(0, fetched.get());
+    }
+
+    @Test
+    void scanCountsAuctionsDroppedWhileDecodingAsSeenButNotKept() {
+        AuctionPageScanner scanner = new AuctionPageScanner(2, null, null);
+        AtomicInteger streamed = new AtomicInteger();
+
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result = scanner.scan(
+                page(0, 3, 100L),
+                page -> HypixelHttpResult.success(200, HttpHeaders.EMPTY, new DecodedAuctionPage(
+                        true, page, 3, 9, 100L, page(page, 3, 100L).getAuctions(), 4)),
+                auction -> streamed.incrementAndGet()
+        );
+
+        assertTrue(result.isSuccessful());
+        assertEquals(3, streamed.get());
+        assertEquals(9L, result.body().auctionsSeen());
+        assertEquals(3L, result.body().auctionsKept());
+    }
+
+    private AuctionResponse page(int page, int totalPages, long lastUpdated) {
+        Auction auction = new Auction();
+        auction.setUuid("a" + page);
+        return new AuctionResponse(true, page, totalPages, totalPages, lastUpdated, List.of(auction));
+    }
+}
@@ -0,0 +1,79 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.hypixel.model.Auction;
+import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuctionPageStreamDecoderTest {
+
+    @Test
+    void decodeKeepsOnlyUnclaimedBinAuctionsWithMinimalFields() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuctionPageStreamDecoder decoder = new AuctionPageStreamDecoder(meterRegistry);
+
+        AuctionResponse page;
+        try (InputStream body = getClass().getResourceAsStream("/hypixel/auctions_page.json")) {
+            page = decoder.decode(body);
+        }
+
+        assertTrue(page.isSuccess());
+        assertEquals(1, page.getPage());
+        assertEquals(48, page.getTotalPages());
+        assertEquals(47212, page.getTotalAuctions());
+        assertEquals(1760781600000L, page.getLastUpdated());
+        assertEquals(2, page.getAuctions().size());
+        assertEquals(4, ((DecodedAuctionPage) page).decodedAuctions());
+
+        Auction hyperion = page.getAuctions().getFirst();
+        assertEquals("3f1c9e0a7d2b4c6e8a1f0b2d4c6e8a10", hyperion.getUuid());
+        assertEquals("Hyperion", hyperion.getItemName());
+        assertEquals("weapon", hyperion.getCategory());
+        assertEquals("MYTHIC", hyperion.getTier());
+        assertEquals(1760780000000L, hyperion.getStart());
+        assertEquals(1760823200000L, hyperion.getEnd());
+        assertEquals(825000000L, hyperion.getStartingBid());
+        assertTrue(hyperion.isBin());
+        assertFalse(hyperion.isClaimed());
+        assertNull(hyperion.getAuctioneer());
+        assertNull(hyperion.getItemLore());
+        assertNull(hyperion.getExtra());
+        assertTrue(hyperion.getBids().isEmpty());
+        assertEquals("[Lvl 100] Ender Dragon", page.getAuctions().get(1).getItemName());
+
+        assertEquals(2.0d, meterRegistry.get(AuctionPageStreamDecoder.DECODED_METRIC).tag("outcome", "kept").counter().count());
+        assertEquals(2.0d, meterRegistry.get(AuctionPageStreamDecoder.DECODED_METRIC).tag("outcome", "skipped").counter().count());
+    }
+
+    @Test
+    void decodeToleratesMissingOrNonArrayAuctions() {
+        AuctionPageStreamDecoder decoder = new AuctionPageStreamDecoder(null);
+
+        AuctionResponse page = decoder.decode(stream("{\"success\":true,\"page\":3,\"auctions\":null,\"extra\":{\"a\":[1,2]}}"));
+
+        assertTrue(page.isSuccess());
+        assertEquals(3, page.getPage());
+        assertTrue(page.getAuctions().isEmpty());
+    }
+
+    @Test
+    void decodeRejectsNonObjectRoot() {
+        AuctionPageStreamDecoder decoder = new AuctionPageStreamDecoder(null);
+
+        assertThrows(IllegalStateException.class, () -> decoder.decode(stream("[1,2,3]")));
+    }
+
+    private InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -88,7 +88,7 @@ class HypixelClientTest {
         Auction auction1 = new Auction("uuid1", "a1", "p1", List.of(), 1L, 2L, "item1", "lore1", "e1", "c1", "COMMON", 100L, true, List.of(), 100L, List.of());
         Auction auction2 = new Auction("uuid2", "a2", "p2", List.of(), 1L, 2L, "item2", "lore2", "e2", "c2", "RARE", 200L, true, List.of(), 200L, List.of());
         AuctionResponse page0 = new AuctionResponse(true, 0, 2, 2, 3L, List.of(auction1));
-        AuctionResponse page1 = new AuctionResponse(true, 1, 2, 2, 4L, List.of(auction2));
+        AuctionResponse page1 = new AuctionResponse(true, 1, 2, 2, 3L, List.of(auction2));
 
         when(restClient.get().uri(anyString()).retrieve().body(any(ParameterizedTypeReference.class)))
                 .thenReturn(page0, page1);
@@ -161,7 +161,7 @@ class HypixelClientTest {
         Auction auction1 = new Auction("uuid1", "a1", "p1", List.of(), 1L, 2L, "item1", "lore1", "e1", "c1", "COMMON", 100L, true, List.of(), 100L, List.of());
         Auction auction2 = new Auction("uuid2", "a2", "p2", List.of(), 1L, 2L, "item2", "lore2", "e2", "c2", "RARE", 200L, true, List.of(), 200L, List.of());
         AuctionResponse page0 = new AuctionResponse(true, 0, 2, 2, 3L, List.of(auction1));
-        AuctionResponse page1 = new AuctionResponse(true, 1, 2, 2, 4L, List.of(auction2));
+        AuctionResponse page1 = new AuctionResponse(true, 1, 2, 2, 3L, List.of(auction2));
 
         when(restClient.get().uri(anyString()).retrieve().body(any(ParameterizedTypeReference.class)))
                 .thenReturn(page0, page1);
@@ -6,13 +6,16 @@ import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
+import java.io.ByteArrayInputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -22,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -270,6 +274,93 @@ class HypixelConditionalClientTest {
         assertEquals(2L, result.body().auctionsSeen());
     }
 
+    @Test
+    void fetchBinAuctionPageDecodesStreamedBody() throws Exception {
+        HypixelConditionalClient client = new HypixelConditionalClient(
+                "https://api.hypixel.net/v2",
+                "secret",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1)
+        );
+        RestClient.RequestHeadersSpec<?> headersSpec = mockExchange(client, HttpStatus.OK,
+                "{\"success\":true,\"page\":1,\"totalPages\":2,\"lastUpdated\":9,\"auctions\":["
+                        + "{\"uuid\":\"a\",\"bin\":true,\"claimed\":false,\"bids\":[{\"amount\":1}]},"
+                        + "{\"uuid\":\"b\",\"bin\":false}]}");
+
+        HypixelHttpResult<AuctionResponse> result = client.fetchBinAuctionPage("/skyblock/auctions", 1);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(200, result.statusCode());
+        assertEquals(9L, result.body().getLastUpdated());
+        assertEquals(1, result.body().getAuctions().size());
+        assertEquals("a", result.body().getAuctions().getFirst().getUuid());
+        verify(headersSpec).header("API-Key", "secret");
+    }
+
+    @Test
+    void fetchBinAuctionPageMapsHttpAndDecodeErrors() throws Exception {
+        HypixelConditionalClient client = new HypixelConditionalClient(
+                "https://api.hypixel.net/v2",
+                "",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1)
+        );
+        mockExchange(client, HttpStatus.SERVICE_UNAVAILABLE, "{}");
+        HypixelHttpResult<AuctionResponse> unavailable = client.fetchBinAuctionPage("/skyblock/auctions", 1);
+        assertFalse(unavailable.isSuccessful());
+        assertEquals(503, unavailable.statusCode());
+
+        mockExchange(client, HttpStatus.OK, "{\"success\":true,\"auctions\":[{\"uuid\":");
+        HypixelHttpResult<AuctionResponse> malformed = client.fetchBinAuctionPage("/skyblock/auctions", 2);
+        assertFalse(malformed.isSuccessful());
+        assertEquals(502, malformed.statusCode());
+        assertEquals("Malformed auctions page 2", malformed.errorMessage());
+    }
+
+    @Test
+    void fetchBinAuctionPageMapsTransportError() throws Exception {
+        HypixelConditionalClient client = new HypixelConditionalClient(
+                "https://api.hypixel.net/v2",
+                "",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1)
+        );
+        RestClient.RequestHeadersSpec<?> headersSpec = mockExchange(client, HttpStatus.OK, "{}");
+        doThrow(new RestClientException("socket closed")).when(headersSpec).exchange(any());
+
+        HypixelHttpResult<AuctionResponse> result = client.fetchBinAuctionPage("/skyblock/auctions", 1);
+
+        assertTrue(result.transportError());
+        assertEquals("socket closed", result.errorMessage());
+    }
+
+    @Test
+    void fetchAllBinAuctionPagesUsesStreamingFollowupPages() {
+        HypixelConditionalClient client = spy(new HypixelConditionalClient(
+                "https://api.hypixel.net/v2",
+                "",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1)
+        ));
+        AuctionResponse firstPage = new AuctionResponse(true, 0, 2, 2, 123L, List.of(auction("a0")));
+        doReturn(HypixelHttpResult.success(
+                200,
+                HttpHeaders.EMPTY,
+                new AuctionResponse(true, 1, 2, 2, 123L, List.of(auction("a1")))
+        )).when(client).fetchBinAuctionPage("/skyblock/auctions", 1);
+
+        AtomicInteger streamed = new AtomicInteger();
+        HypixelHttpResult<HypixelConditionalClient.AuctionScanSummary> result = client.fetchAllBinAuctionPages(
+                "/skyblock/auctions",
+                firstPage,
+                auction -> streamed.incrementAndGet()
+        );
+
+        assertTrue(result.isSuccessful());
+        assertEquals(2, streamed.get());
+        verify(client, never()).fetchAuctionPage(anyString(), anyInt(), any(), any());
+    }
+
     @Test
     void sanitizeUsesFallbackForNullZeroAndNegativeDurations() throws Exception {
         HypixelConditionalClient client = new HypixelConditionalClient(
@@ -299,6 +390,31 @@ class HypixelConditionalClientTest {
         return auction;
     }
 
+    @SuppressWarnings("unchecked")
+    private RestClient.RequestHeadersSpec<?> mockExchange(HypixelConditionalClient client,
+                                                          HttpStatus status,
+                                                          String body) throws Exception {
+        RestClient restClient = mock(RestClient.class);
+        RestClient.RequestHeadersUriSpec<?> uriSpec =
+                (RestClient.RequestHeadersUriSpec<?>) mock(RestClient.RequestHeadersUriSpec.class);
+        RestClient.RequestHeadersSpec<?> headersSpec =
+                (RestClient.RequestHeadersSpec<?>) mock(RestClient.RequestHeadersSpec.class);
+        RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse response =
+                mock(RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse.class);
+
+        doReturn(uriSpec).when(restClient).get();
+        doReturn(headersSpec).when(uriSpec).uri(anyString());
+        doReturn(headersSpec).when(headersSpec).header(anyString(), any(String[].class));
+        when(response.getStatusCode()).thenReturn(HttpStatusCode.valueOf(status.value()));
+        when(response.getHeaders()).thenReturn(HttpHeaders.EMPTY);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        doAnswer(invocation -> ((RestClient.RequestHeadersSpec.ExchangeFunction<Object>) invocation.getArgument(0))
+                .exchange(null, response))
+                .when(headersSpec).exchange(any());
+        setField(client, "restClient", restClient);
+        return headersSpec;
+    }
+
     private void setField(HypixelConditionalClient client, String fieldName, Object value) throws Exception {
         Field field = HypixelConditionalClient.class.getDeclaredField(fieldName);
         field.setAccessible(true);
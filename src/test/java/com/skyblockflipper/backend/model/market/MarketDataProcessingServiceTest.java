@@ -12,10 +12,12 @@ import com.skyblockflipper.backend.repository.AhItemSnapshotRepository;
 import com.skyblockflipper.backend.repository.BzItemSnapshotRepository;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import com.skyblockflipper.backend.service.market.AhSnapshotAggregator;
+import com.skyblockflipper.backend.service.market.BazaarOrderBookStore;
 import com.skyblockflipper.backend.service.market.BzSnapshotAggregator;
 import com.skyblockflipper.backend.service.market.MarketDataProcessingService;
 import com.skyblockflipper.backend.service.market.MarketSnapshotStorageProperties;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService;
 import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
 import com.skyblockflipper.backend.instrumentation.CycleInstrumentationService;
 import com.skyblockflipper.backend.instrumentation.InstrumentationProperties;
@@ -38,6 +40,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -374,6 +377,67 @@ class MarketDataProcessingServiceTest {
         verifyNoInteractions(inputMapper);
     }
 
+    @Test
+    void acceptedBazaarPayloadsArePublishedToOrderBookStore() {
+        HypixelClient client = mock(HypixelClient.class);
+        MarketSnapshotPersistenceService persistenceService = mock(MarketSnapshotPersistenceService.class);
+        MarketDataProcessingService service = new MarketDataProcessingService(
+                client, new HypixelMarketSnapshotMapper(), persistenceService, new UnifiedFlipInputMapper());
+        BazaarOrderBookStore orderBookStore = new BazaarOrderBookStore();
+        service.setBazaarOrderBookStore(orderBookStore);
+        when(persistenceService.save(any(MarketSnapshot.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.ingestBazaarPayloadAndPersist(bazaarResponse(11_000L), "adaptive-bazaar");
+        assertEquals(11_000L, orderBookStore.version());
+
+        mockAuctionStreaming(client, auctionResponse(12_000L));
+        when(client.fetchBazaar()).thenReturn(bazaarResponse(13_000L));
+        service.captureCurrentSnapshotAndPrepareInput();
+
+        assertEquals(13_000L, orderBookStore.version());
+        assertTrue(orderBookStore.orderBook("ENCHANTED_DIAMOND").isPresent());
+    }
+
+    @Test
+    void persistedBazaarAggregatesFeedTimescaleFeatures() {
+        HypixelClient client = mock(HypixelClient.class);
+        MarketSnapshotPersistenceService persistenceService = mock(MarketSnapshotPersistenceService.class);
+        BzItemSnapshotRepository bzRepo = mock(BzItemSnapshotRepository.class);
+        BzSnapshotAggregator bzAggregator = mock(BzSnapshotAggregator.class);
+        MarketTimescaleFeatureService timescaleFeatureService = mock(MarketTimescaleFeatureService.class);
+        MarketSnapshotStorageProperties storageProperties = new MarketSnapshotStorageProperties();
+        storageProperties.setPersistRawMarketSnapshot(false);
+        storageProperties.setPersistAhAggregates(false);
+        storageProperties.setPersistBzAggregates(true);
+        MarketDataProcessingService service = createService(
+                client,
+                new HypixelMarketSnapshotMapper(),
+                persistenceService,
+                new UnifiedFlipInputMapper(),
+                mock(AhItemSnapshotRepository.class),
+                bzRepo,
+                mock(AhSnapshotAggregator.class),
+                bzAggregator,
+                storageProperties,
+                Duration.ofSeconds(60),
+                Duration.ofSeconds(20),
+                2L,
+                Duration.ofSeconds(10),
+                System::currentTimeMillis
+        );
+        service.setMarketTimescaleFeatureService(timescaleFeatureService);
+        List<BzItemSnapshotEntity> aggregates = List.of(new BzItemSnapshotEntity(11_000L, "ENCHANTED_DIAMOND", 10.0, 9.0, 100L, 90L));
+        when(bzAggregator.aggregate(any(Instant.class), anyMap())).thenReturn(aggregates);
+        when(timescaleFeatureService.ingest(any(MarketSnapshot.class), anyList())).thenThrow(new RuntimeException("feature failure"));
+
+        service.ingestAuctionPayloadAndPersist(auctionResponse(10_000L), "adaptive-auctions");
+        Instant snapshotTimestamp = service.ingestBazaarPayloadAndPersist(bazaarResponse(11_000L), "adaptive-bazaar").orElseThrow();
+
+        assertEquals(Instant.ofEpochMilli(11_000L), snapshotTimestamp);
+        verify(bzAggregator, times(1)).aggregate(any(Instant.class), anyMap());
+        verify(timescaleFeatureService, times(1)).ingest(any(MarketSnapshot.class), same(aggregates));
+    }
+
     private AuctionResponse auctionResponse(long updatedAt) {
         Auction auction = new Auction(
                 "a-1", "auctioneer", "profile", List.of(), 1L, 2L,
@@ -0,0 +1,118 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.AhItemAnomalySegmentEntity;
+import com.skyblockflipper.backend.model.market.AhItemBucketRollupEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class AhItemBucketRollupBatchRepositoryImplTest {
+
+    @Autowired
+    private AhItemBucketRollupRepository ahItemBucketRollupRepository;
+
+    @Autowired
+    private AhItemAnomalySegmentRepository ahItemAnomalySegmentRepository;
+
+    @AfterEach
+    void clean() {
+        ahItemBucketRollupRepository.deleteAll();
+        ahItemAnomalySegmentRepository.deleteAll();
+    }
+
+    @Test
+    void scanBucketRollupsStreamsGranularityWindowOrderedByItemAndBucket() {
+        ahItemBucketRollupRepository.saveAll(List.of(
+                rollup("TERMINATOR", "1m", 60_000L, new byte[]{1, 2, 3}),
+                rollup("HYPERION", "1m", 120_000L, null),
+                rollup("HYPERION", "1m", 0L, new byte[]{4}),
+                rollup("HYPERION", "2h", 0L, new byte[]{5}),
+                rollup("HYPERION", "1m", 7_200_000L, new byte[]{6})
+        ));
+
+        List<AhItemBucketRollupEntity> scanned = new ArrayList<>();
+        ahItemBucketRollupRepository.scanBucketRollups("1m", 0L, 7_200_000L, 2, scanned::add);
+
+        assertEquals(3, scanned.size());
+        assertEquals("HYPERION", scanned.get(0).getItemKey());
+        assertEquals(0L, scanned.get(0).getBucketStartEpochMillis());
+        assertArrayEquals(new byte[]{4}, scanned.get(0).getSketch());
+        assertNull(scanned.get(1).getSketch());
+        assertEquals("TERMINATOR", scanned.get(2).getItemKey());
+        assertEquals(12, scanned.get(2).getValidSampleCount());
+        assertEquals(100.5D, scanned.get(2).getMedianBinP50());
+        assertEquals(60_000L, scanned.get(2).getFirstSnapshotTs());
+    }
+
+    @Test
+    void insertBatchWritesRowsThatDeleteBucketRemovesAgain() {
+        ahItemBucketRollupRepository.insertBatch(List.of(
+                rollup("ENCHANTED_DIAMOND", "1m", 0L, new byte[]{1, 2}),
+                rollup("ENCHANTED_GOLD", "1m", 0L, null),
+                rollup("ENCHANTED_DIAMOND", "1m", 60_000L, null)
+        ));
+        ahItemAnomalySegmentRepository.insertBatch(List.of(anomaly("ENCHANTED_DIAMOND", 0L), anomaly("ENCHANTED_DIAMOND", 60_000L)));
+
+        assertEquals(3L, ahItemBucketRollupRepository.count());
+        assertEquals(2L, ahItemBucketRollupRepository.countBucketRollupsWithoutSketch("1m", 0L, 120_000L));
+        assertEquals(1L, ahItemBucketRollupRepository.countBucketRollupsWithoutSketch("1m", 0L, 60_000L));
+        List<AhItemBucketRollupEntity> scanned = new ArrayList<>();
+        ahItemBucketRollupRepository.scanBucketRollups("1m", 0L, 60_000L, 10, scanned::add);
+        assertArrayEquals(new byte[]{1, 2}, scanned.getFirst().getSketch());
+        assertEquals(2, scanned.size());
+        assertEquals(55_000L, scanned.getFirst().getLastSnapshotTs());
+        AhItemAnomalySegmentEntity anomaly = ahItemAnomalySegmentRepository.findAll().getFirst();
+        assertEquals("ENCHANTED_DIAMOND", anomaly.getItemKey());
+        assertEquals(101.0D, anomaly.getMedianBinP50());
+        assertNull(anomaly.getPeakSnapshotTs());
+        assertEquals(1, ahItemBucketRollupRepository.clearSketches("1m", 0L, 120_000L));
+        assertEquals(3L, ahItemBucketRollupRepository.countBucketRollupsWithoutSketch("1m", 0L, 120_000L));
+
+        assertEquals(2, ahItemBucketRollupRepository.deleteBucket("1m", 0L));
+        assertEquals(1, ahItemAnomalySegmentRepository.deleteBucket("1m", 0L));
+        assertEquals(0, ahItemBucketRollupRepository.deleteBucket("2h", 60_000L));
+        assertEquals(1L, ahItemBucketRollupRepository.count());
+        assertEquals(1L, ahItemAnomalySegmentRepository.count());
+    }
+
+    private AhItemAnomalySegmentEntity anomaly(String itemKey, long bucketStart) {
+        AhItemAnomalySegmentEntity anomaly = new AhItemAnomalySegmentEntity();
+        anomaly.setItemKey(itemKey);
+        anomaly.setBucketGranularity("1m");
+        anomaly.setBucketStartEpochMillis(bucketStart);
+        anomaly.setBucketEndEpochMillis(bucketStart + 60_000L);
+        anomaly.setSegmentStartEpochMillis(bucketStart + 10_000L);
+        anomaly.setSegmentEndEpochMillis(bucketStart + 20_000L);
+        anomaly.setRepresentativeSnapshotTs(bucketStart + 15_000L);
+        anomaly.setSampleCount(3);
+        anomaly.setAnomalyScore(7.5D);
+        anomaly.setReasonCode("PRICE_SPIKE");
+        anomaly.setMedianBinP50(101.0D);
+        return anomaly;
+    }
+
+    private AhItemBucketRollupEntity rollup(String itemKey, String granularity, long bucketStart, byte[] sketch) {
+        AhItemBucketRollupEntity rollup = new AhItemBucketRollupEntity();
+        rollup.setItemKey(itemKey);
+        rollup.setBucketGranularity(granularity);
+        rollup.setBucketStartEpochMillis(bucketStart);
+        rollup.setBucketEndEpochMillis(bucketStart + 60_000L);
+        rollup.setSampleCount(12);
+        rollup.setValidSampleCount(12);
+        rollup.setRepresentativeSnapshotTs(bucketStart + 5_000L);
+        rollup.setMedianBinP50(100.5D);
+        rollup.setFirstSnapshotTs(bucketStart);
+        rollup.setLastSnapshotTs(bucketStart + 55_000L);
+        rollup.setSketch(sketch);
+        return rollup;
+    }
+}
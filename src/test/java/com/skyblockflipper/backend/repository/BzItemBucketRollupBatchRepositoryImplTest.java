@@ -0,0 +1,136 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.BzItemAnomalySegmentEntity;
+import com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class BzItemBucketRollupBatchRepositoryImplTest {
+
+    @Autowired
+    private BzItemBucketRollupRepository bzItemBucketRollupRepository;
+
+    @Autowired
+    private BzItemAnomalySegmentRepository bzItemAnomalySegmentRepository;
+
+    @AfterEach
+    void clean() {
+        bzItemBucketRollupRepository.deleteAll();
+        bzItemAnomalySegmentRepository.deleteAll();
+    }
+
+    @Test
+    void scanBucketRollupsStreamsGranularityWindowOrderedByProductAndBucket() {
+        bzItemBucketRollupRepository.saveAll(List.of(
+                rollup("ENCHANTED_GOLD", "1m", 60_000L, new byte[]{1, 2, 3}),
+                rollup("ENCHANTED_DIAMOND", "1m", 120_000L, null),
+                rollup("ENCHANTED_DIAMOND", "1m", 0L, new byte[]{4}),
+                rollup("ENCHANTED_DIAMOND", "2h", 0L, new byte[]{5}),
+                rollup("ENCHANTED_DIAMOND", "1m", 7_200_000L, new byte[]{6})
+        ));
+
+        List<BzItemBucketRollupEntity> scanned = new ArrayList<>();
+        bzItemBucketRollupRepository.scanBucketRollups("1m", 0L, 7_200_000L, 2, scanned::add);
+
+        assertEquals(3, scanned.size());
+        assertEquals("ENCHANTED_DIAMOND", scanned.get(0).getProductId());
+        assertEquals(0L, scanned.get(0).getBucketStartEpochMillis());
+        assertArrayEquals(new byte[]{4}, scanned.get(0).getSketch());
+        assertNull(scanned.get(1).getSketch());
+        assertEquals("ENCHANTED_GOLD", scanned.get(2).getProductId());
+        assertEquals(12, scanned.get(2).getValidSampleCount());
+        assertEquals(100.5D, scanned.get(2).getMedianMidPrice());
+        assertEquals(900.0D, scanned.get(2).getMinLiquidity());
+        assertEquals(60_000L, scanned.get(2).getFirstSnapshotTs());
+    }
+
+    @Test
+    void insertBatchWritesRowsThatDeleteBucketRemovesAgain() {
+        bzItemBucketRollupRepository.insertBatch(List.of(
+                rollup("ENCHANTED_DIAMOND", "1m", 0L, new byte[]{1, 2}),
+                rollup("ENCHANTED_GOLD", "1m", 0L, null),
+                rollup("ENCHANTED_DIAMOND", "1m", 60_000L, null)
+        ));
+        bzItemAnomalySegmentRepository.insertBatch(List.of(anomaly("ENCHANTED_DIAMOND", 0L), anomaly("ENCHANTED_DIAMOND", 60_000L)));
+
+        assertEquals(3L, bzItemBucketRollupRepository.count());
+        assertEquals(2L, bzItemBucketRollupRepository.countBucketRollupsWithoutSketch("1m", 0L, 120_000L));
+        assertEquals(1L, bzItemBucketRollupRepository.countBucketRollupsWithoutSketch("1m", 0L, 60_000L));
+        List<BzItemBucketRollupEntity> scanned = new ArrayList<>();
+        bzItemBucketRollupRepository.scanBucketRollups("1m", 0L, 60_000L, 10, scanned::add);
+        assertArrayEquals(new byte[]{1, 2}, scanned.getFirst().getSketch());
+        assertEquals(2, scanned.size());
+        assertEquals(55_000L, scanned.getFirst().getLastSnapshotTs());
+        BzItemAnomalySegmentEntity anomaly = bzItemAnomalySegmentRepository.findAll().getFirst();
+        assertEquals("ENCHANTED_DIAMOND", anomaly.getProductId());
+        assertEquals(101.0D, anomaly.getMedianMidPrice());
+        assertNull(anomaly.getPeakSnapshotTs());
+
+        assertEquals(2, bzItemBucketRollupRepository.deleteBucket("1m", 0L));
+        assertEquals(1, bzItemAnomalySegmentRepository.deleteBucket("1m", 0L));
+        assertEquals(0, bzItemBucketRollupRepository.deleteBucket("2h", 60_000L));
+        assertEquals(1L, bzItemBucketRollupRepository.count());
+        assertEquals(1L, bzItemAnomalySegmentRepository.count());
+    }
+
+    @Test
+    void clearSketchesReleasesOnlyTheGranularityWindow() {
+        bzItemBucketRollupRepository.insertBatch(List.of(
+                rollup("ENCHANTED_DIAMOND", "1m", 0L, new byte[]{1}),
+                rollup("ENCHANTED_GOLD", "1m", 60_000L, new byte[]{2}),
+                rollup("ENCHANTED_DIAMOND", "1m", 7_200_000L, new byte[]{3}),
+                rollup("ENCHANTED_DIAMOND", "2h", 0L, new byte[]{4})
+        ));
+
+        assertEquals(2, bzItemBucketRollupRepository.clearSketches("1m", 0L, 7_200_000L));
+
+        assertEquals(2L, bzItemBucketRollupRepository.countBucketRollupsWithoutSketch("1m", 0L, 7_200_000L));
+        assertEquals(0L, bzItemBucketRollupRepository.countBucketRollupsWithoutSketch("1m", 7_200_000L, 14_400_000L));
+        assertEquals(0L, bzItemBucketRollupRepository.countBucketRollupsWithoutSketch("2h", 0L, 7_200_000L));
+        assertEquals(0, bzItemBucketRollupRepository.clearSketches("1m", 0L, 7_200_000L));
+    }
+
+    private BzItemAnomalySegmentEntity anomaly(String productId, long bucketStart) {
+        BzItemAnomalySegmentEntity anomaly = new BzItemAnomalySegmentEntity();
+        anomaly.setProductId(productId);
+        anomaly.setBucketGranularity("1m");
+        anomaly.setBucketStartEpochMillis(bucketStart);
+        anomaly.setBucketEndEpochMillis(bucketStart + 60_000L);
+        anomaly.setSegmentStartEpochMillis(bucketStart + 10_000L);
+        anomaly.setSegmentEndEpochMillis(bucketStart + 20_000L);
+        anomaly.setRepresentativeSnapshotTs(bucketStart + 15_000L);
+        anomaly.setSampleCount(3);
+        anomaly.setAnomalyScore(7.5D);
+        anomaly.setReasonCode("PRICE_SPIKE");
+        anomaly.setMedianMidPrice(101.0D);
+        return anomaly;
+    }
+
+    private BzItemBucketRollupEntity rollup(String productId, String granularity, long bucketStart, byte[] sketch) {
+        BzItemBucketRollupEntity rollup = new BzItemBucketRollupEntity();
+        rollup.setProductId(productId);
+        rollup.setBucketGranularity(granularity);
+        rollup.setBucketStartEpochMillis(bucketStart);
+        rollup.setBucketEndEpochMillis(bucketStart + 60_000L);
+        rollup.setSampleCount(12);
+        rollup.setValidSampleCount(12);
+        rollup.setRepresentativeSnapshotTs(bucketStart + 5_000L);
+        rollup.setMedianMidPrice(100.5D);
+        rollup.setMinLiquidity(900.0D);
+        rollup.setMaxLiquidity(1_100.0D);
+        rollup.setFirstSnapshotTs(bucketStart);
+        rollup.setLastSnapshotTs(bucketStart + 55_000L);
+        rollup.setSketch(sketch);
+        return rollup;
+    }
+}
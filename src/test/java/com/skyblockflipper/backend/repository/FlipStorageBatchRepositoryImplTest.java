@@ -0,0 +1,149 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.model.flippingstorage.FlipCurrentEntity;
+import com.skyblockflipper.backend.model.flippingstorage.FlipDefinitionEntity;
+import com.skyblockflipper.backend.model.flippingstorage.FlipTrendSegmentEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class FlipStorageBatchRepositoryImplTest {
+
+    @Autowired
+    private FlipStorageBatchRepository flipStorageBatchRepository;
+
+    @Autowired
+    private FlipDefinitionRepository flipDefinitionRepository;
+
+    @Autowired
+    private FlipCurrentRepository flipCurrentRepository;
+
+    @Autowired
+    private FlipTrendSegmentRepository flipTrendSegmentRepository;
+
+    @BeforeEach
+    void clean() {
+        flipTrendSegmentRepository.deleteAll();
+        flipCurrentRepository.deleteAll();
+        flipDefinitionRepository.deleteAll();
+    }
+
+    @AfterEach
+    void cleanAfterEach() {
+        clean();
+    }
+
+    @Test
+    void currentRowsAreInsertedOnceAndOnlyUpdatedByNewerSnapshots() {
+        UUID stableId = UUID.randomUUID();
+        assertArrayEquals(new int[]{1}, flipStorageBatchRepository.insertMissingDefinitions(List.of(definition("k1", stableId))));
+        assertArrayEquals(new int[]{0}, flipStorageBatchRepository.insertMissingDefinitions(List.of(definition("k1", stableId))));
+
+        assertArrayEquals(new int[]{0}, flipStorageBatchRepository.updateCurrentIfOlder(List.of(current("k1", stableId, 2_000L, 100L))));
+        assertArrayEquals(new int[]{1}, flipStorageBatchRepository.insertMissingCurrent(List.of(current("k1", stableId, 2_000L, 100L))));
+        assertArrayEquals(new int[]{0}, flipStorageBatchRepository.insertMissingCurrent(List.of(current("k1", stableId, 3_000L, 300L))));
+
+        assertArrayEquals(new int[]{0}, flipStorageBatchRepository.updateCurrentIfOlder(List.of(current("k1", stableId, 1_000L, 50L))));
+        assertArrayEquals(new int[]{1}, flipStorageBatchRepository.updateCurrentIfOlder(List.of(current("k1", stableId, 3_000L, 300L))));
+
+        FlipCurrentEntity stored = flipCurrentRepository.findById("k1").orElseThrow();
+        assertEquals(3_000L, stored.getSnapshotTimestampEpochMillis());
+        assertEquals(300L, stored.getExpectedProfit());
+        assertEquals(FlipType.FORGE, stored.getFlipType());
+    }
+
+    @Test
+    void definitionUpdateRefreshesExistingRowsAndKeepsCreationTime() {
+        UUID stableId = UUID.randomUUID();
+        flipStorageBatchRepository.insertMissingDefinitions(List.of(definition("k1", stableId)));
+        FlipDefinitionEntity changed = definition("k1", stableId);
+        changed.setKeyVersion(2);
+        changed.setStepsJson("[{\"type\":\"BUY\"}]");
+        changed.setCreatedAtEpochMillis(5_000L);
+        changed.setUpdatedAtEpochMillis(5_000L);
+
+        assertArrayEquals(new int[]{1}, flipStorageBatchRepository.updateDefinitions(List.of(changed)));
+        assertArrayEquals(new int[]{0}, flipStorageBatchRepository.updateDefinitions(List.of(definition("missing", stableId))));
+
+        FlipDefinitionEntity stored = flipDefinitionRepository.findById("k1").orElseThrow();
+        assertEquals(2, stored.getKeyVersion());
+        assertEquals("[{\"type\":\"BUY\"}]", stored.getStepsJson());
+        assertEquals(1L, stored.getCreatedAtEpochMillis());
+        assertEquals(5_000L, stored.getUpdatedAtEpochMillis());
+    }
+
+    @Test
+    void segmentsExtendWhileStableAndStartNewOnlyAfterTheLatestSnapshot() {
+        flipStorageBatchRepository.insertMissingDefinitions(List.of(definition("k1", UUID.randomUUID())));
+
+        assertArrayEquals(new int[]{0}, flipStorageBatchRepository.extendLatestSegments(List.of(segment("k1", 1_000L, 100L, null)), 0.05D, 3.0D));
+        assertArrayEquals(new int[]{1}, flipStorageBatchRepository.insertSegmentsAfterLatest(List.of(segment("k1", 1_000L, 100L, null))));
+        assertArrayEquals(new int[]{0}, flipStorageBatchRepository.insertSegmentsAfterLatest(List.of(segment("k1", 1_000L, 100L, null))));
+
+        assertArrayEquals(new int[]{1}, flipStorageBatchRepository.extendLatestSegments(List.of(segment("k1", 2_000L, 104L, null)), 0.05D, 3.0D));
+        assertArrayEquals(new int[]{0}, flipStorageBatchRepository.extendLatestSegments(List.of(segment("k1", 2_000L, 104L, null)), 0.05D, 3.0D));
+        assertArrayEquals(new int[]{0}, flipStorageBatchRepository.extendLatestSegments(List.of(segment("k1", 3_000L, 150L, null)), 0.05D, 3.0D));
+        assertArrayEquals(new int[]{0}, flipStorageBatchRepository.extendLatestSegments(List.of(segment("k1", 3_000L, 100L, 40.0D)), 0.05D, 3.0D));
+        assertArrayEquals(new int[]{1}, flipStorageBatchRepository.insertSegmentsAfterLatest(List.of(segment("k1", 3_000L, 150L, null))));
+
+        List<FlipTrendSegmentEntity> segments = flipTrendSegmentRepository
+                .findByFlipKeyInOrderByFlipKeyAscValidToSnapshotEpochMillisDesc(List.of("k1"));
+        assertEquals(2, segments.size());
+        assertEquals(3_000L, segments.get(0).getValidFromSnapshotEpochMillis());
+        assertEquals(1_000L, segments.get(1).getValidFromSnapshotEpochMillis());
+        assertEquals(2_000L, segments.get(1).getValidToSnapshotEpochMillis());
+        assertEquals(2, segments.get(1).getSampleCount());
+        assertTrue(flipStorageBatchRepository.insertSegmentsAfterLatest(List.of()).length == 0);
+    }
+
+    private FlipDefinitionEntity definition(String flipKey, UUID stableId) {
+        FlipDefinitionEntity definition = new FlipDefinitionEntity();
+        definition.setFlipKey(flipKey);
+        definition.setStableFlipId(stableId);
+        definition.setFlipType(FlipType.FORGE);
+        definition.setResultItemId("REFINED_DIAMOND");
+        definition.setStepsJson("[]");
+        definition.setConstraintsJson("[]");
+        definition.setKeyVersion(1);
+        definition.setCreatedAtEpochMillis(1L);
+        definition.setUpdatedAtEpochMillis(1L);
+        return definition;
+    }
+
+    private FlipCurrentEntity current(String flipKey, UUID stableId, long snapshot, long expectedProfit) {
+        FlipCurrentEntity current = new FlipCurrentEntity();
+        current.setFlipKey(flipKey);
+        current.setStableFlipId(stableId);
+        current.setFlipType(FlipType.FORGE);
+        current.setSnapshotTimestampEpochMillis(snapshot);
+        current.setExpectedProfit(expectedProfit);
+        current.setRoi(0.1D);
+        current.setPartialReasonsJson("[]");
+        current.setUpdatedAtEpochMillis(snapshot);
+        return current;
+    }
+
+    private FlipTrendSegmentEntity segment(String flipKey, long snapshot, long expectedProfit, Double liquidityScore) {
+        FlipTrendSegmentEntity segment = new FlipTrendSegmentEntity();
+        segment.setFlipKey(flipKey);
+        segment.setValidFromSnapshotEpochMillis(snapshot);
+        segment.setValidToSnapshotEpochMillis(snapshot);
+        segment.setExpectedProfit(expectedProfit);
+        segment.setLiquidityScore(liquidityScore);
+        segment.setSampleCount(1);
+        segment.setCreatedAtEpochMillis(snapshot);
+        segment.setUpdatedAtEpochMillis(snapshot);
+        return segment;
+    }
+}
@@ -0,0 +1,135 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.NEU.model.Item;
+import com.skyblockflipper.backend.model.Flipping.Enums.ConstraintType;
+import com.skyblockflipper.backend.model.Flipping.Enums.StepType;
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.Flipping.Recipe.Recipe;
+import com.skyblockflipper.backend.model.Flipping.Recipe.RecipeIngredient;
+import com.skyblockflipper.backend.model.Flipping.Recipe.RecipeProcessType;
+import com.skyblockflipper.backend.model.Flipping.Recipe.RecipeToFlipMapper;
+import com.skyblockflipper.backend.repository.RecipeRepository;
+import com.skyblockflipper.backend.service.flipping.storage.FlipIdentityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompiledFlipTemplateCacheTest {
+
+    private final FlipIdentityService identityService = new FlipIdentityService(new ObjectMapper());
+
+    @Test
+    void templatesAreCompiledOnceWithPrecomputedIdentities() {
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        when(recipeRepository.findAll(any(Sort.class))).thenReturn(List.of(forgeRecipe()));
+        CompiledFlipTemplateCache cache = new CompiledFlipTemplateCache(recipeRepository, new RecipeToFlipMapper(), identityService);
+
+        CompiledFlipTemplateCache.CompiledTemplates first = cache.templates();
+        CompiledFlipTemplateCache.CompiledTemplates second = cache.templates();
+
+        assertSame(first, second);
+        verify(recipeRepository, times(1)).findAll(any(Sort.class));
+        assertEquals(1, first.templates().size());
+        CompiledFlipTemplateCache.FlipTemplate template = first.templates().getFirst();
+        assertEquals(identityService.derive(template.prototype()), template.identity());
+        assertSame(template.identity(), cache.precomputedIdentity(template.prototype()).orElseThrow());
+        assertTrue(cache.precomputedIdentity(template.newInstance()).isEmpty());
+        assertTrue(cache.precomputedIdentity(null).isEmpty());
+    }
+
+    @Test
+    void invalidateRecompilesWithNextVersion() {
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        RecipeToFlipMapper mapper = mock(RecipeToFlipMapper.class);
+        Recipe recipe = forgeRecipe();
+        when(recipeRepository.findAll(any(Sort.class))).thenReturn(List.of(recipe, recipe));
+        when(mapper.fromRecipe(recipe)).thenReturn(new RecipeToFlipMapper().fromRecipe(recipe), (Flip) null);
+        CompiledFlipTemplateCache cache = new CompiledFlipTemplateCache(recipeRepository, mapper, identityService);
+
+        CompiledFlipTemplateCache.CompiledTemplates before = cache.templates();
+        cache.invalidate();
+        assertTrue(cache.precomputedIdentity(before.templates().getFirst().prototype()).isEmpty());
+        CompiledFlipTemplateCache.CompiledTemplates after = cache.templates();
+
+        assertEquals(1, before.skippedCount());
+        assertEquals(before.version() + 1, after.version());
+        assertNotSame(before, after);
+    }
+
+    @Test
+    void invalidateForChangedItemsRemapsOnlyTheirRecipes() {
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        RecipeToFlipMapper mapper = spy(new RecipeToFlipMapper());
+        Recipe refined = forgeRecipe();
+        Recipe other = new Recipe(
+                "ENCHANTED_GOLD:forge:0",
+                Item.builder().id("ENCHANTED_GOLD").build(),
+                RecipeProcessType.FORGE,
+                60L,
+                List.of(new RecipeIngredient("GOLD_INGOT", 160))
+        );
+        when(recipeRepository.findAll(any(Sort.class))).thenReturn(List.of(other, refined));
+        CompiledFlipTemplateCache cache = new CompiledFlipTemplateCache(recipeRepository, mapper, identityService);
+
+        CompiledFlipTemplateCache.CompiledTemplates before = cache.templates();
+        cache.invalidate(List.of("REFINED_DIAMOND"));
+        CompiledFlipTemplateCache.CompiledTemplates after = cache.templates();
+
+        assertSame(before.templates().get(0), after.templates().get(0));
+        assertNotSame(before.templates().get(1), after.templates().get(1));
+        assertEquals(before.templates().get(1).identity(), after.templates().get(1).identity());
+        verify(mapper, times(1)).fromRecipe(other);
+        verify(mapper, times(2)).fromRecipe(refined);
+        assertSame(after.templates().get(0).identity(),
+                cache.precomputedIdentity(after.templates().get(0).prototype()).orElseThrow());
+
+        cache.invalidate();
+        cache.invalidate(List.of("REFINED_DIAMOND"));
+        cache.templates();
+
+        verify(mapper, times(2)).fromRecipe(other);
+    }
+
+    @Test
+    void newInstanceCopiesStepsWithoutSharingEntities() {
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        when(recipeRepository.findAll(any(Sort.class))).thenReturn(List.of(forgeRecipe()));
+        CompiledFlipTemplateCache cache = new CompiledFlipTemplateCache(recipeRepository, new RecipeToFlipMapper(), identityService);
+        CompiledFlipTemplateCache.FlipTemplate template = cache.templates().templates().getFirst();
+
+        Flip copy = template.newInstance();
+
+        assertNotSame(template.prototype(), copy);
+        assertNull(copy.getId());
+        assertEquals(template.prototype().getSteps().size(), copy.getSteps().size());
+        assertNotSame(template.prototype().getSteps().getFirst(), copy.getSteps().getFirst());
+        assertEquals(StepType.BUY, copy.getSteps().getFirst().getType());
+        assertEquals(template.prototype().getSteps().getFirst().getParamsJson(), copy.getSteps().getFirst().getParamsJson());
+        assertEquals(ConstraintType.RECIPE_UNLOCKED, copy.getConstraints().getFirst().getType());
+        assertEquals(template.identity(), identityService.derive(copy));
+    }
+
+    private Recipe forgeRecipe() {
+        return new Recipe(
+                "REFINED_DIAMOND:forge:0",
+                Item.builder().id("REFINED_DIAMOND").build(),
+                RecipeProcessType.FORGE,
+                28_800L,
+                List.of(new RecipeIngredient("ENCHANTED_DIAMOND_BLOCK", 2))
+        );
+    }
+}
@@ -11,12 +11,14 @@ import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
 import com.skyblockflipper.backend.repository.FlipRepository;
 import com.skyblockflipper.backend.repository.RecipeRepository;
+import com.skyblockflipper.backend.service.flipping.storage.FlipIdentityService;
 import com.skyblockflipper.backend.service.flipping.storage.FlipStorageProperties;
 import com.skyblockflipper.backend.service.flipping.storage.UnifiedFlipStorageService;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.data.domain.Sort;
+import tools.jackson.databind.ObjectMapper;
 
 import java.time.Instant;
 import java.util.List;
@@ -24,12 +26,15 @@ import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -239,4 +244,55 @@ class FlipGenerationServiceTest {
         verify(unifiedFlipStorageService, never()).persistSnapshotFlips(any(), any());
         verify(flipRepository, never()).saveAll(any());
     }
+
+    @Test
+    void regenerateForSnapshotUsesCompiledTemplatesAndCopiesThemForLegacyWrites() {
+        FlipRepository flipRepository = mock(FlipRepository.class);
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        RecipeToFlipMapper recipeMapper = new RecipeToFlipMapper();
+        UnifiedFlipStorageService unifiedFlipStorageService = mock(UnifiedFlipStorageService.class);
+        FlipStorageProperties flipStorageProperties = new FlipStorageProperties();
+        flipStorageProperties.setDualWriteEnabled(true);
+        flipStorageProperties.setLegacyWriteEnabled(true);
+        FlipGenerationService service = new FlipGenerationService(
+                flipRepository,
+                recipeRepository,
+                recipeMapper,
+                null,
+                null,
+                null,
+                unifiedFlipStorageService,
+                flipStorageProperties
+        );
+        CompiledFlipTemplateCache cache = new CompiledFlipTemplateCache(
+                recipeRepository,
+                recipeMapper,
+                new FlipIdentityService(new ObjectMapper())
+        );
+        service.setCompiledFlipTemplateCache(cache);
+        Instant snapshot = Instant.parse("2026-02-20T21:30:00Z");
+        Recipe recipe = new Recipe(
+                "ENCHANTED_HAY_BALE:craft:0",
+                Item.builder().id("ENCHANTED_HAY_BALE").build(),
+                RecipeProcessType.CRAFT,
+                0L,
+                List.of(new RecipeIngredient("HAY_BLOCK", 144))
+        );
+        when(recipeRepository.findAll(any(Sort.class))).thenReturn(List.of(recipe));
+
+        service.regenerateForSnapshot(snapshot);
+        service.regenerateForSnapshot(snapshot.plusSeconds(60));
+
+        Flip prototype = cache.templates().templates().getFirst().prototype();
+        verify(recipeRepository, times(1)).findAll(any(Sort.class));
+        verify(unifiedFlipStorageService).persistSnapshotFlips(List.of(prototype), snapshot);
+        assertNull(prototype.getSnapshotTimestampEpochMillis());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Flip>> legacyCaptor = ArgumentCaptor.forClass(List.class);
+        verify(flipRepository, times(2)).saveAll(legacyCaptor.capture());
+        Flip legacyCopy = legacyCaptor.getAllValues().getFirst().getFirst();
+        assertNotSame(prototype, legacyCopy);
+        assertEquals(snapshot.toEpochMilli(), legacyCopy.getSnapshotTimestampEpochMillis());
+        assertEquals(prototype.getResultItemId(), legacyCopy.getResultItemId());
+    }
 }
@@ -0,0 +1,85 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlipPricingKernelTest {
+
+    @Test
+    void precomputesBazaarAndAuctionColumnsPerInternedItem() {
+        UnifiedFlipInputSnapshot snapshot = new UnifiedFlipInputSnapshot(
+                Instant.parse("2026-02-16T13:00:00Z"),
+                Map.of("BZ", new UnifiedFlipInputSnapshot.BazaarQuote(110D, 90D, 500L, 700L, 0L, 1_680L, 5, 5)),
+                Map.of("AH", new UnifiedFlipInputSnapshot.AuctionQuote(100L, 120L, 150L, 120D, 110D, 0D, 12))
+        );
+        FlipScoreFeatureSet features = new FlipScoreFeatureSet(Map.of(
+                "BZ", new FlipScoreFeatureSet.ItemTimescaleFeatures(null, null, null, null, null, null, true)
+        ));
+
+        FlipPricingKernel kernel = FlipPricingKernel.build(snapshot, features);
+        int bazaar = kernel.indexOf("BZ");
+        int auction = kernel.indexOf("AH");
+
+        assertEquals(2, kernel.size());
+        assertEquals(FlipPricingKernel.MISSING, kernel.indexOf("UNKNOWN"));
+        assertTrue(kernel.hasBazaarBuy(bazaar));
+        assertFalse(kernel.hasAuctionBuy(bazaar));
+        assertEquals(700L, kernel.depth(bazaar, true));
+        assertEquals(500L, kernel.depth(bazaar, false));
+        assertEquals(10D, kernel.turnoverPerHour(bazaar, true), 1e-9);
+        assertEquals(500D / 168D, kernel.turnoverPerHour(bazaar, false), 1e-9);
+        assertEquals(0.2D, kernel.bazaarRelativeSpread(bazaar), 1e-9);
+        assertTrue(kernel.structurallyIlliquid(bazaar));
+
+        assertTrue(kernel.hasAuctionSell(auction));
+        assertFalse(kernel.hasBazaarSell(auction));
+        assertEquals(100D, kernel.auctionBuyPrice(auction), 1e-9);
+        assertEquals(106.7D, kernel.auctionSellPrice(auction), 1e-9);
+        assertEquals(0.2D, kernel.auctionRelativeSpread(auction), 1e-9);
+        assertEquals(1D - Math.exp(-1D), kernel.auctionSampleLiquidity(auction), 1e-9);
+        assertFalse(kernel.structurallyIlliquid(auction));
+    }
+
+    @Test
+    void contextBuildsItsKernelOnce() {
+        UnifiedFlipInputSnapshot snapshot = new UnifiedFlipInputSnapshot(Instant.now(), Map.of(), Map.of());
+        FlipCalculationContext context = FlipCalculationContext.standard(snapshot);
+        FlipCalculationContext sameInputs = FlipCalculationContext.standard(snapshot);
+
+        FlipPricingKernel kernel = context.pricingKernel();
+
+        assertSame(kernel, context.pricingKernel());
+        assertNotSame(kernel, sameInputs.pricingKernel());
+        assertEquals(context, sameInputs);
+        assertEquals(0, kernel.size());
+        assertEquals(0, FlipCalculationContext.standard(null).pricingKernel().size());
+    }
+
+    @Test
+    void conservativeAuctionSellUnitPriceUsesExpectedFallbackOrder() {
+        assertEquals(90D, FlipPricingKernel.conservativeAuctionSellUnitPrice(
+                new UnifiedFlipInputSnapshot.AuctionQuote(80L, 90L, 150L, 120D, 110D, 100D, 10)), 1e-9);
+        assertEquals(100D, FlipPricingKernel.conservativeAuctionSellUnitPrice(
+                new UnifiedFlipInputSnapshot.AuctionQuote(0L, 0L, 150L, 120D, 110D, 100D, 10)), 1e-9);
+        assertEquals(97D, FlipPricingKernel.conservativeAuctionSellUnitPrice(
+                new UnifiedFlipInputSnapshot.AuctionQuote(1L, 120L, 150L, 120D, 100D, 0D, 10)), 1e-9);
+        assertEquals(120D, FlipPricingKernel.conservativeAuctionSellUnitPrice(
+                new UnifiedFlipInputSnapshot.AuctionQuote(1L, 120L, 150L, 0D, 0D, 0D, 10)), 1e-9);
+        assertEquals(97D, FlipPricingKernel.conservativeAuctionSellUnitPrice(
+                new UnifiedFlipInputSnapshot.AuctionQuote(0L, 0L, 150L, 0D, 100D, 0D, 10)), 1e-9);
+        assertEquals(190D, FlipPricingKernel.conservativeAuctionSellUnitPrice(
+                new UnifiedFlipInputSnapshot.AuctionQuote(0L, 0L, 150L, 200D, 0D, 0D, 10)), 1e-9);
+        assertEquals(150D, FlipPricingKernel.conservativeAuctionSellUnitPrice(
+                new UnifiedFlipInputSnapshot.AuctionQuote(0L, 0L, 150L, 0D, 0D, 0D, 10)), 1e-9);
+        assertEquals(0D, FlipPricingKernel.conservativeAuctionSellUnitPrice(null), 1e-9);
+    }
+}
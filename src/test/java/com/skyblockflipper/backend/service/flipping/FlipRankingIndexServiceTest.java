@@ -0,0 +1,182 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.api.dto.UnifiedFlipDto;
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.service.flipping.storage.FlipStorageProperties;
+import com.skyblockflipper.backend.service.flipping.storage.UnifiedFlipCurrentReadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class FlipRankingIndexServiceTest {
+
+    @Test
+    void readersGetThePublishedIndexWhileRebuildsRunInTheBackground() {
+        UnifiedFlipCurrentReadService readService = mock(UnifiedFlipCurrentReadService.class);
+        QueuedExecutor executor = new QueuedExecutor();
+        FlipRankingIndexService service = new FlipRankingIndexService(readService, new FlipStorageProperties(), executor);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service.setMeterRegistry(meterRegistry);
+        when(readService.latestSnapshotEpochMillis()).thenReturn(Optional.of(100L), Optional.of(100L), Optional.of(200L));
+        when(readService.listCurrentScoringDtos(null)).thenReturn(List.of(dto()));
+
+        assertTrue(service.current().isEmpty());
+        assertTrue(service.current().isEmpty());
+        assertEquals(1, executor.pending());
+        verifyNoInteractions(readService);
+
+        executor.runQueued();
+        FlipRankingIndex first = service.current().orElseThrow();
+        assertSame(first, service.current().orElseThrow());
+        assertEquals(0, executor.pending());
+
+        service.markStale();
+        executor.runQueued();
+        assertSame(first, service.current().orElseThrow());
+
+        service.markStale();
+        service.markStale();
+        assertEquals(1, executor.pending());
+        assertSame(first, service.current().orElseThrow());
+        executor.runQueued();
+        FlipRankingIndex second = service.current().orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals(200L, second.snapshotEpochMillis());
+        verify(readService, times(3)).latestSnapshotEpochMillis();
+        verify(readService, times(2)).listCurrentScoringDtos(null);
+        assertEquals(2L, meterRegistry.timer("skyblock.flip.ranking_index.rebuild").count());
+        assertEquals(1D, meterRegistry.get("skyblock.flip.ranking_index.size").gauge().value());
+    }
+
+    @Test
+    void refreshRequestedDuringARebuildQueuesAnotherOneAndFailuresKeepThePreviousIndex() {
+        UnifiedFlipCurrentReadService readService = mock(UnifiedFlipCurrentReadService.class);
+        QueuedExecutor executor = new QueuedExecutor();
+        FlipRankingIndexService service = new FlipRankingIndexService(readService, new FlipStorageProperties(), executor);
+        when(readService.latestSnapshotEpochMillis()).thenReturn(Optional.of(100L), Optional.of(200L));
+        when(readService.listCurrentScoringDtos(null))
+                .thenAnswer(invocation -> {
+                    service.markStale();
+                    return List.of(dto());
+                })
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        service.requestRefresh();
+        executor.runQueued();
+        FlipRankingIndex first = service.current().orElseThrow();
+        assertEquals(1, executor.pending());
+
+        executor.runQueued();
+
+        assertSame(first, service.current().orElseThrow());
+        assertEquals(100L, first.snapshotEpochMillis());
+        verify(readService, times(2)).listCurrentScoringDtos(null);
+        service.shutdown();
+        service.requestRefresh();
+        assertEquals(0, executor.pending());
+    }
+
+    @Test
+    void disabledIndexNeverTouchesStorage() {
+        UnifiedFlipCurrentReadService readService = mock(UnifiedFlipCurrentReadService.class);
+        FlipStorageProperties properties = new FlipStorageProperties();
+        properties.setRankingIndexEnabled(false);
+        FlipRankingIndexService service = new FlipRankingIndexService(readService, properties);
+
+        assertTrue(service.current().isEmpty());
+        verifyNoInteractions(readService);
+    }
+
+    private static final class QueuedExecutor extends AbstractExecutorService {
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+        private boolean shutdown;
+
+        private int pending() {
+            return tasks.size();
+        }
+
+        private void runQueued() {
+            for (int queued = tasks.size(); queued > 0; queued--) {
+                tasks.poll().run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (shutdown) {
+                throw new RejectedExecutionException("shut down");
+            }
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> dropped = List.copyOf(tasks);
+            tasks.clear();
+            return dropped;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+
+    private UnifiedFlipDto dto() {
+        return new UnifiedFlipDto(
+                UUID.fromString("00000000-0000-0000-0000-000000000001"),
+                FlipType.BAZAAR,
+                List.of(),
+                List.of(),
+                100L,
+                10L,
+                0.1D,
+                0.2D,
+                60L,
+                1L,
+                50D,
+                20D,
+                Instant.parse("2026-02-19T20:00:00Z"),
+                false,
+                List.of(),
+                List.of(),
+                List.of()
+        );
+    }
+}
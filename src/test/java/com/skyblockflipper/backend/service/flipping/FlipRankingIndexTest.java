@@ -0,0 +1,117 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.api.dto.FlipSortBy;
+import com.skyblockflipper.backend.api.dto.UnifiedFlipDto;
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FlipRankingIndexTest {
+
+    private static final UUID A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final UUID C = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+    private static final UUID D = UUID.fromString("00000000-0000-0000-0000-00000000000d");
+
+    @Test
+    void permutationsKeepNullsLastAndBreakTiesByIdInBothDirections() {
+        FlipRankingIndex index = FlipRankingIndex.build(1L, Arrays.asList(
+                dto(C, FlipType.BAZAAR, 500L, 40D, false),
+                dto(A, FlipType.FORGE, null, 60D, false),
+                null,
+                dto(D, FlipType.BAZAAR, 500L, null, true),
+                dto(B, FlipType.BAZAAR, 900L, 60D, false)
+        ));
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(B, C, D, A), ids(index.select(null, null, null, FlipSortBy.EXPECTED_PROFIT, Sort.Direction.DESC, 0L, 10)));
+        assertEquals(List.of(C, D, B, A), ids(index.select(null, null, null, FlipSortBy.EXPECTED_PROFIT, Sort.Direction.ASC, 0L, 10)));
+        assertEquals(List.of(A, B, C, D), ids(index.select(null, null, null, FlipSortBy.LIQUIDITY_SCORE, null, 0L, 10)));
+        assertEquals(List.of(C, A, B, D), ids(index.select(null, null, null, FlipSortBy.LIQUIDITY_SCORE, Sort.Direction.ASC, 0L, 10)));
+    }
+
+    @Test
+    void selectAppliesFiltersTypeAndEligibilityBeforePaging() {
+        FlipRankingIndex index = FlipRankingIndex.build(1L, List.of(
+                dto(A, FlipType.BAZAAR, 100L, 80D, false),
+                dto(B, FlipType.BAZAAR, 200L, 20D, false),
+                dto(C, FlipType.BAZAAR, 300L, 90D, true),
+                dto(D, FlipType.FORGE, 400L, 95D, false)
+        ));
+        FlipRankingIndex.Filter minLiquidity = new FlipRankingIndex.Filter(50D, null, null, null, null, null, null);
+
+        FlipRankingIndex.Selection page = index.select(null, minLiquidity, null, FlipSortBy.EXPECTED_PROFIT, Sort.Direction.DESC, 1L, 1);
+        assertEquals(3L, page.total());
+        assertEquals(List.of(C), ids(page));
+
+        FlipRankingIndex.Selection bazaarComplete = index.select(
+                FlipType.BAZAAR,
+                new FlipRankingIndex.Filter(null, null, 150L, null, null, 1_000L, false),
+                null,
+                FlipSortBy.EXPECTED_PROFIT,
+                Sort.Direction.DESC,
+                0L,
+                10
+        );
+        assertEquals(List.of(B), ids(bazaarComplete));
+
+        boolean[] eligible = index.mask(dto -> !D.equals(dto.id()));
+        assertEquals(List.of(C, B, A), ids(index.select(null, null, eligible, FlipSortBy.EXPECTED_PROFIT, Sort.Direction.DESC, 0L, 10)));
+        assertEquals(List.of(D), index.flips(FlipType.FORGE).stream().map(UnifiedFlipDto::id).toList());
+        assertEquals(List.of(), index.flips(FlipType.KATGRADE));
+    }
+
+    @Test
+    void derivedValuesAreComputedOncePerIndex() {
+        FlipRankingIndex index = FlipRankingIndex.build(1L, List.of(dto(A, FlipType.BAZAAR, 1L, 1D, false)));
+        AtomicInteger computations = new AtomicInteger();
+
+        List<UUID> first = index.derive("key", value -> {
+            computations.incrementAndGet();
+            return new ArrayList<>(List.of(A));
+        });
+        List<UUID> second = index.derive("key", value -> {
+            computations.incrementAndGet();
+            return List.of();
+        });
+
+        assertSame(first, second);
+        assertEquals(1, computations.get());
+    }
+
+    private List<UUID> ids(FlipRankingIndex.Selection selection) {
+        return selection.content().stream().map(UnifiedFlipDto::id).toList();
+    }
+
+    private UnifiedFlipDto dto(UUID id, FlipType flipType, Long expectedProfit, Double liquidityScore, boolean partial) {
+        return new UnifiedFlipDto(
+                id,
+                flipType,
+                List.of(),
+                List.of(),
+                500L,
+                expectedProfit,
+                0.5D,
+                1.5D,
+                60L,
+                10L,
+                liquidityScore,
+                10D,
+                Instant.parse("2026-02-19T20:00:00Z"),
+                partial,
+                List.of(),
+                List.of(),
+                List.of()
+        );
+    }
+}
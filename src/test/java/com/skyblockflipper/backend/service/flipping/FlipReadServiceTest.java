@@ -1802,6 +1802,184 @@ class FlipReadServiceTest {
         verifyNoInteractions(flipRepository);
     }
 
+    @Test
+    void filterFlipsCurrentStorageServesPagesFromRankingIndex() {
+        FlipRepository flipRepository = mock(FlipRepository.class);
+        UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        UnifiedFlipCurrentReadService unifiedFlipCurrentReadService = mock(UnifiedFlipCurrentReadService.class);
+        FlipRankingIndexService rankingIndexService = mock(FlipRankingIndexService.class);
+        FlipStorageProperties flipStorageProperties = new FlipStorageProperties();
+        flipStorageProperties.setReadFromNew(true);
+        FlipReadService service = new FlipReadService(
+                flipRepository,
+                mapper,
+                contextService,
+                unifiedFlipCurrentReadService,
+                null,
+                flipStorageProperties
+        );
+        service.setFlipRankingIndexService(rankingIndexService);
+
+        UUID highId = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID lowId = UUID.fromString("22222222-2222-2222-2222-222222222222");
+        UUID blockedId = UUID.fromString("33333333-3333-3333-3333-333333333333");
+        UnifiedFlipDto high = sampleScoredDto(highId, 80D, 10D, 5_000L);
+        UnifiedFlipDto low = sampleScoredDto(lowId, 70D, 10D, 1_000L);
+        UnifiedFlipDto blocked = sampleGoodnessDto(blockedId, 1D, 9_000L, 90D, 10D, true, List.of("MISSING_INPUT_PRICE:SUGAR"));
+        when(rankingIndexService.current()).thenReturn(Optional.of(FlipRankingIndex.build(100L, List.of(low, high, blocked))));
+        stubHydration(unifiedFlipCurrentReadService, List.of(low, high, blocked));
+
+        Page<UnifiedFlipDto> result = service.filterFlips(
+                null,
+                null,
+                50D,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                FlipSortBy.EXPECTED_PROFIT,
+                Sort.Direction.DESC,
+                PageRequest.of(0, 1)
+        );
+        List<UnifiedFlipDto> top = service.topFlips(null, null, null, null, null, null, null, null, null, 5);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(highId), result.getContent().stream().map(UnifiedFlipDto::id).toList());
+        assertEquals(List.of(highId, lowId), top.stream().map(UnifiedFlipDto::id).toList());
+        verify(unifiedFlipCurrentReadService, never()).listCurrentFilteredPage(
+                org.mockito.ArgumentMatchers.any(),
+                org.mockito.ArgumentMatchers.any(),
+                org.mockito.ArgumentMatchers.any(),
+                org.mockito.ArgumentMatchers.any(),
+                org.mockito.ArgumentMatchers.any(),
+                org.mockito.ArgumentMatchers.any(),
+                org.mockito.ArgumentMatchers.any(),
+                org.mockito.ArgumentMatchers.any(),
+                org.mockito.ArgumentMatchers.any()
+        );
+        verify(unifiedFlipCurrentReadService, never()).listCurrentScoringDtos(org.mockito.ArgumentMatchers.any());
+        verifyNoInteractions(flipRepository);
+    }
+
+    @Test
+    void rankingIndexMatchesScoringListFallbackIncludingNonActionableFlips() {
+        assertRankingIndexMatchesScoringListFallback(false);
+        assertRankingIndexMatchesScoringListFallback(true);
+    }
+
+    private void assertRankingIndexMatchesScoringListFallback(boolean recommendationGatesEnabled) {
+        FlippingModelProperties modelProperties = new FlippingModelProperties();
+        modelProperties.setRecommendationGatesEnabled(recommendationGatesEnabled);
+        FlipStorageProperties flipStorageProperties = new FlipStorageProperties();
+        flipStorageProperties.setReadFromNew(true);
+        UnifiedFlipCurrentReadService unifiedFlipCurrentReadService = mock(UnifiedFlipCurrentReadService.class);
+        FlipRankingIndexService rankingIndexService = mock(FlipRankingIndexService.class);
+        FlipReadService indexed = new FlipReadService(
+                mock(FlipRepository.class),
+                mock(UnifiedFlipDtoMapper.class),
+                mock(FlipCalculationContextService.class),
+                unifiedFlipCurrentReadService,
+                null,
+                flipStorageProperties,
+                modelProperties
+        );
+        indexed.setFlipRankingIndexService(rankingIndexService);
+        FlipReadService fallback = new FlipReadService(
+                mock(FlipRepository.class),
+                mock(UnifiedFlipDtoMapper.class),
+                mock(FlipCalculationContextService.class),
+                unifiedFlipCurrentReadService,
+                null,
+                flipStorageProperties,
+                modelProperties
+        );
+
+        List<UnifiedFlipDto> flips = List.of(
+                sampleGoodnessDto(UUID.fromString("a0000000-0000-0000-0000-000000000001"), 12D, 50_000L, 80D, 20D, false),
+                sampleGoodnessDto(UUID.fromString("a0000000-0000-0000-0000-000000000002"), 3D, 900_000L, 60D, 30D, true,
+                        List.of("MISSING_INPUT_PRICE:SUGAR")),
+                sampleGoodnessDto(UUID.fromString("a0000000-0000-0000-0000-000000000003"), 0.1D, 10L, 5D, 95D, false),
+                sampleGoodnessDto(UUID.fromString("a0000000-0000-0000-0000-000000000004"), 8D, 120_000L, 70D, 40D, true,
+                        List.of("INSUFFICIENT_INPUT_DEPTH:SUGAR")),
+                sampleGoodnessDto(UUID.fromString("a0000000-0000-0000-0000-000000000005"), 25D, 400_000L, 90D, 10D, false)
+        );
+        when(rankingIndexService.current()).thenReturn(Optional.of(FlipRankingIndex.build(100L, flips)));
+        when(unifiedFlipCurrentReadService.listCurrentScoringDtos(null)).thenReturn(flips);
+        stubHydration(unifiedFlipCurrentReadService, flips);
+
+        for (FlipSortBy sortBy : FlipSortBy.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                Page<UnifiedFlipDto> fromIndex = indexed.filterFlips(
+                        null, null, 1D, null, null, null, null, null, null, sortBy, direction, Pageable.unpaged());
+                Page<UnifiedFlipDto> fromFallback = fallback.filterFlips(
+                        null, null, 1D, null, null, null, null, null, null, sortBy, direction, Pageable.unpaged());
+                assertEquals(fromFallback.getTotalElements(), fromIndex.getTotalElements(), sortBy + " " + direction);
+                assertEquals(fromFallback.getContent(), fromIndex.getContent(), sortBy + " " + direction);
+            }
+        }
+        List<UnifiedFlipDto> indexedTop = indexed.topFlips(null, null, null, null, null, null, null, null, null, 10);
+        List<UnifiedFlipDto> expectedTop = flips.stream()
+                .filter(flip -> flip.partialReasons().isEmpty())
+                .filter(flip -> !recommendationGatesEnabled || flip.liquidityScore() > 10D)
+                .sorted(Comparator.comparing(UnifiedFlipDto::expectedProfit).reversed())
+                .toList();
+        assertEquals(expectedTop, indexedTop);
+        if (recommendationGatesEnabled) {
+            assertEquals(fallback.topFlips(null, null, null, null, null, null, null, null, null, 10), indexedTop);
+        }
+    }
+
+    @Test
+    void topGoodnessFlipsAndSummaryStatsReuseRankingIndex() {
+        FlipRepository flipRepository = mock(FlipRepository.class);
+        UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        UnifiedFlipCurrentReadService unifiedFlipCurrentReadService = mock(UnifiedFlipCurrentReadService.class);
+        FlipRankingIndexService rankingIndexService = mock(FlipRankingIndexService.class);
+        FlipStorageProperties flipStorageProperties = new FlipStorageProperties();
+        flipStorageProperties.setReadFromNew(true);
+        FlipReadService service = new FlipReadService(
+                flipRepository,
+                mapper,
+                contextService,
+                unifiedFlipCurrentReadService,
+                null,
+                flipStorageProperties
+        );
+        service.setFlipRankingIndexService(rankingIndexService);
+
+        UUID strongId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+        UUID weakId = UUID.fromString("55555555-5555-5555-5555-555555555555");
+        UnifiedFlipDto strong = sampleGoodnessDto(strongId, 40D, 2_000_000L, 90D, 10D, false);
+        UnifiedFlipDto weak = sampleGoodnessDto(weakId, 0.5D, 1_000L, 20D, 80D, false);
+        FlipRankingIndex index = FlipRankingIndex.build(100L, List.of(weak, strong));
+        when(rankingIndexService.current()).thenReturn(Optional.of(index));
+        when(unifiedFlipCurrentReadService.listCurrentByStableFlipIds(List.of(strongId, weakId))).thenReturn(List.of(strong, weak));
+
+        Page<FlipGoodnessDto> first = service.topGoodnessFlips(null, null, 0);
+        Page<FlipGoodnessDto> second = service.topGoodnessFlips(null, null, 0);
+        FlipSummaryStatsDto stats = service.summaryStats(null, null);
+
+        assertEquals(List.of(strongId, weakId), first.getContent().stream().map(entry -> entry.flip().id()).toList());
+        assertEquals(first.getContent(), second.getContent());
+        assertEquals(2L, stats.totalActiveFlips());
+        assertEquals(2L, stats.byType().get("BAZAAR"));
+        verify(unifiedFlipCurrentReadService, never()).listCurrentScoringDtos(org.mockito.ArgumentMatchers.any());
+        verify(unifiedFlipCurrentReadService, never()).latestSnapshotEpochMillis();
+        verify(unifiedFlipCurrentReadService, never()).countsByType();
+    }
+
+    private void stubHydration(UnifiedFlipCurrentReadService unifiedFlipCurrentReadService, List<UnifiedFlipDto> flips) {
+        when(unifiedFlipCurrentReadService.listCurrentByStableFlipIds(org.mockito.ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> {
+                    List<UUID> ids = invocation.getArgument(0);
+                    return flips.stream().filter(flip -> ids.contains(flip.id())).toList();
+                });
+    }
+
     private UnifiedFlipDto sampleDto() {
         return new UnifiedFlipDto(
                 UUID.randomUUID(),
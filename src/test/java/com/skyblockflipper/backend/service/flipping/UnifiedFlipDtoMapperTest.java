@@ -6,7 +6,9 @@ import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
 import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.Flipping.Step;
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
 import tools.jackson.databind.ObjectMapper;
 
 import java.lang.reflect.Method;
@@ -21,6 +23,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -128,6 +132,33 @@ class UnifiedFlipDtoMapperTest {
         assertEquals(Instant.parse("2026-02-16T10:00:00Z"), dto.snapshotTimestamp());
     }
 
+    @Test
+    void stepParamsAreParsedOnceThroughTheMeteredCache() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UnifiedFlipDtoMapper meteredMapper = new UnifiedFlipDtoMapper(
+                new ObjectMapper(), new FlipRiskScorer(), new FlipEconomicsService(), meterRegistry);
+        Flip flip = new Flip(
+                UUID.randomUUID(),
+                FlipType.CRAFTING,
+                List.of(
+                        Step.forBuyMarketBased(30L, "{\"itemId\":\"ENCHANTED_HAY_BLOCK\",\"amount\":2}"),
+                        Step.forCraftInstant(10L)
+                ),
+                "TIGHTLY_TIED_HAY_BALE",
+                List.of()
+        );
+
+        UnifiedFlipDto first = meteredMapper.toDto(flip);
+        UnifiedFlipDto second = meteredMapper.toDto(flip);
+
+        assertEquals(first.inputItems(), second.inputItems());
+        assertEquals(1D, meterRegistry.get(UnifiedFlipDtoMapper.PARSED_PARAMS_METRIC_PREFIX + ".lookup")
+                .tag("result", "miss").counter().count());
+        assertTrue(meterRegistry.get(UnifiedFlipDtoMapper.PARSED_PARAMS_METRIC_PREFIX + ".lookup")
+                .tag("result", "hit").counter().count() > 0D);
+        assertEquals(1D, meterRegistry.get(UnifiedFlipDtoMapper.PARSED_PARAMS_METRIC_PREFIX + ".size").gauge().value());
+    }
+
     @Test
     void appliesAuctionFeesWithDerpyMultiplier() {
         Flip flip = new Flip(
@@ -456,52 +487,6 @@ class UnifiedFlipDtoMapperTest {
         assertNull(blankItem);
     }
 
-    @Test
-    void resolveConservativeAuctionSellUnitPriceUsesExpectedFallbackOrder() throws Exception {
-        Method method = UnifiedFlipDtoMapper.class.getDeclaredMethod(
-                "resolveConservativeAuctionSellUnitPrice",
-                UnifiedFlipInputSnapshot.AuctionQuote.class
-        );
-        method.setAccessible(true);
-
-        double withP25AndSecond = (double) method.invoke(
-                mapper,
-                new UnifiedFlipInputSnapshot.AuctionQuote(80L, 90L, 150L, 120D, 110D, 100D, 10)
-        );
-        double withP25Only = (double) method.invoke(
-                mapper,
-                new UnifiedFlipInputSnapshot.AuctionQuote(0L, 0L, 150L, 120D, 110D, 100D, 10)
-        );
-        double withSecondAndMedian = (double) method.invoke(
-                mapper,
-                new UnifiedFlipInputSnapshot.AuctionQuote(1L, 120L, 150L, 120D, 100D, 0D, 10)
-        );
-        double withSecondOnly = (double) method.invoke(
-                mapper,
-                new UnifiedFlipInputSnapshot.AuctionQuote(1L, 120L, 150L, 0D, 0D, 0D, 10)
-        );
-        double withMedianOnly = (double) method.invoke(
-                mapper,
-                new UnifiedFlipInputSnapshot.AuctionQuote(0L, 0L, 150L, 0D, 100D, 0D, 10)
-        );
-        double withAverageOnly = (double) method.invoke(
-                mapper,
-                new UnifiedFlipInputSnapshot.AuctionQuote(0L, 0L, 150L, 200D, 0D, 0D, 10)
-        );
-        double withHighestOnly = (double) method.invoke(
-                mapper,
-                new UnifiedFlipInputSnapshot.AuctionQuote(0L, 0L, 150L, 0D, 0D, 0D, 10)
-        );
-
-        assertEquals(90D, withP25AndSecond, 1e-9);
-        assertEquals(100D, withP25Only, 1e-9);
-        assertEquals(97D, withSecondAndMedian, 1e-9);
-        assertEquals(120D, withSecondOnly, 1e-9);
-        assertEquals(97D, withMedianOnly, 1e-9);
-        assertEquals(190D, withAverageOnly, 1e-9);
-        assertEquals(150D, withHighestOnly, 1e-9);
-    }
-
     @Test
     void unsupportedAndInvalidAuctionDurationFallBackToDefaultAndMarkPartial() {
         UnifiedFlipInputSnapshot snapshot = new UnifiedFlipInputSnapshot(
@@ -532,7 +517,7 @@ class UnifiedFlipDtoMapperTest {
     }
 
     @Test
-    void toDtoParsesStepJsonOncePerStepWithinSingleMapping() {
+    void toDtoParsesEachDistinctStepJsonOnceAcrossMappings() {
         ObjectMapper spyMapper = spy(new ObjectMapper());
         UnifiedFlipDtoMapper localMapper = new UnifiedFlipDtoMapper(spyMapper, new FlipRiskScorer());
         Flip flip = new Flip(
@@ -553,8 +538,74 @@ class UnifiedFlipDtoMapperTest {
         );
 
         localMapper.toDto(flip, FlipCalculationContext.standard(snapshot));
+        localMapper.toDto(flip, FlipCalculationContext.standard(snapshot));
+
+        verify(spyMapper, times(2)).readTree(anyString());
+    }
+
+    @Test
+    void repricesFlipsWhenSnapshotChangesBetweenMappings() {
+        Flip flip = new Flip(
+                UUID.randomUUID(),
+                FlipType.BAZAAR,
+                List.of(Step.forBuyMarketBased(30L, "{\"itemId\":\"ITEM\",\"amount\":1,\"market\":\"BAZAAR\"}")),
+                "ITEM",
+                List.of()
+        );
+        FlipCalculationContext first = FlipCalculationContext.standard(new UnifiedFlipInputSnapshot(
+                Instant.parse("2026-02-16T13:00:00Z"),
+                Map.of("ITEM", new UnifiedFlipInputSnapshot.BazaarQuote(100D, 120D, 10_000L, 10_000L, 840_000L, 840_000L, 80, 80)),
+                Map.of()
+        ));
+        FlipCalculationContext second = FlipCalculationContext.standard(new UnifiedFlipInputSnapshot(
+                Instant.parse("2026-02-16T13:01:00Z"),
+                Map.of("ITEM", new UnifiedFlipInputSnapshot.BazaarQuote(200D, 240D, 10_000L, 10_000L, 840_000L, 840_000L, 80, 80)),
+                Map.of()
+        ));
+
+        UnifiedFlipDto firstDto = mapper.toDto(flip, first);
+        UnifiedFlipDto repeatedDto = mapper.toDto(flip, first);
+        UnifiedFlipDto secondDto = mapper.toDto(flip, second);
+
+        assertEquals(firstDto.expectedProfit(), repeatedDto.expectedProfit());
+        assertEquals(100L, firstDto.requiredCapital());
+        assertEquals(200L, secondDto.requiredCapital());
+        assertTrue(secondDto.expectedProfit() > firstDto.expectedProfit());
+    }
+
+    @Test
+    void interleavedContextsEachBuildTheirKernelOnce() {
+        Flip flip = new Flip(
+                UUID.randomUUID(),
+                FlipType.BAZAAR,
+                List.of(Step.forBuyMarketBased(30L, "{\"itemId\":\"ITEM\",\"amount\":1,\"market\":\"BAZAAR\"}")),
+                "ITEM",
+                List.of()
+        );
+        UnifiedFlipInputSnapshot firstSnapshot = new UnifiedFlipInputSnapshot(
+                Instant.parse("2026-02-16T13:00:00Z"),
+                Map.of("ITEM", new UnifiedFlipInputSnapshot.BazaarQuote(100D, 120D, 10_000L, 10_000L, 840_000L, 840_000L, 80, 80)),
+                Map.of()
+        );
+        UnifiedFlipInputSnapshot secondSnapshot = new UnifiedFlipInputSnapshot(
+                Instant.parse("2026-02-16T13:01:00Z"),
+                Map.of("ITEM", new UnifiedFlipInputSnapshot.BazaarQuote(200D, 240D, 10_000L, 10_000L, 840_000L, 840_000L, 80, 80)),
+                Map.of()
+        );
+        FlipCalculationContext first = FlipCalculationContext.standard(firstSnapshot);
+        FlipCalculationContext second = FlipCalculationContext.standard(secondSnapshot);
+        UnifiedFlipDto expectedFirst = mapper.toDto(flip, FlipCalculationContext.standard(firstSnapshot));
+        UnifiedFlipDto expectedSecond = mapper.toDto(flip, FlipCalculationContext.standard(secondSnapshot));
+
+        try (MockedStatic<FlipPricingKernel> kernels = mockStatic(FlipPricingKernel.class, CALLS_REAL_METHODS)) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(expectedFirst, mapper.toDto(flip, first));
+                assertEquals(expectedSecond, mapper.toDto(flip, second));
+            }
 
-        verify(spyMapper, times(3)).readTree(anyString());
+            kernels.verify(() -> FlipPricingKernel.build(firstSnapshot, first.scoreFeatureSet()), times(1));
+            kernels.verify(() -> FlipPricingKernel.build(secondSnapshot, second.scoreFeatureSet()), times(1));
+        }
     }
 
     private Object invokePrivate(Object target, String methodName, Class<?>[] parameterTypes, Object... args) throws Exception {
@@ -0,0 +1,136 @@
+package com.skyblockflipper.backend.service.flipping.storage;
+
+import com.skyblockflipper.backend.api.dto.UnifiedFlipDto;
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
+import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
+import com.skyblockflipper.backend.service.flipping.FlipScoreFeatureSet;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlipDependencyIndexTest {
+
+    private static final UnifiedFlipInputSnapshot.BazaarQuote SUGAR =
+            new UnifiedFlipInputSnapshot.BazaarQuote(10D, 9D, 1, 1, 1, 1, 1, 1);
+    private static final UnifiedFlipInputSnapshot.BazaarQuote CANE =
+            new UnifiedFlipInputSnapshot.BazaarQuote(2D, 1D, 1, 1, 1, 1, 1, 1);
+    private static final UnifiedFlipInputSnapshot.AuctionQuote HYPERION =
+            new UnifiedFlipInputSnapshot.AuctionQuote(900_000_000L, 0L, 900_000_000D, 3);
+
+    @Test
+    void planIsFullUntilASnapshotHasBeenCommitted() {
+        FlipDependencyIndex index = new FlipDependencyIndex();
+
+        FlipDependencyIndex.Plan plan = index.plan(context(SUGAR, CANE, HYPERION, FlipScoreFeatureSet.empty()), 1_000L);
+
+        assertTrue(plan.full());
+        assertFalse(plan.canCarry("sugar-craft"));
+    }
+
+    @Test
+    void planMarksOnlyFlipsTouchingChangedQuotesOrFeatures() {
+        FlipDependencyIndex index = new FlipDependencyIndex();
+        FlipCalculationContext first = context(SUGAR, CANE, HYPERION, FlipScoreFeatureSet.empty());
+        FlipDependencyIndex.Plan initial = index.plan(first, 1_000L);
+        index.commit(initial, first, 1_000L, Map.of(
+                "sugar-craft", Set.of("ENCHANTED_SUGAR", "SUGAR_CANE"),
+                "hyperion-flip", Set.of("HYPERION"),
+                "cane-npc", Set.of("SUGAR_CANE")
+        ), Set.of());
+
+        UnifiedFlipInputSnapshot.BazaarQuote caneMoved = new UnifiedFlipInputSnapshot.BazaarQuote(3D, 1D, 1, 1, 1, 1, 1, 1);
+        FlipDependencyIndex.Plan quotePlan = index.plan(context(SUGAR, caneMoved, HYPERION, FlipScoreFeatureSet.empty()), 2_000L);
+
+        assertFalse(quotePlan.full());
+        assertEquals(1, quotePlan.changedItemCount());
+        assertFalse(quotePlan.canCarry("sugar-craft"));
+        assertFalse(quotePlan.canCarry("cane-npc"));
+        assertTrue(quotePlan.canCarry("hyperion-flip"));
+        assertFalse(quotePlan.canCarry("never-seen"));
+
+        FlipScoreFeatureSet hyperionFeatures = new FlipScoreFeatureSet(Map.of("HYPERION",
+                new FlipScoreFeatureSet.ItemTimescaleFeatures(0.1D, 0.0D, null, null, null, null, false)));
+        FlipDependencyIndex.Plan featurePlan = index.plan(context(SUGAR, CANE, HYPERION, hyperionFeatures), 2_000L);
+
+        assertFalse(featurePlan.canCarry("hyperion-flip"));
+        assertTrue(featurePlan.canCarry("sugar-craft"));
+    }
+
+    @Test
+    void commitKeepsCarriedDependenciesAndDropsVanishedFlips() {
+        FlipDependencyIndex index = new FlipDependencyIndex();
+        FlipCalculationContext context = context(SUGAR, CANE, HYPERION, FlipScoreFeatureSet.empty());
+        index.commit(index.plan(context, 1_000L), context, 1_000L, Map.of(
+                "sugar-craft", Set.of("ENCHANTED_SUGAR"),
+                "hyperion-flip", Set.of("HYPERION"),
+                "removed-recipe", Set.of("SUGAR_CANE")
+        ), Set.of());
+
+        index.commit(index.plan(context, 2_000L), context, 2_000L,
+                Map.of("sugar-craft", Set.of("ENCHANTED_SUGAR")), Set.of("hyperion-flip"));
+
+        assertEquals(2, index.size());
+        FlipDependencyIndex.Plan plan = index.plan(context(SUGAR, CANE, null, FlipScoreFeatureSet.empty()), 3_000L);
+        assertFalse(plan.canCarry("hyperion-flip"));
+        assertTrue(plan.canCarry("sugar-craft"));
+        assertFalse(plan.canCarry("removed-recipe"));
+    }
+
+    @Test
+    void contextWideChangesAndOutOfOrderSnapshotsForceFullPlans() {
+        FlipDependencyIndex index = new FlipDependencyIndex();
+        FlipCalculationContext context = context(SUGAR, CANE, HYPERION, FlipScoreFeatureSet.empty());
+        index.commit(index.plan(context, 1_000L), context, 1_000L, Map.of("sugar-craft", Set.of("ENCHANTED_SUGAR")), Set.of());
+
+        FlipCalculationContext derpy = new FlipCalculationContext(context.marketSnapshot(), 0.0125D, 4.0D, false,
+                FlipScoreFeatureSet.empty());
+        assertTrue(index.plan(derpy, 2_000L).full());
+        assertTrue(index.plan(context, 1_000L).full());
+        assertTrue(index.plan(null, 2_000L).full());
+    }
+
+    @Test
+    void commitFromStalePlanResetsIndex() {
+        FlipDependencyIndex index = new FlipDependencyIndex();
+        FlipCalculationContext context = context(SUGAR, CANE, HYPERION, FlipScoreFeatureSet.empty());
+        FlipDependencyIndex.Plan racing = index.plan(context, 1_000L);
+        index.commit(index.plan(context, 1_000L), context, 1_000L, Map.of("sugar-craft", Set.of("ENCHANTED_SUGAR")), Set.of());
+
+        index.commit(racing, context, 2_000L, Map.of("sugar-craft", Set.of("ENCHANTED_SUGAR")), Set.of());
+
+        assertEquals(0, index.size());
+        assertTrue(index.plan(context, 3_000L).full());
+    }
+
+    @Test
+    void dependenciesOfCollectsInputAndOutputItemIds() {
+        UnifiedFlipDto dto = new UnifiedFlipDto(null, FlipType.FORGE,
+                List.of(new UnifiedFlipDto.ItemStackDto("REFINED_DIAMOND", 2), new UnifiedFlipDto.ItemStackDto("ENCHANTED_GOLD", 8)),
+                List.of(new UnifiedFlipDto.ItemStackDto("DIVAN_FRAGMENT", 1)),
+                null, null, null, null, null, null, null, null, Instant.EPOCH, false, List.of(), List.of(), List.of());
+
+        assertEquals(Set.of("REFINED_DIAMOND", "ENCHANTED_GOLD", "DIVAN_FRAGMENT"), FlipDependencyIndex.dependenciesOf(dto));
+    }
+
+    private FlipCalculationContext context(UnifiedFlipInputSnapshot.BazaarQuote sugar,
+                                           UnifiedFlipInputSnapshot.BazaarQuote cane,
+                                           UnifiedFlipInputSnapshot.AuctionQuote hyperion,
+                                           FlipScoreFeatureSet features) {
+        Map<String, UnifiedFlipInputSnapshot.AuctionQuote> auctions = hyperion == null ? Map.of() : Map.of("HYPERION", hyperion);
+        return new FlipCalculationContext(
+                new UnifiedFlipInputSnapshot(Instant.EPOCH, Map.of("ENCHANTED_SUGAR", sugar, "SUGAR_CANE", cane), auctions),
+                0.0125D,
+                1.0D,
+                false,
+                features
+        );
+    }
+}
@@ -11,6 +11,7 @@ import com.skyblockflipper.backend.model.Flipping.Recipe.RecipeToFlipMapper;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
 import com.skyblockflipper.backend.repository.RecipeRepository;
+import com.skyblockflipper.backend.service.flipping.CompiledFlipTemplateCache;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
 import com.skyblockflipper.backend.service.flipping.MarketFlipMapper;
@@ -138,6 +139,51 @@ class OnDemandFlipSnapshotServiceTest {
         assertEquals(snapshot.toEpochMilli(), bazaarFlip.getSnapshotTimestampEpochMillis());
     }
 
+    @Test
+    void computeSnapshotDtosUsesCompiledTemplatesAndTheirStableIds() {
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        RecipeToFlipMapper recipeToFlipMapper = mock(RecipeToFlipMapper.class);
+        MarketSnapshotPersistenceService marketSnapshotPersistenceService = mock(MarketSnapshotPersistenceService.class);
+        UnifiedFlipDtoMapper unifiedFlipDtoMapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipIdentityService identityService = mock(FlipIdentityService.class);
+        CompiledFlipTemplateCache templateCache = mock(CompiledFlipTemplateCache.class);
+        OnDemandFlipSnapshotService service = new OnDemandFlipSnapshotService(
+                recipeRepository,
+                recipeToFlipMapper,
+                marketSnapshotPersistenceService,
+                mock(UnifiedFlipInputMapper.class),
+                mock(MarketFlipMapper.class),
+                unifiedFlipDtoMapper,
+                contextService,
+                identityService
+        );
+        service.setCompiledFlipTemplateCache(templateCache);
+        Instant snapshot = Instant.parse("2026-02-20T12:00:00Z");
+        FlipCalculationContext context = FlipCalculationContext.standard(null);
+        Flip prototype = new Flip(null, FlipType.FORGE, List.of(), "REFINED_DIAMOND", List.of());
+        UUID stableId = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
+        FlipIdentityService.Identity identity = new FlipIdentityService.Identity(
+                "k3", stableId, FlipType.FORGE, "REFINED_DIAMOND", "[]", "[]", 1);
+        when(templateCache.templates()).thenReturn(new CompiledFlipTemplateCache.CompiledTemplates(
+                4L,
+                List.of(new CompiledFlipTemplateCache.FlipTemplate(prototype, identity)),
+                0,
+                Map.of()
+        ));
+        when(contextService.loadContextAsOf(snapshot)).thenReturn(context);
+        when(marketSnapshotPersistenceService.asOf(snapshot)).thenReturn(Optional.empty());
+        when(unifiedFlipDtoMapper.toDto(prototype, context))
+                .thenReturn(dto(UUID.fromString("33333333-3333-3333-3333-333333333333"), FlipType.FORGE, snapshot));
+
+        List<UnifiedFlipDto> result = service.computeSnapshotDtos(snapshot, null);
+
+        assertEquals(1, result.size());
+        assertEquals(stableId, result.getFirst().id());
+        verify(recipeRepository, never()).findAll(any(Sort.class));
+        verify(identityService, never()).derive(any());
+    }
+
     private UnifiedFlipDto dto(UUID id, FlipType flipType, Instant snapshotTimestamp) {
         return new UnifiedFlipDto(
                 id,
@@ -6,24 +6,33 @@ import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.flippingstorage.FlipCurrentEntity;
 import com.skyblockflipper.backend.model.flippingstorage.FlipDefinitionEntity;
 import com.skyblockflipper.backend.model.flippingstorage.FlipTrendSegmentEntity;
+import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
 import com.skyblockflipper.backend.repository.FlipCurrentRepository;
 import com.skyblockflipper.backend.repository.FlipDefinitionRepository;
+import com.skyblockflipper.backend.repository.FlipStorageBatchRepository;
 import com.skyblockflipper.backend.repository.FlipTrendSegmentRepository;
+import com.skyblockflipper.backend.service.flipping.CompiledFlipTemplateCache;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import tools.jackson.databind.ObjectMapper;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -208,6 +217,7 @@ class UnifiedFlipStorageServiceTest {
         service.persistSnapshotFlips(List.of(flip), snapshotTimestamp);
 
         ArgumentCaptor<List<FlipDefinitionEntity>> definitionsCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<FlipDefinitionEntity>> definitionUpdatesCaptor = ArgumentCaptor.forClass(List.class);
         ArgumentCaptor<List<FlipCurrentEntity>> currentCaptor = ArgumentCaptor.forClass(List.class);
         ArgumentCaptor<List<FlipTrendSegmentEntity>> segmentCaptor = ArgumentCaptor.forClass(List.class);
         verify(flipDefinitionRepository).saveAll(definitionsCaptor.capture());
@@ -335,6 +345,7 @@ class UnifiedFlipStorageServiceTest {
         service.persistSnapshotFlips(List.of(first, second), snapshotTimestamp);
 
         ArgumentCaptor<List<FlipDefinitionEntity>> definitionsCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<FlipDefinitionEntity>> definitionUpdatesCaptor = ArgumentCaptor.forClass(List.class);
         ArgumentCaptor<List<FlipCurrentEntity>> currentCaptor = ArgumentCaptor.forClass(List.class);
         ArgumentCaptor<List<FlipTrendSegmentEntity>> segmentCaptor = ArgumentCaptor.forClass(List.class);
         verify(flipDefinitionRepository).saveAll(definitionsCaptor.capture());
@@ -345,6 +356,318 @@ class UnifiedFlipStorageServiceTest {
         assertEquals(1, segmentCaptor.getValue().size());
     }
 
+    @Test
+    void persistSnapshotFlipsCarriesForwardFlipsWhoseInputsDidNotChange() {
+        FlipDefinitionRepository flipDefinitionRepository = mock(FlipDefinitionRepository.class);
+        FlipCurrentRepository flipCurrentRepository = mock(FlipCurrentRepository.class);
+        FlipTrendSegmentRepository flipTrendSegmentRepository = mock(FlipTrendSegmentRepository.class);
+        FlipIdentityService flipIdentityService = mock(FlipIdentityService.class);
+        UnifiedFlipDtoMapper unifiedFlipDtoMapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipStorageProperties properties = new FlipStorageProperties();
+        properties.setDualWriteEnabled(true);
+        UnifiedFlipStorageService service = new UnifiedFlipStorageService(
+                flipDefinitionRepository,
+                flipCurrentRepository,
+                flipTrendSegmentRepository,
+                flipIdentityService,
+                unifiedFlipDtoMapper,
+                contextService,
+                properties,
+                new ObjectMapper()
+        );
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service.setMeterRegistry(meterRegistry);
+        Instant first = Instant.parse("2026-02-21T12:00:00Z");
+        Instant second = Instant.parse("2026-02-21T12:01:00Z");
+        Flip sugarFlip = mock(Flip.class);
+        Flip carrotFlip = mock(Flip.class);
+        when(flipIdentityService.derive(sugarFlip)).thenReturn(identity("key-sugar"));
+        when(flipIdentityService.derive(carrotFlip)).thenReturn(identity("key-carrot"));
+        when(unifiedFlipDtoMapper.toDto(eq(sugarFlip), any(FlipCalculationContext.class)))
+                .thenReturn(dtoTrading("ENCHANTED_SUGAR", first));
+        when(unifiedFlipDtoMapper.toDto(eq(carrotFlip), any(FlipCalculationContext.class)))
+                .thenReturn(dtoTrading("ENCHANTED_CARROT", first));
+        when(contextService.loadContextAsOf(first)).thenReturn(contextWithPrices(first, 10D, 20D));
+        when(contextService.loadContextAsOf(second)).thenReturn(contextWithPrices(second, 11D, 20D));
+        when(flipCurrentRepository.carryForwardSnapshot(eq(List.of("key-carrot")), eq(first.toEpochMilli()),
+                eq(second.toEpochMilli()), anyLong())).thenReturn(1);
+
+        service.persistSnapshotFlips(List.of(sugarFlip, carrotFlip), first);
+        service.persistSnapshotFlips(List.of(sugarFlip, carrotFlip), second);
+
+        verify(unifiedFlipDtoMapper, times(2)).toDto(eq(sugarFlip), any(FlipCalculationContext.class));
+        verify(unifiedFlipDtoMapper, times(1)).toDto(eq(carrotFlip), any(FlipCalculationContext.class));
+        verify(flipTrendSegmentRepository).extendLatestSegments(eq(List.of("key-carrot")), eq(first.toEpochMilli()),
+                eq(second.toEpochMilli()), anyLong());
+        verify(flipCurrentRepository).findAllById(List.of("key-sugar"));
+        assertEquals(1.0D, meterRegistry.get("skyblock.flip.regeneration.flips").tag("outcome", "carried").counter().count());
+        assertEquals(3.0D, meterRegistry.get("skyblock.flip.regeneration.flips").tag("outcome", "recomputed").counter().count());
+    }
+
+    @Test
+    void persistSnapshotFlipsRecomputesCarriedFlipsWhenStoredRowsMoved() {
+        FlipDefinitionRepository flipDefinitionRepository = mock(FlipDefinitionRepository.class);
+        FlipCurrentRepository flipCurrentRepository = mock(FlipCurrentRepository.class);
+        FlipTrendSegmentRepository flipTrendSegmentRepository = mock(FlipTrendSegmentRepository.class);
+        FlipIdentityService flipIdentityService = mock(FlipIdentityService.class);
+        UnifiedFlipDtoMapper unifiedFlipDtoMapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipStorageProperties properties = new FlipStorageProperties();
+        properties.setDualWriteEnabled(true);
+        UnifiedFlipStorageService service = new UnifiedFlipStorageService(
+                flipDefinitionRepository,
+                flipCurrentRepository,
+                flipTrendSegmentRepository,
+                flipIdentityService,
+                unifiedFlipDtoMapper,
+                contextService,
+                properties,
+                new ObjectMapper()
+        );
+        Instant first = Instant.parse("2026-02-21T12:00:00Z");
+        Instant second = Instant.parse("2026-02-21T12:01:00Z");
+        Flip carrotFlip = mock(Flip.class);
+        when(flipIdentityService.derive(carrotFlip)).thenReturn(identity("key-carrot"));
+        when(unifiedFlipDtoMapper.toDto(eq(carrotFlip), any(FlipCalculationContext.class)))
+                .thenReturn(dtoTrading("ENCHANTED_CARROT", first));
+        when(contextService.loadContextAsOf(first)).thenReturn(contextWithPrices(first, 10D, 20D));
+        when(contextService.loadContextAsOf(second)).thenReturn(contextWithPrices(second, 11D, 20D));
+
+        service.persistSnapshotFlips(List.of(carrotFlip), first);
+        service.persistSnapshotFlips(List.of(carrotFlip), second);
+
+        verify(flipCurrentRepository).carryForwardSnapshot(eq(List.of("key-carrot")), eq(first.toEpochMilli()),
+                eq(second.toEpochMilli()), anyLong());
+        verify(unifiedFlipDtoMapper, times(2)).toDto(eq(carrotFlip), any(FlipCalculationContext.class));
+        verify(flipCurrentRepository, times(2)).findAllById(List.of("key-carrot"));
+    }
+
+    @Test
+    void persistSnapshotFlipsRecomputesEverythingWhenIncrementalRegenerationIsDisabled() {
+        FlipDefinitionRepository flipDefinitionRepository = mock(FlipDefinitionRepository.class);
+        FlipCurrentRepository flipCurrentRepository = mock(FlipCurrentRepository.class);
+        FlipTrendSegmentRepository flipTrendSegmentRepository = mock(FlipTrendSegmentRepository.class);
+        FlipIdentityService flipIdentityService = mock(FlipIdentityService.class);
+        UnifiedFlipDtoMapper unifiedFlipDtoMapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipStorageProperties properties = new FlipStorageProperties();
+        properties.setDualWriteEnabled(true);
+        properties.setIncrementalRegenerationEnabled(false);
+        UnifiedFlipStorageService service = new UnifiedFlipStorageService(
+                flipDefinitionRepository,
+                flipCurrentRepository,
+                flipTrendSegmentRepository,
+                flipIdentityService,
+                unifiedFlipDtoMapper,
+                contextService,
+                properties,
+                new ObjectMapper()
+        );
+        Instant first = Instant.parse("2026-02-21T12:00:00Z");
+        Instant second = Instant.parse("2026-02-21T12:01:00Z");
+        Flip carrotFlip = mock(Flip.class);
+        when(flipIdentityService.derive(carrotFlip)).thenReturn(identity("key-carrot"));
+        when(unifiedFlipDtoMapper.toDto(eq(carrotFlip), any(FlipCalculationContext.class)))
+                .thenReturn(dtoTrading("ENCHANTED_CARROT", first));
+        when(contextService.loadContextAsOf(first)).thenReturn(contextWithPrices(first, 10D, 20D));
+        when(contextService.loadContextAsOf(second)).thenReturn(contextWithPrices(second, 10D, 20D));
+
+        service.persistSnapshotFlips(List.of(carrotFlip), first);
+        service.persistSnapshotFlips(List.of(carrotFlip), second);
+
+        verify(unifiedFlipDtoMapper, times(2)).toDto(eq(carrotFlip), any(FlipCalculationContext.class));
+        verify(flipCurrentRepository, never()).carryForwardSnapshot(any(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void persistSnapshotFlipsUsesPrecomputedTemplateIdentity() {
+        FlipDefinitionRepository flipDefinitionRepository = mock(FlipDefinitionRepository.class);
+        FlipCurrentRepository flipCurrentRepository = mock(FlipCurrentRepository.class);
+        FlipTrendSegmentRepository flipTrendSegmentRepository = mock(FlipTrendSegmentRepository.class);
+        FlipIdentityService flipIdentityService = mock(FlipIdentityService.class);
+        UnifiedFlipDtoMapper unifiedFlipDtoMapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        CompiledFlipTemplateCache templateCache = mock(CompiledFlipTemplateCache.class);
+        FlipStorageProperties properties = new FlipStorageProperties();
+        properties.setDualWriteEnabled(true);
+        UnifiedFlipStorageService service = new UnifiedFlipStorageService(
+                flipDefinitionRepository,
+                flipCurrentRepository,
+                flipTrendSegmentRepository,
+                flipIdentityService,
+                unifiedFlipDtoMapper,
+                contextService,
+                properties,
+                new ObjectMapper()
+        );
+        service.setCompiledFlipTemplateCache(templateCache);
+        Instant snapshotTimestamp = Instant.parse("2026-02-21T12:00:00Z");
+        Flip templateFlip = mock(Flip.class);
+        Flip marketFlip = mock(Flip.class);
+        when(templateCache.precomputedIdentity(templateFlip)).thenReturn(Optional.of(identity("key-template")));
+        when(templateCache.precomputedIdentity(marketFlip)).thenReturn(Optional.empty());
+        when(flipIdentityService.derive(marketFlip)).thenReturn(identity("key-market"));
+        when(contextService.loadContextAsOf(snapshotTimestamp)).thenReturn(FlipCalculationContext.standard(null));
+        when(unifiedFlipDtoMapper.toDto(any(Flip.class), any(FlipCalculationContext.class)))
+                .thenReturn(sampleDto(snapshotTimestamp));
+
+        service.persistSnapshotFlips(List.of(templateFlip, marketFlip), snapshotTimestamp);
+
+        verify(flipIdentityService, never()).derive(templateFlip);
+        verify(flipCurrentRepository).findAllById(List.of("key-template", "key-market"));
+    }
+
+    @Test
+    void persistSnapshotFlipsUsesGuardedBatchStatementsWhenBulkWriteIsAvailable() {
+        FlipDefinitionRepository flipDefinitionRepository = mock(FlipDefinitionRepository.class);
+        FlipCurrentRepository flipCurrentRepository = mock(FlipCurrentRepository.class);
+        FlipTrendSegmentRepository flipTrendSegmentRepository = mock(FlipTrendSegmentRepository.class);
+        FlipStorageBatchRepository batchRepository = mock(FlipStorageBatchRepository.class);
+        FlipIdentityService flipIdentityService = mock(FlipIdentityService.class);
+        UnifiedFlipDtoMapper unifiedFlipDtoMapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipStorageProperties properties = new FlipStorageProperties();
+        properties.setDualWriteEnabled(true);
+        UnifiedFlipStorageService service = new UnifiedFlipStorageService(
+                flipDefinitionRepository,
+                flipCurrentRepository,
+                flipTrendSegmentRepository,
+                flipIdentityService,
+                unifiedFlipDtoMapper,
+                contextService,
+                properties,
+                new ObjectMapper()
+        );
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service.setMeterRegistry(meterRegistry);
+        service.setFlipStorageBatchRepository(batchRepository);
+        Instant snapshotTimestamp = Instant.parse("2026-02-21T12:00:00Z");
+        long snapshotEpochMillis = snapshotTimestamp.toEpochMilli();
+        Flip existingFlip = mock(Flip.class);
+        Flip newFlip = mock(Flip.class);
+        Flip staleFlip = mock(Flip.class);
+        when(flipIdentityService.derive(existingFlip)).thenReturn(identity("key-existing"));
+        when(flipIdentityService.derive(newFlip)).thenReturn(identity("key-new"));
+        when(flipIdentityService.derive(staleFlip)).thenReturn(identity("key-stale"));
+        when(contextService.loadContextAsOf(snapshotTimestamp)).thenReturn(FlipCalculationContext.standard(null));
+        when(unifiedFlipDtoMapper.toDto(any(Flip.class), any(FlipCalculationContext.class)))
+                .thenReturn(sampleDto(snapshotTimestamp));
+        when(batchRepository.updateCurrentIfOlder(any())).thenReturn(new int[]{1, 0, 0});
+        when(batchRepository.insertMissingDefinitions(any())).thenReturn(new int[]{1, 0});
+        when(batchRepository.insertMissingCurrent(any())).thenReturn(new int[]{1, 0});
+        when(batchRepository.extendLatestSegments(any(), eq(0.05D), eq(3.0D))).thenReturn(new int[]{1, 0});
+
+        service.persistSnapshotFlips(List.of(existingFlip, newFlip, staleFlip), snapshotTimestamp);
+
+        ArgumentCaptor<List<FlipDefinitionEntity>> definitionsCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<FlipDefinitionEntity>> definitionUpdatesCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<FlipTrendSegmentEntity>> candidatesCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<FlipTrendSegmentEntity>> newSegmentsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository).insertMissingDefinitions(definitionsCaptor.capture());
+        verify(batchRepository).updateDefinitions(definitionUpdatesCaptor.capture());
+        verify(batchRepository).extendLatestSegments(candidatesCaptor.capture(), eq(0.05D), eq(3.0D));
+        verify(batchRepository).insertSegmentsAfterLatest(newSegmentsCaptor.capture());
+        assertEquals(List.of("key-new", "key-stale"),
+                definitionsCaptor.getValue().stream().map(FlipDefinitionEntity::getFlipKey).toList());
+        assertEquals(List.of("key-existing"),
+                definitionUpdatesCaptor.getValue().stream().map(FlipDefinitionEntity::getFlipKey).toList());
+        assertEquals(List.of("key-existing", "key-new"),
+                candidatesCaptor.getValue().stream().map(FlipTrendSegmentEntity::getFlipKey).toList());
+        assertEquals(List.of("key-new"),
+                newSegmentsCaptor.getValue().stream().map(FlipTrendSegmentEntity::getFlipKey).toList());
+        assertEquals(snapshotEpochMillis, newSegmentsCaptor.getValue().getFirst().getValidFromSnapshotEpochMillis());
+        verify(flipCurrentRepository, never()).findAllById(any());
+        verify(flipCurrentRepository, never()).saveAll(any());
+        assertEquals(1L, meterRegistry.timer("skyblock.flip.storage.write", "path", "jdbc").count());
+    }
+
+    @Test
+    void persistSnapshotFlipsKeepsJpaPathWhenBulkWriteIsDisabled() {
+        FlipDefinitionRepository flipDefinitionRepository = mock(FlipDefinitionRepository.class);
+        FlipCurrentRepository flipCurrentRepository = mock(FlipCurrentRepository.class);
+        FlipTrendSegmentRepository flipTrendSegmentRepository = mock(FlipTrendSegmentRepository.class);
+        FlipStorageBatchRepository batchRepository = mock(FlipStorageBatchRepository.class);
+        FlipIdentityService flipIdentityService = mock(FlipIdentityService.class);
+        UnifiedFlipDtoMapper unifiedFlipDtoMapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipStorageProperties properties = new FlipStorageProperties();
+        properties.setDualWriteEnabled(true);
+        properties.setBulkWriteEnabled(false);
+        UnifiedFlipStorageService service = new UnifiedFlipStorageService(
+                flipDefinitionRepository,
+                flipCurrentRepository,
+                flipTrendSegmentRepository,
+                flipIdentityService,
+                unifiedFlipDtoMapper,
+                contextService,
+                properties,
+                new ObjectMapper()
+        );
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service.setMeterRegistry(meterRegistry);
+        service.setFlipStorageBatchRepository(batchRepository);
+        Instant snapshotTimestamp = Instant.parse("2026-02-21T12:00:00Z");
+        Flip flip = mock(Flip.class);
+        when(flipIdentityService.derive(flip)).thenReturn(identity("key-jpa"));
+        when(contextService.loadContextAsOf(snapshotTimestamp)).thenReturn(FlipCalculationContext.standard(null));
+        when(unifiedFlipDtoMapper.toDto(any(Flip.class), any(FlipCalculationContext.class)))
+                .thenReturn(sampleDto(snapshotTimestamp));
+
+        service.persistSnapshotFlips(List.of(flip), snapshotTimestamp);
+
+        verify(flipCurrentRepository).findAllById(List.of("key-jpa"));
+        verify(batchRepository, never()).updateCurrentIfOlder(any());
+        verify(flipCurrentRepository).flush();
+        assertEquals(1L, meterRegistry.timer("skyblock.flip.storage.write", "path", "jpa").count());
+    }
+
+    private FlipIdentityService.Identity identity(String flipKey) {
+        return new FlipIdentityService.Identity(
+                flipKey,
+                UUID.nameUUIDFromBytes(flipKey.getBytes()),
+                FlipType.BAZAAR,
+                "RESULT",
+                "[]",
+                "[]",
+                1
+        );
+    }
+
+    private FlipCalculationContext contextWithPrices(Instant snapshotTimestamp, double sugarPrice, double carrotPrice) {
+        return FlipCalculationContext.standard(new UnifiedFlipInputSnapshot(
+                snapshotTimestamp,
+                Map.of(
+                        "ENCHANTED_SUGAR", new UnifiedFlipInputSnapshot.BazaarQuote(sugarPrice, sugarPrice, 1, 1, 1, 1, 1, 1),
+                        "ENCHANTED_CARROT", new UnifiedFlipInputSnapshot.BazaarQuote(carrotPrice, carrotPrice, 1, 1, 1, 1, 1, 1)
+                ),
+                Map.of()
+        ));
+    }
+
+    private UnifiedFlipDto dtoTrading(String itemId, Instant snapshotTimestamp) {
+        UnifiedFlipDto sample = sampleDto(snapshotTimestamp);
+        return new UnifiedFlipDto(
+                sample.id(),
+                sample.flipType(),
+                List.of(new UnifiedFlipDto.ItemStackDto(itemId, 1)),
+                List.of(new UnifiedFlipDto.ItemStackDto(itemId, 1)),
+                sample.requiredCapital(),
+                sample.expectedProfit(),
+                sample.roi(),
+                sample.roiPerHour(),
+                sample.durationSeconds(),
+                sample.fees(),
+                sample.liquidityScore(),
+                sample.riskScore(),
+                snapshotTimestamp,
+                false,
+                List.of(),
+                List.of(),
+                List.of()
+        );
+    }
+
     private UnifiedFlipDto sampleDto(Instant snapshotTimestamp) {
         return new UnifiedFlipDto(
                 UUID.fromString("99999999-9999-9999-9999-999999999999"),
@@ -18,6 +18,8 @@ import com.skyblockflipper.backend.service.flipping.FlipCalculationContextServic
 import com.skyblockflipper.backend.service.flipping.FlipScoreFeatureSet;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.market.MarketItemKeyService;
+import com.skyblockflipper.backend.service.market.PriceHistoryQueryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
@@ -27,13 +29,17 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ItemAnalyticsServiceTest {
@@ -215,4 +221,57 @@ class ItemAnalyticsServiceTest {
                 List.of()
         );
     }
+
+    @Test
+    void listPriceHistoryUsesAggregateQueryServiceWhenAvailable() {
+        Instant end = Instant.parse("2026-02-21T12:00:00Z");
+        PriceHistoryQueryService queryService = mock(PriceHistoryQueryService.class);
+        List<PricePointDto> expected = List.of(new PricePointDto(end, 10L, 9L, 100L));
+        when(queryService.isAvailable(true)).thenReturn(true);
+        when(queryService.history("ENCHANTED_DIAMOND", Set.of(), PriceHistoryRange.D7, end)).thenReturn(expected);
+        when(snapshotService.latest()).thenReturn(Optional.of(new MarketSnapshot(end, List.of(), Map.of(
+                "ENCHANTED_DIAMOND", new BazaarMarketRecord("ENCHANTED_DIAMOND", 10D, 9D, 100L, 90L, 0L, 0L, 1, 1)
+        ))));
+        service.setPriceHistoryQueryService(queryService);
+
+        assertEquals(expected, service.listPriceHistory("enchanted_diamond", PriceHistoryRange.D7));
+        verify(snapshotService, never()).between(any(), any());
+    }
+
+    @Test
+    void listPriceHistoryPassesDisplayNameBaseIdForAuctionItems() {
+        Instant end = Instant.parse("2026-02-21T12:00:00Z");
+        PriceHistoryQueryService queryService = mock(PriceHistoryQueryService.class);
+        List<PricePointDto> expected = List.of(new PricePointDto(end, 900L, 950L, 4L));
+        when(queryService.isAvailable(false)).thenReturn(true);
+        when(queryService.history("ASPECT_OF_THE_END", Set.of("ASPECT_OF_THE_END"), PriceHistoryRange.D7, end)).thenReturn(expected);
+        when(snapshotService.latest()).thenReturn(Optional.of(new MarketSnapshot(end, List.of(), Map.of())));
+        when(itemRepository.findById("ASPECT_OF_THE_END"))
+                .thenReturn(Optional.of(Item.builder().id("ASPECT_OF_THE_END").displayName("§9Aspect of the End").build()));
+        service.setPriceHistoryQueryService(queryService);
+        service.setMarketItemKeyService(new MarketItemKeyService());
+
+        assertEquals(expected, service.listPriceHistory("aspect_of_the_end", PriceHistoryRange.D7));
+    }
+
+    @Test
+    void listPriceHistoryFallsBackToSnapshotsForMarketWithoutAggregates() {
+        Instant end = Instant.parse("2026-02-21T12:00:00Z");
+        PriceHistoryQueryService queryService = mock(PriceHistoryQueryService.class);
+        when(queryService.isAvailable(true)).thenReturn(true);
+        when(queryService.isAvailable(false)).thenReturn(false);
+        MarketSnapshot latest = new MarketSnapshot(
+                end,
+                List.of(new AuctionMarketRecord("a1", "Hyperion", "WEAPON", "LEGENDARY", 100L, 0L, 1L, 2L, false)),
+                Map.of()
+        );
+        when(snapshotService.latest()).thenReturn(Optional.of(latest));
+        when(snapshotService.between(any(), any())).thenReturn(List.of(latest));
+        service.setPriceHistoryQueryService(queryService);
+
+        List<PricePointDto> history = service.listPriceHistory("hyperion", PriceHistoryRange.D7);
+
+        assertEquals(List.of(new PricePointDto(end, 100L, 100L, 1L)), history);
+        verify(queryService, never()).history(any(), any(), any(), any());
+    }
 }
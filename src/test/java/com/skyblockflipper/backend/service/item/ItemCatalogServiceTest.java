@@ -0,0 +1,44 @@
+package com.skyblockflipper.backend.service.item;
+
+import com.skyblockflipper.backend.NEU.model.Item;
+import com.skyblockflipper.backend.NEU.repository.ItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemCatalogServiceTest {
+
+    @Test
+    void currentLoadsCatalogOnceAndRebuildSwapsIt() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ItemCatalogService service = new ItemCatalogService(itemRepository);
+        service.setMeterRegistry(meterRegistry);
+        when(itemRepository.findAllWithInfoLinks()).thenReturn(
+                List.of(Item.builder().id("HYPERION").build()),
+                List.of(Item.builder().id("HYPERION").build(), Item.builder().id("TERMINATOR").build())
+        );
+
+        assertEquals(0D, meterRegistry.get("skyblock.item.catalog.size").gauge().value());
+        ItemCatalog first = service.current();
+        assertSame(first, service.current());
+        assertEquals(1, first.size());
+        verify(itemRepository, times(1)).findAllWithInfoLinks();
+
+        ItemCatalog rebuilt = service.rebuild();
+
+        assertNotSame(first, rebuilt);
+        assertSame(rebuilt, service.current());
+        assertEquals(2D, meterRegistry.get("skyblock.item.catalog.size").gauge().value());
+        assertEquals(2L, meterRegistry.get("skyblock.item.catalog.build").timer().count());
+    }
+}
@@ -0,0 +1,102 @@
+package com.skyblockflipper.backend.service.item;
+
+import com.skyblockflipper.backend.NEU.model.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemCatalogTest {
+
+    private final ItemCatalog catalog = ItemCatalog.build(Arrays.asList(
+            item("TERMINATOR", "Terminator", "bow", "LEGENDARY", "BOW"),
+            item("HYPERION", "Hyperion", "iron_sword", "LEGENDARY", "SWORD"),
+            item("ENCHANTED_DIAMOND", "Enchanted Diamond", "diamond", "UNCOMMON", "MATERIAL"),
+            item("DIAMOND", "Diamond", "diamond", "COMMON", "MATERIAL"),
+            item("NAMELESS", null, null, null, null),
+            null
+    ));
+
+    @Test
+    void selectMatchesSubstringsOfIdDisplayNameAndMinecraftId() {
+        assertEquals(List.of("DIAMOND", "ENCHANTED_DIAMOND"), ids(catalog.select("diamond", null, null, null)));
+        assertEquals(List.of("HYPERION"), ids(catalog.select(" Perio ", null, null, null)));
+        assertEquals(List.of("HYPERION"), ids(catalog.select("iron_s", null, null, null)));
+        assertEquals(List.of("ENCHANTED_DIAMOND"), ids(catalog.select("ted dia", null, null, null)));
+        assertEquals(List.of(), ids(catalog.select("diamondx", null, null, null)));
+        assertEquals(List.of(), ids(catalog.select("zzzz", null, null, null)));
+    }
+
+    @Test
+    void selectAnswersShortQueriesFromSingleGramPostings() {
+        assertEquals(List.of("DIAMOND", "ENCHANTED_DIAMOND", "NAMELESS", "TERMINATOR"),
+                ids(catalog.select("a", null, null, null)));
+        assertEquals(List.of("HYPERION"), ids(catalog.select("yp", null, null, null)));
+        assertEquals(List.of("TERMINATOR"), ids(catalog.select("bow", null, null, null)));
+        assertEquals(List.of(), ids(catalog.select("q", null, null, null)));
+    }
+
+    @Test
+    void selectIntersectsSearchWithCategoryAndRarityFacets() {
+        assertEquals(List.of("DIAMOND", "ENCHANTED_DIAMOND"), ids(catalog.select(null, "material", null, null)));
+        assertEquals(List.of("ENCHANTED_DIAMOND"), ids(catalog.select("diamond", "material", "uncommon", null)));
+        assertEquals(List.of("HYPERION", "TERMINATOR"), ids(catalog.select(" ", null, "LEGENDARY", null)));
+        assertEquals(List.of(), ids(catalog.select(null, "pet", null, null)));
+    }
+
+    @Test
+    void selectOrdersBySortWithNullsLastAndIdTieBreaker() {
+        assertEquals(List.of("DIAMOND", "ENCHANTED_DIAMOND", "HYPERION", "NAMELESS", "TERMINATOR"),
+                ids(catalog.select(null, null, null, Sort.unsorted())));
+        assertEquals(List.of("TERMINATOR", "HYPERION", "ENCHANTED_DIAMOND", "DIAMOND", "NAMELESS"),
+                ids(catalog.select(null, null, null, Sort.by("displayName").descending())));
+        assertEquals(List.of("TERMINATOR", "ENCHANTED_DIAMOND", "DIAMOND", "HYPERION", "NAMELESS"),
+                ids(catalog.select(null, null, null, Sort.by("minecraftId").ascending()
+                        .and(Sort.by("rarity").descending()))));
+        assertEquals(List.of("TERMINATOR", "HYPERION"),
+                ids(catalog.select(null, null, "legendary", Sort.by("category").ascending())));
+    }
+
+    @Test
+    void selectFallsBackToIdOrderForUnknownSortProperties() {
+        assertEquals(List.of("DIAMOND", "ENCHANTED_DIAMOND", "HYPERION", "NAMELESS", "TERMINATOR"),
+                ids(catalog.select(null, null, null, Sort.by("lore").descending())));
+    }
+
+    @Test
+    void findNormalizesIdAndReturnsDetachedCopies() {
+        Item source = item("HYPERION", "Hyperion", "iron_sword", "LEGENDARY", "SWORD");
+        source.setInfoLinks(new ArrayList<>(List.of("https://wiki.example/hyperion")));
+        ItemCatalog single = ItemCatalog.build(List.of(source));
+
+        Item found = single.find(" hyperion ").orElseThrow();
+
+        assertNotSame(source, found);
+        assertEquals(List.of("https://wiki.example/hyperion"), found.getInfoLinks());
+        assertTrue(single.find("TERMINATOR").isEmpty());
+        assertTrue(single.find(null).isEmpty());
+        assertEquals(1, single.size());
+        assertEquals(List.of(found), single.items());
+        assertEquals(0, ItemCatalog.build(null).size());
+    }
+
+    private static List<String> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+
+    private static Item item(String id, String displayName, String minecraftId, String rarity, String category) {
+        return Item.builder()
+                .id(id)
+                .displayName(displayName)
+                .minecraftId(minecraftId)
+                .rarity(rarity)
+                .category(category)
+                .build();
+    }
+}
@@ -8,7 +8,9 @@ import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.repository.FlipRepository;
+import com.skyblockflipper.backend.service.market.CurrentMarketSnapshotHolder;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
@@ -20,6 +22,8 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ItemMarketplaceServiceTest {
@@ -28,7 +32,9 @@ class ItemMarketplaceServiceTest {
     void resolveMarketplacesClassifiesItemsAcrossAllMarketplaceTypes() {
         MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
         FlipRepository flipRepository = mock(FlipRepository.class);
-        ItemMarketplaceService service = new ItemMarketplaceService(snapshotService, flipRepository);
+        ItemCatalogService catalogService = mock(ItemCatalogService.class);
+        ItemMarketplaceService service = new ItemMarketplaceService(snapshotService, flipRepository, catalogService);
+        when(catalogService.current()).thenReturn(ItemCatalog.build(List.of()));
 
         MarketSnapshot snapshot = new MarketSnapshot(
                 Instant.parse("2026-02-21T12:00:00Z"),
@@ -63,7 +69,7 @@ class ItemMarketplaceServiceTest {
     void resolveMarketplacesReturnsEmptyForNullOrEmptyInput() {
         MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
         FlipRepository flipRepository = mock(FlipRepository.class);
-        ItemMarketplaceService service = new ItemMarketplaceService(snapshotService, flipRepository);
+        ItemMarketplaceService service = new ItemMarketplaceService(snapshotService, flipRepository, mock(ItemCatalogService.class));
 
         Map<String, MarketplaceType> nullResult = service.resolveMarketplaces(null);
         Map<String, MarketplaceType> emptyResult = service.resolveMarketplaces(List.of());
@@ -72,6 +78,68 @@ class ItemMarketplaceServiceTest {
         assertTrue(emptyResult.isEmpty());
     }
 
+    @Test
+    void resolveMarketplacesReusesCatalogClassificationUntilNextSnapshotIsPublished() {
+        MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
+        FlipRepository flipRepository = mock(FlipRepository.class);
+        ItemCatalogService catalogService = mock(ItemCatalogService.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CurrentMarketSnapshotHolder holder = new CurrentMarketSnapshotHolder(meterRegistry);
+        ItemMarketplaceService service = new ItemMarketplaceService(snapshotService, flipRepository, catalogService);
+        service.setCurrentMarketSnapshotHolder(holder);
+        service.setMeterRegistry(meterRegistry);
+
+        MarketSnapshot first = new MarketSnapshot(
+                Instant.parse("2026-02-21T12:00:00Z"),
+                List.of(),
+                Map.of("ENCHANTED_DIAMOND", new BazaarMarketRecord("ENCHANTED_DIAMOND", 100, 95, 20, 20, 0, 0, 1, 1))
+        );
+        MarketSnapshot second = new MarketSnapshot(
+                Instant.parse("2026-02-21T12:01:00Z"),
+                List.of(new AuctionMarketRecord(
+                        "a1", "Enchanted Diamond", "MISC", "COMMON",
+                        1_000L, 0L, 1L, 2L, false
+                )),
+                Map.of("ENCHANTED_DIAMOND", new BazaarMarketRecord("ENCHANTED_DIAMOND", 100, 95, 20, 20, 0, 0, 1, 1))
+        );
+        Item diamond = item("ENCHANTED_DIAMOND", "Enchanted Diamond", "enchanted_diamond");
+        Item unknown = item("DIRT", "Dirt", "dirt");
+        when(snapshotService.latest()).thenReturn(Optional.of(first), Optional.of(second));
+        when(flipRepository.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.empty());
+        when(catalogService.current()).thenReturn(ItemCatalog.build(List.of(diamond)));
+
+        assertEquals(MarketplaceType.BAZAAR, service.resolveMarketplaces(List.of(diamond)).get("ENCHANTED_DIAMOND"));
+        assertEquals(MarketplaceType.NONE, service.resolveMarketplaces(List.of(unknown)).get("DIRT"));
+        verify(snapshotService, times(1)).latest();
+        verify(catalogService, times(1)).current();
+        assertEquals(1D, meterRegistry.get("skyblock.item.marketplace_classification.size").gauge().value());
+
+        holder.publish(second);
+
+        assertEquals(MarketplaceType.BOTH, service.resolveMarketplaces(List.of(diamond)).get("ENCHANTED_DIAMOND"));
+        verify(snapshotService, times(2)).latest();
+        assertEquals(2L, meterRegistry.get("skyblock.item.marketplace_classification.build").timer().count());
+    }
+
+    @Test
+    void invalidateForcesRebuildOnNextLookup() {
+        MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
+        FlipRepository flipRepository = mock(FlipRepository.class);
+        ItemCatalogService catalogService = mock(ItemCatalogService.class);
+        ItemMarketplaceService service = new ItemMarketplaceService(snapshotService, flipRepository, catalogService);
+        Item item = item("HYPERION", "Hyperion", "hyperion");
+        when(snapshotService.latest()).thenReturn(Optional.empty());
+        when(flipRepository.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.empty());
+        when(catalogService.current()).thenReturn(ItemCatalog.build(List.of(item)));
+
+        service.resolveMarketplaces(List.of(item));
+        service.invalidate();
+        Map<String, MarketplaceType> result = service.resolveMarketplaces(List.of(item));
+
+        assertEquals(MarketplaceType.NONE, result.get("HYPERION"));
+        verify(catalogService, times(2)).current();
+    }
+
     private Item item(String id, String displayName, String minecraftId) {
         return Item.builder().id(id).displayName(displayName).minecraftId(minecraftId).build();
     }
@@ -3,16 +3,22 @@ package com.skyblockflipper.backend.service.item;
 import com.skyblockflipper.backend.NEU.NEUClient;
 import com.skyblockflipper.backend.NEU.NEUItemMapper;
 import com.skyblockflipper.backend.NEU.repository.ItemRepository;
+import com.skyblockflipper.backend.service.flipping.CompiledFlipTemplateCache;
 import org.junit.jupiter.api.Test;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,7 +34,7 @@ class NeuRepoIngestionServiceTest {
         NeuRepoIngestionService service = new NeuRepoIngestionService(neuClient, mapper, itemRepository);
 
         JsonNode node = objectMapper.readTree("{\"id\":\"ENCHANTED_DIAMOND\",\"displayname\":\"Enchanted Diamond\"}");
-        when(neuClient.loadItemJsons()).thenReturn(List.of(node));
+        when(neuClient.scanItemJsons(anyMap())).thenReturn(scan(node));
 
         int saved = service.ingestLatestFilteredItems();
 
@@ -44,11 +50,104 @@ class NeuRepoIngestionServiceTest {
         NeuRepoIngestionService service = new NeuRepoIngestionService(neuClient, mapper, itemRepository);
 
         JsonNode nodeWithoutId = objectMapper.readTree("{\"displayname\":\"Unknown\"}");
-        when(neuClient.loadItemJsons()).thenReturn(List.of(nodeWithoutId));
+        when(neuClient.scanItemJsons(anyMap())).thenReturn(scan(nodeWithoutId));
 
         int saved = service.ingestLatestFilteredItems();
 
         assertEquals(0, saved);
         verify(itemRepository, never()).saveAll(anyList());
     }
+
+    @Test
+    void ingestLatestFilteredItemsInvalidatesCompiledFlipTemplates() throws Exception {
+        NEUClient neuClient = mock(NEUClient.class);
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        CompiledFlipTemplateCache templateCache = mock(CompiledFlipTemplateCache.class);
+        NeuRepoIngestionService service = new NeuRepoIngestionService(neuClient, new NEUItemMapper(), itemRepository);
+        ItemMarketplaceService marketplaceService = mock(ItemMarketplaceService.class);
+        service.setCompiledFlipTemplateCache(templateCache);
+        ItemCatalogService catalogService = mock(ItemCatalogService.class);
+        service.setItemMarketplaceService(marketplaceService);
+        NpcShopReadService npcShopReadService = mock(NpcShopReadService.class);
+        service.setItemCatalogService(catalogService);
+        service.setNpcShopReadService(npcShopReadService);
+
+        JsonNode node = objectMapper.readTree("{\"id\":\"REFINED_DIAMOND\",\"displayname\":\"Refined Diamond\"}");
+        when(neuClient.scanItemJsons(anyMap())).thenReturn(scan(node));
+
+        service.ingestLatestFilteredItems();
+
+        verify(templateCache).invalidate(List.of("REFINED_DIAMOND"));
+        verify(catalogService).rebuild();
+        verify(marketplaceService).invalidate();
+        verify(npcShopReadService).rebuild();
+    }
+
+    @Test
+    void ingestLatestFilteredItemsPassesKnownHashesAndSkipsUnchangedFiles() throws Exception {
+        NEUClient neuClient = mock(NEUClient.class);
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        ItemCatalogService catalogService = mock(ItemCatalogService.class);
+        NpcShopReadService npcShopReadService = mock(NpcShopReadService.class);
+        NeuRepoIngestionService service = new NeuRepoIngestionService(neuClient, new NEUItemMapper(), itemRepository);
+        service.setItemCatalogService(catalogService);
+        service.setNpcShopReadService(npcShopReadService);
+
+        JsonNode node = objectMapper.readTree("{\"id\":\"ENCHANTED_DIAMOND\"}");
+        Map<String, String> hashes = Map.of("ENCHANTED_DIAMOND.json", "abc");
+        when(neuClient.scanItemJsons(Map.of()))
+                .thenReturn(new NEUClient.ItemScan(hashes, List.of(node), 1));
+        when(neuClient.scanItemJsons(hashes))
+                .thenReturn(new NEUClient.ItemScan(hashes, List.of(), 0));
+
+        assertEquals(1, service.ingestLatestFilteredItems());
+        assertEquals(0, service.ingestLatestFilteredItems());
+
+        verify(itemRepository, times(1)).saveAll(anyList());
+        verify(catalogService, times(1)).rebuild();
+        verify(npcShopReadService, times(1)).rebuild();
+    }
+
+    @Test
+    void ingestLatestFilteredItemsRebuildsNpcShopsWhenOnlyUnfilteredFilesChanged() throws Exception {
+        NEUClient neuClient = mock(NEUClient.class);
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        NpcShopReadService npcShopReadService = mock(NpcShopReadService.class);
+        NeuRepoIngestionService service = new NeuRepoIngestionService(neuClient, new NEUItemMapper(), itemRepository);
+        service.setNpcShopReadService(npcShopReadService);
+        when(neuClient.scanItemJsons(anyMap()))
+                .thenReturn(new NEUClient.ItemScan(Map.of("FARM_MERCHANT_NPC.json", "def"), List.of(), 1));
+
+        assertEquals(0, service.ingestLatestFilteredItems());
+
+        verify(itemRepository, never()).saveAll(anyList());
+        verify(npcShopReadService).rebuild();
+    }
+
+    @Test
+    void ingestLatestFilteredItemsKeepsSavedItemsAndRetriesNpcShopsWhenRebuildFails() throws Exception {
+        NEUClient neuClient = mock(NEUClient.class);
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        NpcShopReadService npcShopReadService = mock(NpcShopReadService.class);
+        NeuRepoIngestionService service = new NeuRepoIngestionService(neuClient, new NEUItemMapper(), itemRepository);
+        service.setNpcShopReadService(npcShopReadService);
+        JsonNode node = objectMapper.readTree("{\"id\":\"ENCHANTED_DIAMOND\"}");
+        Map<String, String> hashes = Map.of("ENCHANTED_DIAMOND.json", "abc");
+        when(neuClient.scanItemJsons(Map.of()))
+                .thenReturn(new NEUClient.ItemScan(hashes, List.of(node), 1));
+        when(neuClient.scanItemJsons(hashes))
+                .thenReturn(new NEUClient.ItemScan(hashes, List.of(), 0));
+        doThrow(new IOException("NEU repo unavailable")).doNothing().when(npcShopReadService).rebuild();
+
+        assertEquals(1, service.ingestLatestFilteredItems());
+        assertEquals(0, service.ingestLatestFilteredItems());
+        assertEquals(0, service.ingestLatestFilteredItems());
+
+        verify(itemRepository, times(1)).saveAll(anyList());
+        verify(npcShopReadService, times(2)).rebuild();
+    }
+
+    private static NEUClient.ItemScan scan(JsonNode node) {
+        return new NEUClient.ItemScan(Map.of("item.json", "hash"), List.of(node), 1);
+    }
 }
@@ -2,16 +2,21 @@ package com.skyblockflipper.backend.service.item;
 
 import com.skyblockflipper.backend.NEU.NEUClient;
 import com.skyblockflipper.backend.api.dto.NpcShopOfferDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class NpcShopReadServiceTest {
@@ -86,4 +91,57 @@ class NpcShopReadServiceTest {
         assertEquals(1, page.getTotalElements());
         assertEquals("WHEAT", page.getContent().getFirst().itemId());
     }
+
+    @Test
+    void loadsOffersOnceAndServesRequestsFromTheIndexUntilRebuilt() throws Exception {
+        NEUClient neuClient = mock(NEUClient.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NpcShopReadService service = new NpcShopReadService(neuClient);
+        service.setMeterRegistry(meterRegistry);
+
+        when(neuClient.loadAllItemJsons()).thenReturn(
+                List.of(objectMapper.readTree("""
+                        {
+                          "internalname":"FARM_MERCHANT_NPC",
+                          "recipes":[
+                            {"type":"npc_shop","cost":["SKYBLOCK_COIN:7"],"result":"WHEAT:3"},
+                            {"type":"crafting","result":"HAY_BLOCK"}
+                          ]
+                        }
+                        """)),
+                List.of(objectMapper.readTree("""
+                        {
+                          "internalname":"FARM_MERCHANT_NPC",
+                          "recipes":[
+                            {"type":"npc_shop","cost":["SKYBLOCK_COIN:7"],"result":"WHEAT:3"},
+                            {"type":"npc_shop","cost":["SKYBLOCK_COIN:10"],"result":"CARROT_ITEM:3"}
+                          ]
+                        }
+                        """))
+        );
+
+        assertEquals(1, service.listNpcBuyableOffers(null, PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, service.listNpcBuyableOffers("carrot_item", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, service.listNpcBuyableOffers(null, PageRequest.of(5, 10)).getContent().size());
+        verify(neuClient, times(1)).loadAllItemJsons();
+        assertEquals(1D, meterRegistry.get("skyblock.npc_shop.index.offers").gauge().value());
+
+        service.rebuild();
+
+        Page<NpcShopOfferDto> page = service.listNpcBuyableOffers(null, PageRequest.of(0, 10));
+        assertEquals(List.of("CARROT_ITEM", "WHEAT"), page.getContent().stream().map(NpcShopOfferDto::itemId).toList());
+        assertEquals(2L, meterRegistry.get("skyblock.npc_shop.index.build").timer().count());
+    }
+
+    @Test
+    void wrapsLoadFailuresAndRetriesOnNextRequest() throws Exception {
+        NEUClient neuClient = mock(NEUClient.class);
+        NpcShopReadService service = new NpcShopReadService(neuClient);
+        when(neuClient.loadAllItemJsons())
+                .thenThrow(new IOException("disk"))
+                .thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> service.listNpcBuyableOffers(null, PageRequest.of(0, 10)));
+        assertEquals(0, service.listNpcBuyableOffers(null, PageRequest.of(0, 10)).getTotalElements());
+    }
 }
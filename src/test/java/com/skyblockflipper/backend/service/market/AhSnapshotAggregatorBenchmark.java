@@ -0,0 +1,92 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.AhItemSnapshotEntity;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates a synthetic snapshot shaped like a full auction house commit (60k auctions over a few thousand item
+ * keys, with pets, stars, recombobulated and enchanted lore mixed in). Run with
+ * {@code scripts/run_jmh.sh AhSnapshotAggregatorBenchmark -prof gc} to see allocation per snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AhSnapshotAggregatorBenchmark {
+
+    private static final String[] TIERS = {"COMMON", "UNCOMMON", "RARE", "EPIC", "LEGENDARY", "MYTHIC"};
+    private static final String[] CATEGORIES = {"weapon", "armor", "accessories", "consumables", "blocks", "misc"};
+
+    @Param({"60000"})
+    public int auctionCount;
+
+    @Param({"3000"})
+    public int distinctItems;
+
+    private final AhSnapshotAggregator aggregator = new AhSnapshotAggregator(new MarketItemKeyService());
+    private Instant snapshotTimestamp;
+    private List<AuctionMarketRecord> auctions;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        long now = 1_760_781_600_000L;
+        snapshotTimestamp = Instant.ofEpochMilli(now);
+        auctions = new ArrayList<>(auctionCount);
+        for (int i = 0; i < auctionCount; i++) {
+            int item = random.nextInt(distinctItems);
+            boolean pet = item % 17 == 0;
+            String itemName = pet ? "[Lvl " + (1 + random.nextInt(100)) + "] Pet " + item : "Item " + item;
+            if (random.nextInt(10) == 0) {
+                itemName = itemName + " ✪✪";
+            }
+            String lore = switch (random.nextInt(4)) {
+                case 0 -> "§7Damage: §c+" + random.nextInt(500) + "\n§9Sharpness V\n§6§lLEGENDARY";
+                case 1 -> "§7Some flavour text\n§f§lCOMMON";
+                case 2 -> "§d§l§ka§r RARITY UPGRADED";
+                default -> null;
+            };
+            String extra = random.nextInt(3) == 0 ? "{\"id\":\"ITEM_" + item + "\"}" : itemName;
+            boolean bin = random.nextInt(10) < 8;
+            long price = 1_000L + random.nextLong(50_000_000L);
+            auctions.add(new AuctionMarketRecord(
+                    String.format("%032x", i),
+                    itemName,
+                    CATEGORIES[item % CATEGORIES.length],
+                    TIERS[item % TIERS.length],
+                    price,
+                    bin ? 0L : price + random.nextLong(1_000_000L),
+                    now - random.nextLong(86_400_000L),
+                    now + random.nextLong(3_600_000L),
+                    random.nextInt(50) == 0,
+                    bin,
+                    lore,
+                    extra
+            ));
+        }
+    }
+
+    @Benchmark
+    public List<AhItemSnapshotEntity> aggregate() {
+        return aggregator.aggregate(snapshotTimestamp, auctions);
+    }
+}
@@ -121,6 +121,24 @@ class AhSnapshotAggregatorTest {
         assertEquals(100L, axe.getBinP95());
     }
 
+    @Test
+    void aggregateComputesPercentilesOverUnsortedLargeGroups() {
+        AhSnapshotAggregator aggregator = new AhSnapshotAggregator(new MarketItemKeyService());
+        Instant snapshot = Instant.ofEpochMilli(1_000L);
+        List<AuctionMarketRecord> auctions = new ArrayList<>();
+        for (int i = 100; i >= 1; i--) {
+            auctions.add(bin("u" + i, "Axe", i * 10L, 2_000_000L));
+        }
+
+        AhItemSnapshotEntity axe = aggregator.aggregate(snapshot, auctions).getFirst();
+
+        assertEquals(10L, axe.getBinLowest());
+        assertEquals(30L, axe.getBinLowest5Mean());
+        assertEquals(500L, axe.getBinP50());
+        assertEquals(950L, axe.getBinP95());
+        assertEquals(100, axe.getBinCount());
+    }
+
     private static AuctionMarketRecord bin(String uuid, String name, long price, long endTs) {
         return new AuctionMarketRecord(
                 uuid,
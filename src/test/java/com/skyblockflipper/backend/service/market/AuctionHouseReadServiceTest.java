@@ -22,6 +22,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class AuctionHouseReadServiceTest {
@@ -250,4 +252,30 @@ class AuctionHouseReadServiceTest {
         assertEquals(1, results.size());
         assertEquals("x1", results.getFirst().auctionId());
     }
+
+    @Test
+    void listListingsReusesSnapshotIndexAndResortsNonDefaultOrder() {
+        MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        AuctionHouseReadService service = new AuctionHouseReadService(snapshotService, itemRepository);
+        service.setAuctionListingIndexService(new AuctionListingIndexService(null));
+
+        AuctionMarketRecord cheap = new AuctionMarketRecord("c1", "Hyperion", "weapon", "LEGENDARY", 100L, 0L, 1L, 30L, false, true, null, null);
+        AuctionMarketRecord expensive = new AuctionMarketRecord("c2", "Hyperion", "weapon", "LEGENDARY", 300L, 0L, 1L, 10L, false, true, null, null);
+        AuctionMarketRecord other = new AuctionMarketRecord("c3", "Terminator", "weapon", "LEGENDARY", 50L, 0L, 1L, 20L, false, true, null, null);
+        MarketSnapshot snapshot = new MarketSnapshot(Instant.now(), List.of(expensive, other, cheap), Map.of());
+        when(snapshotService.latest()).thenReturn(Optional.of(snapshot));
+        when(itemRepository.findById("HYPERION")).thenReturn(Optional.empty());
+
+        List<AhListingDto> byPrice = service.listListings(
+                "hyperion", null, null, null, null, null, null, Pageable.unpaged()
+        ).getContent();
+        List<AhListingDto> endingSoon = service.listListings(
+                "HYPERION", AhListingSortBy.ENDING_SOON, Sort.Direction.ASC, null, null, null, null, Pageable.unpaged()
+        ).getContent();
+
+        assertEquals(List.of("c1", "c2"), byPrice.stream().map(AhListingDto::auctionId).toList());
+        assertEquals(List.of("c2", "c1"), endingSoon.stream().map(AhListingDto::auctionId).toList());
+        verify(itemRepository, times(1)).findById("HYPERION");
+    }
 }
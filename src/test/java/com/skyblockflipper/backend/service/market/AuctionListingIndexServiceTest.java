@@ -0,0 +1,73 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuctionListingIndexServiceTest {
+
+    @Test
+    void publishedSnapshotIsIndexedBeforeFirstRead() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CurrentMarketSnapshotHolder holder = new CurrentMarketSnapshotHolder(meterRegistry);
+        AuctionListingIndexService service = new AuctionListingIndexService(holder);
+        service.setMeterRegistry(meterRegistry);
+        MarketSnapshot first = snapshot("2026-03-01T12:00:00Z");
+        MarketSnapshot second = snapshot("2026-03-01T12:01:00Z");
+
+        holder.publish(first);
+        AuctionListingIndex firstIndex = service.indexFor(first);
+        holder.publish(second);
+        AuctionListingIndex secondIndex = service.indexFor(second);
+
+        assertEquals(first.snapshotTimestamp().toEpochMilli(), firstIndex.snapshotEpochMillis());
+        assertNotSame(firstIndex, secondIndex);
+        assertSame(secondIndex, service.indexFor(second));
+        assertEquals(2L, meterRegistry.get("skyblock.ah.listing_index.build").timer().count());
+    }
+
+    @Test
+    void olderSnapshotIsServedWithoutReplacingNewerIndex() {
+        AuctionListingIndexService service = new AuctionListingIndexService(null);
+        MarketSnapshot newer = snapshot("2026-03-01T12:01:00Z");
+        MarketSnapshot older = snapshot("2026-03-01T12:00:00Z");
+
+        AuctionListingIndex newerIndex = service.indexFor(newer);
+        AuctionListingIndex olderIndex = service.indexFor(older);
+
+        assertEquals(older.snapshotTimestamp().toEpochMilli(), olderIndex.snapshotEpochMillis());
+        assertSame(newerIndex, service.indexFor(newer));
+    }
+
+    @Test
+    void indexGroupsNamesAndMatchesCompactAliases() {
+        AuctionListingIndex index = AuctionListingIndex.build(snapshot("2026-03-01T12:00:00Z"), new AuctionListingParser());
+
+        assertEquals(2, index.distinctNames());
+        List<AuctionListingIndex.IndexedListing> bows = index.listingsFor("terminator", ignored -> Set.of("TERMINATORBOW"));
+        assertEquals(List.of("t2", "t1"), bows.stream().map(listing -> listing.listing().auctionId()).toList());
+        assertSame(bows, index.listingsFor("TERMINATOR", ignored -> Set.of()));
+        assertTrue(index.listingsFor(" ", ignored -> Set.of("TERMINATOR")).isEmpty());
+        assertTrue(index.listingsFor("MISSING", ignored -> Set.of()).isEmpty());
+    }
+
+    private MarketSnapshot snapshot(String timestamp) {
+        return new MarketSnapshot(Instant.parse(timestamp), List.of(
+                new AuctionMarketRecord("t1", "Terminator Bow", "weapon", "LEGENDARY", 300L, 0L, 1L, 2L, false, true, null, null),
+                new AuctionMarketRecord("t2", "Terminator Bow", "weapon", "LEGENDARY", 200L, 0L, 1L, 2L, true, true, null, null),
+                new AuctionMarketRecord("h1", "Hyperion", "weapon", "LEGENDARY", 100L, 0L, 1L, 2L, false, true, null, null),
+                new AuctionMarketRecord("blank", " ", "weapon", "LEGENDARY", 100L, 0L, 1L, 2L, false, true, null, null)
+        ), Map.of());
+    }
+}
@@ -0,0 +1,59 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.hypixel.model.BazaarProduct;
+import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
+import com.skyblockflipper.backend.hypixel.model.BazaarSummaryEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BazaarOrderBookStoreTest {
+
+    @Test
+    void publishStoresPrimitiveLevelsAndRejectsOlderPayloads() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BazaarOrderBookStore store = new BazaarOrderBookStore();
+        store.setMeterRegistry(meterRegistry);
+        BazaarProduct product = new BazaarProduct(
+                "ENCHANTED_GOLD",
+                null,
+                Arrays.asList(new BazaarSummaryEntry(4L, 9.5, 1), null),
+                List.of(new BazaarSummaryEntry(7L, 10.5, 2), new BazaarSummaryEntry(3L, 11.0, 1))
+        );
+
+        assertTrue(store.publish(new BazaarResponse(true, 2_000L, Map.of("ENCHANTED_GOLD", product))));
+        assertFalse(store.publish(new BazaarResponse(true, 1_000L, Map.of())));
+        assertFalse(store.publish(new BazaarResponse(false, 3_000L, Map.of())));
+
+        BazaarOrderBookStore.ProductOrderBook book = store.orderBook("ENCHANTED_GOLD").orElseThrow();
+        assertEquals(2_000L, store.version());
+        assertArrayEquals(new double[]{10.5, 11.0}, book.sellSide().prices());
+        assertArrayEquals(new long[]{7L, 3L}, book.sellSide().amounts());
+        assertArrayEquals(new int[]{2, 1}, book.sellSide().orders());
+        assertEquals(1, book.buySide().depth());
+        assertEquals(1.0D, meterRegistry.get("skyblock.bazaar.order_book.products").gauge().value());
+    }
+
+    @Test
+    void publishSkipsMissingProductsAndUnknownLookupsAreEmpty() {
+        BazaarOrderBookStore store = new BazaarOrderBookStore();
+        Map<String, BazaarProduct> products = new HashMap<>();
+        products.put("EMPTY", new BazaarProduct("EMPTY", null, null, List.of()));
+        products.put("NULL", null);
+
+        assertTrue(store.publish(new BazaarResponse(true, 1_000L, products)));
+
+        assertEquals(0, store.orderBook("EMPTY").orElseThrow().buySide().depth());
+        assertTrue(store.orderBook("NULL").isEmpty());
+        assertTrue(store.orderBook(null).isEmpty());
+    }
+}
@@ -5,7 +5,6 @@ import com.skyblockflipper.backend.NEU.repository.ItemRepository;
 import com.skyblockflipper.backend.api.dto.BazaarOrderBookDto;
 import com.skyblockflipper.backend.api.dto.BazaarProductDto;
 import com.skyblockflipper.backend.api.dto.BazaarQuickFlipDto;
-import com.skyblockflipper.backend.hypixel.HypixelClient;
 import com.skyblockflipper.backend.hypixel.model.BazaarProduct;
 import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
 import com.skyblockflipper.backend.hypixel.model.BazaarSummaryEntry;
@@ -28,16 +27,16 @@ import static org.mockito.Mockito.when;
 class BazaarReadServiceTest {
 
     private MarketSnapshotPersistenceService snapshotService;
-    private HypixelClient hypixelClient;
+    private BazaarOrderBookStore orderBookStore;
     private ItemRepository itemRepository;
     private BazaarReadService service;
 
     @BeforeEach
     void setUp() {
         snapshotService = mock(MarketSnapshotPersistenceService.class);
-        hypixelClient = mock(HypixelClient.class);
+        orderBookStore = new BazaarOrderBookStore();
         itemRepository = mock(ItemRepository.class);
-        service = new BazaarReadService(snapshotService, hypixelClient, itemRepository);
+        service = new BazaarReadService(snapshotService, orderBookStore, itemRepository);
     }
 
     @Test
@@ -74,7 +73,7 @@ class BazaarReadServiceTest {
                         new BazaarSummaryEntry(8L, 205300.0, 2)
                 )
         );
-        when(hypixelClient.fetchBazaar()).thenReturn(new BazaarResponse(true, 0L, Map.of("ENCHANTED_DIAMOND_BLOCK", product)));
+        orderBookStore.publish(new BazaarResponse(true, 0L, Map.of("ENCHANTED_DIAMOND_BLOCK", product)));
 
         BazaarOrderBookDto result = service.getOrderBook("ENCHANTED_DIAMOND_BLOCK", 1);
 
@@ -86,7 +85,7 @@ class BazaarReadServiceTest {
 
     @Test
     void getOrderBookReturnsEmptyWhenBazaarResponseMissing() {
-        when(hypixelClient.fetchBazaar()).thenReturn(null);
+        orderBookStore.publish(null);
 
         BazaarOrderBookDto result = service.getOrderBook("ANY", 10);
 
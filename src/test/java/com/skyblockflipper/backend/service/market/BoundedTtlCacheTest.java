@@ -0,0 +1,74 @@
+package com.skyblockflipper.backend.service.market;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void getLoadsOnceAndRecordsHitsAndMisses() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AtomicInteger loads = new AtomicInteger();
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>("test.cache", 10, 1_000L, () -> 0L, meterRegistry);
+
+        assertEquals(3, cache.get("abc", key -> loads.incrementAndGet() + 2));
+        assertEquals(3, cache.get("abc", key -> loads.incrementAndGet() + 2));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0D, meterRegistry.get("test.cache.lookup").tag("result", "miss").counter().count());
+        assertEquals(1.0D, meterRegistry.get("test.cache.lookup").tag("result", "hit").counter().count());
+        assertEquals(1.0D, meterRegistry.get("test.cache.size").gauge().value());
+    }
+
+    @Test
+    void entriesExpireAfterIdleTtlAndAreSweptOnLaterInserts() {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>("test.cache", 10, 100L, clock::get, null);
+
+        cache.get("a", key -> loads.incrementAndGet());
+        clock.set(90L);
+        cache.get("a", key -> loads.incrementAndGet());
+        clock.set(180L);
+        cache.get("a", key -> loads.incrementAndGet());
+        assertEquals(1, loads.get());
+
+        clock.set(400L);
+        cache.get("b", key -> loads.incrementAndGet());
+        assertEquals(1, cache.size());
+        cache.get("a", key -> loads.incrementAndGet());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void exceedingMaxEntriesTrimsLeastRecentlyUsed() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AtomicLong clock = new AtomicLong();
+        BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>("test.cache", 10, 1_000_000L, clock::get, meterRegistry);
+        for (int i = 0; i < 10; i++) {
+            clock.incrementAndGet();
+            cache.get(i, key -> key);
+        }
+        clock.incrementAndGet();
+        cache.get(0, key -> -1);
+
+        clock.incrementAndGet();
+        cache.get(10, key -> key);
+
+        assertEquals(9, cache.size());
+        assertEquals(2.0D, meterRegistry.get("test.cache.evictions").counter().count());
+        AtomicInteger reloads = new AtomicInteger();
+        assertEquals(0, cache.get(0, key -> reloads.incrementAndGet()));
+        assertEquals(0, reloads.get());
+        assertTrue(cache.get(1, key -> -reloads.incrementAndGet()) < 0);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,89 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurrentMarketSnapshotHolderTest {
+
+    @Test
+    void publishAdvancesVersionAndIgnoresOlderSnapshots() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CurrentMarketSnapshotHolder holder = new CurrentMarketSnapshotHolder(meterRegistry);
+        MarketSnapshot first = snapshot("2026-03-01T12:00:00Z");
+        MarketSnapshot second = snapshot("2026-03-01T12:01:00Z");
+
+        assertTrue(holder.current().isEmpty());
+        assertEquals(0L, holder.version());
+        assertFalse(holder.publish(null));
+
+        assertTrue(holder.publish(first));
+        assertTrue(holder.publish(second));
+        assertFalse(holder.publish(first));
+
+        CurrentMarketSnapshotHolder.VersionedMarketSnapshot current = holder.current().orElseThrow();
+        assertSame(second, current.snapshot());
+        assertEquals(2L, current.version());
+        assertEquals(second.snapshotTimestamp().toEpochMilli(), current.timestampEpochMillis());
+        assertEquals(2.0D, meterRegistry.get(CurrentMarketSnapshotHolder.VERSION_METRIC_NAME).gauge().value());
+    }
+
+    @Test
+    void publishReplacesSnapshotWithSameTimestamp() {
+        CurrentMarketSnapshotHolder holder = new CurrentMarketSnapshotHolder(new SimpleMeterRegistry());
+        MarketSnapshot original = snapshot("2026-03-01T12:00:00Z");
+        MarketSnapshot replacement = snapshot("2026-03-01T12:00:00Z");
+
+        holder.publish(original);
+        assertTrue(holder.publish(replacement));
+
+        assertSame(replacement, holder.current().orElseThrow().snapshot());
+        assertEquals(2L, holder.version());
+    }
+
+    @Test
+    void recordLookupCountsByLookupAndResult() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CurrentMarketSnapshotHolder holder = new CurrentMarketSnapshotHolder(meterRegistry);
+
+        holder.recordLookup("latest", CurrentMarketSnapshotHolder.LookupResult.HIT);
+        holder.recordLookup("latest", CurrentMarketSnapshotHolder.LookupResult.HIT);
+        holder.recordLookup("asOf", CurrentMarketSnapshotHolder.LookupResult.STALE);
+
+        assertEquals(2.0D, meterRegistry.get(CurrentMarketSnapshotHolder.LOOKUP_METRIC_NAME)
+                .tag("lookup", "latest").tag("result", "hit").counter().count());
+        assertEquals(1.0D, meterRegistry.get(CurrentMarketSnapshotHolder.LOOKUP_METRIC_NAME)
+                .tag("lookup", "asOf").tag("result", "stale").counter().count());
+    }
+
+    @Test
+    void publishNotifiesSubscribersOnlyForAcceptedSnapshots() {
+        CurrentMarketSnapshotHolder holder = new CurrentMarketSnapshotHolder(new SimpleMeterRegistry());
+        List<MarketSnapshot> received = new ArrayList<>();
+        holder.subscribe(snapshot -> {
+            throw new IllegalStateException("boom");
+        });
+        holder.subscribe(received::add);
+        MarketSnapshot newer = snapshot("2026-03-01T12:01:00Z");
+        MarketSnapshot older = snapshot("2026-03-01T12:00:00Z");
+
+        assertTrue(holder.publish(newer));
+        assertFalse(holder.publish(older));
+
+        assertEquals(List.of(newer), received);
+    }
+
+    private MarketSnapshot snapshot(String timestamp) {
+        return new MarketSnapshot(Instant.parse(timestamp), List.of(), Map.of());
+    }
+}
@@ -176,6 +176,28 @@ class DashboardReadServiceTest {
         assertEquals(MarketplaceType.BAZAAR, trending.getFirst().marketplace());
     }
 
+    @Test
+    void trendingServesPrecomputedRankingWhenIndexServiceIsWired() {
+        TrendingIndexService trendingIndexService = mock(TrendingIndexService.class);
+        List<TrendingItemDto> ranking = List.of(new TrendingItemDto("A", "Alpha", 5D, 1D, 10L, MarketplaceType.BAZAAR));
+        when(trendingIndexService.top(3)).thenReturn(Optional.of(ranking));
+        service.setTrendingIndexService(trendingIndexService);
+
+        assertEquals(ranking, service.trending(3));
+        verifyNoInteractions(snapshotService, itemRepository, marketplaceService);
+    }
+
+    @Test
+    void trendingFallsBackToSnapshotsWhenIndexHasNoGeneration() {
+        TrendingIndexService trendingIndexService = mock(TrendingIndexService.class);
+        when(trendingIndexService.top(3)).thenReturn(Optional.empty());
+        service.setTrendingIndexService(trendingIndexService);
+        when(snapshotService.latest()).thenReturn(Optional.empty());
+
+        assertTrue(service.trending(3).isEmpty());
+        verify(snapshotService).latest();
+    }
+
     @Test
     void overviewUsesLegacyFlipFallbackWhenCurrentReadServiceIsMissing() {
         Instant ts = FIXED_INSTANT;
@@ -2,8 +2,11 @@ package com.skyblockflipper.backend.service.market;
 
 import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -214,4 +217,82 @@ class MarketItemKeyServiceTest {
         assertTrue(service.hasAuctionAdditionals(enchanted));
         assertFalse(service.hasAuctionAdditionals(clean));
     }
+
+    @Test
+    void toAuctionAggregateKeyCombinesKeyAndAdditionalsInOnePass() {
+        AuctionMarketRecord pet = new AuctionMarketRecord(
+                "a10",
+                "[Lvl 100] Ender Dragon",
+                "misc",
+                "legendary",
+                1_000L,
+                0L,
+                1L,
+                2L,
+                false,
+                true,
+                "§6Sharpness V",
+                null
+        );
+
+        MarketItemKeyService.AuctionAggregateKey key = service.toAuctionAggregateKey(pet);
+
+        assertEquals(service.toAuctionAggregateItemKey(pet), key.itemKey());
+        assertEquals("ENDER_DRAGON|T:LEGENDARY|C:MISC|P:100", key.itemKey());
+        assertTrue(key.hasAdditionals());
+        assertNull(service.toAuctionAggregateKey(null));
+    }
+
+    @Test
+    void repeatedAuctionContentIsServedFromKeyCache() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MarketItemKeyService cached = new MarketItemKeyService(10, Duration.ofMinutes(5), meterRegistry);
+        AuctionMarketRecord first = new AuctionMarketRecord("a1", "Hyperion ✪✪", "weapon", "legendary",
+                900_000_000L, 0L, 1L, 2L, false, true, "§9Sharpness V", "{\"id\":\"HYPERION\"}");
+        AuctionMarketRecord sameContent = new AuctionMarketRecord("a2", "Hyperion ✪✪", "weapon", "legendary",
+                850_000_000L, 0L, 3L, 4L, false, true, "§9Sharpness V", "{\"id\":\"HYPERION\"}");
+
+        assertEquals(service.toAuctionItemKey(first), cached.toAuctionItemKey(first));
+        assertEquals(service.toAuctionAggregateKey(first), cached.toAuctionAggregateKey(sameContent));
+        assertEquals(service.hasAuctionAdditionals(first), cached.hasAuctionAdditionals(sameContent));
+        assertEquals(1, cached.auctionKeyCacheSize());
+        assertEquals(1.0D, meterRegistry.get(MarketItemKeyService.KEY_CACHE_METRIC_PREFIX + ".lookup")
+                .tag("result", "miss").counter().count());
+        assertEquals(2.0D, meterRegistry.get(MarketItemKeyService.KEY_CACHE_METRIC_PREFIX + ".lookup")
+                .tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void keyCacheSeparatesAuctionsWhoseLoreOrExtraDiffers() {
+        MarketItemKeyService cached = new MarketItemKeyService(10, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        AuctionMarketRecord plain = new AuctionMarketRecord("a1", "Hyperion", "weapon", "legendary",
+                900_000_000L, 0L, 1L, 2L, false, true, "§7Damage: +260", "{\"id\":\"HYPERION\"}");
+        AuctionMarketRecord enchanted = new AuctionMarketRecord("a2", "Hyperion", "weapon", "legendary",
+                900_000_000L, 0L, 1L, 2L, false, true, "§9Sharpness V", "{\"id\":\"HYPERION\"}");
+        AuctionMarketRecord recombobulated = new AuctionMarketRecord("a3", "Hyperion", "weapon", "legendary",
+                900_000_000L, 0L, 1L, 2L, false, true, "§7Damage: +260", "{\"id\":\"HYPERION\",\"rarity_upgrades\":1}");
+        AuctionMarketRecord noLore = new AuctionMarketRecord("a4", "Hyperion", "weapon", "legendary",
+                900_000_000L, 0L, 1L, 2L, false, true, null, "{\"id\":\"HYPERION\"}");
+
+        assertFalse(cached.hasAuctionAdditionals(plain));
+        assertTrue(cached.hasAuctionAdditionals(enchanted));
+        assertTrue(cached.hasAuctionAdditionals(recombobulated));
+        assertFalse(cached.hasAuctionAdditionals(noLore));
+        assertEquals(4, cached.auctionKeyCacheSize());
+        assertEquals(service.toAuctionItemKey(enchanted), cached.toAuctionItemKey(new AuctionMarketRecord("a5", "Hyperion",
+                "weapon", "legendary", 1L, 0L, 1L, 2L, false, true, new String("§9Sharpness V"), "{\"id\":\"HYPERION\"}")));
+        assertEquals(4, cached.auctionKeyCacheSize());
+    }
+
+    @Test
+    void defaultInstanceKeepsASmallKeyCache() {
+        MarketItemKeyService unmanaged = new MarketItemKeyService();
+
+        for (int i = 0; i < 3_000; i++) {
+            unmanaged.toAuctionAggregateKey(new AuctionMarketRecord("a" + i, "Hyperion", "weapon", "legendary",
+                    1L, 0L, 1L, 2L, false, true, "§7Damage: +" + i, "{\"id\":\"HYPERION\"}"));
+        }
+
+        assertTrue(unmanaged.auctionKeyCacheSize() <= 1_024);
+    }
 }
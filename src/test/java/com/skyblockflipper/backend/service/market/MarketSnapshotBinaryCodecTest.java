@@ -0,0 +1,88 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarketSnapshotBinaryCodecTest {
+
+    @Test
+    void auctionsRoundTripWithAndWithoutCompression() {
+        List<AuctionMarketRecord> auctions = List.of(
+                new AuctionMarketRecord("0f1e2d3c4b5a69788796a5b4c3d2e1f0", "Hyperion", "weapon", "MYTHIC",
+                        825_000_000L, 0L, 1_760_780_000_000L, 1_760_823_200_000L, false, true, null, null),
+                new AuctionMarketRecord("not-a-hex-uuid", "Hyperion", "weapon", "MYTHIC",
+                        790_000_000L, 12L, 1_760_779_000_000L, 1_760_779_500_000L, true, false, "§7lore", "extra"),
+                new AuctionMarketRecord(null, null, null, null, -1L, 0L, 0L, 0L, false, false, null, null),
+                new AuctionMarketRecord("00000000000000000000000000000001", "Aspect of the End", "weapon", "RARE",
+                        95_000L, 95_000L, 1_760_770_000_000L, 1_760_780_500_000L, true, true, null, null)
+        );
+
+        for (boolean compress : new boolean[]{true, false}) {
+            MarketSnapshotBinaryCodec codec = new MarketSnapshotBinaryCodec(compress);
+            assertEquals(auctions, codec.decodeAuctions(codec.encodeAuctions(auctions)));
+        }
+    }
+
+    @Test
+    void bazaarRoundTripPreservesOrderKeysAndNullValues() {
+        Map<String, BazaarMarketRecord> products = new LinkedHashMap<>();
+        products.put("ENCHANTED_DIAMOND", new BazaarMarketRecord("ENCHANTED_DIAMOND", 1_234.5D, 1_200.25D,
+                10L, 20L, 1_000_000L, 2_000_000L, 3, 4));
+        products.put("ALIAS_KEY", new BazaarMarketRecord("WHEAT", 2.0D, 1.9D, 0L, 0L, 0L, 0L, 0, 0));
+        products.put("EMPTY", null);
+
+        MarketSnapshotBinaryCodec codec = new MarketSnapshotBinaryCodec(true);
+        Map<String, BazaarMarketRecord> decoded = codec.decodeBazaar(codec.encodeBazaar(products));
+
+        assertEquals(products, decoded);
+        assertEquals(List.of("ENCHANTED_DIAMOND", "ALIAS_KEY", "EMPTY"), new ArrayList<>(decoded.keySet()));
+    }
+
+    @Test
+    void encodesEmptyAndNullCollections() {
+        MarketSnapshotBinaryCodec codec = new MarketSnapshotBinaryCodec(false);
+
+        assertTrue(codec.decodeAuctions(codec.encodeAuctions(null)).isEmpty());
+        assertTrue(codec.decodeBazaar(codec.encodeBazaar(null)).isEmpty());
+    }
+
+    @Test
+    void encodedAuctionsAreSmallerThanJsonForRepetitiveItems() {
+        List<AuctionMarketRecord> auctions = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            auctions.add(new AuctionMarketRecord(String.format("%032x", i), "Enchanted Book", "misc", "COMMON",
+                    1_000L + i, 0L, 1_760_780_000_000L + i * 1_000L, 1_760_823_200_000L + i * 1_000L, false, true,
+                    null, null));
+        }
+
+        byte[] encoded = new MarketSnapshotBinaryCodec(true).encodeAuctions(auctions);
+
+        assertTrue(encoded.length < auctions.size() * 20, "encoded length " + encoded.length);
+    }
+
+    @Test
+    void decodeRejectsForeignVersionAndTruncatedPayloads() {
+        MarketSnapshotBinaryCodec codec = new MarketSnapshotBinaryCodec(false);
+        byte[] encoded = codec.encodeAuctions(List.of(new AuctionMarketRecord("a", "b", "c", "d", 1L, 2L, 3L, 4L, false)));
+
+        assertThrows(IllegalStateException.class, () -> codec.decodeAuctions("[]".getBytes()));
+        byte[] otherVersion = encoded.clone();
+        otherVersion[2] = (byte) (MarketSnapshotBinaryCodec.FORMAT_VERSION + 1);
+        assertThrows(IllegalStateException.class, () -> codec.decodeAuctions(otherVersion));
+        assertThrows(IllegalStateException.class, () -> codec.decodeAuctions(Arrays.copyOf(encoded, encoded.length - 3)));
+
+        byte[] compressed = new MarketSnapshotBinaryCodec(true).encodeBazaar(Map.of());
+        assertThrows(IllegalStateException.class, () -> codec.decodeBazaar(Arrays.copyOf(compressed, compressed.length - 2)));
+    }
+}
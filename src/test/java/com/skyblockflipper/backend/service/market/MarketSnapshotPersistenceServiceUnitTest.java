@@ -1,7 +1,11 @@
 package com.skyblockflipper.backend.service.market;
 
 import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.model.market.MarketSnapshotEntity;
+import com.skyblockflipper.backend.model.market.RetainedMarketSnapshotEntity;
 import com.skyblockflipper.backend.repository.FlipRepository;
 import com.skyblockflipper.backend.repository.MarketSnapshotCompactionCandidate;
 import com.skyblockflipper.backend.repository.MarketSnapshotRepository;
@@ -10,8 +14,10 @@ import com.skyblockflipper.backend.service.market.partitioning.PartitionLifecycl
 import com.skyblockflipper.backend.service.market.partitioning.PartitionRetentionReport;
 import com.skyblockflipper.backend.service.market.partitioning.PartitioningMode;
 import com.skyblockflipper.backend.service.market.partitioning.PartitioningProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.SimpleTransactionStatus;
@@ -24,6 +30,10 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
@@ -32,6 +42,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -96,6 +107,127 @@ class MarketSnapshotPersistenceServiceUnitTest {
         verify(marketSnapshotRepository, times(1)).findTopByOrderBySnapshotTimestampEpochMillisDesc();
     }
 
+    @Test
+    void latestIsServedFromCurrentSnapshotWhenPersistedTimestampMatches() {
+        long timestamp = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+        MarketSnapshotPersistenceService service = createService(defaultRetention());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CurrentMarketSnapshotHolder holder = new CurrentMarketSnapshotHolder(meterRegistry);
+        service.setCurrentSnapshotHolder(holder);
+        MarketSnapshot snapshot = new MarketSnapshot(Instant.ofEpochMilli(timestamp), List.of(), Map.of());
+        when(marketSnapshotRepository.findMaxSnapshotTimestampEpochMillisAtOrBefore(anyLong())).thenReturn(Optional.of(timestamp));
+        when(retainedMarketSnapshotRepository.findMaxSnapshotTimestampEpochMillisAtOrBefore(anyLong())).thenReturn(Optional.empty());
+
+        service.save(snapshot);
+
+        assertSame(snapshot, service.latest().orElseThrow());
+        assertSame(snapshot, service.asOf(Instant.ofEpochMilli(timestamp + 30_000L)).orElseThrow());
+        verify(marketSnapshotRepository, never()).findTopByOrderBySnapshotTimestampEpochMillisDesc();
+        verify(marketSnapshotRepository, never())
+                .findTopBySnapshotTimestampEpochMillisLessThanEqualOrderBySnapshotTimestampEpochMillisDesc(anyLong());
+        assertEquals(1.0D, meterRegistry.get(CurrentMarketSnapshotHolder.LOOKUP_METRIC_NAME)
+                .tag("lookup", "latest").tag("result", "hit").counter().count());
+        assertEquals(1.0D, meterRegistry.get(CurrentMarketSnapshotHolder.LOOKUP_METRIC_NAME)
+                .tag("lookup", "asOf").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void latestReloadsAndRepublishesWhenNewerSnapshotWasPersistedElsewhere() {
+        long cachedTimestamp = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+        long newerTimestamp = Instant.parse("2026-03-01T12:01:00Z").toEpochMilli();
+        MarketSnapshotPersistenceService service = createService(defaultRetention());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CurrentMarketSnapshotHolder holder = new CurrentMarketSnapshotHolder(meterRegistry);
+        holder.publish(new MarketSnapshot(Instant.ofEpochMilli(cachedTimestamp), List.of(), Map.of()));
+        service.setCurrentSnapshotHolder(holder);
+        when(marketSnapshotRepository.findMaxSnapshotTimestampEpochMillisAtOrBefore(anyLong())).thenReturn(Optional.of(cachedTimestamp));
+        when(retainedMarketSnapshotRepository.findMaxSnapshotTimestampEpochMillisAtOrBefore(anyLong())).thenReturn(Optional.of(newerTimestamp));
+        when(retainedMarketSnapshotRepository.findTopByOrderBySnapshotTimestampEpochMillisDesc()).thenReturn(Optional.of(
+                new RetainedMarketSnapshotEntity(UUID.randomUUID(), newerTimestamp, 0, 0, "[]", "{}", newerTimestamp, newerTimestamp)
+        ));
+
+        MarketSnapshot latest = service.latest().orElseThrow();
+
+        assertEquals(Instant.ofEpochMilli(newerTimestamp), latest.snapshotTimestamp());
+        assertEquals(newerTimestamp, holder.current().orElseThrow().timestampEpochMillis());
+        assertEquals(1.0D, meterRegistry.get(CurrentMarketSnapshotHolder.LOOKUP_METRIC_NAME)
+                .tag("lookup", "latest").tag("result", "stale").counter().count());
+    }
+
+    @Test
+    void asOfBeforeCurrentSnapshotIsLoadedWithoutReplacingHolder() {
+        long cachedTimestamp = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+        long olderTimestamp = Instant.parse("2026-03-01T11:00:00Z").toEpochMilli();
+        MarketSnapshotPersistenceService service = createService(defaultRetention());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CurrentMarketSnapshotHolder holder = new CurrentMarketSnapshotHolder(meterRegistry);
+        holder.publish(new MarketSnapshot(Instant.ofEpochMilli(cachedTimestamp), List.of(), Map.of()));
+        service.setCurrentSnapshotHolder(holder);
+        when(marketSnapshotRepository
+                .findTopBySnapshotTimestampEpochMillisLessThanEqualOrderBySnapshotTimestampEpochMillisDesc(olderTimestamp))
+                .thenReturn(Optional.of(new MarketSnapshotEntity(olderTimestamp, 0, 0, "[]", "{}")));
+
+        MarketSnapshot asOf = service.asOf(Instant.ofEpochMilli(olderTimestamp)).orElseThrow();
+
+        assertEquals(Instant.ofEpochMilli(olderTimestamp), asOf.snapshotTimestamp());
+        assertEquals(cachedTimestamp, holder.current().orElseThrow().timestampEpochMillis());
+        verify(marketSnapshotRepository, never()).findMaxSnapshotTimestampEpochMillisAtOrBefore(anyLong());
+        assertEquals(1.0D, meterRegistry.get(CurrentMarketSnapshotHolder.LOOKUP_METRIC_NAME)
+                .tag("lookup", "asOf").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void saveWritesBinaryPayloadsThatLatestDecodes() {
+        long timestamp = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+        MarketSnapshotPersistenceService service = createService(defaultRetention());
+        MarketSnapshot snapshot = new MarketSnapshot(
+                Instant.ofEpochMilli(timestamp),
+                List.of(new AuctionMarketRecord("a1", "Hyperion", "weapon", "MYTHIC", 10L, 0L, timestamp, timestamp + 1L, false, true)),
+                Map.of("WHEAT", new BazaarMarketRecord("WHEAT", 2.0D, 1.5D, 1L, 2L, 3L, 4L, 5, 6))
+        );
+        ArgumentCaptor<MarketSnapshotEntity> saved = ArgumentCaptor.forClass(MarketSnapshotEntity.class);
+
+        service.save(snapshot);
+
+        verify(marketSnapshotRepository).save(saved.capture());
+        assertNull(saved.getValue().getAuctionsJson());
+        assertNull(saved.getValue().getBazaarProductsJson());
+        assertNotNull(saved.getValue().getAuctionsBlob());
+        when(marketSnapshotRepository.findTopByOrderBySnapshotTimestampEpochMillisDesc()).thenReturn(Optional.of(saved.getValue()));
+
+        MarketSnapshot loaded = service.latest().orElseThrow();
+
+        assertEquals(snapshot.auctions(), loaded.auctions());
+        assertEquals(snapshot.bazaarProducts(), loaded.bazaarProducts());
+    }
+
+    @Test
+    void saveFallsBackToJsonWhenBinaryEncodingIsDisabled() {
+        MarketSnapshotPersistenceService service = createService(defaultRetention());
+        MarketSnapshotStorageProperties storageProperties = new MarketSnapshotStorageProperties();
+        storageProperties.setBinaryRawSnapshotEncoding(false);
+        service.setSnapshotStorageProperties(storageProperties);
+        ArgumentCaptor<MarketSnapshotEntity> saved = ArgumentCaptor.forClass(MarketSnapshotEntity.class);
+
+        service.save(new MarketSnapshot(Instant.parse("2026-03-01T12:00:00Z"), List.of(), Map.of()));
+
+        verify(marketSnapshotRepository).save(saved.capture());
+        assertEquals("[]", saved.getValue().getAuctionsJson());
+        assertEquals("{}", saved.getValue().getBazaarProductsJson());
+        assertNull(saved.getValue().getAuctionsBlob());
+    }
+
+    @Test
+    void latestRejectsCorruptBinaryPayload() {
+        long timestamp = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+        MarketSnapshotPersistenceService service = createService(defaultRetention());
+        when(marketSnapshotRepository.findTopByOrderBySnapshotTimestampEpochMillisDesc()).thenReturn(Optional.of(
+                new MarketSnapshotEntity(timestamp, 0, 0, new byte[]{'F', 'S', 1, 0, 5}, null)
+        ));
+
+        assertThrows(IllegalStateException.class, service::latest);
+    }
+
     @Test
     void compactSnapshotsReturnsZerosWhenNoCandidatesFound() {
         when(marketSnapshotRepository.findCompactionCandidates(anyLong(), any())).thenReturn(List.of());
@@ -9,17 +9,24 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
@@ -244,6 +251,82 @@ class MarketTimescaleFeatureServiceTest {
         assertEquals(null, features.macroReturn1d());
     }
 
+    @Test
+    void ingestedSnapshotsServeTheSameFeaturesAsTheDatabaseWithoutQueries() {
+        List<BzItemSnapshotEntity> table = new ArrayList<>();
+        BzItemSnapshotRepository repository = tableBackedRepository(table);
+        MarketTimescaleFeatureService featureService = new MarketTimescaleFeatureService(repository, new MarketItemKeyService());
+        long firstDay = Math.floorDiv(Instant.parse("2026-02-10T00:00:00Z").getEpochSecond(), 86_400L);
+        for (int day = 0; day < 4; day++) {
+            table.add(rowAtMillis((firstDay + day) * 86_400_000L + 5_000L, "ENCHANTED_DIAMOND", 100D + (day * 7D)));
+            table.add(rowAtMillis((firstDay + day) * 86_400_000L + 65_000L, "ENCHANTED_DIAMOND", 90D));
+        }
+
+        MarketSnapshot latest = null;
+        for (int day = 4; day < 9; day++) {
+            for (int step = 0; step < 12; step++) {
+                long ts = (firstDay + day) * 86_400_000L + 5_000L + (step * 6_000L);
+                double mid = 120D + (day * 5D) + ((step % 3) * 1.5D);
+                latest = snapshot(Instant.ofEpochMilli(ts).toString(), mid);
+                List<BzItemSnapshotEntity> rows = List.of(rowAtMillis(ts, "ENCHANTED_DIAMOND", mid));
+                table.addAll(rows);
+                assertTrue(featureService.ingest(latest, rows));
+            }
+        }
+
+        clearInvocations(repository);
+        FlipScoreFeatureSet.ItemTimescaleFeatures incremental = featureService.computeFor(latest).get("ENCHANTED_DIAMOND");
+        verifyNoInteractions(repository);
+
+        MarketTimescaleFeatureService databaseOnly = new MarketTimescaleFeatureService(repository, new MarketItemKeyService());
+        FlipScoreFeatureSet.ItemTimescaleFeatures fromDatabase = databaseOnly.computeFor(latest).get("ENCHANTED_DIAMOND");
+        assertEquals(fromDatabase, incremental);
+        assertEquals(FlipScoreFeatureSet.ConfidenceLevel.HIGH, incremental.microConfidence());
+        assertEquals(FlipScoreFeatureSet.ConfidenceLevel.HIGH, incremental.macroConfidence());
+        assertNotNull(incremental.microVolatility1m());
+    }
+
+    @Test
+    void ingestIgnoresStaleSnapshotsAndComputesOtherSnapshotsFromTheDatabase() {
+        List<BzItemSnapshotEntity> table = new ArrayList<>();
+        BzItemSnapshotRepository repository = tableBackedRepository(table);
+        MarketTimescaleFeatureService featureService = new MarketTimescaleFeatureService(repository, new MarketItemKeyService());
+        MarketSnapshot older = snapshot("2026-02-18T11:59:30Z", 290D);
+        MarketSnapshot newer = snapshot("2026-02-18T12:00:00Z", 300D);
+        List<BzItemSnapshotEntity> newerRows = List.of(row("2026-02-18T12:00:00Z", 300D));
+        table.add(row("2026-02-18T11:59:30Z", 290D));
+        table.addAll(newerRows);
+
+        assertTrue(featureService.ingest(newer, newerRows));
+        assertFalse(featureService.ingest(newer, newerRows));
+        assertFalse(featureService.ingest(older, List.of(row("2026-02-18T11:59:30Z", 290D))));
+        assertFalse(featureService.ingest(null, newerRows));
+
+        clearInvocations(repository);
+        FlipScoreFeatureSet.ItemTimescaleFeatures asOfOlder = featureService.computeFor(older).get("ENCHANTED_DIAMOND");
+        assertNotNull(asOfOlder);
+        verify(repository).findFirstSnapshotTsPerDayBetween(anyLong(), anyLong());
+    }
+
+    @Test
+    void ingestRetriesSeedingAfterTheDatabaseFails() {
+        BzItemSnapshotRepository repository = mock(BzItemSnapshotRepository.class);
+        MarketTimescaleFeatureService featureService = new MarketTimescaleFeatureService(repository, new MarketItemKeyService());
+        MarketSnapshot latest = snapshot("2026-02-18T12:00:00Z", 300D);
+        List<BzItemSnapshotEntity> rows = List.of(row("2026-02-18T12:00:00Z", 300D));
+        when(repository.findBySnapshotTsBetweenAndProductIdInOrderBySnapshotTsAsc(anyLong(), anyLong(), anyCollection()))
+                .thenThrow(new RuntimeException("database unavailable"))
+                .thenReturn(rows);
+        when(repository.findFirstSnapshotTsPerDayBetween(anyLong(), anyLong())).thenReturn(List.of());
+
+        assertFalse(featureService.ingest(latest, rows));
+        assertTrue(featureService.ingest(latest, rows));
+
+        clearInvocations(repository);
+        assertNotNull(featureService.computeFor(latest).get("ENCHANTED_DIAMOND"));
+        verifyNoInteractions(repository);
+    }
+
     @Test
     void constructorRejectsNullDependencies() {
         BzItemSnapshotRepository repository = mock(BzItemSnapshotRepository.class);
@@ -251,6 +334,42 @@ class MarketTimescaleFeatureServiceTest {
         assertThrows(NullPointerException.class, () -> new MarketTimescaleFeatureService(repository, null));
     }
 
+    private BzItemSnapshotRepository tableBackedRepository(List<BzItemSnapshotEntity> table) {
+        BzItemSnapshotRepository repository = mock(BzItemSnapshotRepository.class);
+        when(repository.findBySnapshotTsBetweenAndProductIdInOrderBySnapshotTsAsc(anyLong(), anyLong(), anyCollection()))
+                .thenAnswer(invocation -> {
+                    long from = invocation.getArgument(0);
+                    long to = invocation.getArgument(1);
+                    Collection<String> ids = invocation.getArgument(2);
+                    return table.stream()
+                            .filter(row -> row.getSnapshotTs() >= from && row.getSnapshotTs() <= to && ids.contains(row.getProductId()))
+                            .sorted(Comparator.comparingLong(BzItemSnapshotEntity::getSnapshotTs))
+                            .toList();
+                });
+        when(repository.findFirstSnapshotTsPerDayBetween(anyLong(), anyLong()))
+                .thenAnswer(invocation -> {
+                    long from = invocation.getArgument(0);
+                    long to = invocation.getArgument(1);
+                    Map<Long, Long> firstPerDay = new TreeMap<>();
+                    for (BzItemSnapshotEntity row : table) {
+                        if (row.getSnapshotTs() >= from && row.getSnapshotTs() <= to) {
+                            firstPerDay.merge(Math.floorDiv(row.getSnapshotTs(), 86_400_000L), row.getSnapshotTs(), Math::min);
+                        }
+                    }
+                    return new ArrayList<>(firstPerDay.values());
+                });
+        when(repository.findBySnapshotTsInAndProductIdInOrderBySnapshotTsAsc(anyCollection(), anyCollection()))
+                .thenAnswer(invocation -> {
+                    Collection<Long> snapshotTs = invocation.getArgument(0);
+                    Collection<String> ids = invocation.getArgument(1);
+                    return table.stream()
+                            .filter(row -> snapshotTs.contains(row.getSnapshotTs()) && ids.contains(row.getProductId()))
+                            .sorted(Comparator.comparingLong(BzItemSnapshotEntity::getSnapshotTs))
+                            .toList();
+                });
+        return repository;
+    }
+
     private BzItemSnapshotEntity row(String timestamp, double midPrice) {
         double buyPrice = midPrice + 2D;
         double sellPrice = midPrice - 2D;
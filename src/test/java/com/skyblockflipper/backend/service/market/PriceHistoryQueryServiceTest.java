@@ -0,0 +1,187 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.api.dto.PriceHistoryRange;
+import com.skyblockflipper.backend.api.dto.PricePointDto;
+import com.skyblockflipper.backend.model.market.AhItemBucketRollupEntity;
+import com.skyblockflipper.backend.model.market.AhItemSnapshotEntity;
+import com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity;
+import com.skyblockflipper.backend.model.market.BzItemSnapshotEntity;
+import com.skyblockflipper.backend.repository.AhItemBucketRollupRepository;
+import com.skyblockflipper.backend.repository.AhItemSnapshotRepository;
+import com.skyblockflipper.backend.repository.BzItemBucketRollupRepository;
+import com.skyblockflipper.backend.repository.BzItemSnapshotRepository;
+import com.skyblockflipper.backend.service.market.rollup.MarketBucketGranularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceHistoryQueryServiceTest {
+
+    private static final long DAY = 86_400_000L;
+    private static final long END = Instant.parse("2026-03-10T12:00:00Z").toEpochMilli();
+
+    private BzItemSnapshotRepository bzSnapshots;
+    private AhItemSnapshotRepository ahSnapshots;
+    private BzItemBucketRollupRepository bzRollups;
+    private AhItemBucketRollupRepository ahRollups;
+    private AtomicLong clock;
+    private PriceHistoryQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        bzSnapshots = mock(BzItemSnapshotRepository.class);
+        ahSnapshots = mock(AhItemSnapshotRepository.class);
+        bzRollups = mock(BzItemBucketRollupRepository.class);
+        ahRollups = mock(AhItemBucketRollupRepository.class);
+        clock = new AtomicLong(1_000L);
+        service = new PriceHistoryQueryService(bzSnapshots, ahSnapshots, bzRollups, ahRollups,
+                16, Duration.ofSeconds(30), new SimpleMeterRegistry(), clock::get);
+    }
+
+    @Test
+    void rollupGranularityPicksCoarsestDivisor() {
+        assertEquals(MarketBucketGranularity.ONE_MINUTE, PriceHistoryQueryService.rollupGranularity(PriceHistoryRange.H24.bucketSize().toMillis()));
+        assertEquals(MarketBucketGranularity.TWO_HOURS, PriceHistoryQueryService.rollupGranularity(PriceHistoryRange.D7.bucketSize().toMillis()));
+        assertEquals(MarketBucketGranularity.ONE_DAY, PriceHistoryQueryService.rollupGranularity(PriceHistoryRange.D30.bucketSize().toMillis()));
+        assertNull(PriceHistoryQueryService.rollupGranularity(30_000L));
+    }
+
+    @Test
+    void bazaarHistoryCombinesDailyRollupsWithRawTailAndIsCached() {
+        long lastClosedDay = Math.floorDiv(END, DAY) * DAY - DAY;
+        BzItemBucketRollupEntity rollup = new BzItemBucketRollupEntity();
+        rollup.setBucketStartEpochMillis(lastClosedDay);
+        rollup.setBucketEndEpochMillis(lastClosedDay + DAY);
+        rollup.setLastSnapshotTs(lastClosedDay + DAY - 1_000L);
+        rollup.setMedianBuyPrice(10.4D);
+        rollup.setMedianSellPrice(9.6D);
+        rollup.setMedianBuyVolume(500D);
+        when(bzRollups.findByProductIdAndBucketGranularityAndBucketStartEpochMillisBetweenOrderByBucketStartEpochMillisAsc(
+                eq("ENCHANTED_DIAMOND"), eq("1d"), anyLong(), eq(END))).thenReturn(List.of(rollup));
+        when(bzSnapshots.findByProductIdAndSnapshotTsBetweenOrderBySnapshotTsAsc("ENCHANTED_DIAMOND", lastClosedDay + DAY, END))
+                .thenReturn(List.of(
+                        new BzItemSnapshotEntity(END - 60_000L, "ENCHANTED_DIAMOND", 11D, 10D, 300L, 200L),
+                        new BzItemSnapshotEntity(END, "ENCHANTED_DIAMOND", 12D, 11D, 310L, 210L)
+                ));
+
+        List<PricePointDto> first = service.history(" enchanted_diamond ", PriceHistoryRange.D30, Instant.ofEpochMilli(END));
+        List<PricePointDto> second = service.history("ENCHANTED_DIAMOND", PriceHistoryRange.D30, Instant.ofEpochMilli(END));
+
+        assertEquals(2, first.size());
+        assertEquals(new PricePointDto(Instant.ofEpochMilli(lastClosedDay + DAY - 1_000L), 10L, 10L, 500L), first.getFirst());
+        assertEquals(new PricePointDto(Instant.ofEpochMilli(END), 12L, 11L, 310L), first.getLast());
+        assertSame(first, second);
+        verify(bzSnapshots, times(1)).findByProductIdAndSnapshotTsBetweenOrderBySnapshotTsAsc(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void auctionHistoryFoldsVariantsWhenItemIsNotOnBazaar() {
+        long bucketStart = END - 3_600_000L;
+        AhItemBucketRollupEntity rollup = new AhItemBucketRollupEntity();
+        rollup.setItemKey("HYPERION|T:LEGENDARY");
+        rollup.setBucketStartEpochMillis(bucketStart);
+        rollup.setBucketEndEpochMillis(bucketStart + 60_000L);
+        rollup.setMedianBinLowest5Mean(900D);
+        rollup.setMedianBinP50(950D);
+        rollup.setMedianBinCount(4D);
+        when(ahRollups.findByItemKeyGreaterThanEqualAndItemKeyLessThanAndBucketGranularityAndBucketStartEpochMillisBetweenOrderByBucketStartEpochMillisAsc(
+                eq("HYPERION|"), eq("HYPERION}"), eq("1m"), anyLong(), eq(END))).thenReturn(List.of(rollup));
+        when(ahSnapshots.findByItemKeyGreaterThanEqualAndItemKeyLessThanAndSnapshotTsBetweenOrderBySnapshotTsAsc(
+                "HYPERION|", "HYPERION}", bucketStart + 60_000L, END))
+                .thenReturn(List.of(
+                        new AhItemSnapshotEntity(END, "HYPERION|T:LEGENDARY|S:0", 1_000L, 1_050L, 1_200L, 1_500L, 3, null, 0),
+                        new AhItemSnapshotEntity(END, "HYPERION|T:LEGENDARY|S:5", 1_400L, 1_450L, 1_600L, 1_900L, 1, null, 0)
+                ));
+
+        List<PricePointDto> history = service.history("hyperion", PriceHistoryRange.H24, Instant.ofEpochMilli(END));
+
+        assertEquals(2, history.size());
+        assertEquals(new PricePointDto(Instant.ofEpochMilli(bucketStart), 900L, 950L, 4L), history.getFirst());
+        assertEquals(new PricePointDto(Instant.ofEpochMilli(END), 1_000L, 1_300L, 4L), history.getLast());
+    }
+
+    @Test
+    void closedBazaarBucketsReportTheirLatestRawSampleWhileItIsRetained() {
+        long lastClosedDay = Math.floorDiv(END, DAY) * DAY - DAY;
+        long prunedDay = lastClosedDay - DAY;
+        BzItemBucketRollupEntity pruned = bazaarRollup(prunedDay, 20D);
+        BzItemBucketRollupEntity retained = bazaarRollup(lastClosedDay, 30D);
+        when(bzRollups.findByProductIdAndBucketGranularityAndBucketStartEpochMillisBetweenOrderByBucketStartEpochMillisAsc(
+                eq("ENCHANTED_GOLD"), eq("1d"), anyLong(), eq(END))).thenReturn(List.of(pruned, retained));
+        when(bzSnapshots.findBySnapshotTsInAndProductIdInOrderBySnapshotTsAsc(
+                List.of(prunedDay + DAY - 1_000L, lastClosedDay + DAY - 1_000L), List.of("ENCHANTED_GOLD")))
+                .thenReturn(List.of(new BzItemSnapshotEntity(lastClosedDay + DAY - 1_000L, "ENCHANTED_GOLD", 41D, 39D, 77L, 66L)));
+
+        List<PricePointDto> history = service.history("ENCHANTED_GOLD", PriceHistoryRange.D30, Instant.ofEpochMilli(END));
+
+        assertEquals(List.of(
+                new PricePointDto(Instant.ofEpochMilli(prunedDay + DAY - 1_000L), 20L, 20L, 500L),
+                new PricePointDto(Instant.ofEpochMilli(lastClosedDay + DAY - 1_000L), 41L, 39L, 77L)
+        ), history);
+    }
+
+    @Test
+    void auctionHistoryFoldsVariantsOfEveryBaseId() {
+        when(ahSnapshots.findByItemKeyGreaterThanEqualAndItemKeyLessThanAndSnapshotTsBetweenOrderBySnapshotTsAsc(
+                eq("ASPECT_OF_THE_END|"), eq("ASPECT_OF_THE_END}"), anyLong(), eq(END)))
+                .thenReturn(List.of(new AhItemSnapshotEntity(END, "ASPECT_OF_THE_END|T:RARE", 500L, 520L, 600L, 700L, 2, null, 0)));
+        when(ahSnapshots.findByItemKeyGreaterThanEqualAndItemKeyLessThanAndSnapshotTsBetweenOrderBySnapshotTsAsc(
+                eq("AOTE|"), eq("AOTE}"), anyLong(), eq(END)))
+                .thenReturn(List.of(new AhItemSnapshotEntity(END, "AOTE|T:RARE", 450L, 470L, 900L, 950L, 1, null, 0)));
+
+        List<PricePointDto> history = service.history("aote", Set.of("Aspect_of_the_End", " "), PriceHistoryRange.H24,
+                Instant.ofEpochMilli(END));
+
+        assertEquals(List.of(new PricePointDto(Instant.ofEpochMilli(END), 450L, 700L, 3L)), history);
+    }
+
+    @Test
+    void blankItemAndDisabledAggregatesAreReported() {
+        assertTrue(service.history(" ", PriceHistoryRange.D7, Instant.ofEpochMilli(END)).isEmpty());
+        assertTrue(service.history("X", PriceHistoryRange.D7, null).isEmpty());
+        assertTrue(service.isAvailable(true));
+        assertTrue(service.isAvailable(false));
+
+        MarketSnapshotStorageProperties properties = MarketSnapshotStorageProperties.rawOnlyDefaults();
+        service.setSnapshotStorageProperties(properties);
+        assertFalse(service.isAvailable(true));
+        assertFalse(service.isAvailable(false));
+        properties.setPersistAhAggregates(true);
+        assertFalse(service.isAvailable(true));
+        assertTrue(service.isAvailable(false));
+        properties.setPersistBzAggregates(true);
+        properties.setPersistAhAggregates(false);
+        assertTrue(service.isAvailable(true));
+        assertFalse(service.isAvailable(false));
+    }
+
+    private BzItemBucketRollupEntity bazaarRollup(long bucketStart, double medianPrice) {
+        BzItemBucketRollupEntity rollup = new BzItemBucketRollupEntity();
+        rollup.setBucketStartEpochMillis(bucketStart);
+        rollup.setBucketEndEpochMillis(bucketStart + DAY);
+        rollup.setLastSnapshotTs(bucketStart + DAY - 1_000L);
+        rollup.setMedianBuyPrice(medianPrice);
+        rollup.setMedianSellPrice(medianPrice);
+        rollup.setMedianBuyVolume(500D);
+        return rollup;
+    }
+}
@@ -0,0 +1,113 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.NEU.model.Item;
+import com.skyblockflipper.backend.NEU.repository.ItemRepository;
+import com.skyblockflipper.backend.api.dto.MarketplaceType;
+import com.skyblockflipper.backend.api.dto.TrendingItemDto;
+import com.skyblockflipper.backend.model.market.BzItemSnapshotEntity;
+import com.skyblockflipper.backend.repository.BzItemSnapshotRepository;
+import com.skyblockflipper.backend.service.item.ItemMarketplaceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrendingIndexServiceTest {
+
+    private static final long LATEST = 1_800_000_000_000L;
+    private static final long FIRST = LATEST - TrendingIndexService.WINDOW.toMillis() + 60_000L;
+
+    private BzItemSnapshotRepository bzItemSnapshotRepository;
+    private ItemRepository itemRepository;
+    private ItemMarketplaceService itemMarketplaceService;
+    private TrendingIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        bzItemSnapshotRepository = mock(BzItemSnapshotRepository.class);
+        itemRepository = mock(ItemRepository.class);
+        itemMarketplaceService = mock(ItemMarketplaceService.class);
+        service = new TrendingIndexService(bzItemSnapshotRepository, itemRepository, itemMarketplaceService, 2);
+        service.setMeterRegistry(new SimpleMeterRegistry());
+    }
+
+    @Test
+    void refreshRanksFromFirstAndLatestGenerationsAndEnrichesPastTopKOnDemand() {
+        when(bzItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(LATEST);
+        when(bzItemSnapshotRepository.findMinSnapshotTsBetween(LATEST - TrendingIndexService.WINDOW.toMillis(), LATEST))
+                .thenReturn(FIRST);
+        when(bzItemSnapshotRepository.findBySnapshotTsOrderByProductIdAsc(FIRST)).thenReturn(List.of(
+                row(FIRST, "A", 100D, 100L),
+                row(FIRST, "B", 100D, 200L),
+                row(FIRST, "C", 100D, 100L),
+                row(FIRST, "D", 0D, 100L)
+        ));
+        when(bzItemSnapshotRepository.findBySnapshotTsOrderByProductIdAsc(LATEST)).thenReturn(List.of(
+                row(LATEST, "A", 150D, 300L),
+                row(LATEST, "B", 110D, 210L),
+                row(LATEST, "C", 20D, 50L),
+                row(LATEST, "D", 10D, 10L),
+                row(LATEST, "NEW", 10D, 10L)
+        ));
+        when(itemRepository.findAllById(List.of("C", "A"))).thenReturn(List.of(Item.builder().id("A").displayName("Alpha").build()));
+        when(itemRepository.findAllById(List.of("B"))).thenReturn(List.of(Item.builder().id("B").displayName("Bravo").build()));
+        when(itemMarketplaceService.resolveMarketplaces(any())).thenReturn(Map.of("A", MarketplaceType.BOTH));
+
+        List<TrendingItemDto> top = service.top(2).orElseThrow();
+
+        assertEquals(List.of("C", "A"), top.stream().map(TrendingItemDto::itemId).toList());
+        assertEquals(-80.0, top.getFirst().priceChange24h());
+        assertEquals("C", top.getFirst().displayName());
+        assertEquals(MarketplaceType.BAZAAR, top.getFirst().marketplace());
+        assertEquals("Alpha", top.getLast().displayName());
+        assertEquals(MarketplaceType.BOTH, top.getLast().marketplace());
+        assertEquals(200.0, top.getLast().volumeChange24h());
+        assertEquals(List.of("C"), service.top(1).orElseThrow().stream().map(TrendingItemDto::itemId).toList());
+
+        List<TrendingItemDto> beyondTopK = service.top(5).orElseThrow();
+
+        assertEquals(List.of("C", "A", "B"), beyondTopK.stream().map(TrendingItemDto::itemId).toList());
+        assertEquals("Bravo", beyondTopK.getLast().displayName());
+        assertEquals(10.0, beyondTopK.getLast().priceChange24h());
+        verify(bzItemSnapshotRepository, times(1)).findBySnapshotTsOrderByProductIdAsc(LATEST);
+    }
+
+    @Test
+    void refreshIsSkippedWhileLatestGenerationIsUnchanged() {
+        when(bzItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(LATEST);
+        when(bzItemSnapshotRepository.findMinSnapshotTsBetween(anyLong(), anyLong())).thenReturn(LATEST);
+
+        TrendingIndexService.Ranking first = service.refresh();
+        TrendingIndexService.Ranking second = service.refresh();
+
+        assertSame(first, second);
+        assertTrue(service.top(10).orElseThrow().isEmpty());
+        verify(bzItemSnapshotRepository, times(1)).findMinSnapshotTsBetween(anyLong(), anyLong());
+        verify(bzItemSnapshotRepository, never()).findBySnapshotTsOrderByProductIdAsc(anyLong());
+    }
+
+    @Test
+    void emptyTableReportsNoGenerationSoCallersCanFallBack() {
+        when(bzItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(null);
+
+        assertTrue(service.top(3).isEmpty());
+        verify(itemMarketplaceService, never()).resolveMarketplaces(any());
+    }
+
+    private BzItemSnapshotEntity row(long snapshotTs, String productId, double buyPrice, long buyVolume) {
+        return new BzItemSnapshotEntity(snapshotTs, productId, buyPrice, buyPrice - 1D, buyVolume, buyVolume);
+    }
+}
@@ -7,6 +7,7 @@ import com.skyblockflipper.backend.service.market.SnapshotRollupProperties;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -109,6 +110,48 @@ class AhItemBucketAnalyzerTest {
         assertEquals("INVENTORY_COLLAPSE", result.anomalySegments().getFirst().getReasonCode());
     }
 
+    @Test
+    void deriveFromMinuteRollupsMatchesRawAnalysisOfTheSameSamples() {
+        AhItemBucketAnalyzer analyzer = new AhItemBucketAnalyzer(new SnapshotRollupProperties());
+        long bucketStart = Instant.parse("2026-03-14T10:00:00Z").toEpochMilli();
+        long bucketEnd = bucketStart + 7_200_000L;
+        List<AhItemSnapshotEntity> allSamples = new ArrayList<>();
+        List<AhItemBucketRollupEntity> minuteRollups = new ArrayList<>();
+        for (int minute = 0; minute < 3; minute++) {
+            long minuteStart = bucketStart + minute * 60_000L;
+            List<AhItemSnapshotEntity> samples = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                long drift = (minute * 12 + i) % 5 * 10_000L;
+                samples.add(sample(minuteStart + i * 5_000L, 800_000_000L + drift, 801_000_000L + drift,
+                        805_000_000L + drift, 900_000_000L, 40 + i % 3, 780_000_000L, 2));
+            }
+            allSamples.addAll(samples);
+            minuteRollups.add(analyzer.analyze(MarketBucketGranularity.ONE_MINUTE, minuteStart, minuteStart + 60_000L,
+                    "HYPERION", samples).rollup().orElseThrow());
+        }
+
+        AhItemBucketRollupEntity raw = analyzer.analyze(MarketBucketGranularity.TWO_HOURS, bucketStart, bucketEnd,
+                "HYPERION", allSamples).rollup().orElseThrow();
+        AhItemBucketRollupEntity derived = analyzer.derive(MarketBucketGranularity.TWO_HOURS, bucketStart, bucketEnd,
+                "HYPERION", minuteRollups).orElseThrow();
+
+        assertEquals("2h", derived.getBucketGranularity());
+        assertEquals(raw.getValidSampleCount(), derived.getValidSampleCount());
+        assertEquals(raw.isPartial(), derived.isPartial());
+        assertEquals(raw.getMedianBinLowest5Mean(), derived.getMedianBinLowest5Mean());
+        assertEquals(raw.getMedianBinP50(), derived.getMedianBinP50());
+        assertEquals(raw.getMedianBinP95(), derived.getMedianBinP95());
+        assertEquals(raw.getMedianBidP50(), derived.getMedianBidP50());
+        assertEquals(raw.getMedianBinCount(), derived.getMedianBinCount());
+        assertEquals(raw.getMedianEndingSoonCount(), derived.getMedianEndingSoonCount());
+        assertEquals(raw.getP25BinP50(), derived.getP25BinP50());
+        assertEquals(raw.getP75BinP50(), derived.getP75BinP50());
+        assertEquals(raw.getWinsorizedAvgBinP50(), derived.getWinsorizedAvgBinP50());
+        assertEquals(raw.getFirstSnapshotTs(), derived.getFirstSnapshotTs());
+        assertEquals(raw.getLastSnapshotTs(), derived.getLastSnapshotTs());
+        assertTrue(minuteRollups.stream().anyMatch(rollup -> rollup.getRepresentativeSnapshotTs().equals(derived.getRepresentativeSnapshotTs())));
+    }
+
     private AhItemSnapshotEntity sample(long snapshotTs,
                                         long binLowest,
                                         long binLowest5Mean,
@@ -7,11 +7,14 @@ import com.skyblockflipper.backend.service.market.SnapshotRollupProperties;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BzItemBucketAnalyzerTest {
@@ -164,6 +167,86 @@ class BzItemBucketAnalyzerTest {
         assertFalse(result.rollup().orElseThrow().getValidSampleCount() < 4);
     }
 
+    @Test
+    void deriveFromMinuteRollupsMatchesRawAnalysisOfTheSameSamples() {
+        BzItemBucketAnalyzer analyzer = new BzItemBucketAnalyzer(new SnapshotRollupProperties());
+        long bucketStart = Instant.parse("2026-03-14T10:00:00Z").toEpochMilli();
+        long bucketEnd = bucketStart + 7_200_000L;
+        List<BzItemSnapshotEntity> allSamples = new ArrayList<>();
+        List<BzItemBucketRollupEntity> minuteRollups = new ArrayList<>();
+        for (int minute = 0; minute < 4; minute++) {
+            long minuteStart = bucketStart + minute * 60_000L;
+            List<BzItemSnapshotEntity> samples = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                double drift = Math.sin(minute * 12 + i) * 0.05D;
+                samples.add(sample(minuteStart + i * 5_000L, 100.0D + drift, 99.0D + drift, 1_000L + i, 1_010L - i));
+            }
+            allSamples.addAll(samples);
+            minuteRollups.add(analyzer.analyze(MarketBucketGranularity.ONE_MINUTE, minuteStart, minuteStart + 60_000L,
+                    "ENCHANTED_DIAMOND", samples).rollup().orElseThrow());
+        }
+
+        BzItemBucketRollupEntity raw = analyzer.analyze(MarketBucketGranularity.TWO_HOURS, bucketStart, bucketEnd,
+                "ENCHANTED_DIAMOND", allSamples).rollup().orElseThrow();
+        BzItemBucketRollupEntity derived = analyzer.derive(MarketBucketGranularity.TWO_HOURS, bucketStart, bucketEnd,
+                "ENCHANTED_DIAMOND", minuteRollups).orElseThrow();
+
+        assertEquals("2h", derived.getBucketGranularity());
+        assertEquals(raw.getSampleCount(), derived.getSampleCount());
+        assertEquals(raw.getValidSampleCount(), derived.getValidSampleCount());
+        assertEquals(raw.isPartial(), derived.isPartial());
+        assertEquals(raw.getMedianBuyPrice(), derived.getMedianBuyPrice());
+        assertEquals(raw.getMedianSellPrice(), derived.getMedianSellPrice());
+        assertEquals(raw.getMedianMidPrice(), derived.getMedianMidPrice());
+        assertEquals(raw.getMedianSpread(), derived.getMedianSpread());
+        assertEquals(raw.getP10MidPrice(), derived.getP10MidPrice());
+        assertEquals(raw.getP90MidPrice(), derived.getP90MidPrice());
+        assertEquals(raw.getMinMidPrice(), derived.getMinMidPrice());
+        assertEquals(raw.getMaxMidPrice(), derived.getMaxMidPrice());
+        assertEquals(raw.getWinsorizedAvgMidPrice(), derived.getWinsorizedAvgMidPrice());
+        assertEquals(raw.getMedianBuyVolume(), derived.getMedianBuyVolume());
+        assertEquals(raw.getMedianSellVolume(), derived.getMedianSellVolume());
+        assertEquals(raw.getMinLiquidity(), derived.getMinLiquidity());
+        assertEquals(raw.getMaxLiquidity(), derived.getMaxLiquidity());
+        assertEquals(raw.getFirstSnapshotTs(), derived.getFirstSnapshotTs());
+        assertEquals(raw.getLastSnapshotTs(), derived.getLastSnapshotTs());
+        assertNotNull(derived.getRepresentativeSnapshotTs());
+        assertEquals(48L, RollupSketch.fromBytes(derived.getSketch()).digest(2).count());
+    }
+
+    @Test
+    void deriveRejectsRollupsWithoutSketch() {
+        BzItemBucketAnalyzer analyzer = new BzItemBucketAnalyzer(new SnapshotRollupProperties());
+        BzItemBucketRollupEntity legacy = new BzItemBucketRollupEntity();
+        legacy.setValidSampleCount(12);
+
+        assertThrows(IllegalArgumentException.class, () -> analyzer.derive(
+                MarketBucketGranularity.TWO_HOURS, 0L, 7_200_000L, "ENCHANTED_DIAMOND", List.of(legacy)));
+        assertTrue(analyzer.derive(MarketBucketGranularity.TWO_HOURS, 0L, 7_200_000L, "ENCHANTED_DIAMOND", List.of()).isEmpty());
+    }
+
+    @Test
+    void dailyRollupsAreWrittenWithoutSketch() {
+        BzItemBucketAnalyzer analyzer = new BzItemBucketAnalyzer(new SnapshotRollupProperties());
+        long dayStart = Instant.parse("2026-03-14T00:00:00Z").toEpochMilli();
+        List<BzItemSnapshotEntity> samples = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            samples.add(sample(dayStart + i * 5_000L, 100.0D, 99.0D, 1_000L, 1_000L));
+        }
+        BzItemBucketRollupEntity twoHours = analyzer.analyze(MarketBucketGranularity.TWO_HOURS, dayStart,
+                dayStart + 7_200_000L, "ENCHANTED_DIAMOND", samples).rollup().orElseThrow();
+
+        BzItemBucketRollupEntity rawDay = analyzer.analyze(MarketBucketGranularity.ONE_DAY, dayStart,
+                dayStart + 86_400_000L, "ENCHANTED_DIAMOND", samples).rollup().orElseThrow();
+        BzItemBucketRollupEntity derivedDay = analyzer.derive(MarketBucketGranularity.ONE_DAY, dayStart,
+                dayStart + 86_400_000L, "ENCHANTED_DIAMOND", List.of(twoHours)).orElseThrow();
+
+        assertNotNull(twoHours.getSketch());
+        assertNull(rawDay.getSketch());
+        assertNull(derivedDay.getSketch());
+        assertEquals(twoHours.getMedianMidPrice(), derivedDay.getMedianMidPrice());
+    }
+
     private BzItemSnapshotEntity sample(long snapshotTs,
                                         double buyPrice,
                                         double sellPrice,
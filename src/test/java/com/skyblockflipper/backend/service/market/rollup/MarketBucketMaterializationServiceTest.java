@@ -6,29 +6,37 @@ import com.skyblockflipper.backend.repository.AhItemBucketRollupRepository;
 import com.skyblockflipper.backend.repository.AhItemSnapshotRepository;
 import com.skyblockflipper.backend.repository.BzItemAnomalySegmentRepository;
 import com.skyblockflipper.backend.repository.BzItemBucketRollupRepository;
+import com.skyblockflipper.backend.repository.BzItemSnapshotBatchRepository;
 import com.skyblockflipper.backend.repository.BzItemSnapshotRepository;
 import com.skyblockflipper.backend.repository.ItemBucketMaterializationStateRepository;
 import com.skyblockflipper.backend.service.market.SnapshotRollupProperties;
 import com.skyblockflipper.backend.service.market.partitioning.PartitioningProperties;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.SimpleTransactionStatus;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -61,10 +69,9 @@ class MarketBucketMaterializationServiceTest {
                 new com.skyblockflipper.backend.model.market.BzItemSnapshotEntity(bucketStart + 10_000L, "ENCHANTED_DIAMOND", 100.2D, 99.2D, 1_005L, 1_020L)
         );
         doAnswer(invocation -> {
-            @SuppressWarnings("unchecked")
-            Consumer<com.skyblockflipper.backend.model.market.BzItemSnapshotEntity> consumer =
-                    (Consumer<com.skyblockflipper.backend.model.market.BzItemSnapshotEntity>) invocation.getArgument(3);
-            rows.forEach(consumer);
+            BzItemSnapshotBatchRepository.RowHandler handler = invocation.getArgument(3);
+            rows.forEach(row -> handler.accept(row.getProductId(), row.getSnapshotTs(), row.getBuyPrice(),
+                    row.getSellPrice(), row.getBuyVolume(), row.getSellVolume()));
             return null;
         }).when(bzItemSnapshotRepository).scanBucketRows(eq(bucketStart), eq(bucketEnd), anyInt(), any());
         when(ahItemSnapshotRepository.findMinSnapshotTs()).thenReturn(null);
@@ -91,12 +98,15 @@ class MarketBucketMaterializationServiceTest {
                 service.materializeDueBuckets(Instant.parse("2026-03-14T00:02:00Z"));
 
         assertEquals(1, report.processedBuckets());
-        verify(bzItemBucketRollupRepository).saveAll(any());
-        verify(bzItemAnomalySegmentRepository, never()).saveAll(any());
+        InOrder writes = inOrder(bzItemAnomalySegmentRepository, bzItemBucketRollupRepository, materializationStateRepository);
+        writes.verify(bzItemAnomalySegmentRepository).deleteBucket("1m", bucketStart);
+        writes.verify(bzItemBucketRollupRepository).deleteBucket("1m", bucketStart);
+        writes.verify(bzItemBucketRollupRepository).insertBatch(any());
+        verify(bzItemAnomalySegmentRepository, never()).insertBatch(any());
 
         ArgumentCaptor<ItemBucketMaterializationStateEntity> stateCaptor =
                 ArgumentCaptor.forClass(ItemBucketMaterializationStateEntity.class);
-        verify(materializationStateRepository).save(stateCaptor.capture());
+        writes.verify(materializationStateRepository).save(stateCaptor.capture());
         ItemBucketMaterializationStateEntity state = stateCaptor.getValue();
         assertEquals("BZ", state.getMarketType());
         assertEquals("1m", state.getBucketGranularity());
@@ -104,6 +114,270 @@ class MarketBucketMaterializationServiceTest {
         assertEquals("bz_item_snapshot_2026_03_14", state.getSourcePartition());
     }
 
+    @Test
+    void materializeDueBucketsRunsBucketsConcurrentlyAfterCheckpointingThemAsPending() {
+        SnapshotRollupProperties properties = new SnapshotRollupProperties();
+        properties.setMaxBucketsPerRun(3);
+        properties.setMaterializationConcurrency(3);
+        properties.setAnalysisParallelism(2);
+        PartitioningProperties partitioningProperties = new PartitioningProperties();
+        partitioningProperties.setBzSnapshotParentTable("bz_item_snapshot");
+
+        BzItemSnapshotRepository bzItemSnapshotRepository = mock(BzItemSnapshotRepository.class);
+        AhItemSnapshotRepository ahItemSnapshotRepository = mock(AhItemSnapshotRepository.class);
+        BzItemBucketRollupRepository bzItemBucketRollupRepository = mock(BzItemBucketRollupRepository.class);
+        ItemBucketMaterializationStateRepository materializationStateRepository = mock(ItemBucketMaterializationStateRepository.class);
+
+        long firstBucketStart = Instant.parse("2026-03-14T00:00:00Z").toEpochMilli();
+        when(bzItemSnapshotRepository.findMinSnapshotTs()).thenReturn(firstBucketStart);
+        when(bzItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(firstBucketStart + 3 * 60_000L - 1L);
+        when(ahItemSnapshotRepository.findMinSnapshotTs()).thenReturn(null);
+        when(ahItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(null);
+        List<Long> scannedBucketStarts = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            long bucketStart = invocation.getArgument(0);
+            scannedBucketStarts.add(bucketStart);
+            BzItemSnapshotBatchRepository.RowHandler handler = invocation.getArgument(3);
+            for (String productId : List.of("ENCHANTED_DIAMOND", "ENCHANTED_GOLD")) {
+                for (int i = 0; i < 3; i++) {
+                    handler.accept(productId, bucketStart + i * 5_000L, 100.0D + i, 99.0D + i, 1_000L, 1_000L);
+                }
+            }
+            return null;
+        }).when(bzItemSnapshotRepository).scanBucketRows(any(Long.class), any(Long.class), anyInt(), any());
+
+        MarketBucketMaterializationService service = newService(
+                properties, partitioningProperties, bzItemSnapshotRepository, ahItemSnapshotRepository,
+                bzItemBucketRollupRepository, materializationStateRepository
+        );
+        try {
+            MarketBucketMaterializationService.BucketMaterializationReport report =
+                    service.materializeDueBuckets(Instant.parse("2026-03-14T00:05:00Z"));
+
+            assertEquals(3, report.processedBuckets());
+            assertEquals(0, report.failedBuckets());
+            assertEquals(3, report.processedByScope().get("BZ:1m"));
+            assertEquals(0, report.processedByScope().get("AH:1m"));
+            assertEquals(3, scannedBucketStarts.size());
+            assertTrue(scannedBucketStarts.containsAll(List.of(
+                    firstBucketStart, firstBucketStart + 60_000L, firstBucketStart + 120_000L)));
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity>> rollupCaptor =
+                    ArgumentCaptor.forClass(List.class);
+            verify(bzItemBucketRollupRepository, times(3)).insertBatch(rollupCaptor.capture());
+            for (List<com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity> rollups : rollupCaptor.getAllValues()) {
+                List<String> productIds = new ArrayList<>();
+                rollups.forEach(rollup -> productIds.add(rollup.getProductId()));
+                assertEquals(List.of("ENCHANTED_DIAMOND", "ENCHANTED_GOLD"), productIds);
+            }
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Iterable<ItemBucketMaterializationStateEntity>> pendingCaptor =
+                    ArgumentCaptor.forClass(Iterable.class);
+            verify(materializationStateRepository).saveAll(pendingCaptor.capture());
+            List<ItemBucketMaterializationStateEntity> pending = new ArrayList<>();
+            pendingCaptor.getValue().forEach(pending::add);
+            assertEquals(3, pending.size());
+            assertTrue(pending.stream().noneMatch(state -> state.isFinalized() || state.isFailed()));
+            verify(materializationStateRepository, times(3)).save(any(ItemBucketMaterializationStateEntity.class));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void materializeDueBucketsResumesAtEarliestPendingBucket() {
+        SnapshotRollupProperties properties = new SnapshotRollupProperties();
+        properties.setMaxBucketsPerRun(1);
+        properties.setMaterializationConcurrency(1);
+        properties.setAnalysisParallelism(1);
+        PartitioningProperties partitioningProperties = new PartitioningProperties();
+        partitioningProperties.setBzSnapshotParentTable("bz_item_snapshot");
+
+        BzItemSnapshotRepository bzItemSnapshotRepository = mock(BzItemSnapshotRepository.class);
+        ItemBucketMaterializationStateRepository materializationStateRepository = mock(ItemBucketMaterializationStateRepository.class);
+        long firstBucketStart = Instant.parse("2026-03-14T00:00:00Z").toEpochMilli();
+        when(bzItemSnapshotRepository.findMinSnapshotTs()).thenReturn(firstBucketStart);
+        when(bzItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(firstBucketStart + 10 * 60_000L);
+        ItemBucketMaterializationStateEntity latestFinalized = new ItemBucketMaterializationStateEntity();
+        latestFinalized.setBucketStartEpochMillis(firstBucketStart + 120_000L);
+        ItemBucketMaterializationStateEntity earliestPending = new ItemBucketMaterializationStateEntity();
+        earliestPending.setBucketStartEpochMillis(firstBucketStart + 60_000L);
+        when(materializationStateRepository.findTopByMarketTypeAndBucketGranularityAndFinalizedTrueOrderByBucketStartEpochMillisDesc("BZ", "1m"))
+                .thenReturn(latestFinalized);
+        when(materializationStateRepository.findTopByMarketTypeAndBucketGranularityAndFinalizedFalseAndFailedFalseOrderByBucketStartEpochMillisAsc("BZ", "1m"))
+                .thenReturn(earliestPending);
+
+        AhItemSnapshotRepository ahItemSnapshotRepository = mock(AhItemSnapshotRepository.class);
+        when(ahItemSnapshotRepository.findMinSnapshotTs()).thenReturn(null);
+        when(ahItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(null);
+
+        MarketBucketMaterializationService service = newService(
+                properties, partitioningProperties, bzItemSnapshotRepository, ahItemSnapshotRepository,
+                mock(BzItemBucketRollupRepository.class), materializationStateRepository
+        );
+
+        MarketBucketMaterializationService.BucketMaterializationReport report =
+                service.materializeDueBuckets(Instant.parse("2026-03-14T00:20:00Z"));
+
+        assertEquals(1, report.processedByScope().get("BZ:1m"));
+        verify(bzItemSnapshotRepository).scanBucketRows(eq(firstBucketStart + 60_000L), eq(firstBucketStart + 120_000L), anyInt(), any());
+    }
+
+    @Test
+    void materializeDueBucketsStreamsRollupsInBoundedBatches() {
+        SnapshotRollupProperties properties = new SnapshotRollupProperties();
+        properties.setMaxBucketsPerRun(1);
+        properties.setMaterializationConcurrency(1);
+        properties.setAnalysisParallelism(2);
+        PartitioningProperties partitioningProperties = new PartitioningProperties();
+        partitioningProperties.setBzSnapshotParentTable("bz_item_snapshot");
+
+        BzItemSnapshotRepository bzItemSnapshotRepository = mock(BzItemSnapshotRepository.class);
+        BzItemBucketRollupRepository bzItemBucketRollupRepository = mock(BzItemBucketRollupRepository.class);
+        ItemBucketMaterializationStateRepository materializationStateRepository = mock(ItemBucketMaterializationStateRepository.class);
+        AhItemSnapshotRepository ahItemSnapshotRepository = mock(AhItemSnapshotRepository.class);
+        when(ahItemSnapshotRepository.findMinSnapshotTs()).thenReturn(null);
+        when(ahItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(null);
+        long bucketStart = Instant.parse("2026-03-14T00:00:00Z").toEpochMilli();
+        when(bzItemSnapshotRepository.findMinSnapshotTs()).thenReturn(bucketStart);
+        when(bzItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(bucketStart + 59_999L);
+        int productCount = 1_201;
+        doAnswer(invocation -> {
+            BzItemSnapshotBatchRepository.RowHandler handler = invocation.getArgument(3);
+            for (int product = 0; product < productCount; product++) {
+                String productId = String.format("PRODUCT_%04d", product);
+                for (int i = 0; i < 12; i++) {
+                    handler.accept(productId, bucketStart + i * 5_000L, 100.0D, 99.0D, 1_000L, 1_000L);
+                }
+            }
+            return null;
+        }).when(bzItemSnapshotRepository).scanBucketRows(anyLong(), anyLong(), anyInt(), any());
+        List<Integer> batchSizes = new ArrayList<>();
+        List<String> writtenProductIds = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            batch.forEach(rollup -> writtenProductIds.add(rollup.getProductId()));
+            return new int[batch.size()];
+        }).when(bzItemBucketRollupRepository).insertBatch(any());
+
+        MarketBucketMaterializationService service = newService(
+                properties, partitioningProperties, bzItemSnapshotRepository, ahItemSnapshotRepository,
+                bzItemBucketRollupRepository, materializationStateRepository
+        );
+        try {
+            service.materializeDueBuckets(Instant.parse("2026-03-14T00:02:00Z"));
+        } finally {
+            service.shutdown();
+        }
+
+        assertEquals(List.of(500, 500, 201), batchSizes);
+        assertEquals(productCount, writtenProductIds.size());
+        assertEquals("PRODUCT_0000", writtenProductIds.getFirst());
+        assertEquals("PRODUCT_1200", writtenProductIds.getLast());
+        ArgumentCaptor<ItemBucketMaterializationStateEntity> stateCaptor =
+                ArgumentCaptor.forClass(ItemBucketMaterializationStateEntity.class);
+        verify(materializationStateRepository).save(stateCaptor.capture());
+        assertEquals(productCount * 12L, stateCaptor.getValue().getRawRowCount());
+        assertEquals(productCount, stateCaptor.getValue().getRollupRowCount());
+    }
+
+    @Test
+    void materializeDueBucketsDerivesTwoHourBucketFromMinuteRollups() {
+        BzItemSnapshotRepository bzItemSnapshotRepository = mock(BzItemSnapshotRepository.class);
+        BzItemBucketRollupRepository bzItemBucketRollupRepository = mock(BzItemBucketRollupRepository.class);
+
+        materializeTwoHourBucketAfterMinutes(bzItemSnapshotRepository, bzItemBucketRollupRepository, true);
+
+        verify(bzItemSnapshotRepository, never()).scanBucketRows(anyLong(), anyLong(), anyInt(), any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity>> rollupCaptor =
+                ArgumentCaptor.forClass(List.class);
+        verify(bzItemBucketRollupRepository).insertBatch(rollupCaptor.capture());
+        com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity rollup = rollupCaptor.getValue().getFirst();
+        assertEquals("2h", rollup.getBucketGranularity());
+        assertEquals(24, rollup.getValidSampleCount());
+        assertNotNull(rollup.getSketch());
+        verify(bzItemBucketRollupRepository).clearSketches("1m", rollup.getBucketStartEpochMillis(), rollup.getBucketEndEpochMillis());
+    }
+
+    @Test
+    void materializeDueBucketsFallsBackToRawRowsWhenMinuteRollupsLackSketches() {
+        BzItemSnapshotRepository bzItemSnapshotRepository = mock(BzItemSnapshotRepository.class);
+        BzItemBucketRollupRepository bzItemBucketRollupRepository = mock(BzItemBucketRollupRepository.class);
+
+        long bucketStart = materializeTwoHourBucketAfterMinutes(bzItemSnapshotRepository, bzItemBucketRollupRepository, false);
+
+        verify(bzItemSnapshotRepository).scanBucketRows(eq(bucketStart), eq(bucketStart + 7_200_000L), anyInt(), any());
+        verify(bzItemBucketRollupRepository).clearSketches("1m", bucketStart, bucketStart + 7_200_000L);
+    }
+
+    private long materializeTwoHourBucketAfterMinutes(BzItemSnapshotRepository bzItemSnapshotRepository,
+                                                      BzItemBucketRollupRepository bzItemBucketRollupRepository,
+                                                      boolean withSketches) {
+        SnapshotRollupProperties properties = new SnapshotRollupProperties();
+        properties.setMaterializationConcurrency(1);
+        properties.setAnalysisParallelism(1);
+        PartitioningProperties partitioningProperties = new PartitioningProperties();
+        partitioningProperties.setBzSnapshotParentTable("bz_item_snapshot");
+        AhItemSnapshotRepository ahItemSnapshotRepository = mock(AhItemSnapshotRepository.class);
+        when(ahItemSnapshotRepository.findMinSnapshotTs()).thenReturn(null);
+        when(ahItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(null);
+        ItemBucketMaterializationStateRepository materializationStateRepository = mock(ItemBucketMaterializationStateRepository.class);
+
+        long bucketStart = Instant.parse("2026-03-14T00:00:00Z").toEpochMilli();
+        long bucketEnd = bucketStart + 7_200_000L;
+        when(bzItemSnapshotRepository.findMinSnapshotTs()).thenReturn(bucketStart);
+        when(bzItemSnapshotRepository.findMaxSnapshotTs()).thenReturn(bucketEnd - 1L);
+        ItemBucketMaterializationStateEntity lastMinute = new ItemBucketMaterializationStateEntity();
+        lastMinute.setBucketStartEpochMillis(bucketEnd - 60_000L);
+        when(materializationStateRepository.findTopByMarketTypeAndBucketGranularityAndFinalizedTrueOrderByBucketStartEpochMillisDesc("BZ", "1m"))
+                .thenReturn(lastMinute);
+        when(materializationStateRepository.countByMarketTypeAndBucketGranularityAndFinalizedTrueAndBucketStartEpochMillisGreaterThanEqualAndBucketStartEpochMillisLessThan(
+                "BZ", "1m", bucketStart, bucketEnd)).thenReturn(120L);
+
+        BzItemBucketAnalyzer analyzer = new BzItemBucketAnalyzer(properties);
+        List<com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity> children = new ArrayList<>();
+        for (int minute = 0; minute < 2; minute++) {
+            long minuteStart = bucketStart + minute * 60_000L;
+            List<com.skyblockflipper.backend.model.market.BzItemSnapshotEntity> rows = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                rows.add(new com.skyblockflipper.backend.model.market.BzItemSnapshotEntity(
+                        minuteStart + i * 5_000L, "ENCHANTED_DIAMOND", 100.0D, 99.0D, 1_000L, 1_000L));
+            }
+            com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity child = analyzer.analyze(
+                    MarketBucketGranularity.ONE_MINUTE, minuteStart, minuteStart + 60_000L, "ENCHANTED_DIAMOND", rows
+            ).rollup().orElseThrow();
+            if (!withSketches) {
+                child.setSketch(null);
+            }
+            children.add(child);
+        }
+        when(bzItemBucketRollupRepository.countBucketRollupsWithoutSketch("1m", bucketStart, bucketEnd))
+                .thenReturn(children.stream().filter(child -> child.getSketch() == null).count());
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            Consumer<com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity> consumer =
+                    (Consumer<com.skyblockflipper.backend.model.market.BzItemBucketRollupEntity>) invocation.getArgument(4);
+            children.forEach(consumer);
+            return null;
+        }).when(bzItemBucketRollupRepository).scanBucketRollups(eq("1m"), eq(bucketStart), eq(bucketEnd), anyInt(), any());
+
+        MarketBucketMaterializationService service = newService(
+                properties, partitioningProperties, bzItemSnapshotRepository, ahItemSnapshotRepository,
+                bzItemBucketRollupRepository, materializationStateRepository
+        );
+        MarketBucketMaterializationService.BucketMaterializationReport report =
+                service.materializeDueBuckets(Instant.parse("2026-03-14T02:05:00Z"));
+
+        assertEquals(1, report.processedByScope().get("BZ:2h"));
+        assertEquals(0, report.processedByScope().get("BZ:1m"));
+        assertEquals(0, report.processedByScope().get("BZ:1d"));
+        return bucketStart;
+    }
+
     @Test
     void isAggregatePartitionMaterializedRequiresAllGranularities() {
         SnapshotRollupProperties properties = new SnapshotRollupProperties();
@@ -160,6 +434,28 @@ class MarketBucketMaterializationServiceTest {
         );
     }
 
+    private MarketBucketMaterializationService newService(SnapshotRollupProperties properties,
+                                                          PartitioningProperties partitioningProperties,
+                                                          BzItemSnapshotRepository bzItemSnapshotRepository,
+                                                          AhItemSnapshotRepository ahItemSnapshotRepository,
+                                                          BzItemBucketRollupRepository bzItemBucketRollupRepository,
+                                                          ItemBucketMaterializationStateRepository materializationStateRepository) {
+        return new MarketBucketMaterializationService(
+                properties,
+                partitioningProperties,
+                bzItemSnapshotRepository,
+                ahItemSnapshotRepository,
+                bzItemBucketRollupRepository,
+                mock(BzItemAnomalySegmentRepository.class),
+                mock(AhItemBucketRollupRepository.class),
+                mock(AhItemAnomalySegmentRepository.class),
+                materializationStateRepository,
+                new BzItemBucketAnalyzer(properties),
+                new AhItemBucketAnalyzer(properties),
+                transactionManager()
+        );
+    }
+
     private PlatformTransactionManager transactionManager() {
         PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
         when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
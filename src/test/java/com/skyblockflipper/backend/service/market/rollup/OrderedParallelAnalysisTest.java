@@ -0,0 +1,68 @@
+package com.skyblockflipper.backend.service.market.rollup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderedParallelAnalysisTest {
+
+    @Test
+    void sinkReceivesResultsInSubmissionOrder() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Integer> results = new ArrayList<>();
+            OrderedParallelAnalysis<Integer> analysis = new OrderedParallelAnalysis<>(executor, 3, results::add);
+            for (int i = 0; i < 20; i++) {
+                int value = i;
+                analysis.submit(() -> {
+                    // Earlier submissions finish last.
+                    LockSupport.parkNanos((20 - value) * 100_000L);
+                    return value;
+                });
+                assertTrue(i + 1 - results.size() <= 3, "in flight after " + i + ": " + (i + 1 - results.size()));
+            }
+            analysis.finish();
+            assertEquals(20, results.size());
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, results.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void runsInlineWithoutExecutor() {
+        List<String> results = new ArrayList<>();
+        OrderedParallelAnalysis<String> analysis = new OrderedParallelAnalysis<>(null, 8, results::add);
+        analysis.submit(() -> Thread.currentThread().getName());
+        assertEquals(List.of(Thread.currentThread().getName()), results);
+        analysis.finish();
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    void rethrowsFirstFailure() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            OrderedParallelAnalysis<Integer> analysis = new OrderedParallelAnalysis<>(executor, 2, result -> {
+            });
+            analysis.submit(() -> 1);
+            analysis.submit(() -> {
+                throw new IllegalStateException("boom");
+            });
+            IllegalStateException failure = assertThrows(IllegalStateException.class, analysis::finish);
+            assertEquals("boom", failure.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
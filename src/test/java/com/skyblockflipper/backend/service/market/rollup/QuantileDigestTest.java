@@ -0,0 +1,112 @@
+package com.skyblockflipper.backend.service.market.rollup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileDigestTest {
+
+    private static final double[] PERCENTILES = {0.0D, 0.01D, 0.10D, 0.25D, 0.5D, 0.75D, 0.90D, 0.99D, 1.0D};
+
+    @Test
+    void uncompressedDigestMatchesRobustStatisticsExactly() {
+        SplittableRandom random = new SplittableRandom(7L);
+        double[] values = new double[61];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000D + random.nextDouble() * 50D;
+        }
+        values[3] = Double.NaN;
+
+        QuantileDigest digest = QuantileDigest.of(values);
+        RobustStatistics.Series series = RobustStatistics.sorted(values);
+
+        assertEquals(60L, digest.count());
+        assertEquals(60, digest.centroidCount());
+        for (double percentile : PERCENTILES) {
+            assertEquals(series.percentile(percentile), digest.quantile(percentile));
+        }
+        assertEquals(series.median(), digest.median());
+        assertEquals(series.min(), digest.min());
+        assertEquals(series.max(), digest.max());
+        assertEquals(series.winsorizedMean(0.10D, 0.90D), digest.winsorizedMean(0.10D, 0.90D));
+    }
+
+    @Test
+    void mergingMinuteDigestsIntoADayKeepsRankErrorSmall() {
+        SplittableRandom random = new SplittableRandom(42L);
+        double[] all = new double[17_280];
+        List<QuantileDigest> twoHourDigests = new ArrayList<>();
+        double price = 1_000_000D;
+        int next = 0;
+        for (int twoHours = 0; twoHours < 12; twoHours++) {
+            List<QuantileDigest> minuteDigests = new ArrayList<>();
+            for (int minute = 0; minute < 120; minute++) {
+                double[] samples = new double[12];
+                for (int i = 0; i < samples.length; i++) {
+                    price = Math.max(1D, price * (1D + (random.nextDouble() - 0.5D) * 0.004D));
+                    samples[i] = price;
+                    all[next++] = price;
+                }
+                minuteDigests.add(QuantileDigest.of(samples));
+            }
+            twoHourDigests.add(QuantileDigest.merge(minuteDigests));
+        }
+        QuantileDigest day = QuantileDigest.merge(twoHourDigests);
+        Arrays.sort(all);
+
+        assertEquals(all.length, day.count());
+        assertEquals(all[0], day.min());
+        assertEquals(all[all.length - 1], day.max());
+        assertTrue(day.centroidCount() <= QuantileDigest.DEFAULT_COMPRESSION, "centroids: " + day.centroidCount());
+        for (double percentile : PERCENTILES) {
+            double estimate = day.quantile(percentile);
+            int rank = Arrays.binarySearch(all, estimate);
+            double rankPosition = (rank >= 0 ? rank : -rank - 1) / (double) (all.length - 1);
+            assertTrue(Math.abs(rankPosition - percentile) <= 0.01D,
+                    "p" + percentile + " estimated at rank " + rankPosition);
+        }
+    }
+
+    @Test
+    void emptyDigestsAnswerNull() {
+        QuantileDigest empty = QuantileDigest.of(new double[]{Double.NaN});
+
+        assertEquals(0L, empty.count());
+        assertNull(empty.median());
+        assertNull(empty.min());
+        assertNull(empty.winsorizedMean(0.10D, 0.90D));
+        assertEquals(5.0D, QuantileDigest.merge(List.of(empty, QuantileDigest.of(new double[]{5.0D}))).median());
+        assertEquals(0L, QuantileDigest.merge(List.of()).count());
+    }
+
+    @Test
+    void sketchRoundTripsThroughBytes() {
+        RollupSketch sketch = RollupSketch.of(
+                QuantileDigest.of(new double[]{1.0D, 2.0D, 3.0D}),
+                QuantileDigest.empty(),
+                QuantileDigest.of(new double[]{10.0D, 30.0D})
+        );
+
+        RollupSketch decoded = RollupSketch.fromBytes(sketch.toBytes());
+
+        assertEquals(3, decoded.metricCount());
+        assertEquals(2.0D, decoded.digest(0).median());
+        assertEquals(0L, decoded.digest(1).count());
+        assertEquals(20.0D, decoded.digest(2).median());
+        RollupSketch merged = RollupSketch.merge(List.of(sketch, decoded));
+        assertEquals(6L, merged.digest(0).count());
+        assertNull(RollupSketch.fromBytes(null));
+        assertThrows(IllegalArgumentException.class, () -> RollupSketch.fromBytes(new byte[]{9, 0}));
+        assertThrows(IllegalArgumentException.class, () -> RollupSketch.fromBytes(new byte[]{1, 1, 2}));
+        assertThrows(IllegalArgumentException.class,
+                () -> RollupSketch.merge(List.of(sketch, RollupSketch.of(QuantileDigest.empty()))));
+    }
+}
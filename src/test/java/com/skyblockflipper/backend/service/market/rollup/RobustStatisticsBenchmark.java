@@ -0,0 +1,131 @@
+package com.skyblockflipper.backend.service.market.rollup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The statistics one bucket analysis reads from a single metric series (median, four percentiles, min, max,
+ * winsorized mean and a median/MAD pair), at the sample counts of 1m, 2h and 1d buckets with a 5s cadence.
+ * {@code boxedSortPerCall} reproduces the former approach of copying into a boxed list and sorting for every
+ * statistic. Run with {@code scripts/run_jmh.sh RobustStatisticsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RobustStatisticsBenchmark {
+
+    @Param({"12", "1440", "17280"})
+    public int sampleCount;
+
+    private double[] values;
+    private List<Double> boxedValues;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        values = new double[sampleCount];
+        boxedValues = new ArrayList<>(sampleCount);
+        double price = 1_000_000D;
+        for (int i = 0; i < sampleCount; i++) {
+            price = Math.max(1D, price * (1D + (random.nextDouble() - 0.5D) * 0.002D));
+            values[i] = price;
+            boxedValues.add(price);
+        }
+    }
+
+    @Benchmark
+    public void primitiveSelection(Blackhole blackhole) {
+        RobustStatistics.Series series = RobustStatistics.sorted(values);
+        blackhole.consume(series.median());
+        blackhole.consume(series.percentile(0.10D));
+        blackhole.consume(series.percentile(0.25D));
+        blackhole.consume(series.percentile(0.75D));
+        blackhole.consume(series.percentile(0.90D));
+        blackhole.consume(series.min());
+        blackhole.consume(series.max());
+        blackhole.consume(series.winsorizedMean(0.10D, 0.90D));
+        blackhole.consume(RobustStatistics.medianAndMad(values));
+    }
+
+    @Benchmark
+    public Double primitiveMedian() {
+        return RobustStatistics.median(values);
+    }
+
+    @Benchmark
+    public void boxedSortPerCall(Blackhole blackhole) {
+        blackhole.consume(boxedPercentile(boxedValues, 0.5D));
+        blackhole.consume(boxedPercentile(boxedValues, 0.10D));
+        blackhole.consume(boxedPercentile(boxedValues, 0.25D));
+        blackhole.consume(boxedPercentile(boxedValues, 0.75D));
+        blackhole.consume(boxedPercentile(boxedValues, 0.90D));
+        blackhole.consume(boxedSorted(boxedValues).getFirst());
+        blackhole.consume(boxedSorted(boxedValues).getLast());
+        blackhole.consume(boxedWinsorizedMean(boxedValues));
+        double median = boxedPercentile(boxedValues, 0.5D);
+        List<Double> deviations = new ArrayList<>(boxedValues.size());
+        for (Double value : boxedValues) {
+            deviations.add(Math.abs(value - median));
+        }
+        blackhole.consume(median);
+        blackhole.consume(boxedPercentile(deviations, 0.5D));
+    }
+
+    @Benchmark
+    public double boxedMedian() {
+        return boxedPercentile(boxedValues, 0.5D);
+    }
+
+    private static double boxedWinsorizedMean(List<Double> values) {
+        List<Double> sorted = boxedSorted(values);
+        double lower = boxedPercentile(sorted, 0.10D);
+        double upper = boxedPercentile(sorted, 0.90D);
+        double sum = 0.0D;
+        for (Double value : sorted) {
+            sum += Math.min(upper, Math.max(lower, value));
+        }
+        return sum / sorted.size();
+    }
+
+    private static double boxedPercentile(List<Double> values, double percentile) {
+        List<Double> sorted = boxedSorted(values);
+        if (sorted.size() == 1) {
+            return sorted.getFirst();
+        }
+        double index = percentile * (sorted.size() - 1);
+        int lower = (int) Math.floor(index);
+        int upper = (int) Math.ceil(index);
+        double weight = index - lower;
+        return (sorted.get(lower) * (1.0D - weight)) + (sorted.get(upper) * weight);
+    }
+
+    private static List<Double> boxedSorted(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values.size());
+        for (Double value : values) {
+            if (value != null && Double.isFinite(value)) {
+                sorted.add(value);
+            }
+        }
+        Collections.sort(sorted);
+        return sorted;
+    }
+}
@@ -2,8 +2,12 @@ package com.skyblockflipper.backend.service.market.rollup;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
@@ -38,4 +42,87 @@ class RobustStatisticsTest {
         assertNull(RobustStatistics.mad(List.of()));
         assertNull(RobustStatistics.winsorizedMean(List.of(), 0.10D, 0.90D));
     }
+
+    @Test
+    void selectionMatchesSortedReferenceForRandomAndDuplicateHeavySeries() {
+        SplittableRandom random = new SplittableRandom(7L);
+        for (int size : new int[]{1, 2, 3, 15, 16, 17, 64, 1_440, 17_280}) {
+            for (int duplicates : new int[]{0, 3}) {
+                double[] values = new double[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = duplicates == 0 ? random.nextDouble() * 1_000D : random.nextInt(duplicates);
+                }
+                double[] sorted = values.clone();
+                Arrays.sort(sorted);
+                double[] original = values.clone();
+
+                assertEquals(referencePercentile(sorted, 0.5D), RobustStatistics.median(values), 1e-12);
+                for (double percentile : new double[]{0.0D, 0.10D, 0.25D, 0.75D, 0.90D, 1.0D}) {
+                    assertEquals(referencePercentile(sorted, percentile), RobustStatistics.percentile(values, percentile), 1e-12);
+                    assertEquals(referencePercentile(sorted, percentile), RobustStatistics.sorted(values).percentile(percentile), 1e-12);
+                }
+                assertEquals(sorted[0], RobustStatistics.min(values));
+                assertEquals(sorted[size - 1], RobustStatistics.max(values));
+                assertEquals(referenceMad(values), RobustStatistics.mad(values), 1e-12);
+                assertArrayEquals(original, values);
+            }
+        }
+    }
+
+    @Test
+    void primitiveOverloadsIgnoreNonFiniteValues() {
+        double[] values = {Double.NaN, 4.0D, Double.POSITIVE_INFINITY, 1.0D, 3.0D, Double.NEGATIVE_INFINITY};
+
+        assertEquals(3.0D, RobustStatistics.median(values));
+        assertEquals(1.0D, RobustStatistics.min(values));
+        assertEquals(4.0D, RobustStatistics.max(values));
+        assertEquals(3, RobustStatistics.sorted(values).size());
+        assertNull(RobustStatistics.median(new double[]{Double.NaN}));
+        assertNull(RobustStatistics.medianAndMad(null));
+        assertNull(RobustStatistics.min(new double[0]));
+        assertNull(RobustStatistics.sorted(null).median());
+    }
+
+    @Test
+    void medianAndMadSharesOneScratchCopy() {
+        RobustStatistics.MedianAndMad medianAndMad = RobustStatistics.medianAndMad(new double[]{10.0D, 11.0D, 12.0D, 20.0D});
+
+        assertEquals(11.5D, medianAndMad.median(), 1e-9);
+        assertEquals(1.0D, medianAndMad.mad(), 1e-9);
+    }
+
+    @Test
+    void seriesAnswersSeveralQuantilesFromOneSort() {
+        RobustStatistics.Series series = RobustStatistics.sorted(new double[]{100.0D, 3.0D, 1.0D, 2.0D});
+
+        assertEquals(2.5D, series.median(), 1e-9);
+        assertEquals(1.75D, series.percentile(0.25D), 1e-9);
+        assertEquals(1.0D, series.min());
+        assertEquals(100.0D, series.max());
+        assertEquals(8.5D, series.winsorizedMean(0.25D, 0.75D), 1e-9);
+    }
+
+    private static double referencePercentile(double[] sorted, double percentile) {
+        if (sorted.length == 1) {
+            return sorted[0];
+        }
+        double index = percentile * (sorted.length - 1);
+        int lower = (int) Math.floor(index);
+        int upper = (int) Math.ceil(index);
+        double weight = index - lower;
+        return lower == upper ? sorted[lower] : (sorted[lower] * (1.0D - weight)) + (sorted[upper] * weight);
+    }
+
+    private static double referenceMad(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double median = referencePercentile(sorted, 0.5D);
+        List<Double> deviations = new ArrayList<>();
+        for (double value : values) {
+            deviations.add(Math.abs(value - median));
+        }
+        deviations.sort(Double::compare);
+        double[] sortedDeviations = deviations.stream().mapToDouble(Double::doubleValue).toArray();
+        return referencePercentile(sortedDeviations, 0.5D);
+    }
 }